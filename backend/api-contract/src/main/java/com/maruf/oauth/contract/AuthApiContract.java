@@ -0,0 +1,323 @@
+package com.maruf.oauth.contract;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseCookie;
+import org.springframework.test.web.reactive.server.ExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * HTTP behaviour both editions of the backend must share, written against {@link WebTestClient} so the servlet
+ * edition runs it through MockMvc and the reactive edition through WebFlux. Each test signs up its own user,
+ * so the suite needs local authentication, refresh token rotation and an empty or shared database.
+ */
+public abstract class AuthApiContract {
+
+    private static final String PASSWORD = "contract-password";
+
+    /**
+     * Client bound to the edition under test.
+     *
+     * @return client sending requests to the application
+     */
+    protected abstract WebTestClient client();
+
+    @Test
+    void publicHealthIsOpen() {
+        client().get().uri("/api/public/health")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("OK")
+                .jsonPath("$.message").isEqualTo("Public endpoint is working");
+    }
+
+    @Test
+    void protectedEndpointsAnswer401WithoutACookie() {
+        for (String path : new String[]{"/api/user", "/api/protected/data"}) {
+            client().get().uri(path)
+                    .exchange()
+                    .expectStatus().isUnauthorized()
+                    .expectBody()
+                    .jsonPath("$.error").isEqualTo("Unauthorized")
+                    .jsonPath("$.message").isEqualTo("Authentication required");
+        }
+    }
+
+    @Test
+    void statusIsAnonymousWithoutACookie() {
+        client().get().uri("/api/auth/status")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.authenticated").isEqualTo(false)
+                .jsonPath("$.user").doesNotExist();
+    }
+
+    @Test
+    void providersListConfiguredClientsAndLocalLogin() {
+        ExchangeResult result = client().get().uri("/api/auth/providers")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .expectBody()
+                .jsonPath("$[?(@.key == 'github')]").exists()
+                .jsonPath("$[?(@.key == 'local')].name").isEqualTo("Email & Password")
+                .returnResult();
+        assertThat(result.getResponseHeaders().getVary()).contains(HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    @Test
+    void signupIssuesCookiesThatAuthenticate() {
+        String email = newEmail();
+        Session session = signUp(email);
+
+        client().get().uri("/api/user")
+                .cookie("jwt", session.jwt())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.login").isEqualTo(email)
+                .jsonPath("$.email").isEqualTo(email)
+                .jsonPath("$.name").isEqualTo("Contract User");
+
+        client().get().uri("/api/auth/status")
+                .cookie("jwt", session.jwt())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.authenticated").isEqualTo(true)
+                .jsonPath("$.user.login").isEqualTo(email);
+    }
+
+    @Test
+    void signupRejectsInvalidAndDuplicateRequests() {
+        client().post().uri("/api/auth/signup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("email", "not-an-email", "password", PASSWORD, "name", "Contract User"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Validation Failed")
+                .jsonPath("$.errors.email").exists();
+
+        String email = newEmail();
+        signUp(email);
+        client().post().uri("/api/auth/signup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("email", email, "password", PASSWORD, "name", "Contract User"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("signup_failed")
+                .jsonPath("$.message").isEqualTo("Email already in use");
+    }
+
+    @Test
+    void loginChecksThePassword() {
+        String email = newEmail();
+        signUp(email);
+
+        client().post().uri("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("email", email, "password", "wrong-password"))
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("login_failed");
+
+        Session session = logIn(email);
+        client().get().uri("/api/user")
+                .cookie("jwt", session.jwt())
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void refreshWithoutACookieIsRejected() {
+        client().post().uri("/api/auth/refresh")
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("token_missing");
+    }
+
+    @Test
+    void refreshedTokensCannotBeReplayed() {
+        Session session = signUp(newEmail());
+
+        ExchangeResult refreshed = client().post().uri("/api/auth/refresh")
+                .cookie("refresh_token", session.refreshToken())
+                .exchange()
+                .expectStatus().isOk()
+                .expectCookie().exists("jwt")
+                .expectCookie().exists("refresh_token")
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(true)
+                .returnResult();
+        String rotated = cookie(refreshed, "refresh_token");
+        assertThat(rotated).isNotEqualTo(session.refreshToken());
+
+        client().post().uri("/api/auth/refresh")
+                .cookie("refresh_token", session.refreshToken())
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("token_invalid");
+
+        client().get().uri("/api/user")
+                .cookie("jwt", cookie(refreshed, "jwt"))
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void logoutRevokesBothTokensAndClearsCookies() {
+        Session session = signUp(newEmail());
+
+        client().post().uri("/logout")
+                .cookie("jwt", session.jwt())
+                .cookie("refresh_token", session.refreshToken())
+                .exchange()
+                .expectStatus().isOk()
+                .expectCookie().maxAge("jwt", Duration.ZERO)
+                .expectCookie().maxAge("refresh_token", Duration.ZERO)
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(true)
+                .jsonPath("$.message").isEqualTo("Logout successful");
+
+        client().get().uri("/api/user")
+                .cookie("jwt", session.jwt())
+                .exchange()
+                .expectStatus().isUnauthorized();
+        client().post().uri("/api/auth/refresh")
+                .cookie("refresh_token", session.refreshToken())
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void logoutEverywhereRevokesOtherSessions() {
+        String email = newEmail();
+        Session first = signUp(email);
+        Session second = logIn(email);
+
+        client().post().uri("/api/auth/logout-all")
+                .cookie("jwt", first.jwt())
+                .exchange()
+                .expectStatus().isOk()
+                .expectCookie().maxAge("jwt", Duration.ZERO)
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(true)
+                .jsonPath("$.revoked").isEqualTo(2);
+
+        client().get().uri("/api/user")
+                .cookie("jwt", first.jwt())
+                .exchange()
+                .expectStatus().isUnauthorized();
+        client().post().uri("/api/auth/refresh")
+                .cookie("refresh_token", second.refreshToken())
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void protectedDataIsPagedPerUser() {
+        String email = newEmail();
+        Session session = signUp(email);
+
+        client().get().uri("/api/protected/data?limit=5")
+                .cookie("jwt", session.jwt())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("This is protected data")
+                .jsonPath("$.user").isEqualTo(email)
+                .jsonPath("$.data.count").isEqualTo(0)
+                .jsonPath("$.data.nextCursor").doesNotExist();
+
+        client().get().uri("/api/protected/data?fields=owner")
+                .cookie("jwt", session.jwt())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Bad Request")
+                .jsonPath("$.message").isEqualTo("Unknown field: owner");
+    }
+
+    @Test
+    void actionsAreEchoedForTheUser() {
+        String email = newEmail();
+        Session session = signUp(email);
+
+        client().post().uri("/api/protected/action")
+                .cookie("jwt", session.jwt())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("action", "export"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.user").isEqualTo(email)
+                .jsonPath("$.action").isEqualTo("export")
+                .jsonPath("$.result").isEqualTo("Success");
+
+        client().post().uri("/api/protected/action")
+                .cookie("jwt", session.jwt())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("action", ""))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Validation Failed");
+    }
+
+    private Session signUp(String email) {
+        return Session.of(client().post().uri("/api/auth/signup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("email", email, "password", PASSWORD, "name", "Contract User"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(true)
+                .returnResult());
+    }
+
+    private Session logIn(String email) {
+        return Session.of(client().post().uri("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("email", email, "password", PASSWORD))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(true)
+                .returnResult());
+    }
+
+    private static String newEmail() {
+        return "contract-" + UUID.randomUUID() + "@example.com";
+    }
+
+    private static String cookie(ExchangeResult result, String name) {
+        ResponseCookie cookie = result.getResponseCookies().getFirst(name);
+        assertThat(cookie).as("%s cookie", name).isNotNull();
+        return cookie.getValue();
+    }
+
+    /**
+     * Token cookies issued by a signup or login.
+     */
+    private record Session(String jwt, String refreshToken) {
+
+        private static Session of(ExchangeResult result) {
+            return new Session(cookie(result, "jwt"), cookie(result, "refresh_token"));
+        }
+    }
+}
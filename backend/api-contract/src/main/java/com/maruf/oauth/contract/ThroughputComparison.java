@@ -0,0 +1,204 @@
+package com.maruf.oauth.contract;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpCookie;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Closed-loop throughput of the authenticated read endpoints, run with the same settings against both editions so
+ * their reports can be compared side by side. A fixed number of clients each send their next request as soon as the
+ * previous one is answered, while a pool of idle keep-alive connections stays open the whole time, as browsers with
+ * open tabs hold them. Each edition writes {@code build/reports/performance/throughput-<edition>.txt} in its own
+ * project; tune with {@code -Dloadtest.throughput.*} system properties, e.g.
+ * {@code -Dloadtest.throughput.concurrency=256}.
+ */
+@Tag("performance")
+public abstract class ThroughputComparison {
+
+    private static final int USERS = Integer.getInteger("loadtest.throughput.users", 20);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.throughput.concurrency", 64);
+    private static final int IDLE_CONNECTIONS = Integer.getInteger("loadtest.throughput.idle-connections", 1000);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("loadtest.throughput.warmup-seconds", 10));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("loadtest.throughput.duration-seconds", 30));
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+    private static final String PASSWORD = "throughput-password";
+
+    /**
+     * Endpoints each client cycles through; all of them verify the access token and check its revocation.
+     */
+    private static final List<String> PATHS = List.of("/api/user", "/api/protected/data", "/api/auth/status");
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    /**
+     * Port the edition under test listens on.
+     *
+     * @return local server port
+     */
+    protected abstract int port();
+
+    /**
+     * Name of the edition under test, used in the report title and file name.
+     *
+     * @return edition name, e.g. {@code servlet}
+     */
+    protected abstract String edition();
+
+    @Test
+    void reportsThroughputWithIdleConnectionsOpen() throws Exception {
+        List<String> accessTokens = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            accessTokens.add(signUp("throughput-" + edition() + "-" + UUID.randomUUID() + "@example.com"));
+        }
+
+        List<Socket> idle = openIdleConnections();
+        try {
+            run(accessTokens, WARMUP);
+            Result result = run(accessTokens, DURATION);
+            writeReport(result);
+            assertThat(result.errorRate()).as("error rate").isLessThanOrEqualTo(MAX_ERROR_RATE);
+        } finally {
+            for (Socket socket : idle) {
+                socket.close();
+            }
+        }
+    }
+
+    /**
+     * Runs the closed loop for the given time and collects latencies of every request sent.
+     */
+    private Result run(List<String> accessTokens, Duration duration) throws InterruptedException {
+        Histogram latencies = new ConcurrentHistogram(3);
+        LongAdder errors = new LongAdder();
+        long started = System.nanoTime();
+        long deadline = started + duration.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENCY; i++) {
+                String accessToken = accessTokens.get(i % accessTokens.size());
+                int offset = i;
+                clients.submit(() -> {
+                    for (int sent = offset; System.nanoTime() < deadline; sent++) {
+                        HttpRequest request = HttpRequest.newBuilder(app(PATHS.get(sent % PATHS.size())))
+                                .header("Cookie", "jwt=" + accessToken)
+                                .timeout(Duration.ofSeconds(30))
+                                .GET()
+                                .build();
+                        long requestStarted = System.nanoTime();
+                        try {
+                            if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                                errors.increment();
+                            }
+                        } catch (IOException e) {
+                            errors.increment();
+                        }
+                        latencies.recordValue(System.nanoTime() - requestStarted);
+                    }
+                    return null;
+                });
+            }
+        }
+        return new Result(latencies, errors.sum(), System.nanoTime() - started);
+    }
+
+    /**
+     * Opens connections that send one keep-alive request and then stay silent until the test ends.
+     */
+    private List<Socket> openIdleConnections() throws IOException {
+        byte[] request = ("GET /api/public/health HTTP/1.1\r\nHost: localhost:" + port()
+                + "\r\nConnection: keep-alive\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        List<Socket> sockets = new ArrayList<>(IDLE_CONNECTIONS);
+        for (int i = 0; i < IDLE_CONNECTIONS; i++) {
+            Socket socket = new Socket("localhost", port());
+            OutputStream output = socket.getOutputStream();
+            output.write(request);
+            output.flush();
+            sockets.add(socket);
+        }
+        return sockets;
+    }
+
+    /**
+     * Signs a user up and returns the access token from its cookie.
+     */
+    private String signUp(String email) throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(app("/api/auth/signup"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD
+                        + "\",\"name\":\"Throughput User\"}"))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Could not create throughput test user " + email);
+        }
+        return response.headers().allValues("Set-Cookie").stream()
+                .flatMap(header -> HttpCookie.parse(header).stream())
+                .filter(cookie -> cookie.getName().equals("jwt"))
+                .map(HttpCookie::getValue)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Signup issued no access token for " + email));
+    }
+
+    private URI app(String path) {
+        return URI.create("http://localhost:" + port() + path);
+    }
+
+    private void writeReport(Result result) throws IOException {
+        String report = String.format(
+                "Throughput (%s): %d clients for %ds, %d idle connections, %d users%n"
+                        + "%10s %10s %8s %9s %9s %9s %9s%n"
+                        + "%10d %10.1f %8d %9.2f %9.2f %9.2f %9.2f%n",
+                edition(), CONCURRENCY, DURATION.toSeconds(), IDLE_CONNECTIONS, USERS,
+                "requests", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "max ms",
+                result.latencies().getTotalCount(), result.requestsPerSecond(), result.errors(),
+                result.percentileMillis(50), result.percentileMillis(90), result.percentileMillis(99),
+                result.latencies().getMaxValue() / 1e6);
+        Path directory = Path.of("build", "reports", "performance");
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve("throughput-" + edition() + ".txt"), report);
+        System.out.print(report);
+    }
+
+    /**
+     * Latencies in nanoseconds, failed requests and wall time of one run.
+     */
+    private record Result(Histogram latencies, long errors, long elapsedNanos) {
+
+        double requestsPerSecond() {
+            return latencies.getTotalCount() / (elapsedNanos / 1e9);
+        }
+
+        double errorRate() {
+            long total = latencies.getTotalCount();
+            return total == 0 ? 1 : (double) errors / total;
+        }
+
+        double percentileMillis(double percentile) {
+            return latencies.getValueAtPercentile(percentile) / 1e6;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.maruf.oauth.reactive;
+
+import com.maruf.oauth.config.AuthMetrics;
+import com.maruf.oauth.config.CookieSecurityProperties;
+import com.maruf.oauth.config.HttpCookieFactory;
+import com.maruf.oauth.config.ProtectedDataProperties;
+import com.maruf.oauth.config.ProviderCatalogProperties;
+import com.maruf.oauth.config.RefreshTokenSecurityProperties;
+import com.maruf.oauth.entity.User;
+import com.maruf.oauth.service.JwtService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Bootstraps the reactive edition of the backend: the same HTTP API as the servlet edition, served by Spring WebFlux
+ * on Netty with reactive MongoDB repositories, so requests waiting on MongoDB hold no thread.
+ * Components that do not depend on the web stack are imported from the servlet edition rather than copied,
+ * so tokens, cookies and metrics are produced by the same code in both.
+ *
+ * @author Maruf Bepary
+ */
+@SpringBootApplication
+@EntityScan(basePackageClasses = User.class)
+@Import({JwtService.class, AuthMetrics.class, HttpCookieFactory.class, CookieSecurityProperties.class,
+        RefreshTokenSecurityProperties.class, ProviderCatalogProperties.class, ProtectedDataProperties.class})
+public class ReactiveOauthApplication {
+
+    /**
+     * Starts the embedded Netty server and loads the Spring context.
+     *
+     * @param args command-line arguments passed to the application entry point
+     * @author Maruf Bepary
+     */
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveOauthApplication.class, args);
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.maruf.oauth.reactive.config;
+
+import com.maruf.oauth.config.AuthMetrics;
+import com.maruf.oauth.config.LogMarkers;
+import com.maruf.oauth.reactive.service.ReactiveRefreshTokenStore;
+import com.maruf.oauth.service.JwtService;
+import com.maruf.oauth.service.TokenOutcome;
+import com.maruf.oauth.service.TokenVerification;
+import com.maruf.oauth.util.OAuth2AttributeExtractor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpCookie;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.Optional;
+
+/**
+ * Validates the JWT cookie on each request and authenticates the exchange, as {@code JwtAuthenticationFilter}
+ * does for the servlet edition. The token is parsed once and the revocation lookup only runs for tokens that
+ * verify; the lookup is non-blocking, so the event loop moves on to other requests while MongoDB answers.
+ * The authentication is written into the Reactor context rather than a thread-local.
+ * Created by {@link ReactiveSecurityConfig} rather than registered as a bean, so WebFlux does not also run it
+ * outside the security chain.
+ *
+ * @author Maruf Bepary
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private final JwtService jwtService;
+    private final ReactiveRefreshTokenStore refreshTokenStore;
+    private final AuthMetrics authMetrics;
+
+    /**
+     * Authenticates the exchange when it carries a valid, unrevoked access token cookie, and always continues
+     * the chain, unauthenticated when the token is missing, invalid, revoked or cannot be checked.
+     *
+     * @param exchange current exchange inspected for the {@code jwt} cookie
+     * @param chain    remaining filter chain that must always be invoked
+     * @author Maruf Bepary
+     */
+    @Override
+    @NonNull
+    public Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        HttpCookie cookie = exchange.getRequest().getCookies().getFirst("jwt");
+        if (cookie == null) {
+            return chain.filter(exchange);
+        }
+        return authenticate(cookie.getValue())
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(authentication -> authentication
+                        .map(value -> chain.filter(exchange)
+                                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(value)))
+                        .orElseGet(() -> chain.filter(exchange)));
+    }
+
+    /**
+     * Verifies the token and checks its revocation.
+     *
+     * @param jwt access token from the cookie
+     * @return authentication for the token's user, or empty when it must not authenticate the request
+     * @author Maruf Bepary
+     */
+    private Mono<Authentication> authenticate(String jwt) {
+        return Mono.defer(() -> {
+            // Parse once; only a token that verifies is worth a revocation lookup
+            TokenVerification verification = jwtService.verify(jwt, "access");
+            Mono<TokenOutcome> outcome = verification.isValid()
+                    ? refreshTokenStore.isAccessTokenInvalidated(jwt)
+                            .map(revoked -> revoked ? TokenOutcome.REVOKED : TokenOutcome.VALID)
+                    : Mono.just(verification.outcome());
+            return outcome.<Authentication>flatMap(result -> {
+                authMetrics.tokenOutcome("access", result);
+                if (result != TokenOutcome.VALID) {
+                    log.debug("JWT rejected: {}", result.tag());
+                    return Mono.empty();
+                }
+                // Reconstruct OAuth2User from JWT claims with all stored attributes
+                OAuth2User oauth2User = new DefaultOAuth2User(
+                        Collections.singleton(new SimpleGrantedAuthority("ROLE_USER")),
+                        OAuth2AttributeExtractor.fromClaims(verification.claims()),
+                        "login"
+                );
+                log.debug("JWT validated for user: {}", verification.claims().get("login"));
+                return Mono.just(new UsernamePasswordAuthenticationToken(oauth2User, null, oauth2User.getAuthorities()));
+            });
+        }).onErrorResume(e -> {
+            log.error(LogMarkers.RATE_LIMITED, "JWT validation failed: {}", e.getMessage());
+            return Mono.empty();
+        });
+    }
+}
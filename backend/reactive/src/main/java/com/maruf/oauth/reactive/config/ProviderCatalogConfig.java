@@ -0,0 +1,47 @@
+package com.maruf.oauth.reactive.config;
+
+import com.maruf.oauth.config.ProviderCatalog;
+import com.maruf.oauth.config.ProviderCatalogProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
+import org.springframework.security.oauth2.client.registration.ReactiveClientRegistrationRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the servlet edition's {@link ProviderCatalog} from the reactive client registrations, so both editions
+ * answer the providers endpoint with the same bytes and entity tags.
+ *
+ * @author Maruf Bepary
+ */
+@Configuration
+public class ProviderCatalogConfig {
+
+    /**
+     * Lists the configured clients in configuration order, followed by local authentication when enabled.
+     *
+     * @param registrations    reactive client registrations created from {@code spring.security.oauth2.client}
+     * @param properties       compression and caching settings
+     * @param localAuthEnabled whether email and password login is offered
+     * @return catalog serialized once at startup
+     * @author Maruf Bepary
+     */
+    @Bean
+    public ProviderCatalog providerCatalog(ObjectProvider<ReactiveClientRegistrationRepository> registrations,
+                                           ProviderCatalogProperties properties,
+                                           @Value("${app.security.local-auth.enabled:false}") boolean localAuthEnabled) {
+        List<ClientRegistration> clients = new ArrayList<>();
+        if (registrations.getIfAvailable() instanceof Iterable<?> iterable) {
+            for (Object registration : iterable) {
+                clients.add((ClientRegistration) registration);
+            }
+        }
+        return new ProviderCatalog(clients.isEmpty() ? registrationId -> null : new InMemoryClientRegistrationRepository(clients),
+                properties, localAuthEnabled);
+    }
+}
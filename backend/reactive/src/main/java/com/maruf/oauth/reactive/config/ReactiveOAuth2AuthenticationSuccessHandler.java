@@ -0,0 +1,132 @@
+package com.maruf.oauth.reactive.config;
+
+import com.maruf.oauth.config.AuthMetrics;
+import com.maruf.oauth.config.HttpCookieFactory;
+import com.maruf.oauth.exception.InsufficientScopeException;
+import com.maruf.oauth.reactive.service.ReactiveRefreshTokenStore;
+import com.maruf.oauth.service.JwtService;
+import com.maruf.oauth.util.OAuth2AttributeExtractor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.security.web.server.DefaultServerRedirectStrategy;
+import org.springframework.security.web.server.ServerRedirectStrategy;
+import org.springframework.security.web.server.WebFilterExchange;
+import org.springframework.security.web.server.authentication.ServerAuthenticationSuccessHandler;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Handles the OAuth2 login success flow of the reactive edition by issuing access and refresh tokens as cookies
+ * and redirecting to the frontend, exactly as the servlet edition's {@code OAuth2AuthenticationSuccessHandler} does.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveOAuth2AuthenticationSuccessHandler implements ServerAuthenticationSuccessHandler {
+
+    private final JwtService jwtService;
+    private final ReactiveRefreshTokenStore refreshTokenStore;
+    private final HttpCookieFactory cookieFactory;
+    private final AuthMetrics authMetrics;
+    private final ServerRedirectStrategy redirectStrategy = new DefaultServerRedirectStrategy();
+
+    /**
+     * Frontend base URL loaded from {@code frontend.url}; defaults to {@code http://localhost:3000}.
+     *
+     * @author Maruf Bepary
+     */
+    @Value("${frontend.url:http://localhost:3000}")
+    private String frontendUrl;
+
+    /**
+     * Access token lifetime in milliseconds from {@code jwt.access-token-expiration}; default 15 minutes.
+     *
+     * @author Maruf Bepary
+     */
+    @Value("${jwt.access-token-expiration:900000}")
+    private Long accessTokenExpiration;
+
+    /**
+     * Refresh token lifetime in milliseconds from {@code jwt.refresh-token-expiration}; default 7 days.
+     *
+     * @author Maruf Bepary
+     */
+    @Value("${jwt.refresh-token-expiration:604800000}")
+    private Long refreshTokenExpiration;
+
+    /**
+     * Called after OAuth2 login succeeds to generate and persist tokens, then redirect the user.
+     *
+     * @param webFilterExchange exchange of the OAuth2 callback
+     * @param authentication    completed authentication containing the OAuth2 principal
+     * @return completes once the redirect is written
+     * @author Maruf Bepary
+     */
+    @Override
+    public Mono<Void> onAuthenticationSuccess(WebFilterExchange webFilterExchange, Authentication authentication) {
+        OAuth2User oauth2User = (OAuth2User) authentication.getPrincipal();
+        String registrationId = authentication instanceof OAuth2AuthenticationToken token
+                ? token.getAuthorizedClientRegistrationId()
+                : "unknown";
+
+        // Validate minimum required attributes are present
+        try {
+            OAuth2AttributeExtractor.validateRequiredAttributes(oauth2User);
+        } catch (InsufficientScopeException e) {
+            log.warn("OAuth scope validation failed: {}", e.getMessage());
+            authMetrics.oauth2Login(registrationId, "missing_scope");
+            return redirect(webFilterExchange, "/?error=missing_scope");
+        }
+
+        String username = OAuth2AttributeExtractor.resolveUsername(oauth2User);
+        if (username == null) {
+            log.error("Unable to determine username from OAuth2 attributes: {}", oauth2User.getAttributes());
+            authMetrics.oauth2Login(registrationId, "missing_profile");
+            return redirect(webFilterExchange, "/?error=missing_profile");
+        }
+
+        String accessToken = jwtService.generateAccessToken(oauth2User);
+
+        Map<String, Object> refreshClaims = new HashMap<>();
+        refreshClaims.put("id", OAuth2AttributeExtractor.getUserId(oauth2User));
+        refreshClaims.put("login", username);
+        refreshClaims.put("name", OAuth2AttributeExtractor.getName(oauth2User));
+        refreshClaims.put("email", OAuth2AttributeExtractor.getEmail(oauth2User));
+        refreshClaims.put("avatar_url", OAuth2AttributeExtractor.getAvatarUrl(oauth2User));
+        String refreshToken = jwtService.generateRefreshToken(username, refreshClaims);
+
+        Instant refreshExpiresAt = Instant.now().plusMillis(refreshTokenExpiration);
+        return refreshTokenStore.storeRefreshToken(refreshToken, username, refreshExpiresAt)
+                .then(Mono.defer(() -> {
+                    ServerHttpResponse response = webFilterExchange.getExchange().getResponse();
+                    response.addCookie(cookieFactory.buildTokenCookie("jwt", accessToken,
+                            Duration.ofMillis(accessTokenExpiration)));
+                    response.addCookie(cookieFactory.buildTokenCookie("refresh_token", refreshToken,
+                            Duration.ofMillis(refreshTokenExpiration)));
+
+                    log.info("Access and refresh tokens generated for user: {}", username);
+                    authMetrics.oauth2Login(registrationId, "success");
+                    return redirect(webFilterExchange, "/dashboard");
+                }));
+    }
+
+    /**
+     * Redirects the browser to a path of the frontend.
+     */
+    private Mono<Void> redirect(WebFilterExchange webFilterExchange, String path) {
+        return redirectStrategy.sendRedirect(webFilterExchange.getExchange(), URI.create(frontendUrl + path));
+    }
+}
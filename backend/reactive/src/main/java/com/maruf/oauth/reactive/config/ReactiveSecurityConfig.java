@@ -0,0 +1,213 @@
+package com.maruf.oauth.reactive.config;
+
+import com.maruf.oauth.config.AuthMetrics;
+import com.maruf.oauth.config.HttpCookieFactory;
+import com.maruf.oauth.reactive.service.ReactiveRefreshTokenStore;
+import com.maruf.oauth.service.JwtService;
+import com.maruf.oauth.service.TokenVerification;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.reactive.EndpointRequest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.web.server.DefaultServerRedirectStrategy;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.ServerAuthenticationEntryPoint;
+import org.springframework.security.web.server.WebFilterExchange;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Configures Spring Security for the reactive edition with the same rules as the servlet edition's
+ * {@code SecurityConfig}: OAuth2 login, JWT cookie authentication, the same public paths, a JSON 401 for API calls
+ * and a logout that revokes both tokens. No security context is stored between requests, since every request
+ * carries its own token.
+ *
+ * @author Maruf Bepary
+ */
+@Configuration
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveSecurityConfig {
+
+    private static final byte[] UNAUTHORIZED_BODY =
+            "{\"error\":\"Unauthorized\",\"message\":\"Authentication required\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] LOGOUT_BODY =
+            "{\"success\":true,\"message\":\"Logout successful\"}".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Frontend base URL loaded from {@code frontend.url}; defaults to {@code http://localhost:3000}.
+     *
+     * @author Maruf Bepary
+     */
+    @Value("${frontend.url:http://localhost:3000}")
+    private String frontendUrl;
+
+    private final ReactiveOAuth2AuthenticationSuccessHandler oauth2SuccessHandler;
+    private final ReactiveRefreshTokenStore refreshTokenStore;
+    private final JwtService jwtService;
+    private final HttpCookieFactory cookieFactory;
+    private final AuthMetrics authMetrics;
+
+    /**
+     * Provides BCrypt password encoding for local authentication.
+     *
+     * @return configured {@link PasswordEncoder} bean
+     * @author Maruf Bepary
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+
+    /**
+     * Builds the security filter chain covering OAuth2 login, the JWT filter and logout handling.
+     * Health and Prometheus endpoints are open because they are served on the separate management port.
+     *
+     * @param http the mutable {@link ServerHttpSecurity} builder provided by Spring Boot
+     * @author Maruf Bepary
+     */
+    @Bean
+    public SecurityWebFilterChain filterChain(ServerHttpSecurity http) {
+        return http
+                .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers("/", "/login", "/error", "/webjars/**").permitAll()
+                        .matchers(EndpointRequest.to("health", "prometheus")).permitAll()
+                        .pathMatchers("/api/public/**").permitAll()
+                        .pathMatchers("/api/auth/status").permitAll()
+                        .pathMatchers("/api/auth/providers").permitAll()
+                        .pathMatchers("/api/auth/refresh").permitAll()
+                        .pathMatchers("/api/auth/signup").permitAll()
+                        .pathMatchers("/api/auth/login").permitAll()
+                        .pathMatchers("/logout").permitAll()
+                        .anyExchange().authenticated())
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(apiAuthenticationEntryPoint()))
+                .oauth2Login(oauth2 -> oauth2
+                        .authenticationSuccessHandler(oauth2SuccessHandler)
+                        .authenticationFailureHandler((exchange, exception) -> {
+                            if (exception instanceof OAuth2AuthenticationException oauth2Exception) {
+                                log.error("OAuth2 authentication failed: {} - details: {}",
+                                        oauth2Exception.getError().getErrorCode(),
+                                        oauth2Exception.getError().getDescription(), oauth2Exception);
+                            } else {
+                                log.error("Authentication failed: {}", exception.getMessage(), exception);
+                            }
+                            return new DefaultServerRedirectStrategy().sendRedirect(exchange.getExchange(),
+                                    URI.create(frontendUrl + "/?error=auth_failed"));
+                        }))
+                .logout(logout -> logout
+                        .logoutUrl("/logout")
+                        .logoutSuccessHandler(this::onLogoutSuccess))
+                .addFilterAt(new JwtAuthenticationWebFilter(jwtService, refreshTokenStore, authMetrics),
+                        SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    /**
+     * Defines CORS settings that allow the Next.js frontend to call the API.
+     *
+     * @author Maruf Bepary
+     */
+    @Bean
+    public CorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.setAllowedOrigins(Arrays.asList(frontendUrl));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedHeaders(Arrays.asList("Content-Type", "Authorization"));
+        configuration.setAllowCredentials(true);
+
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+        return source;
+    }
+
+    /**
+     * Returns 401 JSON for API endpoints and redirects other requests to the login page.
+     *
+     * @author Maruf Bepary
+     */
+    @Bean
+    public ServerAuthenticationEntryPoint apiAuthenticationEntryPoint() {
+        return (exchange, exception) -> {
+            if (exchange.getRequest().getPath().value().startsWith("/api/")) {
+                return writeJson(exchange.getResponse(), HttpStatus.UNAUTHORIZED, UNAUTHORIZED_BODY);
+            }
+            return new DefaultServerRedirectStrategy().sendRedirect(exchange, URI.create("/login"));
+        };
+    }
+
+    /**
+     * Revokes the presented access and refresh tokens, clears both cookies and answers with JSON.
+     * A failed revocation is logged but does not fail the logout.
+     *
+     * @author Maruf Bepary
+     */
+    private Mono<Void> onLogoutSuccess(WebFilterExchange webFilterExchange, Authentication authentication) {
+        var exchange = webFilterExchange.getExchange();
+        Mono<Void> revocations = Mono.empty();
+
+        HttpCookie jwt = exchange.getRequest().getCookies().getFirst("jwt");
+        if (jwt != null) {
+            TokenVerification verification = jwtService.verify(jwt.getValue(), "access");
+            if (verification.isValid()) {
+                revocations = revocations.then(refreshTokenStore.invalidateAccessToken(jwt.getValue(),
+                        verification.claims().getSubject(), verification.claims().getExpiration().toInstant()));
+            }
+        }
+        HttpCookie refreshToken = exchange.getRequest().getCookies().getFirst("refresh_token");
+        if (refreshToken != null) {
+            revocations = revocations.then(refreshTokenStore.invalidateRefreshToken(refreshToken.getValue()));
+        }
+
+        return revocations
+                .onErrorResume(e -> {
+                    // Log but don't fail logout if token invalidation fails
+                    log.warn("Failed to invalidate token during logout: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .then(Mono.defer(() -> {
+                    ServerHttpResponse response = exchange.getResponse();
+                    response.addCookie(cookieFactory.buildTokenCookie("jwt", "", Duration.ZERO));
+                    response.addCookie(cookieFactory.buildTokenCookie("refresh_token", "", Duration.ZERO));
+                    return writeJson(response, HttpStatus.OK, LOGOUT_BODY);
+                }));
+    }
+
+    /**
+     * Writes a fixed JSON body with the given status.
+     */
+    private static Mono<Void> writeJson(ServerHttpResponse response, HttpStatus status, byte[] body) {
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
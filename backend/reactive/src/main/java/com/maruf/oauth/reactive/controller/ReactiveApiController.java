@@ -0,0 +1,167 @@
+package com.maruf.oauth.reactive.controller;
+
+import com.maruf.oauth.config.LogMarkers;
+import com.maruf.oauth.dto.*;
+import com.maruf.oauth.entity.ProtectedItem;
+import com.maruf.oauth.reactive.service.ReactiveProtectedItemService;
+import com.maruf.oauth.util.OAuth2AttributeExtractor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Exposes the public and protected API endpoints of the reactive edition with the same paths and payloads as the
+ * servlet edition's {@code ApiController}. Protected data is read through {@link ReactiveProtectedItemService}
+ * without holding a thread while MongoDB answers.
+ * Protected handlers return publishers, as reactive method security requires for {@code @PreAuthorize}.
+ *
+ * @author Maruf Bepary
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveApiController {
+
+    private final ReactiveProtectedItemService protectedItemService;
+
+    /**
+     * Reports service health for monitoring tools and anonymous callers.
+     *
+     * @author Maruf Bepary
+     */
+    @GetMapping("/api/public/health")
+    public ResponseEntity<PublicHealthResponse> publicHealth() {
+        PublicHealthResponse response = PublicHealthResponse.builder()
+                .status("OK")
+                .message("Public endpoint is working")
+                .timestamp(System.currentTimeMillis())
+                .build();
+
+        log.info(LogMarkers.SAMPLED, "Public health endpoint accessed");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Returns the authenticated user's profile information.
+     *
+     * @param principal the authenticated OAuth2 user supplied by Spring Security
+     * @author Maruf Bepary
+     */
+    @GetMapping("/api/user")
+    @PreAuthorize("isAuthenticated()")
+    public Mono<UserResponse> getUser(@AuthenticationPrincipal OAuth2User principal) {
+        UserResponse response = UserResponse.builder()
+                .id(OAuth2AttributeExtractor.getUserId(principal))
+                .login(OAuth2AttributeExtractor.resolveUsername(principal))
+                .name(OAuth2AttributeExtractor.getName(principal))
+                .email(OAuth2AttributeExtractor.getEmail(principal))
+                .avatarUrl(OAuth2AttributeExtractor.getAvatarUrl(principal))
+                .build();
+
+        log.info(LogMarkers.SAMPLED, "User info requested for: {}", response.getLogin());
+        return Mono.just(response);
+    }
+
+    /**
+     * Returns one page of the user's protected items, read by keyset pagination.
+     * Pass the previous page's {@code nextCursor} as {@code cursor} to continue; a {@code null} cursor marks the last page.
+     *
+     * @param principal the authenticated OAuth2 user requesting protected content
+     * @param cursor    continuation cursor from the previous page, absent for the first page
+     * @param limit     page size, capped by {@code app.protected-data.max-page-size}
+     * @param fields    item fields to return, all of them when absent
+     * @author Maruf Bepary
+     */
+    @GetMapping("/api/protected/data")
+    @PreAuthorize("isAuthenticated()")
+    public Mono<ProtectedDataResponse> getProtectedData(
+            @AuthenticationPrincipal OAuth2User principal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) List<String> fields) {
+        String username = OAuth2AttributeExtractor.resolveUsername(principal);
+
+        return protectedItemService.findPage(username, cursor, limit, fields).map(page -> {
+            log.info(LogMarkers.SAMPLED, "Protected data accessed by: {}", username);
+            return ProtectedDataResponse.builder()
+                    .message("This is protected data")
+                    .user(username)
+                    .data(ProtectedDataResponse.DataContent.builder()
+                            .items(page.items().stream().map(ReactiveApiController::toItemResponse).toList())
+                            .count(page.items().size())
+                            .lastUpdated(System.currentTimeMillis())
+                            .nextCursor(page.nextCursor())
+                            .build())
+                    .build();
+        });
+    }
+
+    /**
+     * Streams all of the user's protected items as newline-delimited JSON, one item per line, written as they
+     * come off the MongoDB cursor and only as fast as the client reads them.
+     *
+     * @param principal the authenticated OAuth2 user requesting protected content
+     * @param fields    item fields to return, all of them when absent
+     * @author Maruf Bepary
+     */
+    @GetMapping(value = "/api/protected/data/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public Mono<ResponseEntity<Flux<ProtectedItemResponse>>> streamProtectedData(
+            @AuthenticationPrincipal OAuth2User principal,
+            @RequestParam(required = false) List<String> fields) {
+        String username = OAuth2AttributeExtractor.resolveUsername(principal);
+
+        log.info(LogMarkers.SAMPLED, "Protected data streamed to: {}", username);
+        return Mono.just(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .cacheControl(CacheControl.noStore())
+                .body(protectedItemService.stream(username, fields).map(ReactiveApiController::toItemResponse)));
+    }
+
+    /**
+     * Handles state changing actions for authenticated users.
+     * Validates the incoming payload and echoes a structured response for easy client side notifications.
+     *
+     * @param principal the authenticated OAuth2 user executing the action
+     * @param request   validated request payload describing the action to perform
+     * @author Maruf Bepary
+     */
+    @PostMapping("/api/protected/action")
+    @PreAuthorize("isAuthenticated()")
+    public Mono<ActionResponse> performAction(
+            @AuthenticationPrincipal OAuth2User principal,
+            @Validated @RequestBody ActionRequest request) {
+        String username = OAuth2AttributeExtractor.resolveUsername(principal);
+
+        ActionResponse response = ActionResponse.builder()
+                .message("Action performed successfully")
+                .user(username)
+                .action(request.getAction())
+                .result("Success")
+                .timestamp(System.currentTimeMillis())
+                .build();
+
+        log.info("Action '{}' performed by: {}", request.getAction(), username);
+        return Mono.just(response);
+    }
+
+    private static ProtectedItemResponse toItemResponse(ProtectedItem item) {
+        return ProtectedItemResponse.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .createdAt(item.getCreatedAt())
+                .build();
+    }
+}
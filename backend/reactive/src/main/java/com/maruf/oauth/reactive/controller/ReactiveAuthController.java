@@ -0,0 +1,362 @@
+package com.maruf.oauth.reactive.controller;
+
+import com.maruf.oauth.config.AuthMetrics;
+import com.maruf.oauth.config.HttpCookieFactory;
+import com.maruf.oauth.config.LogMarkers;
+import com.maruf.oauth.config.ProviderCatalog;
+import com.maruf.oauth.config.ProviderCatalogProperties;
+import com.maruf.oauth.config.RefreshTokenSecurityProperties;
+import com.maruf.oauth.dto.AuthStatusResponse;
+import com.maruf.oauth.dto.ErrorResponse;
+import com.maruf.oauth.dto.LoginRequest;
+import com.maruf.oauth.dto.SignupRequest;
+import com.maruf.oauth.dto.UserResponse;
+import com.maruf.oauth.entity.User;
+import com.maruf.oauth.reactive.service.ReactiveLocalAuthService;
+import com.maruf.oauth.reactive.service.ReactiveRefreshTokenStore;
+import com.maruf.oauth.service.JwtService;
+import com.maruf.oauth.service.TokenOutcome;
+import com.maruf.oauth.service.TokenVerification;
+import com.maruf.oauth.util.OAuth2AttributeExtractor;
+import io.jsonwebtoken.Claims;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Serves the authentication endpoints of the reactive edition with the same paths, status codes, error codes and
+ * cookies as the servlet edition's {@code AuthController}. Store lookups and password hashing are composed into
+ * the response rather than awaited on the request thread.
+ * The bootstrap and session event endpoints are only offered by the servlet edition.
+ *
+ * @author Maruf Bepary
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveAuthController {
+
+    private final JwtService jwtService;
+    private final ReactiveRefreshTokenStore refreshTokenStore;
+    private final HttpCookieFactory cookieFactory;
+    private final RefreshTokenSecurityProperties refreshTokenSecurityProperties;
+    private final ProviderCatalog providerCatalog;
+    private final ProviderCatalogProperties providerCatalogProperties;
+    private final ReactiveLocalAuthService localAuthService;
+    private final AuthMetrics authMetrics;
+
+    /**
+     * Flag controlling whether email/password endpoints are exposed.
+     * Read from {@code app.security.local-auth.enabled}; defaults to {@code false}.
+     *
+     * @author Maruf Bepary
+     */
+    @Value("${app.security.local-auth.enabled:false}")
+    private boolean localAuthEnabled;
+
+    /**
+     * Access token TTL in milliseconds from {@code jwt.access-token-expiration}; defaults to 15 minutes.
+     *
+     * @author Maruf Bepary
+     */
+    @Value("${jwt.access-token-expiration:900000}")
+    private Long accessTokenExpiration;
+
+    /**
+     * Refresh token TTL in milliseconds from {@code jwt.refresh-token-expiration}; defaults to 7 days.
+     *
+     * @author Maruf Bepary
+     */
+    @Value("${jwt.refresh-token-expiration:604800000}")
+    private Long refreshTokenExpiration;
+
+    /**
+     * Returns whether the current request is authenticated and, if so, the associated profile.
+     *
+     * @param principal the authenticated principal resolved by Spring Security, may be {@code null}
+     * @author Maruf Bepary
+     */
+    @GetMapping("/api/auth/status")
+    public ResponseEntity<AuthStatusResponse> getAuthStatus(@AuthenticationPrincipal OAuth2User principal) {
+        if (principal == null) {
+            log.info(LogMarkers.SAMPLED, "Auth status checked - user not authenticated");
+            return ResponseEntity.ok(AuthStatusResponse.builder().authenticated(false).build());
+        }
+        UserResponse user = toUserResponse(principal);
+        log.info(LogMarkers.SAMPLED, "Auth status checked for user: {}", user.getLogin());
+        return ResponseEntity.ok(AuthStatusResponse.builder().authenticated(true).user(user).build());
+    }
+
+    /**
+     * Issues a new access token when a valid refresh token cookie is presented, rotating the refresh token
+     * when rotation is enabled. The token is parsed once, and the store is only consulted when its signature,
+     * expiry and type check out.
+     *
+     * @param exchange current exchange carrying the refresh token cookie and receiving the renewed cookies
+     * @author Maruf Bepary
+     */
+    @PostMapping("/api/auth/refresh")
+    public Mono<ResponseEntity<Object>> refreshToken(ServerWebExchange exchange) {
+        HttpCookie cookie = exchange.getRequest().getCookies().getFirst("refresh_token");
+        if (cookie == null) {
+            log.warn(LogMarkers.RATE_LIMITED, "Refresh token not found in cookies");
+            return Mono.just(error(401, "token_missing", "Refresh token not found"));
+        }
+        String refreshToken = cookie.getValue();
+
+        // Validate the refresh token itself with JWT before touching the store
+        TokenVerification verification = jwtService.verify(refreshToken, "refresh");
+        if (!verification.isValid()) {
+            authMetrics.tokenOutcome("refresh", verification.outcome());
+            // Signed by us, so it may still be stored; tokens failing the signature check never were
+            Mono<Void> cleanup = verification.outcome() == TokenOutcome.EXPIRED
+                    ? refreshTokenStore.invalidateRefreshToken(refreshToken)
+                    : Mono.empty();
+            if (verification.outcome() == TokenOutcome.WRONG_TYPE) {
+                log.warn(LogMarkers.RATE_LIMITED, "Token presented is not a refresh token");
+                return cleanup.thenReturn(error(401, "token_invalid", "Invalid token type"));
+            }
+            log.warn(LogMarkers.RATE_LIMITED, "Refresh token is invalid or expired");
+            return cleanup.thenReturn(error(401, "token_expired", "Refresh token has expired"));
+        }
+
+        // Get username from the store; rotation rewrites the record, so skip the touch then
+        return refreshTokenStore.getUsernameFromRefreshToken(refreshToken,
+                        !refreshTokenSecurityProperties.isRotationEnabled())
+                .flatMap(username -> {
+                    authMetrics.tokenOutcome("refresh", TokenOutcome.VALID);
+                    return renewTokens(exchange, refreshToken, username, verification.claims());
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    authMetrics.tokenOutcome("refresh", TokenOutcome.REVOKED);
+                    log.warn(LogMarkers.RATE_LIMITED, "Invalid or expired refresh token");
+                    return error(401, "token_invalid", "Invalid or expired refresh token");
+                }))
+                .onErrorResume(e -> {
+                    log.error("Error refreshing token: {}", e.getMessage());
+                    return Mono.just(error(500, "refresh_failed", "Token refresh failed"));
+                });
+    }
+
+    /**
+     * Returns a list of configured OAuth2 providers.
+     * Writes the JSON precomputed by {@link ProviderCatalog}, gzip-compressed when the client accepts it,
+     * with a strong {@code ETag} per representation so a matching {@code If-None-Match} is answered with 304.
+     *
+     * @param acceptEncoding the client's {@code Accept-Encoding} header, may be {@code null}
+     * @return List of provider details (key, name) as JSON bytes
+     * @author Maruf Bepary
+     */
+    @GetMapping("/api/auth/providers")
+    public ResponseEntity<byte[]> getProviders(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.maxAge(providerCatalogProperties.getCacheMaxAge()).cachePublic())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (providerCatalog.getGzip() != null && ProviderCatalog.acceptsGzip(acceptEncoding)) {
+            return response.eTag(providerCatalog.getGzipEtag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(providerCatalog.getGzip());
+        }
+        return response.eTag(providerCatalog.getEtag()).body(providerCatalog.getJson());
+    }
+
+    /**
+     * Ends every session of the current user: revokes all their refresh tokens and the presented access token
+     * and clears this browser's cookies.
+     *
+     * @param principal the authenticated principal resolved by Spring Security
+     * @param exchange  current exchange carrying the access token cookie
+     * @author Maruf Bepary
+     */
+    @PostMapping("/api/auth/logout-all")
+    public Mono<ResponseEntity<Object>> logoutEverywhere(@AuthenticationPrincipal OAuth2User principal,
+                                                         ServerWebExchange exchange) {
+        if (principal == null) {
+            return Mono.just(ResponseEntity.status(401).build());
+        }
+        String username = OAuth2AttributeExtractor.resolveUsername(principal);
+        HttpCookie accessToken = exchange.getRequest().getCookies().getFirst("jwt");
+
+        return refreshTokenStore.invalidateAllRefreshTokens(username)
+                .flatMap(revoked -> (accessToken == null
+                        ? Mono.<Void>empty()
+                        : refreshTokenStore.invalidateAccessToken(accessToken.getValue(), username,
+                                jwtService.getExpirationDate(accessToken.getValue()).toInstant()))
+                        .then(Mono.fromSupplier(() -> {
+                            addCookie(exchange.getResponse(), "jwt", "", Duration.ZERO);
+                            addCookie(exchange.getResponse(), "refresh_token", "", Duration.ZERO);
+                            log.info("Logged out everywhere for user: {} ({} refresh tokens revoked)", username, revoked);
+                            return ResponseEntity.ok((Object) Map.of("success", true, "revoked", revoked));
+                        })));
+    }
+
+    /**
+     * Registers a new user when local authentication is enabled and issues tokens on success.
+     * Returns HTTP 403 if the feature is disabled.
+     *
+     * @param signupRequest validated signup payload containing email, password, and name
+     * @param exchange      current exchange receiving the token cookies
+     * @author Maruf Bepary
+     */
+    @PostMapping("/api/auth/signup")
+    public Mono<ResponseEntity<Object>> signup(@Valid @RequestBody SignupRequest signupRequest,
+                                               ServerWebExchange exchange) {
+        if (!localAuthEnabled) {
+            return Mono.just(error(403, "access_denied", "Local authentication is disabled"));
+        }
+        return localAuthService.register(signupRequest.getEmail(), signupRequest.getPassword(), signupRequest.getName())
+                .flatMap(user -> authenticateUser(exchange, user))
+                .onErrorResume(IllegalArgumentException.class,
+                        e -> Mono.just(error(400, "signup_failed", e.getMessage())));
+    }
+
+    /**
+     * Authenticates a local user and issues JWT cookies when credentials match.
+     * Returns HTTP 403 when local auth is disabled and 401 when credentials are invalid.
+     *
+     * @param loginRequest validated login payload containing email and password
+     * @param exchange     current exchange receiving the token cookies
+     * @author Maruf Bepary
+     */
+    @PostMapping("/api/auth/login")
+    public Mono<ResponseEntity<Object>> login(@Valid @RequestBody LoginRequest loginRequest,
+                                              ServerWebExchange exchange) {
+        if (!localAuthEnabled) {
+            return Mono.just(error(403, "access_denied", "Local authentication is disabled"));
+        }
+        return localAuthService.login(loginRequest.getEmail(), loginRequest.getPassword())
+                .flatMap(user -> authenticateUser(exchange, user))
+                .switchIfEmpty(Mono.fromSupplier(() -> error(401, "login_failed", "Invalid email or password")));
+    }
+
+    /**
+     * Issues a new access token from the refresh token's claims and, when rotation is enabled, replaces the
+     * refresh token; a lost concurrent rotation leaves the winner's cookie alone.
+     */
+    private Mono<ResponseEntity<Object>> renewTokens(ServerWebExchange exchange, String refreshToken,
+                                                     String username, Claims claims) {
+        // Create a minimal OAuth2User for token generation
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("id", claims.get("id"));
+        attributes.put("login", claims.getOrDefault("login", username));
+        attributes.put("name", claims.get("name"));
+        attributes.put("email", claims.get("email"));
+        attributes.put("avatar_url", claims.get("avatar_url"));
+        OAuth2User oauth2User = new DefaultOAuth2User(
+                Collections.singleton(new SimpleGrantedAuthority("ROLE_USER")),
+                attributes,
+                "login"
+        );
+
+        Mono<Boolean> rotated = refreshTokenSecurityProperties.isRotationEnabled()
+                ? rotateRefreshToken(exchange.getResponse(), refreshToken, username, attributes)
+                : Mono.just(true);
+        return rotated.map(success -> {
+            if (!success) {
+                authMetrics.tokenOutcome("refresh", TokenOutcome.REVOKED);
+                log.warn(LogMarkers.RATE_LIMITED, "Refresh token for user {} was already rotated", username);
+                return error(401, "token_rotated", "Refresh token was already used");
+            }
+            String newAccessToken = jwtService.generateAccessToken(oauth2User);
+            addCookie(exchange.getResponse(), "jwt", newAccessToken, Duration.ofMillis(accessTokenExpiration));
+
+            log.info("Access token refreshed for user: {}", username);
+            return ResponseEntity.ok((Object) Map.of(
+                    "success", true,
+                    "message", "Token refreshed successfully"
+            ));
+        });
+    }
+
+    /**
+     * Replaces the presented refresh token with a new one and sets its cookie when the store accepted it.
+     */
+    private Mono<Boolean> rotateRefreshToken(ServerHttpResponse response, String currentRefreshToken,
+                                             String username, Map<String, Object> refreshClaims) {
+        String newRefreshToken = jwtService.generateRefreshToken(username, refreshClaims);
+        Instant refreshExpiresAt = Instant.now().plusMillis(refreshTokenExpiration);
+        return refreshTokenStore.rotateRefreshToken(currentRefreshToken, newRefreshToken, username, refreshExpiresAt)
+                .doOnNext(rotated -> {
+                    if (rotated) {
+                        addCookie(response, "refresh_token", newRefreshToken, Duration.ofMillis(refreshTokenExpiration));
+                        log.info("Refresh token rotated for user: {}", username);
+                    }
+                });
+    }
+
+    /**
+     * Issues access and refresh tokens for the given user and persists refresh token state.
+     */
+    private Mono<ResponseEntity<Object>> authenticateUser(ServerWebExchange exchange, User user) {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("id", user.getId());
+        attributes.put("login", user.getEmail());
+        attributes.put("name", user.getName());
+        attributes.put("email", user.getEmail());
+        attributes.put("avatar_url", user.getAvatarUrl());
+
+        OAuth2User oauth2User = new DefaultOAuth2User(
+                Collections.singleton(new SimpleGrantedAuthority("ROLE_USER")),
+                attributes,
+                "login"
+        );
+
+        String accessToken = jwtService.generateAccessToken(oauth2User);
+        String refreshToken = jwtService.generateRefreshToken(user.getEmail(), attributes);
+
+        Instant refreshExpiresAt = Instant.now().plusMillis(refreshTokenExpiration);
+        return refreshTokenStore.storeRefreshToken(refreshToken, user.getEmail(), refreshExpiresAt)
+                .then(Mono.fromSupplier(() -> {
+                    addCookie(exchange.getResponse(), "jwt", accessToken, Duration.ofMillis(accessTokenExpiration));
+                    addCookie(exchange.getResponse(), "refresh_token", refreshToken, Duration.ofMillis(refreshTokenExpiration));
+                    return ResponseEntity.ok((Object) Map.of("success", true));
+                }));
+    }
+
+    private UserResponse toUserResponse(OAuth2User principal) {
+        return UserResponse.builder()
+                .id(OAuth2AttributeExtractor.getUserId(principal))
+                .login(OAuth2AttributeExtractor.resolveUsername(principal))
+                .name(OAuth2AttributeExtractor.getName(principal))
+                .email(OAuth2AttributeExtractor.getEmail(principal))
+                .avatarUrl(OAuth2AttributeExtractor.getAvatarUrl(principal))
+                .build();
+    }
+
+    private void addCookie(ServerHttpResponse response, String name, String value, Duration maxAge) {
+        response.addCookie(cookieFactory.buildTokenCookie(name, value, maxAge));
+    }
+
+    private static ResponseEntity<Object> error(int status, String error, String message) {
+        return ResponseEntity.status(status).body(ErrorResponse.builder()
+                .error(error)
+                .message(message)
+                .build());
+    }
+}
@@ -0,0 +1,23 @@
+package com.maruf.oauth.reactive.repository;
+
+import com.maruf.oauth.entity.InvalidatedToken;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive Mongo repository for {@link InvalidatedToken} documents.
+ *
+ * @author Maruf Bepary
+ */
+@Repository
+public interface ReactiveInvalidatedTokenRepository extends ReactiveMongoRepository<InvalidatedToken, String> {
+    /**
+     * Checks whether an access token has been revoked.
+     *
+     * @param token raw access token value
+     * @return {@code true} when a revocation entry exists
+     * @author Maruf Bepary
+     */
+    Mono<Boolean> existsByToken(String token);
+}
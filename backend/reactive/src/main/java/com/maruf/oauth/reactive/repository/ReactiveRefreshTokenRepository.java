@@ -0,0 +1,32 @@
+package com.maruf.oauth.reactive.repository;
+
+import com.maruf.oauth.entity.RefreshToken;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive Mongo repository for {@link RefreshToken} documents, keyed by the stored (possibly hashed) token.
+ *
+ * @author Maruf Bepary
+ */
+@Repository
+public interface ReactiveRefreshTokenRepository extends ReactiveMongoRepository<RefreshToken, String> {
+    /**
+     * Deletes the record of a refresh token.
+     *
+     * @param token stored token value
+     * @return number of documents deleted
+     * @author Maruf Bepary
+     */
+    Mono<Long> deleteByToken(String token);
+
+    /**
+     * Deletes every refresh token issued to a user.
+     *
+     * @param username owner of the tokens
+     * @return number of documents deleted
+     * @author Maruf Bepary
+     */
+    Mono<Long> deleteByUsername(String username);
+}
@@ -0,0 +1,32 @@
+package com.maruf.oauth.reactive.repository;
+
+import com.maruf.oauth.entity.User;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive Mongo repository for {@link User} documents.
+ *
+ * @author Maruf Bepary
+ */
+@Repository
+public interface ReactiveUserRepository extends ReactiveMongoRepository<User, String> {
+    /**
+     * Finds a user by email for login checks.
+     *
+     * @param email unique email address
+     * @return the user, or empty when none is registered
+     * @author Maruf Bepary
+     */
+    Mono<User> findByEmail(String email);
+
+    /**
+     * Checks whether an account exists for the given email.
+     *
+     * @param email unique email address
+     * @return {@code true} if a user record exists
+     * @author Maruf Bepary
+     */
+    Mono<Boolean> existsByEmail(String email);
+}
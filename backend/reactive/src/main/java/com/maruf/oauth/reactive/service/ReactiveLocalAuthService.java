@@ -0,0 +1,81 @@
+package com.maruf.oauth.reactive.service;
+
+import com.maruf.oauth.config.AuthMetrics;
+import com.maruf.oauth.entity.User;
+import com.maruf.oauth.reactive.repository.ReactiveUserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Collections;
+
+/**
+ * Handles email/password signup and login for the reactive edition, with the same rules and metrics as the
+ * servlet edition's {@code LocalAuthService}.
+ * BCrypt hashing takes tens of milliseconds of CPU, so it runs on the bounded elastic scheduler rather than
+ * the Netty event loop, which must never block.
+ *
+ * @author Maruf Bepary
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveLocalAuthService {
+
+    private final ReactiveUserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final AuthMetrics authMetrics;
+
+    /**
+     * Registers a new local user with hashed password and a default user role.
+     * Fails with {@link IllegalArgumentException} when the email already exists.
+     *
+     * @param email    unique email address for the user
+     * @param password plaintext password to hash before storage
+     * @param name     display name stored alongside the account
+     * @return persisted {@link User} entity
+     * @author Maruf Bepary
+     */
+    public Mono<User> register(String email, String password, String name) {
+        return Mono.defer(() -> {
+            long started = System.nanoTime();
+            return userRepository.existsByEmail(email).flatMap(exists -> {
+                if (exists) {
+                    authMetrics.localAuth("signup", "email_taken", started);
+                    return Mono.error(new IllegalArgumentException("Email already in use"));
+                }
+                return Mono.fromCallable(() -> passwordEncoder.encode(password))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .flatMap(passwordHash -> userRepository.save(User.builder()
+                                .email(email)
+                                .password(passwordHash)
+                                .name(name)
+                                .roles(Collections.singletonList("ROLE_USER"))
+                                .build()))
+                        .doOnSuccess(saved -> authMetrics.localAuth("signup", "success", started));
+            });
+        });
+    }
+
+    /**
+     * Authenticates a user by email and password.
+     *
+     * @param email    email address supplied by the client
+     * @param password plaintext password to verify against the stored hash
+     * @return the authenticated user, or empty when credentials are invalid
+     * @author Maruf Bepary
+     */
+    public Mono<User> login(String email, String password) {
+        return Mono.defer(() -> {
+            long started = System.nanoTime();
+            return userRepository.findByEmail(email)
+                    .filterWhen(user -> Mono.fromCallable(() -> passwordEncoder.matches(password, user.getPassword()))
+                            .subscribeOn(Schedulers.boundedElastic()))
+                    .doOnNext(user -> authMetrics.localAuth("login", "success", started))
+                    .switchIfEmpty(Mono.fromRunnable(() -> authMetrics.localAuth("login", "invalid_credentials", started)));
+        });
+    }
+}
@@ -0,0 +1,113 @@
+package com.maruf.oauth.reactive.service;
+
+import com.maruf.oauth.config.ProtectedDataProperties;
+import com.maruf.oauth.entity.ProtectedItem;
+import com.maruf.oauth.service.ProtectedItemService;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads a user's protected items from MongoDB a page or a stream at a time, with the same keyset pagination,
+ * page size limits and field projection as the servlet edition's {@link ProtectedItemService}.
+ * The {@code owner_id} index is created from the annotation on {@link ProtectedItem}, since this edition turns
+ * on Spring Data's index creation.
+ *
+ * @author Maruf Bepary
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveProtectedItemService {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ProtectedDataProperties properties;
+
+    /**
+     * One page of items and the cursor to continue from.
+     *
+     * @param items      items in id order
+     * @param nextCursor cursor for the following page, or {@code null} when this page is the last
+     * @author Maruf Bepary
+     */
+    public record Page(List<ProtectedItem> items, String nextCursor) {
+    }
+
+    /**
+     * Reads the page of a user's items after a cursor, fetching one item more than asked for to learn whether
+     * another page follows.
+     *
+     * @param owner  username whose items are read
+     * @param cursor value of {@link Page#nextCursor()} from the previous page, or {@code null} for the first page
+     * @param limit  requested page size; missing or non-positive values use the default and larger ones are capped
+     * @param fields fields to return, or {@code null}/empty for all projectable fields
+     * @return items of the page and the cursor to continue from; fails with {@link IllegalArgumentException}
+     *         when the cursor is malformed or a field is unknown
+     * @author Maruf Bepary
+     */
+    public Mono<Page> findPage(String owner, String cursor, Integer limit, Collection<String> fields) {
+        return Mono.defer(() -> {
+            int size = limit == null || limit <= 0
+                    ? properties.getDefaultPageSize()
+                    : Math.min(limit, properties.getMaxPageSize());
+
+            Criteria criteria = Criteria.where("owner").is(owner);
+            if (cursor != null && !cursor.isBlank()) {
+                if (!ObjectId.isValid(cursor)) {
+                    return Mono.error(new IllegalArgumentException("Invalid cursor"));
+                }
+                criteria = criteria.and("_id").gt(new ObjectId(cursor));
+            }
+            Query query = project(new Query(criteria), fields)
+                    .with(Sort.by(Sort.Direction.ASC, "_id"))
+                    .limit(size + 1);
+
+            return mongoTemplate.find(query, ProtectedItem.class).collectList().map(items -> {
+                if (items.size() <= size) {
+                    return new Page(items, null);
+                }
+                List<ProtectedItem> page = items.subList(0, size);
+                return new Page(page, page.get(size - 1).getId());
+            });
+        });
+    }
+
+    /**
+     * Streams all of a user's items in id order straight off a MongoDB cursor, fetched in batches of
+     * {@link ProtectedDataProperties#getStreamBatchSize()} as the subscriber requests them.
+     *
+     * @param owner  username whose items are read
+     * @param fields fields to return, or {@code null}/empty for all projectable fields
+     * @return items in id order; fails with {@link IllegalArgumentException} when a field is unknown
+     * @author Maruf Bepary
+     */
+    public Flux<ProtectedItem> stream(String owner, Collection<String> fields) {
+        return Flux.defer(() -> mongoTemplate.find(
+                project(new Query(Criteria.where("owner").is(owner)), fields)
+                        .with(Sort.by(Sort.Direction.ASC, "_id"))
+                        .cursorBatchSize(properties.getStreamBatchSize()),
+                ProtectedItem.class));
+    }
+
+    /**
+     * Restricts the query to the requested fields plus the id.
+     */
+    private static Query project(Query query, Collection<String> fields) {
+        Collection<String> included = fields == null || fields.isEmpty() ? ProtectedItemService.PROJECTABLE_FIELDS : fields;
+        for (String field : included) {
+            if (!ProtectedItemService.PROJECTABLE_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+            query.fields().include(field);
+        }
+        return query;
+    }
+}
@@ -0,0 +1,230 @@
+package com.maruf.oauth.reactive.service;
+
+import com.maruf.oauth.config.AuthMetrics;
+import com.maruf.oauth.config.RefreshTokenSecurityProperties;
+import com.maruf.oauth.entity.InvalidatedToken;
+import com.maruf.oauth.entity.RefreshToken;
+import com.maruf.oauth.reactive.repository.ReactiveInvalidatedTokenRepository;
+import com.maruf.oauth.reactive.repository.ReactiveRefreshTokenRepository;
+import com.maruf.oauth.service.RefreshTokenStore;
+import com.maruf.oauth.service.TokenHashing;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Reactive counterpart of {@link RefreshTokenStore}, reading and writing the same {@code refresh_tokens} and
+ * {@code invalidated_access_tokens} collections with the same hashing, so either edition honours the other's
+ * sessions and revocations. Covers the default unsharded layout only: time buckets, shards and write-behind
+ * batching are not available here.
+ *
+ * @author Maruf Bepary
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveRefreshTokenStore {
+
+    private final ReactiveRefreshTokenRepository refreshTokenRepository;
+    private final ReactiveInvalidatedTokenRepository invalidatedTokenRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final RefreshTokenSecurityProperties refreshTokenSecurityProperties;
+    private final AuthMetrics authMetrics;
+
+    /**
+     * Access token TTL in milliseconds from {@code jwt.access-token-expiration}; bounds how long a logout-everywhere
+     * marker is kept.
+     *
+     * @author Maruf Bepary
+     */
+    @Value("${jwt.access-token-expiration:900000}")
+    private Long accessTokenExpiration;
+
+    /**
+     * Saves a refresh token record with creation and usage timestamps.
+     *
+     * @param token     refresh token string generated for the session
+     * @param username  account owner associated with the token
+     * @param expiresAt expiration moment tracked for cleanup
+     * @return completes once the insert is acknowledged
+     * @author Maruf Bepary
+     */
+    public Mono<Void> storeRefreshToken(String token, String username, Instant expiresAt) {
+        return timed("store_refresh_token", () -> {
+            Instant now = Instant.now();
+            return refreshTokenRepository.insert(RefreshToken.builder()
+                            .token(applyHash(token))
+                            .username(username)
+                            .expiresAt(expiresAt)
+                            .createdAt(now)
+                            .lastUsed(now)
+                            .build())
+                    .doOnSuccess(stored -> log.debug("Stored refresh token for user: {}", username))
+                    .then();
+        });
+    }
+
+    /**
+     * Looks up the owner of a refresh token, optionally bumping its {@code lastUsed} timestamp in the same
+     * {@code findAndModify} round trip. Callers about to rotate the token skip the touch.
+     *
+     * @param token refresh token presented by the client
+     * @param touch whether to bump {@code lastUsed} as part of the lookup
+     * @return owner of the token, or empty when it is missing or revoked
+     * @author Maruf Bepary
+     */
+    public Mono<String> getUsernameFromRefreshToken(String token, boolean touch) {
+        String operation = touch ? "touch_refresh_token" : "find_refresh_token";
+        return timed(operation, () -> {
+            Query query = Query.query(Criteria.where("token").is(applyHash(token)));
+            query.fields().include("username");
+            Mono<RefreshToken> record = touch
+                    ? mongoTemplate.findAndModify(query, Update.update("lastUsed", Instant.now()), RefreshToken.class)
+                    : mongoTemplate.findOne(query, RefreshToken.class);
+            return record.map(RefreshToken::getUsername);
+        });
+    }
+
+    /**
+     * Replaces a refresh token with its successor for single-use rotation by rewriting the existing document in one
+     * update, matched on the presented token and its owner. Of two concurrent refreshes with the same token exactly
+     * one matches, and the other must not hand out its successor.
+     *
+     * @param currentToken refresh token presented by the client
+     * @param newToken     replacement refresh token
+     * @param username     owner of both tokens
+     * @param expiresAt    expiry of the replacement token
+     * @return {@code true} when the successor was stored, {@code false} when the current token was already rotated
+     *         or revoked
+     * @author Maruf Bepary
+     */
+    public Mono<Boolean> rotateRefreshToken(String currentToken, String newToken, String username, Instant expiresAt) {
+        return timed("rotate_refresh_token", () -> {
+            Instant now = Instant.now();
+            Query query = Query.query(Criteria.where("token").is(applyHash(currentToken)).and("username").is(username));
+            Update update = new Update()
+                    .set("token", applyHash(newToken))
+                    .set("expiresAt", expiresAt)
+                    .set("createdAt", now)
+                    .set("lastUsed", now);
+            return mongoTemplate.updateFirst(query, update, RefreshToken.class)
+                    .map(result -> {
+                        if (result.getMatchedCount() == 0) {
+                            log.debug("Refresh token for user {} was already rotated or revoked", username);
+                            return false;
+                        }
+                        log.debug("Rotated refresh token in place for user: {}", username);
+                        return true;
+                    });
+        });
+    }
+
+    /**
+     * Removes the refresh token entry when a client logs out or presents an expired token.
+     *
+     * @param token refresh token value to remove from persistence
+     * @return completes once the delete is acknowledged
+     * @author Maruf Bepary
+     */
+    public Mono<Void> invalidateRefreshToken(String token) {
+        return timed("revoke_refresh_token", () -> refreshTokenRepository.deleteByToken(applyHash(token))
+                .doOnSuccess(deleted -> {
+                    authMetrics.tokensRevoked("refresh", 1);
+                    log.debug("Refresh token invalidated");
+                })
+                .then());
+    }
+
+    /**
+     * Removes every refresh token issued to a user and records a {@link RefreshTokenStore#LOGOUT_ALL_REASON} entry
+     * among the revoked access tokens, as the servlet edition does.
+     *
+     * @param username account whose refresh tokens should be removed
+     * @return number of refresh tokens deleted
+     * @author Maruf Bepary
+     */
+    public Mono<Long> invalidateAllRefreshTokens(String username) {
+        return timed("revoke_all_refresh_tokens", () -> refreshTokenRepository.deleteByUsername(username)
+                .flatMap(deleted -> {
+                    Instant now = Instant.now();
+                    return invalidatedTokenRepository.insert(InvalidatedToken.builder()
+                                    .token(RefreshTokenStore.LOGOUT_ALL_REASON + ":" + username + ":" + UUID.randomUUID())
+                                    .username(username)
+                                    .expiresAt(now.plusMillis(accessTokenExpiration))
+                                    .invalidatedAt(now)
+                                    .reason(RefreshTokenStore.LOGOUT_ALL_REASON)
+                                    .build())
+                            .thenReturn(deleted);
+                })
+                .doOnSuccess(deleted -> {
+                    authMetrics.tokensRevoked("refresh", deleted);
+                    log.debug("Invalidated {} refresh tokens for user: {}", deleted, username);
+                }));
+    }
+
+    /**
+     * Persists an invalidated access token to protect against replay until it naturally expires.
+     *
+     * @param token     access token string that should no longer authenticate requests
+     * @param username  principal associated with the invalidated token
+     * @param expiresAt expiration instant copied from the JWT payload
+     * @return completes once the insert is acknowledged
+     * @author Maruf Bepary
+     */
+    public Mono<Void> invalidateAccessToken(String token, String username, Instant expiresAt) {
+        return timed("revoke_access_token", () -> invalidatedTokenRepository.insert(InvalidatedToken.builder()
+                        .token(token)
+                        .username(username)
+                        .expiresAt(expiresAt)
+                        .invalidatedAt(Instant.now())
+                        .reason("logout")
+                        .build())
+                .doOnSuccess(stored -> {
+                    authMetrics.tokensRevoked("access", 1);
+                    log.debug("Access token invalidated");
+                })
+                .then());
+    }
+
+    /**
+     * Checks if an access token has been explicitly invalidated.
+     *
+     * @param token access token to check for invalidation records
+     * @return {@code true} when the token was revoked
+     * @author Maruf Bepary
+     */
+    public Mono<Boolean> isAccessTokenInvalidated(String token) {
+        return timed("check_access_token", () -> invalidatedTokenRepository.existsByToken(token));
+    }
+
+    /**
+     * Hashes refresh tokens when hashing is enabled, exactly as {@link RefreshTokenStore} does.
+     *
+     * @param token raw refresh token value received from the client
+     * @return hashed or original token depending on configuration
+     * @author Maruf Bepary
+     */
+    String applyHash(String token) {
+        return refreshTokenSecurityProperties.isHashingEnabled() ? TokenHashing.sha256(token) : token;
+    }
+
+    /**
+     * Records the latency of a store operation from subscription to completion, error or cancellation.
+     */
+    private <T> Mono<T> timed(String operation, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            long started = System.nanoTime();
+            return call.get().doFinally(signal -> authMetrics.tokenStoreOperation(operation, started));
+        });
+    }
+}
@@ -0,0 +1,28 @@
+package com.maruf.oauth.reactive;
+
+import com.maruf.oauth.contract.ThroughputComparison;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Measures the reactive edition for comparison with the servlet edition's {@code ServletThroughputTest}.
+ * Run with {@code ./gradlew performanceTest}, which runs both.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ReactiveThroughputTest extends ThroughputComparison {
+
+    @LocalServerPort
+    private int port;
+
+    @Override
+    protected int port() {
+        return port;
+    }
+
+    @Override
+    protected String edition() {
+        return "reactive";
+    }
+}
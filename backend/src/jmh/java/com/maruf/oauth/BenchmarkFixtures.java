@@ -0,0 +1,58 @@
+package com.maruf.oauth;
+
+import com.maruf.oauth.config.AuthMetrics;
+import com.maruf.oauth.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Builds the services and users the benchmarks exercise without starting Spring.
+ */
+public final class BenchmarkFixtures {
+
+    public static final String SECRET = "benchmark-secret-that-is-long-enough-for-hs256-signing-1234567890";
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Creates a {@link JwtService} configured as {@code application.yaml} would.
+     *
+     * @param accessTokenExpiration access token lifetime in milliseconds; negative values issue expired tokens
+     */
+    public static JwtService jwtService(long accessTokenExpiration) {
+        JwtService jwtService = new JwtService(new AuthMetrics(new SimpleMeterRegistry()));
+        setField(jwtService, "secret", SECRET);
+        setField(jwtService, "accessTokenExpiration", accessTokenExpiration);
+        setField(jwtService, "refreshTokenExpiration", 604800000L);
+        return jwtService;
+    }
+
+    /**
+     * Returns a user with the attributes GitHub's user-info endpoint provides.
+     */
+    public static OAuth2User githubUser() {
+        return new DefaultOAuth2User(
+                Collections.singleton(new SimpleGrantedAuthority("ROLE_USER")),
+                Map.of(
+                        "id", 583231,
+                        "login", "octocat",
+                        "name", "The Octocat",
+                        "email", "octocat@example.com",
+                        "avatar_url", "https://avatars.githubusercontent.com/u/583231"),
+                "login");
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
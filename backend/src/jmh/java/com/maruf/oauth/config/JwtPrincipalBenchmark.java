@@ -0,0 +1,57 @@
+package com.maruf.oauth.config;
+
+import com.maruf.oauth.BenchmarkFixtures;
+import com.maruf.oauth.util.OAuth2AttributeExtractor;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how {@link JwtAuthenticationFilter} turns verified claims into an authenticated principal.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtPrincipalBenchmark {
+
+    private Claims claims;
+
+    @Setup
+    public void setUp() {
+        var jwtService = BenchmarkFixtures.jwtService(900000L);
+        claims = jwtService.extractAllClaims(jwtService.generateAccessToken(BenchmarkFixtures.githubUser()));
+    }
+
+    @Benchmark
+    public Map<String, Object> extractAttributesFromClaims() {
+        return OAuth2AttributeExtractor.fromClaims(claims);
+    }
+
+    @Benchmark
+    public UsernamePasswordAuthenticationToken buildAuthentication() {
+        OAuth2User oauth2User = new DefaultOAuth2User(
+                Collections.singleton(new SimpleGrantedAuthority("ROLE_USER")),
+                OAuth2AttributeExtractor.fromClaims(claims),
+                "login");
+        return new UsernamePasswordAuthenticationToken(oauth2User, null, oauth2User.getAuthorities());
+    }
+}
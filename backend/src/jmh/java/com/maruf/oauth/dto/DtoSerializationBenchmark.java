@@ -0,0 +1,73 @@
+package com.maruf.oauth.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures JSON serialisation of the response bodies returned on every authenticated page load.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoSerializationBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private UserResponse user;
+    private AuthStatusResponse status;
+    private ProtectedDataResponse protectedData;
+
+    @Setup
+    public void setUp() {
+        user = UserResponse.builder()
+                .id("583231")
+                .login("octocat")
+                .name("The Octocat")
+                .email("octocat@example.com")
+                .avatarUrl("https://avatars.githubusercontent.com/u/583231")
+                .build();
+        status = AuthStatusResponse.builder().authenticated(true).user(user).build();
+        protectedData = ProtectedDataResponse.builder()
+                .message("This is protected data")
+                .user("octocat")
+                .data(ProtectedDataResponse.DataContent.builder()
+                        .items(List.of(
+                                ProtectedItemResponse.builder().id("65a000000000000000000001").name("Item 1").build(),
+                                ProtectedItemResponse.builder().id("65a000000000000000000002").name("Item 2").build(),
+                                ProtectedItemResponse.builder().id("65a000000000000000000003").name("Item 3").build()))
+                        .count(3)
+                        .lastUpdated(1735689600000L)
+                        .build())
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serializeUser() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] serializeAuthStatus() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(status);
+    }
+
+    @Benchmark
+    public byte[] serializeProtectedData() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(protectedData);
+    }
+}
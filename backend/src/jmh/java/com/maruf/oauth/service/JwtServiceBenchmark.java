@@ -0,0 +1,81 @@
+package com.maruf.oauth.service;
+
+import com.maruf.oauth.BenchmarkFixtures;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures access and refresh token issuance and the verification paths taken for valid,
+ * expired and tampered tokens.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private OAuth2User user;
+    private Map<String, Object> refreshClaims;
+    private String validToken;
+    private String expiredToken;
+    private String tamperedToken;
+
+    @Setup
+    public void setUp() {
+        jwtService = BenchmarkFixtures.jwtService(900000L);
+        user = BenchmarkFixtures.githubUser();
+        refreshClaims = Map.of("id", 583231, "login", "octocat", "name", "The Octocat",
+                "email", "octocat@example.com");
+        validToken = jwtService.generateAccessToken(user);
+        expiredToken = BenchmarkFixtures.jwtService(-60000L).generateAccessToken(user);
+        int signatureStart = validToken.lastIndexOf('.') + 1;
+        char flipped = validToken.charAt(signatureStart) == 'A' ? 'B' : 'A';
+        tamperedToken = validToken.substring(0, signatureStart) + flipped + validToken.substring(signatureStart + 1);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtService.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtService.generateRefreshToken("octocat", refreshClaims);
+    }
+
+    @Benchmark
+    public Claims parseValidToken() {
+        return jwtService.extractAllClaims(validToken);
+    }
+
+    @Benchmark
+    public boolean verifyValidToken() {
+        return jwtService.isTokenValid(validToken) && !jwtService.isTokenExpired(validToken);
+    }
+
+    @Benchmark
+    public boolean verifyExpiredToken() {
+        return jwtService.isTokenValid(expiredToken);
+    }
+
+    @Benchmark
+    public boolean verifyTamperedToken() {
+        return jwtService.isTokenValid(tamperedToken);
+    }
+}
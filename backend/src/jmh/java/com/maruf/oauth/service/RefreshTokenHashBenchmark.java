@@ -0,0 +1,44 @@
+package com.maruf.oauth.service;
+
+import com.maruf.oauth.BenchmarkFixtures;
+import com.maruf.oauth.config.RefreshTokenSecurityProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link RefreshTokenStore#applyHash(String)}, which runs on every refresh token read and write.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RefreshTokenHashBenchmark {
+
+    private RefreshTokenStore refreshTokenStore;
+    private String refreshToken;
+
+    @Setup
+    public void setUp() {
+        RefreshTokenSecurityProperties properties = new RefreshTokenSecurityProperties();
+        properties.setHashingEnabled(true);
+        refreshTokenStore = new RefreshTokenStore(null, properties, null, null);
+        refreshToken = BenchmarkFixtures.jwtService(900000L).generateRefreshToken("octocat");
+    }
+
+    @Benchmark
+    public String applyHash() {
+        return refreshTokenStore.applyHash(refreshToken);
+    }
+}
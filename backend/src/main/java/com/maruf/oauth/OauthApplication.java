@@ -2,6 +2,7 @@ package com.maruf.oauth;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Bootstraps the Spring Boot application that backs the OAuth demo.
@@ -10,6 +11,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * @author Maruf Bepary
  */
 @SpringBootApplication
+@EnableScheduling
 public class OauthApplication {
 
     /**
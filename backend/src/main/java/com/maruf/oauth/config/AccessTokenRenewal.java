@@ -0,0 +1,150 @@
+package com.maruf.oauth.config;
+
+import com.maruf.oauth.service.JwtService;
+import com.maruf.oauth.service.RefreshTokenStore;
+import com.maruf.oauth.service.TokenVerification;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reissues the {@code jwt} cookie for authenticated requests whose access token is about to expire,
+ * using the profile already in the verified claims, so active clients are never sent a 401 to refresh on.
+ * Renewals are remembered by the presented token's {@code jti}: a burst of requests carrying the same token
+ * signs one successor and receives the same cookie, and logout can revoke a successor the client may not have seen yet.
+ * A successor is only signed while the session behind it is alive: the request's refresh token must verify, belong to
+ * the same user and still be stored, so a revoked session or {@code /api/auth/logout-all} stops renewal, and the
+ * successor never outlives that refresh token. The store lookup runs once per renewed token, since later requests
+ * with the same token reuse the remembered successor.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AccessTokenRenewal {
+
+    private final AccessTokenRenewalProperties properties;
+    private final JwtService jwtService;
+    private final RefreshTokenStore refreshTokenStore;
+    private final HttpCookieFactory cookieFactory;
+    private final AuthMetrics authMetrics;
+
+    /**
+     * Access token lifetime in milliseconds, matching {@link JwtService}; used to measure the successor's expiry.
+     *
+     * @author Maruf Bepary
+     */
+    @Value("${jwt.access-token-expiration:900000}")
+    private long accessTokenExpiration;
+
+    private final Map<String, Renewal> renewals = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a fresh {@code jwt} cookie to the response when the verified token expires within the configured window.
+     * Does nothing when renewal is disabled, the token has time left, it has no {@code jti} to remember it by,
+     * or the request's refresh token no longer backs a live session; the client then takes the refresh path.
+     *
+     * @param claims       verified claims of the presented, unrevoked access token
+     * @param user         principal rebuilt from the claims, signed into the successor token
+     * @param refreshToken the request's {@code refresh_token} cookie, or {@code null} when absent
+     * @param response     response receiving the renewed cookie
+     * @return expiry of the access token the client holds once the response arrives, or {@code null} when unknown
+     * @author Maruf Bepary
+     */
+    public Instant renewIfExpiring(Claims claims, OAuth2User user, String refreshToken, HttpServletResponse response) {
+        Instant presentedExpiry = claims.getExpiration() == null ? null : claims.getExpiration().toInstant();
+        if (!properties.isEnabled() || claims.getId() == null || presentedExpiry == null) {
+            return presentedExpiry;
+        }
+        long now = System.currentTimeMillis();
+        long expiresAt = presentedExpiry.toEpochMilli();
+        if (expiresAt - now > properties.getWindow().toMillis()) {
+            return presentedExpiry;
+        }
+
+        Renewal renewal = renewals.get(claims.getId());
+        String result = "reused";
+        if (renewal == null) {
+            if (renewals.size() >= properties.getMaxTracked()) {
+                renewals.values().removeIf(entry -> entry.replacesUntil() <= now);
+                if (renewals.size() >= properties.getMaxTracked()) {
+                    // Unbounded growth is worse than letting this client take the refresh path
+                    authMetrics.tokenRenewal("skipped");
+                    return presentedExpiry;
+                }
+            }
+            Instant sessionExpiry = liveSessionExpiry(claims, refreshToken);
+            if (sessionExpiry == null || sessionExpiry.toEpochMilli() <= now) {
+                authMetrics.tokenRenewal("no_session");
+                return presentedExpiry;
+            }
+            Instant successorExpiry = Instant.ofEpochMilli(Math.min(now + accessTokenExpiration, sessionExpiry.toEpochMilli()));
+            renewal = renewals.computeIfAbsent(claims.getId(), ignored -> new Renewal(
+                    jwtService.generateAccessToken(user, successorExpiry),
+                    successorExpiry,
+                    expiresAt));
+            result = "reissued";
+            log.debug("Renewed access token for user: {}", claims.get("login"));
+        }
+
+        Duration maxAge = Duration.between(Instant.ofEpochMilli(now), renewal.expiresAt());
+        response.addHeader(HttpHeaders.SET_COOKIE,
+                cookieFactory.buildTokenCookie("jwt", renewal.token(), maxAge).toString());
+        authMetrics.tokenRenewal(result);
+        return renewal.expiresAt();
+    }
+
+    /**
+     * Finds the expiry of the session backing an access token.
+     *
+     * @param claims       verified claims of the access token
+     * @param refreshToken refresh token sent with the request, may be {@code null}
+     * @return the refresh token's expiry, or {@code null} when it is missing, invalid, someone else's or no longer stored
+     */
+    private Instant liveSessionExpiry(Claims claims, String refreshToken) {
+        if (refreshToken == null) {
+            return null;
+        }
+        TokenVerification verification = jwtService.verify(refreshToken, "refresh");
+        if (!verification.isValid() || verification.claims().getExpiration() == null
+                || !claims.getSubject().equals(verification.claims().getSubject())) {
+            return null;
+        }
+        if (refreshTokenStore.getUsernameFromRefreshToken(refreshToken, false) == null) {
+            return null;
+        }
+        return verification.claims().getExpiration().toInstant();
+    }
+
+    /**
+     * Removes and returns the successor issued for a token, so logout can revoke it alongside the presented one.
+     *
+     * @param presentedId {@code jti} of the token being revoked
+     * @return the successor, or {@code null} when the token was never renewed
+     * @author Maruf Bepary
+     */
+    Renewal forget(String presentedId) {
+        return presentedId == null ? null : renewals.remove(presentedId);
+    }
+
+    /**
+     * Successor of a presented token.
+     *
+     * @param token         signed successor access token
+     * @param expiresAt     expiry of the successor
+     * @param replacesUntil expiry of the presented token in epoch milliseconds, after which the entry can be dropped
+     */
+    record Renewal(String token, Instant expiresAt, long replacesUntil) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.maruf.oauth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Binds sliding access token renewal settings from {@code app.security.access-token.renewal}.
+ * When enabled, authenticated requests carrying an access token close to expiry receive a fresh {@code jwt} cookie,
+ * so active clients never hit the 401, refresh and retry sequence.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+@ConfigurationProperties(prefix = "app.security.access-token.renewal")
+@Data
+public class AccessTokenRenewalProperties {
+
+    /**
+     * Enables sliding renewal in the authentication filter; defaults to {@code false}.
+     *
+     * @author Maruf Bepary
+     */
+    private boolean enabled = false;
+
+    /**
+     * Remaining lifetime below which a presented access token is renewed; defaults to 2 minutes.
+     * Should be well under the access token lifetime, otherwise every fresh token is renewed straight away.
+     *
+     * @author Maruf Bepary
+     */
+    private Duration window = Duration.ofMinutes(2);
+
+    /**
+     * Upper bound on tokens whose renewal is remembered; defaults to 10000.
+     * When reached and no remembered token has expired yet, renewal is skipped and clients fall back to refreshing.
+     *
+     * @author Maruf Bepary
+     */
+    private int maxTracked = 10_000;
+}
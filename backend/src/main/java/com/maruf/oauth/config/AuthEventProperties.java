@@ -0,0 +1,78 @@
+package com.maruf.oauth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Binds the auth event stream settings: the in-memory ring buffer and the on-disk journal.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+@ConfigurationProperties(prefix = "app.audit")
+@Data
+public class AuthEventProperties {
+
+    /**
+     * Events buffered between request threads and the consumer thread, rounded up to a power of two.
+     * Events published while the buffer is full are dropped and counted rather than blocking the request.
+     *
+     * @author Maruf Bepary
+     */
+    private int bufferSize = 8192;
+
+    /**
+     * Settings for the append-only journal the events are written to.
+     *
+     * @author Maruf Bepary
+     */
+    private Journal journal = new Journal();
+
+    /**
+     * Memory-mapped, segmented journal of auth events.
+     *
+     * @author Maruf Bepary
+     */
+    @Data
+    public static class Journal {
+
+        /**
+         * Writes events to the journal; defaults to {@code false} so only metrics consume the stream.
+         *
+         * @author Maruf Bepary
+         */
+        private boolean enabled = false;
+
+        /**
+         * Directory holding the journal segments. Only one application instance may write to it.
+         *
+         * @author Maruf Bepary
+         */
+        private String dir = System.getProperty("java.io.tmpdir") + "/oauth-auth-events";
+
+        /**
+         * Size each segment file is preallocated and mapped at; a new segment starts when one fills up.
+         *
+         * @author Maruf Bepary
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(16);
+
+        /**
+         * How long closed segments are kept before deletion.
+         *
+         * @author Maruf Bepary
+         */
+        private Duration retention = Duration.ofDays(30);
+
+        /**
+         * Most segments kept on disk, the active one included; the oldest are deleted first.
+         *
+         * @author Maruf Bepary
+         */
+        private int maxSegments = 64;
+    }
+}
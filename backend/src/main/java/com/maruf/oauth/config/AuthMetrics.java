@@ -0,0 +1,309 @@
+package com.maruf.oauth.config;
+
+import com.maruf.oauth.service.TokenOutcome;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters for the token lifecycle: issuance, verification outcomes, token store latency,
+ * revocations, local and OAuth2 logins, and the number of live refresh sessions.
+ * Meters are looked up once per tag combination and cached, since several are hit on every request.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+public class AuthMetrics {
+
+    /**
+     * Timer for signing a new access or refresh token; its count is the number of tokens issued.
+     */
+    static final String TOKEN_ISSUE = "auth.token.issue";
+
+    /**
+     * Timer for parsing and verifying a token's signature and expiry.
+     */
+    static final String TOKEN_VERIFY = "auth.token.verify";
+
+    /**
+     * Counter of presented tokens by type and final outcome, including revocation and type checks.
+     */
+    static final String TOKEN_OUTCOMES = "auth.token.outcomes";
+
+    /**
+     * Counter of revoked access and refresh tokens.
+     */
+    static final String TOKEN_REVOCATIONS = "auth.token.revocations";
+
+    /**
+     * Timer for MongoDB token store operations.
+     */
+    static final String TOKEN_STORE = "auth.token.store";
+
+    /**
+     * Gauge of refresh token records in the store.
+     */
+    static final String ACTIVE_REFRESH_SESSIONS = "auth.refresh.sessions.active";
+
+    /**
+     * Timer for local signup and login requests, including password hashing.
+     */
+    static final String LOCAL_AUTH = "auth.local.requests";
+
+    /**
+     * Counter of completed OAuth2 logins by registration and outcome.
+     */
+    static final String OAUTH2_LOGINS = "auth.oauth2.logins";
+
+    /**
+     * Counter of auth events taken from the event stream, by type.
+     */
+    static final String AUTH_EVENTS = "auth.events";
+
+    /**
+     * Counter of auth events dropped because the event buffer was full.
+     */
+    static final String AUTH_EVENTS_DROPPED = "auth.events.dropped";
+
+    /**
+     * Counter of access tokens renewed by the authentication filter, by whether a successor was signed or reused.
+     */
+    static final String TOKEN_RENEWALS = "auth.token.renewals";
+
+    /**
+     * Distribution of writes per write-behind flush.
+     */
+    static final String TOKEN_WRITE_BATCH_SIZE = "auth.token.write.batch.size";
+
+    /**
+     * Timer for sending one write-behind batch to MongoDB.
+     */
+    static final String TOKEN_WRITE_FLUSH = "auth.token.write.flush";
+
+    /**
+     * Counter of queued token writes MongoDB did not acknowledge, by operation.
+     */
+    static final String TOKEN_WRITE_FAILURES = "auth.token.write.failures";
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private DistributionSummary writeBatchSize;
+
+    /**
+     * Uses the application's registry, or the global one when no registry bean exists, as in test slices.
+     *
+     * @param meterRegistry registry provider
+     * @author Maruf Bepary
+     */
+    @Autowired
+    public AuthMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        this(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    /**
+     * Records into the given registry.
+     *
+     * @param registry registry to register meters with
+     * @author Maruf Bepary
+     */
+    public AuthMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Records the time taken to sign a token.
+     *
+     * @param type    {@code access} or {@code refresh}
+     * @param started {@link System#nanoTime()} before signing
+     * @author Maruf Bepary
+     */
+    public void tokenIssued(String type, long started) {
+        timer(TOKEN_ISSUE, "Time to sign a new token", "type", type)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the time taken to parse a token and the result of its signature and expiry checks.
+     *
+     * @param outcome result of parsing
+     * @param started {@link System#nanoTime()} before parsing
+     * @author Maruf Bepary
+     */
+    public void tokenVerified(TokenOutcome outcome, long started) {
+        timer(TOKEN_VERIFY, "Time to parse and verify a token", "outcome", outcome.tag())
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts the final outcome for a token presented by a client.
+     *
+     * @param type    {@code access} or {@code refresh}
+     * @param outcome outcome after signature, expiry, type and revocation checks
+     * @author Maruf Bepary
+     */
+    public void tokenOutcome(String type, TokenOutcome outcome) {
+        counter(TOKEN_OUTCOMES, "Tokens presented by clients by final outcome", "type", type, "outcome", outcome.tag())
+                .increment();
+    }
+
+    /**
+     * Counts revoked tokens.
+     *
+     * @param type  {@code access} or {@code refresh}
+     * @param count number of tokens revoked
+     * @author Maruf Bepary
+     */
+    public void tokensRevoked(String type, long count) {
+        counter(TOKEN_REVOCATIONS, "Revoked access and refresh tokens", "type", type)
+                .increment(count);
+    }
+
+    /**
+     * Counts a sliding renewal of an access token close to expiry.
+     *
+     * @param result {@code reissued}, {@code reused} when a burst shared one successor, or {@code skipped}
+     * @author Maruf Bepary
+     */
+    public void tokenRenewal(String result) {
+        counter(TOKEN_RENEWALS, "Access tokens renewed before expiry by the authentication filter", "result", result)
+                .increment();
+    }
+
+    /**
+     * Records the latency of a token store operation.
+     * With write-behind enabled, writes are timed up to the point they are queued.
+     *
+     * @param operation operation name such as {@code find_refresh_token}
+     * @param started   {@link System#nanoTime()} before the operation
+     * @author Maruf Bepary
+     */
+    public void tokenStoreOperation(String operation, long started) {
+        timer(TOKEN_STORE, "Latency of MongoDB token store operations", "operation", operation)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the size of a write-behind batch and how long flushing it to MongoDB took.
+     *
+     * @param batchSize writes in the batch, including ones that cancelled out
+     * @param started   {@link System#nanoTime()} before the flush
+     * @author Maruf Bepary
+     */
+    public void tokenWriteFlush(int batchSize, long started) {
+        if (writeBatchSize == null) {
+            writeBatchSize = DistributionSummary.builder(TOKEN_WRITE_BATCH_SIZE)
+                    .description("Token writes sent per write-behind flush")
+                    .baseUnit("writes")
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+        writeBatchSize.record(batchSize);
+        timer(TOKEN_WRITE_FLUSH, "Latency of write-behind flushes to MongoDB")
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts a queued token write that MongoDB did not acknowledge.
+     *
+     * @param operation operation name such as {@code revoke_refresh_token}
+     * @author Maruf Bepary
+     */
+    public void tokenWriteFailed(String operation) {
+        counter(TOKEN_WRITE_FAILURES, "Queued token writes that failed to reach MongoDB", "operation", operation)
+                .increment();
+    }
+
+    /**
+     * Records the latency and result of a local signup or login.
+     *
+     * @param action  {@code signup} or {@code login}
+     * @param outcome {@code success}, {@code invalid_credentials} or {@code email_taken}
+     * @param started {@link System#nanoTime()} before the request was handled
+     * @author Maruf Bepary
+     */
+    public void localAuth(String action, String outcome, long started) {
+        timer(LOCAL_AUTH, "Latency of local signup and login including password hashing",
+                "action", action, "outcome", outcome)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts a completed OAuth2 login attempt.
+     *
+     * @param registrationId client registration, or {@code unknown} when it cannot be determined
+     * @param outcome        {@code success} or the reason the login was refused
+     * @author Maruf Bepary
+     */
+    public void oauth2Login(String registrationId, String outcome) {
+        counter(OAUTH2_LOGINS, "Completed OAuth2 logins by provider and outcome",
+                "registration_id", registrationId, "outcome", outcome)
+                .increment();
+    }
+
+    /**
+     * Counts an auth event consumed from the event stream.
+     *
+     * @param type lower-case event type such as {@code login}
+     * @author Maruf Bepary
+     */
+    public void authEvent(String type) {
+        counter(AUTH_EVENTS, "Auth events such as logins, refreshes and revocations", "type", type)
+                .increment();
+    }
+
+    /**
+     * Counts an auth event dropped because the event buffer was full.
+     *
+     * @author Maruf Bepary
+     */
+    public void authEventDropped() {
+        counter(AUTH_EVENTS_DROPPED, "Auth events dropped because the event buffer was full")
+                .increment();
+    }
+
+    /**
+     * Registers the gauge reporting live refresh sessions.
+     * The supplier is sampled on each scrape, so it should be cheap, e.g. a metadata count.
+     *
+     * @param sessions supplier of the current session count
+     * @author Maruf Bepary
+     */
+    public void activeRefreshSessions(Supplier<Number> sessions) {
+        Gauge.builder(ACTIVE_REFRESH_SESSIONS, sessions)
+                .description("Refresh token records in the token store, including expired ones awaiting TTL removal")
+                .baseUnit("sessions")
+                .strongReference(true)
+                .register(registry);
+    }
+
+    private Timer timer(String name, String description, String... tags) {
+        return timers.computeIfAbsent(key(name, tags), ignored -> Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    private Counter counter(String name, String description, String... tags) {
+        return counters.computeIfAbsent(key(name, tags), ignored -> Counter.builder(name)
+                .description(description)
+                .tags(tags)
+                .register(registry));
+    }
+
+    private static String key(String name, String... tags) {
+        return name + "|" + String.join("|", tags);
+    }
+}
@@ -0,0 +1,70 @@
+package com.maruf.oauth.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event timing one stage of authenticating a request: reading the cookie, verifying the token,
+ * building the principal, or running the rest of the filter chain and controller.
+ * Created, begun and committed on the request path; when no recording enables it, {@link #shouldCommit()} is
+ * false and the JIT removes the allocation, so the cost is a single flag check.
+ *
+ * @author Maruf Bepary
+ */
+@Name("com.maruf.oauth.AuthStage")
+@Label("Authentication Stage")
+@Category({"OAuth", "Authentication"})
+@Description("Duration and outcome of one stage of authenticating a request")
+@StackTrace(false)
+public class AuthStageEvent extends Event {
+
+    /**
+     * Cookie lookup on the incoming request.
+     */
+    public static final String COOKIE = "cookie";
+
+    /**
+     * Signature, expiry and type checks of a presented token.
+     */
+    public static final String VERIFY = "verify";
+
+    /**
+     * Rebuilding the principal and security context from verified claims.
+     */
+    public static final String PRINCIPAL = "principal";
+
+    /**
+     * Remaining filters and the controller, timed from the authentication filter.
+     */
+    public static final String CHAIN = "chain";
+
+    @Label("Stage")
+    private String stage;
+
+    @Label("Token Type")
+    private String tokenType;
+
+    @Label("Outcome")
+    private String outcome;
+
+    /**
+     * Ends the stage and commits the event if a recording is collecting it and the threshold is met.
+     *
+     * @param stage     stage name such as {@link #VERIFY}
+     * @param tokenType {@code access} or {@code refresh}
+     * @param outcome   outcome of the stage, e.g. a {@link com.maruf.oauth.service.TokenOutcome} tag
+     * @author Maruf Bepary
+     */
+    public void record(String stage, String tokenType, String outcome) {
+        if (shouldCommit()) {
+            this.stage = stage;
+            this.tokenType = tokenType;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.maruf.oauth.config;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.oauth2.client.oidc.authentication.OidcIdTokenDecoderFactory;
+import org.springframework.security.oauth2.client.oidc.authentication.OidcIdTokenValidator;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.converter.ClaimTypeConverter;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtDecoderFactory;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decodes OIDC ID tokens with signing keys served from {@link ProviderMetadataCache}.
+ * Replaces Spring Security's default factory, which downloads the JWKS on a private client the first time
+ * each node sees a login, so keys are shared with the pooled provider client and survive restarts on disk.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CachedIdTokenDecoderFactory implements JwtDecoderFactory<ClientRegistration> {
+
+    /**
+     * Minimum gap between JWKS refetches triggered by an unknown key ID.
+     */
+    private static final Duration UNKNOWN_KEY_REFRESH_INTERVAL = Duration.ofSeconds(30);
+
+    private final ProviderMetadataCache metadataCache;
+    private final OAuth2DiscoveryProperties discoveryProperties;
+    private final Map<String, JwtDecoder> decoders = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the decoder for a registration's ID tokens, built once per registration and JWKS URI.
+     *
+     * @param clientRegistration OIDC client registration
+     * @return decoder validating signature, timestamps and OIDC claims
+     * @throws OAuth2AuthenticationException when the registration has no JWKS URI
+     * @author Maruf Bepary
+     */
+    @Override
+    public JwtDecoder createDecoder(ClientRegistration clientRegistration) {
+        String jwkSetUri = clientRegistration.getProviderDetails().getJwkSetUri();
+        if (!StringUtils.hasText(jwkSetUri)) {
+            OAuth2Error error = new OAuth2Error("missing_signature_verifier",
+                    "Failed to find a Signature Verifier for Client Registration: '"
+                            + clientRegistration.getRegistrationId() + "'. Check to ensure you have configured the JwkSet URI.",
+                    null);
+            throw new OAuth2AuthenticationException(error, error.toString());
+        }
+        return decoders.computeIfAbsent(clientRegistration.getRegistrationId() + "|" + jwkSetUri,
+                key -> buildDecoder(clientRegistration, jwkSetUri));
+    }
+
+    /**
+     * Builds an RS256 decoder with the same validation and claim conversion as Spring Security's default.
+     *
+     * @author Maruf Bepary
+     */
+    private JwtDecoder buildDecoder(ClientRegistration clientRegistration, String jwkSetUri) {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, new CachedJwkSource(jwkSetUri)));
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                new JwtTimestampValidator(), new OidcIdTokenValidator(clientRegistration)));
+        decoder.setClaimSetConverter(new ClaimTypeConverter(OidcIdTokenDecoderFactory.createDefaultClaimTypeConverters()));
+        return decoder;
+    }
+
+    /**
+     * Key source reading a provider's JWKS from the metadata cache.
+     * Refetches early when a token names an unknown key so rotations are picked up without waiting for expiry.
+     *
+     * @author Maruf Bepary
+     */
+    private final class CachedJwkSource implements JWKSource<SecurityContext> {
+
+        private final String jwkSetUri;
+        private final AtomicLong lastForcedRefresh = new AtomicLong();
+        private volatile Parsed parsed;
+
+        private CachedJwkSource(String jwkSetUri) {
+            this.jwkSetUri = jwkSetUri;
+        }
+
+        /**
+         * Selects matching keys, refetching the JWKS at most once per interval when none match.
+         *
+         * @author Maruf Bepary
+         */
+        @Override
+        public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) throws KeySourceException {
+            try {
+                List<JWK> keys = jwkSelector.select(parse(metadataCache.get(jwkSetUri, discoveryProperties.getJwksTtl())));
+                if (keys.isEmpty() && claimForcedRefresh()) {
+                    log.info("No matching key in cached JWKS {}, refetching", jwkSetUri);
+                    keys = jwkSelector.select(parse(metadataCache.refresh(jwkSetUri)));
+                }
+                return keys;
+            } catch (ParseException e) {
+                throw new KeySourceException("Invalid JWKS at " + jwkSetUri, e);
+            } catch (RuntimeException e) {
+                throw new KeySourceException("Unable to load JWKS from " + jwkSetUri, e);
+            }
+        }
+
+        /**
+         * Parses a JWKS document once per fetched copy.
+         *
+         * @author Maruf Bepary
+         */
+        private JWKSet parse(Map<String, Object> document) throws ParseException {
+            Parsed current = parsed;
+            if (current == null || current.document() != document) {
+                current = new Parsed(document, JWKSet.parse(document));
+                parsed = current;
+            }
+            return current.keys();
+        }
+
+        /**
+         * Claims the right to an unscheduled refetch if the last one was long enough ago.
+         *
+         * @author Maruf Bepary
+         */
+        private boolean claimForcedRefresh() {
+            long now = System.nanoTime();
+            long last = lastForcedRefresh.get();
+            return (last == 0 || now - last >= UNKNOWN_KEY_REFRESH_INTERVAL.toNanos())
+                    && lastForcedRefresh.compareAndSet(last, now);
+        }
+    }
+
+    /**
+     * A parsed key set and the document it came from.
+     *
+     * @author Maruf Bepary
+     */
+    private record Parsed(Map<String, Object> document, JWKSet keys) {
+    }
+}
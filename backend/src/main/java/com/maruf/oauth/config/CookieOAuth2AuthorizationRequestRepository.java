@@ -0,0 +1,261 @@
+package com.maruf.oauth.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.oauth2.client.web.AuthorizationRequestRepository;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the pending OAuth2 authorization request in an encrypted browser cookie instead of the HTTP session.
+ * Lets the login round trip complete on any node without server-side state, matching the stateless
+ * session policy. The cookie is sealed with AES-GCM so it cannot be read or altered by the client.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CookieOAuth2AuthorizationRequestRepository implements AuthorizationRequestRepository<OAuth2AuthorizationRequest> {
+
+    /**
+     * Name of the cookie carrying the sealed authorization request.
+     */
+    static final String COOKIE_NAME = "oauth2_auth_request";
+
+    /**
+     * How long a user has to complete the provider's consent screen.
+     */
+    private static final Duration MAX_AGE = Duration.ofMinutes(3);
+
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {
+    };
+
+    private final HttpCookieFactory cookieFactory;
+    private final ObjectMapper objectMapper;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    /**
+     * JWT signing secret from {@code jwt.secret}; the cookie key is derived from it.
+     *
+     * @author Maruf Bepary
+     */
+    @Value("${jwt.secret}")
+    private String secret;
+
+    private volatile SecretKeySpec key;
+
+    /**
+     * Reads the authorization request sealed in the request's cookie.
+     * Returns {@code null} when the cookie is missing, tampered with, expired or issued for another state.
+     *
+     * @param request callback request carrying the cookie
+     * @return stored authorization request, or {@code null}
+     * @author Maruf Bepary
+     */
+    @Override
+    public OAuth2AuthorizationRequest loadAuthorizationRequest(HttpServletRequest request) {
+        String state = request.getParameter(OAuth2ParameterNames.STATE);
+        if (state == null) {
+            return null;
+        }
+        OAuth2AuthorizationRequest authorizationRequest = readCookie(request);
+        if (authorizationRequest == null || !state.equals(authorizationRequest.getState())) {
+            return null;
+        }
+        return authorizationRequest;
+    }
+
+    /**
+     * Seals the authorization request into a cookie, or clears the cookie when the request is {@code null}.
+     *
+     * @param authorizationRequest request to store
+     * @param request              current request
+     * @param response             response receiving the cookie
+     * @author Maruf Bepary
+     */
+    @Override
+    public void saveAuthorizationRequest(OAuth2AuthorizationRequest authorizationRequest,
+                                         HttpServletRequest request,
+                                         HttpServletResponse response) {
+        if (authorizationRequest == null) {
+            writeCookie(response, "", Duration.ZERO);
+            return;
+        }
+        writeCookie(response, seal(authorizationRequest), MAX_AGE);
+    }
+
+    /**
+     * Returns the stored authorization request and clears its cookie so it cannot be replayed.
+     *
+     * @param request  callback request carrying the cookie
+     * @param response response receiving the cleared cookie
+     * @return stored authorization request, or {@code null}
+     * @author Maruf Bepary
+     */
+    @Override
+    public OAuth2AuthorizationRequest removeAuthorizationRequest(HttpServletRequest request,
+                                                                 HttpServletResponse response) {
+        OAuth2AuthorizationRequest authorizationRequest = loadAuthorizationRequest(request);
+        if (authorizationRequest != null) {
+            writeCookie(response, "", Duration.ZERO);
+        }
+        return authorizationRequest;
+    }
+
+    /**
+     * Serialises the request to JSON with an expiry and encrypts it.
+     *
+     * @param authorizationRequest request to seal
+     * @return URL-safe Base64 of the IV followed by the ciphertext
+     * @author Maruf Bepary
+     */
+    private String seal(OAuth2AuthorizationRequest authorizationRequest) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("exp", Instant.now().plus(MAX_AGE).getEpochSecond());
+        payload.put("authorizationUri", authorizationRequest.getAuthorizationUri());
+        payload.put("clientId", authorizationRequest.getClientId());
+        payload.put("redirectUri", authorizationRequest.getRedirectUri());
+        payload.put("scopes", authorizationRequest.getScopes());
+        payload.put("state", authorizationRequest.getState());
+        payload.put("additionalParameters", authorizationRequest.getAdditionalParameters());
+        payload.put("attributes", authorizationRequest.getAttributes());
+        payload.put("authorizationRequestUri", authorizationRequest.getAuthorizationRequestUri());
+
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            secureRandom.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, key(), new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+            cipher.updateAAD(COOKIE_NAME.getBytes(StandardCharsets.UTF_8));
+            byte[] ciphertext = cipher.doFinal(objectMapper.writeValueAsBytes(payload));
+
+            byte[] sealed = new byte[iv.length + ciphertext.length];
+            System.arraycopy(iv, 0, sealed, 0, iv.length);
+            System.arraycopy(ciphertext, 0, sealed, iv.length, ciphertext.length);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(sealed);
+        } catch (GeneralSecurityException | IOException e) {
+            throw new IllegalStateException("Unable to seal OAuth2 authorization request", e);
+        }
+    }
+
+    /**
+     * Decrypts and rebuilds the authorization request from the request's cookie.
+     *
+     * @param request request that may carry the cookie
+     * @return authorization request, or {@code null} when absent, invalid or expired
+     * @author Maruf Bepary
+     */
+    @SuppressWarnings("unchecked")
+    private OAuth2AuthorizationRequest readCookie(HttpServletRequest request) {
+        String value = cookieValue(request);
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            byte[] sealed = Base64.getUrlDecoder().decode(value);
+            if (sealed.length <= IV_LENGTH) {
+                return null;
+            }
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, key(), new GCMParameterSpec(TAG_LENGTH_BITS, sealed, 0, IV_LENGTH));
+            cipher.updateAAD(COOKIE_NAME.getBytes(StandardCharsets.UTF_8));
+            byte[] json = cipher.doFinal(sealed, IV_LENGTH, sealed.length - IV_LENGTH);
+            Map<String, Object> payload = objectMapper.readValue(json, PAYLOAD_TYPE);
+
+            if (Instant.now().getEpochSecond() > ((Number) payload.get("exp")).longValue()) {
+                log.debug("Discarding expired OAuth2 authorization request cookie");
+                return null;
+            }
+            return OAuth2AuthorizationRequest.authorizationCode()
+                    .authorizationUri((String) payload.get("authorizationUri"))
+                    .clientId((String) payload.get("clientId"))
+                    .redirectUri((String) payload.get("redirectUri"))
+                    .scopes(new HashSet<>((List<String>) payload.get("scopes")))
+                    .state((String) payload.get("state"))
+                    .additionalParameters((Map<String, Object>) payload.get("additionalParameters"))
+                    .attributes((Map<String, Object>) payload.get("attributes"))
+                    .authorizationRequestUri((String) payload.get("authorizationRequestUri"))
+                    .build();
+        } catch (GeneralSecurityException | IllegalArgumentException | ClassCastException | IOException e) {
+            log.warn("Rejected OAuth2 authorization request cookie: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Finds the authorization request cookie on the request.
+     *
+     * @param request incoming request
+     * @return cookie value, or {@code null} when absent
+     * @author Maruf Bepary
+     */
+    private String cookieValue(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return null;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Derives the AES-256 key from the JWT secret, bound to this cookie's purpose.
+     *
+     * @return cached encryption key
+     * @author Maruf Bepary
+     */
+    private SecretKeySpec key() throws GeneralSecurityException {
+        SecretKeySpec current = key;
+        if (current == null) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] derived = digest.digest((COOKIE_NAME + ":" + secret).getBytes(StandardCharsets.UTF_8));
+            current = new SecretKeySpec(derived, "AES");
+            key = current;
+        }
+        return current;
+    }
+
+    /**
+     * Adds the authorization request cookie to the response.
+     *
+     * @param response response receiving the cookie
+     * @param value    sealed request, or empty to clear
+     * @param maxAge   cookie lifetime, zero to delete
+     * @author Maruf Bepary
+     */
+    private void writeCookie(HttpServletResponse response, String value, Duration maxAge) {
+        ResponseCookie cookie = cookieFactory.buildAuthorizationRequestCookie(COOKIE_NAME, value, maxAge);
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+}
@@ -0,0 +1,42 @@
+package com.maruf.oauth.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * Asynchronous appender that never blocks the logging thread and counts what it drops.
+ * Request threads only enqueue into a bounded buffer; a single worker writes to the wrapped appenders.
+ * When the buffer is nearly full, INFO and lower events are discarded, and when it is full every event is
+ * dropped rather than making callers wait on a slow console or disk.
+ *
+ * @author Maruf Bepary
+ */
+public class DroppingAsyncAppender extends AsyncAppender {
+
+    /**
+     * Enforces the non-blocking drop policy whatever the configuration says.
+     *
+     * @author Maruf Bepary
+     */
+    public DroppingAsyncAppender() {
+        setNeverBlock(true);
+    }
+
+    /**
+     * Counts the event if the queue is about to drop it, then hands it to the base appender.
+     * The check races with the worker draining the queue, so the counts are close rather than exact.
+     *
+     * @param event event to queue
+     * @author Maruf Bepary
+     */
+    @Override
+    protected void append(ILoggingEvent event) {
+        int remaining = getRemainingCapacity();
+        if (remaining == 0) {
+            LoggingMetrics.queueFull();
+        } else if (remaining < getDiscardingThreshold() && isDiscardable(event)) {
+            LoggingMetrics.discarded();
+        }
+        super.append(event);
+    }
+}
@@ -0,0 +1,38 @@
+package com.maruf.oauth.config;
+
+import ch.qos.logback.core.PropertyDefinerBase;
+import org.springframework.util.StringUtils;
+
+/**
+ * Tells {@code logback-spring.xml} whether file logging is configured, since Logback cannot test a property
+ * without Janino. Spring Boot sets {@code LOG_FILE} only when {@code logging.file.name} or
+ * {@code logging.file.path} is set, so the definer yields {@code enabled} in that case and {@code disabled}
+ * otherwise, and the configuration includes {@code logback-file-enabled.xml} by that name.
+ *
+ * @author Maruf Bepary
+ */
+public class FileLoggingDefiner extends PropertyDefinerBase {
+
+    private String file;
+
+    /**
+     * Sets the log file Spring Boot resolved, usually {@code ${LOG_FILE:-}}.
+     *
+     * @param file log file path, blank when file logging is not configured
+     * @author Maruf Bepary
+     */
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns {@code enabled} when a log file is configured and {@code disabled} otherwise.
+     *
+     * @return file logging state
+     * @author Maruf Bepary
+     */
+    @Override
+    public String getPropertyValue() {
+        return StringUtils.hasText(file) ? "enabled" : "disabled";
+    }
+}
@@ -0,0 +1,173 @@
+package com.maruf.oauth.config;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.OptionalParameter;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Starts and stops bounded JDK Flight Recorder recordings of the authentication events on demand.
+ * Served on the management port at {@code /actuator/flightrecording} and guarded by its own HTTP Basic
+ * credentials in {@link SecurityConfig}. {@code POST} starts a recording, {@code GET} reports its state and
+ * {@code DELETE} stops it and streams back the {@code .jfr} file for JDK Mission Control or {@code jfr print}.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+@WebEndpoint(id = "flightrecording")
+@RequiredArgsConstructor
+@Slf4j
+public class FlightRecordingEndpoint {
+
+    /**
+     * JDK settings files that may be requested; both are designed for production use.
+     */
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+
+    private final FlightRecordingProperties properties;
+
+    private Recording recording;
+    private Path lastDump;
+
+    /**
+     * Reports whether a recording exists and, if so, its state and limits.
+     *
+     * @return recording state, {@code NONE} when no recording has been started
+     * @author Maruf Bepary
+     */
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("state", recording.getState().name());
+        status.put("startTime", String.valueOf(recording.getStartTime()));
+        status.put("duration", String.valueOf(recording.getDuration()));
+        status.put("maxSize", recording.getMaxSize());
+        status.put("size", recording.getSize());
+        return status;
+    }
+
+    /**
+     * Starts a recording of the application's authentication events and the chosen JDK settings.
+     * The recording stops by itself after the requested duration, capped at the configured maximum;
+     * only one recording may exist at a time.
+     *
+     * @param duration how long to record, e.g. {@code 30s}; defaults to the configured duration
+     * @param settings {@code default} or {@code profile}; defaults to the configured settings
+     * @return state of the new recording, 409 when one already exists, or 400 for unknown settings
+     * @author Maruf Bepary
+     */
+    @WriteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> start(@OptionalParameter Duration duration,
+                                                                       @OptionalParameter String settings) {
+        if (recording != null) {
+            return new WebEndpointResponse<>(status(), WebEndpointResponse.STATUS_CONFLICT);
+        }
+        String settingsName = settings != null ? settings : properties.getSettings();
+        if (!SETTINGS.contains(settingsName)) {
+            return new WebEndpointResponse<>(Map.of("error", "Unknown settings " + settingsName),
+                    WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        Duration requested = duration != null && !duration.isNegative() && !duration.isZero()
+                ? duration : properties.getDefaultDuration();
+
+        try {
+            Recording started = new Recording(Configuration.getConfiguration(settingsName));
+            started.setName("oauth-authentication");
+            started.enable(AuthStageEvent.class);
+            started.enable(TokenStoreEvent.class);
+            started.enable(LocalAuthEvent.class);
+            started.setToDisk(true);
+            started.setMaxSize(properties.getMaxSize().toBytes());
+            started.setDuration(requested.compareTo(properties.getMaxDuration()) > 0
+                    ? properties.getMaxDuration() : requested);
+            started.start();
+            recording = started;
+        } catch (IOException | ParseException e) {
+            log.error("Could not load Flight Recorder settings {}: {}", settingsName, e.getMessage());
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_INTERNAL_SERVER_ERROR);
+        }
+        log.info("Started Flight Recorder recording for {}", recording.getDuration());
+        return new WebEndpointResponse<>(status());
+    }
+
+    /**
+     * Stops the recording if it is still running and returns its contents.
+     * The file is kept until the next recording is collected or the application stops.
+     *
+     * @return the {@code .jfr} file, or 404 when no recording exists
+     * @author Maruf Bepary
+     */
+    @DeleteOperation
+    public synchronized WebEndpointResponse<Resource> stop() throws IOException {
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        Path dump = Files.createTempFile("oauth-authentication-", ".jfr");
+        try {
+            if (recording.getState() == RecordingState.RUNNING) {
+                recording.stop();
+            }
+            recording.dump(dump);
+        } catch (IOException e) {
+            Files.deleteIfExists(dump);
+            throw e;
+        } finally {
+            recording.close();
+            recording = null;
+        }
+        deleteLastDump();
+        lastDump = dump;
+        log.info("Collected Flight Recorder recording of {} bytes", Files.size(dump));
+        return new WebEndpointResponse<>(new FileSystemResource(dump));
+    }
+
+    /**
+     * Closes any recording still in progress and removes the last collected file.
+     *
+     * @author Maruf Bepary
+     */
+    @PreDestroy
+    synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+        deleteLastDump();
+    }
+
+    private void deleteLastDump() {
+        if (lastDump == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(lastDump);
+        } catch (IOException e) {
+            log.warn("Could not delete Flight Recorder dump {}: {}", lastDump, e.getMessage());
+        }
+        lastDump = null;
+    }
+}
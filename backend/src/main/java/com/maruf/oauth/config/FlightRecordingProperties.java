@@ -0,0 +1,62 @@
+package com.maruf.oauth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Binds the limits and credentials for on-demand Flight Recorder recordings.
+ * Recordings are always bounded in time and size so a forgotten one cannot fill the disk.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+@ConfigurationProperties(prefix = "app.management.flight-recording")
+@Data
+public class FlightRecordingProperties {
+
+    /**
+     * User allowed to start and download recordings over HTTP Basic.
+     *
+     * @author Maruf Bepary
+     */
+    private String username = "operator";
+
+    /**
+     * Password for {@link #username}; while empty the endpoint rejects every request.
+     *
+     * @author Maruf Bepary
+     */
+    private String password = "";
+
+    /**
+     * Recording length used when the request does not specify one.
+     *
+     * @author Maruf Bepary
+     */
+    private Duration defaultDuration = Duration.ofSeconds(60);
+
+    /**
+     * Longest recording that may be requested; longer requests are capped.
+     *
+     * @author Maruf Bepary
+     */
+    private Duration maxDuration = Duration.ofMinutes(5);
+
+    /**
+     * Largest amount of recording data kept on disk; older chunks are discarded beyond it.
+     *
+     * @author Maruf Bepary
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    /**
+     * JDK event settings used alongside the application's events, {@code default} or {@code profile}.
+     *
+     * @author Maruf Bepary
+     */
+    private String settings = "default";
+}
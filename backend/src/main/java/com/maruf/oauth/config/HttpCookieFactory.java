@@ -36,4 +36,25 @@ public class HttpCookieFactory {
                 .maxAge(maxAge)
                 .build();
     }
+
+    /**
+     * Builds the short-lived cookie that carries a pending OAuth2 authorization request.
+     * Always uses {@code SameSite=Lax} because the provider's callback is a cross-site top-level
+     * redirect, which {@code Strict} cookies would not accompany.
+     *
+     * @param name   cookie name
+     * @param value  encrypted authorization request
+     * @param maxAge lifetime before the cookie expires client-side
+     * @return fully configured {@link ResponseCookie}
+     * @author Maruf Bepary
+     */
+    public ResponseCookie buildAuthorizationRequestCookie(String name, String value, Duration maxAge) {
+        return ResponseCookie.from(name, value)
+                .httpOnly(true)
+                .secure(cookieSecurityProperties.isSecure())
+                .sameSite("Lax")
+                .path("/")
+                .maxAge(maxAge)
+                .build();
+    }
 }
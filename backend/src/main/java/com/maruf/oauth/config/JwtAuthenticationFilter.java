@@ -2,6 +2,9 @@ package com.maruf.oauth.config;
 
 import com.maruf.oauth.service.JwtService;
 import com.maruf.oauth.service.RefreshTokenStore;
+import com.maruf.oauth.service.TokenOutcome;
+import com.maruf.oauth.service.TokenVerification;
+import com.maruf.oauth.util.OAuth2AttributeExtractor;
 import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -22,7 +25,6 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -36,12 +38,31 @@ import java.util.Map;
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    /**
+     * Request attribute holding the {@link java.time.Instant} the caller's access token expires,
+     * after any renewal, so controllers can report it without parsing the cookie again.
+     */
+    public static final String ACCESS_TOKEN_EXPIRES_AT = JwtAuthenticationFilter.class.getName() + ".ACCESS_TOKEN_EXPIRES_AT";
+
+    /**
+     * Request attribute holding the {@code jti} of the verified access token presented with the request.
+     */
+    public static final String ACCESS_TOKEN_ID = JwtAuthenticationFilter.class.getName() + ".ACCESS_TOKEN_ID";
+
     private final JwtService jwtService;
     private final RefreshTokenStore refreshTokenStore;
+    private final AuthMetrics authMetrics;
+    private final AccessTokenRenewal accessTokenRenewal;
 
     /**
      * Attempts to load the JWT from cookies, validate it, and populate the {@link SecurityContextHolder}.
      * Skips processing when the token is missing, expired, or marked invalid in persistence.
+     * The token is parsed once and the revocation lookup only runs for tokens that verify.
+     * Cookie lookup, principal construction and the downstream chain are emitted as {@link AuthStageEvent}s,
+     * which together with the verification and token store events break a slow request down by stage;
+     * the revocation check and the downstream chain are also charged to the request's {@link ServerTiming}.
+     * A valid token close to expiry is renewed in place by {@link AccessTokenRenewal} before the chain runs,
+     * so the fresh cookie is set before the controller can commit the response.
      *
      * @param request     current HTTP request inspected for JWT cookies
      * @param response    current HTTP response forwarded down the filter chain
@@ -53,30 +74,34 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                    @NonNull HttpServletResponse response,
                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
         
-        String jwt = extractJwtFromCookie(request);
+        AuthStageEvent cookieStage = new AuthStageEvent();
+        cookieStage.begin();
+        String jwt = extractCookie(request, "jwt");
+        cookieStage.record(AuthStageEvent.COOKIE, "access", jwt == null ? "absent" : "present");
+        String result = jwt == null ? "anonymous" : "unauthenticated";
         
         if (jwt != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
-                // Check if token is invalidated
-                if (refreshTokenStore.isAccessTokenInvalidated(jwt)) {
-                    log.debug("JWT is invalidated");
-                    filterChain.doFilter(request, response);
-                    return;
-                }
-                
-                if (jwtService.isTokenValid(jwt) && !jwtService.isTokenExpired(jwt)) {
-                    // Verify it's an access token
-                    String tokenType = jwtService.extractTokenType(jwt);
-                    if (!"access".equals(tokenType)) {
-                        log.debug("Token is not an access token");
-                        filterChain.doFilter(request, response);
-                        return;
+                // Parse once; only a token that verifies is worth a revocation lookup
+                TokenVerification verification = jwtService.verify(jwt, "access");
+                TokenOutcome outcome = verification.outcome();
+                if (verification.isValid()) {
+                    long checking = System.nanoTime();
+                    if (refreshTokenStore.isAccessTokenInvalidated(jwt)) {
+                        outcome = TokenOutcome.REVOKED;
                     }
-                    
-                    Claims claims = jwtService.extractAllClaims(jwt);
+                    ServerTiming.record(ServerTiming.Stage.REVOCATION, checking);
+                }
+                authMetrics.tokenOutcome("access", outcome);
+                result = outcome.tag();
+
+                if (outcome == TokenOutcome.VALID) {
+                    AuthStageEvent principalStage = new AuthStageEvent();
+                    principalStage.begin();
+                    Claims claims = verification.claims();
                     
                     // Reconstruct OAuth2User from JWT claims with all stored attributes
-                    Map<String, Object> attributes = extractAttributesFromClaims(claims);
+                    Map<String, Object> attributes = OAuth2AttributeExtractor.fromClaims(claims);
                     
                     OAuth2User oauth2User = new DefaultOAuth2User(
                             Collections.singleton(new SimpleGrantedAuthority("ROLE_USER")),
@@ -93,75 +118,47 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authentication);
+                    request.setAttribute(ACCESS_TOKEN_ID, claims.getId());
+                    request.setAttribute(ACCESS_TOKEN_EXPIRES_AT,
+                            accessTokenRenewal.renewIfExpiring(claims, oauth2User,
+                                    extractCookie(request, "refresh_token"), response));
+                    principalStage.record(AuthStageEvent.PRINCIPAL, "access", result);
                     
                     log.debug("JWT validated for user: {}", claims.get("login"));
+                } else {
+                    log.debug("JWT rejected: {}", outcome.tag());
                 }
             } catch (Exception e) {
-                log.error("JWT validation failed: {}", e.getMessage());
+                log.error(LogMarkers.RATE_LIMITED, "JWT validation failed: {}", e.getMessage());
             }
         }
         
-        filterChain.doFilter(request, response);
+        AuthStageEvent chainStage = new AuthStageEvent();
+        chainStage.begin();
+        ServerTiming.begin(ServerTiming.Stage.CONTROLLER);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            chainStage.record(AuthStageEvent.CHAIN, "access", result);
+        }
     }
 
     /**
-     * Reads the JWT cookie if present.
+     * Reads a token cookie if present.
      * Returns {@code null} when the cookie is absent to signal that no authentication should be attempted.
      *
      * @param request HTTP request that may include authentication cookies
+     * @param name    cookie name, {@code jwt} or {@code refresh_token}
      * @author Maruf Bepary
      */
-    private String extractJwtFromCookie(HttpServletRequest request) {
+    private static String extractCookie(HttpServletRequest request, String name) {
         if (request.getCookies() != null) {
             for (Cookie cookie : request.getCookies()) {
-                if ("jwt".equals(cookie.getName())) {
+                if (name.equals(cookie.getName())) {
                     return cookie.getValue();
                 }
             }
         }
         return null;
     }
-
-    /**
-     * Extracts OAuth2 user attributes from JWT claims.
-     * Handles type conversions for numeric IDs and ensures all claims are preserved.
-     *
-     * @param claims JWT claims containing user attributes
-     * @return map of attributes for OAuth2User reconstruction
-     * @author Maruf Bepary
-     */
-    private Map<String, Object> extractAttributesFromClaims(Claims claims) {
-        Map<String, Object> attributes = new HashMap<>();
-        
-        // Handle ID with proper type conversion (GitHub uses Integer, others may use Long/String)
-        Object idClaim = claims.get("id");
-        if (idClaim instanceof Number) {
-            attributes.put("id", ((Number) idClaim).intValue());
-        } else if (idClaim != null) {
-            attributes.put("id", idClaim);
-        }
-        
-        // Add all standard claims, filtering out nulls
-        addIfNotNull(attributes, "login", claims.get("login"));
-        addIfNotNull(attributes, "name", claims.get("name"));
-        addIfNotNull(attributes, "email", claims.get("email"));
-        addIfNotNull(attributes, "avatar_url", claims.get("avatar_url"));
-        
-        return attributes;
-    }
-
-    /**
-     * Adds attribute to map only if value is not null.
-     * Prevents null values from causing issues in OAuth2User construction.
-     *
-     * @param attributes target map to add attribute to
-     * @param key        attribute key
-     * @param value      attribute value to add if not null
-     * @author Maruf Bepary
-     */
-    private void addIfNotNull(Map<String, Object> attributes, String key, Object value) {
-        if (value != null) {
-            attributes.put(key, value);
-        }
-    }
-}
\ No newline at end of file
+}
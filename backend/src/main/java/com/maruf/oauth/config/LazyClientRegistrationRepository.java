@@ -0,0 +1,231 @@
+package com.maruf.oauth.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.security.oauth2.client.OAuth2ClientProperties;
+import org.springframework.boot.autoconfigure.security.oauth2.client.OAuth2ClientPropertiesMapper;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.core.oidc.IdTokenClaimNames;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Client registration repository that defers OIDC discovery until a registration is first used.
+ * Registrations configured with explicit endpoints are built at startup as Spring Boot would; those whose
+ * provider only sets an {@code issuer-uri} are resolved on demand from {@link ProviderMetadataCache}, so the
+ * application starts even when the identity provider is slow or unreachable.
+ *
+ * @author Maruf Bepary
+ */
+@Slf4j
+public class LazyClientRegistrationRepository implements ClientRegistrationRepository, Iterable<ClientRegistration> {
+
+    private static final String DISCOVERY_PATH = "/.well-known/openid-configuration";
+
+    private final OAuth2ClientProperties properties;
+    private final ProviderMetadataCache metadataCache;
+    private final OAuth2DiscoveryProperties discoveryProperties;
+    private final Map<String, ClientRegistration> eager;
+    private final Map<String, OAuth2ClientProperties.Registration> pending = new LinkedHashMap<>();
+    private final Map<String, Resolved> resolved = new ConcurrentHashMap<>();
+
+    /**
+     * Incremented whenever a registration is built or rebuilt from provider metadata.
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Builds registrations that need no discovery and records the rest for lazy resolution.
+     *
+     * @param properties          Spring Boot OAuth2 client properties
+     * @param metadataCache       cache of provider discovery documents
+     * @param discoveryProperties metadata lifetime settings
+     * @author Maruf Bepary
+     */
+    public LazyClientRegistrationRepository(OAuth2ClientProperties properties,
+                                            ProviderMetadataCache metadataCache,
+                                            OAuth2DiscoveryProperties discoveryProperties) {
+        this.properties = properties;
+        this.metadataCache = metadataCache;
+        this.discoveryProperties = discoveryProperties;
+
+        OAuth2ClientProperties immediate = new OAuth2ClientProperties();
+        immediate.getProvider().putAll(properties.getProvider());
+        properties.getRegistration().forEach((id, registration) -> {
+            if (StringUtils.hasText(issuerUri(id, registration))) {
+                pending.put(id, registration);
+            } else {
+                immediate.getRegistration().put(id, registration);
+            }
+        });
+        this.eager = new LinkedHashMap<>(new OAuth2ClientPropertiesMapper(immediate).asClientRegistrations());
+        log.info("Registered OAuth2 clients {} with deferred discovery for {}", eager.keySet(), pending.keySet());
+    }
+
+    /**
+     * Returns the registration, running OIDC discovery through the metadata cache when first needed.
+     *
+     * @param registrationId registration ID such as {@code azure}
+     * @return client registration, or {@code null} when unknown or discovery fails without a cached copy
+     * @author Maruf Bepary
+     */
+    @Override
+    public ClientRegistration findByRegistrationId(String registrationId) {
+        ClientRegistration registration = eager.get(registrationId);
+        if (registration != null) {
+            return registration;
+        }
+        OAuth2ClientProperties.Registration configured = pending.get(registrationId);
+        if (configured == null) {
+            return null;
+        }
+        try {
+            return resolve(registrationId, configured);
+        } catch (RuntimeException e) {
+            log.error("OIDC discovery failed for registration {}: {}", registrationId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Iterates registrations that are already available without contacting a provider.
+     * Registrations still awaiting discovery are skipped; use {@link #getClientNames()} to list every client.
+     *
+     * @return iterator over built registrations
+     * @author Maruf Bepary
+     */
+    @Override
+    public Iterator<ClientRegistration> iterator() {
+        List<ClientRegistration> available = new ArrayList<>(eager.values());
+        pending.keySet().forEach(id -> {
+            Resolved entry = resolved.get(id);
+            if (entry != null) {
+                available.add(entry.registration());
+            }
+        });
+        return Collections.unmodifiableList(available).iterator();
+    }
+
+    /**
+     * Returns a counter that changes whenever {@link #iterator()} may yield different registrations, so callers
+     * indexing registration endpoints know when to rebuild without iterating on every lookup.
+     *
+     * @return current registration version
+     * @author Maruf Bepary
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Lists every configured client with its display name without triggering discovery.
+     *
+     * @return display names keyed by registration ID, in configuration order
+     * @author Maruf Bepary
+     */
+    public Map<String, String> getClientNames() {
+        Map<String, String> names = new LinkedHashMap<>();
+        eager.forEach((id, registration) -> names.put(id, registration.getClientName()));
+        pending.forEach((id, registration) ->
+                names.put(id, StringUtils.hasText(registration.getClientName()) ? registration.getClientName() : id));
+        return names;
+    }
+
+    /**
+     * Builds the registration from current provider metadata, reusing the previous build while the
+     * cached document is unchanged.
+     *
+     * @author Maruf Bepary
+     */
+    private ClientRegistration resolve(String registrationId, OAuth2ClientProperties.Registration configured) {
+        String issuer = issuerUri(registrationId, configured);
+        Map<String, Object> metadata = metadataCache.get(
+                issuer.replaceAll("/$", "") + DISCOVERY_PATH, discoveryProperties.getMetadataTtl());
+
+        Resolved current = resolved.get(registrationId);
+        if (current != null && current.metadata() == metadata) {
+            return current.registration();
+        }
+        if (!issuer.equals(metadata.get("issuer"))) {
+            throw new IllegalStateException("Issuer " + metadata.get("issuer")
+                    + " in provider metadata does not match configured issuer " + issuer);
+        }
+
+        String providerId = providerId(registrationId, configured);
+        OAuth2ClientProperties.Provider configuredProvider = properties.getProvider().get(providerId);
+        OAuth2ClientProperties.Provider provider = new OAuth2ClientProperties.Provider();
+        provider.setAuthorizationUri(firstText(configuredProvider::getAuthorizationUri, metadata, "authorization_endpoint"));
+        provider.setTokenUri(firstText(configuredProvider::getTokenUri, metadata, "token_endpoint"));
+        provider.setUserInfoUri(firstText(configuredProvider::getUserInfoUri, metadata, "userinfo_endpoint"));
+        provider.setJwkSetUri(firstText(configuredProvider::getJwkSetUri, metadata, "jwks_uri"));
+        provider.setUserInfoAuthenticationMethod(configuredProvider.getUserInfoAuthenticationMethod());
+        provider.setUserNameAttribute(StringUtils.hasText(configuredProvider.getUserNameAttribute())
+                ? configuredProvider.getUserNameAttribute()
+                : IdTokenClaimNames.SUB);
+
+        OAuth2ClientProperties single = new OAuth2ClientProperties();
+        single.getRegistration().put(registrationId, configured);
+        single.getProvider().put(providerId, provider);
+        ClientRegistration base = new OAuth2ClientPropertiesMapper(single).asClientRegistrations().get(registrationId);
+
+        ClientRegistration registration = ClientRegistration.withClientRegistration(base)
+                .issuerUri(issuer)
+                .providerConfigurationMetadata(metadata)
+                .build();
+        resolved.put(registrationId, new Resolved(metadata, registration));
+        version.incrementAndGet();
+        log.info("Resolved OAuth2 client {} from issuer {}", registrationId, issuer);
+        return registration;
+    }
+
+    /**
+     * Finds the issuer URI of the provider a registration points at.
+     *
+     * @return issuer URI, or {@code null} when the provider has none
+     * @author Maruf Bepary
+     */
+    private String issuerUri(String registrationId, OAuth2ClientProperties.Registration registration) {
+        OAuth2ClientProperties.Provider provider = properties.getProvider().get(providerId(registrationId, registration));
+        return provider == null ? null : provider.getIssuerUri();
+    }
+
+    /**
+     * Returns the provider ID of a registration, which defaults to the registration ID.
+     *
+     * @author Maruf Bepary
+     */
+    private static String providerId(String registrationId, OAuth2ClientProperties.Registration registration) {
+        return StringUtils.hasText(registration.getProvider()) ? registration.getProvider() : registrationId;
+    }
+
+    /**
+     * Prefers an explicitly configured endpoint over the one advertised in provider metadata.
+     *
+     * @author Maruf Bepary
+     */
+    private static String firstText(Supplier<String> configured, Map<String, Object> metadata, String key) {
+        String value = configured.get();
+        if (StringUtils.hasText(value)) {
+            return value;
+        }
+        Object discovered = metadata.get(key);
+        return discovered == null ? null : discovered.toString();
+    }
+
+    /**
+     * A registration built from one version of the provider metadata.
+     *
+     * @author Maruf Bepary
+     */
+    private record Resolved(Map<String, Object> metadata, ClientRegistration registration) {
+    }
+}
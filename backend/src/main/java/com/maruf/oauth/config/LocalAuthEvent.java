@@ -0,0 +1,42 @@
+package com.maruf.oauth.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event timing a local signup or login, most of which is password hashing.
+ *
+ * @author Maruf Bepary
+ */
+@Name("com.maruf.oauth.LocalAuth")
+@Label("Local Authentication")
+@Category({"OAuth", "Authentication"})
+@Description("Duration and outcome of an email and password signup or login")
+@StackTrace(false)
+public class LocalAuthEvent extends Event {
+
+    @Label("Action")
+    private String action;
+
+    @Label("Outcome")
+    private String outcome;
+
+    /**
+     * Ends the request and commits the event if a recording is collecting it and the threshold is met.
+     *
+     * @param action  {@code signup} or {@code login}
+     * @param outcome {@code success}, {@code invalid_credentials} or {@code email_taken}
+     * @author Maruf Bepary
+     */
+    public void record(String action, String outcome) {
+        if (shouldCommit()) {
+            this.action = action;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.maruf.oauth.config;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+/**
+ * SLF4J markers that opt individual log statements into the filters configured in {@code logback-spring.xml}.
+ *
+ * @author Maruf Bepary
+ */
+public final class LogMarkers {
+
+    /**
+     * Routine success messages on hot paths; only one in {@code app.logging.sample-rate} is written.
+     */
+    public static final Marker SAMPLED = MarkerFactory.getMarker("SAMPLED");
+
+    /**
+     * Warnings and errors a client can trigger at will, such as invalid tokens; repeats are capped by
+     * {@link RepeatedLogFilter}.
+     */
+    public static final Marker RATE_LIMITED = MarkerFactory.getMarker("RATE_LIMITED");
+
+    /**
+     * Summaries written by {@link RepeatedLogFilter}; never sampled or rate limited themselves.
+     */
+    public static final Marker SUPPRESSION_SUMMARY = MarkerFactory.getMarker("SUPPRESSION_SUMMARY");
+
+    private LogMarkers() {
+    }
+}
@@ -0,0 +1,79 @@
+package com.maruf.oauth.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts log events the logging pipeline chose not to write. Events lost because the asynchronous appender could not
+ * keep up are published as {@code logging.events.dropped}, and events the filters skipped by design as
+ * {@code logging.events.filtered}, so an alert on lost logs is not set off by routine sampling.
+ * Logback starts before the application context, so the counts live in static adders and are bound to the
+ * registry once it exists.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+public class LoggingMetrics implements MeterBinder {
+
+    /**
+     * Counter of log events lost to appender back-pressure, tagged by reason.
+     */
+    static final String METRIC_NAME = "logging.events.dropped";
+
+    /**
+     * Counter of log events skipped by sampling or rate limiting, tagged by reason.
+     */
+    static final String FILTERED_METRIC_NAME = "logging.events.filtered";
+
+    private static final LongAdder QUEUE_FULL = new LongAdder();
+    private static final LongAdder DISCARDED = new LongAdder();
+    private static final LongAdder SAMPLED = new LongAdder();
+    private static final LongAdder RATE_LIMITED = new LongAdder();
+
+    /**
+     * Registers one counter per drop and filter reason.
+     *
+     * @param registry registry to bind to
+     * @author Maruf Bepary
+     */
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        register(registry, METRIC_NAME, "queue_full", QUEUE_FULL,
+                "Events dropped because the asynchronous appender's queue was full");
+        register(registry, METRIC_NAME, "discarded", DISCARDED,
+                "INFO and lower events discarded because the asynchronous appender's queue was nearly full");
+        register(registry, FILTERED_METRIC_NAME, "sampled", SAMPLED, "Routine hot-path events skipped by sampling");
+        register(registry, FILTERED_METRIC_NAME, "rate_limited", RATE_LIMITED,
+                "Repeated warnings and errors suppressed by rate limiting");
+    }
+
+    static void queueFull() {
+        QUEUE_FULL.increment();
+    }
+
+    static void discarded() {
+        DISCARDED.increment();
+    }
+
+    static void sampled() {
+        SAMPLED.increment();
+    }
+
+    static void rateLimited() {
+        RATE_LIMITED.increment();
+    }
+
+    private static void register(MeterRegistry registry, String name, String reason, LongAdder count,
+                                 String description) {
+        FunctionCounter.builder(name, count, LongAdder::sum)
+                .description(description)
+                .baseUnit("events")
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
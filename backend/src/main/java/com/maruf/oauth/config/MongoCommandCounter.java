@@ -0,0 +1,81 @@
+package com.maruf.oauth.config;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the MongoDB commands sent from the current thread while a scope is open.
+ * Registers itself on the application's client, so every repository, template and raw collection call is seen,
+ * while commands from background threads such as the write batcher stay out of request tallies.
+ * The sync driver reports commands on the calling thread, which is what makes a thread-local scope accurate.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+public class MongoCommandCounter implements CommandListener, MongoClientSettingsBuilderCustomizer {
+
+    private final ThreadLocal<MongoCommandCounts> current = new ThreadLocal<>();
+
+    /**
+     * Adds this listener to the client Spring Boot builds.
+     *
+     * @param builder client settings under construction
+     * @author Maruf Bepary
+     */
+    @Override
+    public void customize(MongoClientSettings.Builder builder) {
+        builder.addCommandListener(this);
+    }
+
+    /**
+     * Starts counting commands sent from this thread.
+     *
+     * @return counts filled in until {@link #stop()} is called
+     * @author Maruf Bepary
+     */
+    public MongoCommandCounts start() {
+        MongoCommandCounts counts = new MongoCommandCounts();
+        current.set(counts);
+        return counts;
+    }
+
+    /**
+     * Stops counting on this thread.
+     *
+     * @author Maruf Bepary
+     */
+    public void stop() {
+        current.remove();
+    }
+
+    /**
+     * Records a command against the open scope, if any.
+     * Counted on start rather than success so failed round trips still show up.
+     *
+     * @param event command about to be sent
+     * @author Maruf Bepary
+     */
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        MongoCommandCounts counts = current.get();
+        if (counts != null) {
+            counts.record(event.getCommandName(), collectionOf(event.getCommandName(), event.getCommand()));
+        }
+    }
+
+    /**
+     * Reads the target collection from a command document.
+     * Most commands name it as the value of the command key; {@code getMore} carries it separately.
+     *
+     * @author Maruf Bepary
+     */
+    private static String collectionOf(String commandName, BsonDocument command) {
+        BsonValue value = command.get("getMore".equals(commandName) ? "collection" : commandName);
+        return value != null && value.isString() ? value.asString().getValue() : null;
+    }
+}
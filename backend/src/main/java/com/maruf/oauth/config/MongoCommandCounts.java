@@ -0,0 +1,110 @@
+package com.maruf.oauth.config;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tally of the MongoDB commands one HTTP request sent, keyed by command name and collection.
+ * Filled in by {@link MongoCommandCounter} on the request thread and published as a request attribute
+ * so tests can assert round-trip budgets per endpoint.
+ *
+ * @author Maruf Bepary
+ */
+public final class MongoCommandCounts {
+
+    /**
+     * Request attribute holding the counts once the request has finished.
+     */
+    public static final String REQUEST_ATTRIBUTE = MongoCommandCounts.class.getName();
+
+    /**
+     * Commands that only read documents.
+     */
+    private static final Set<String> READ_COMMANDS = Set.of("find", "getMore", "aggregate", "count", "distinct");
+
+    /**
+     * Commands that modify documents, including {@code findAndModify}, which also returns one.
+     */
+    private static final Set<String> WRITE_COMMANDS = Set.of("insert", "update", "delete", "findAndModify");
+
+    private final Map<String, Integer> commands = new LinkedHashMap<>();
+    private int reads;
+    private int writes;
+    private int total;
+
+    /**
+     * Adds one command to the tally.
+     *
+     * @param commandName driver command name such as {@code find} or {@code update}
+     * @param collection  target collection, or {@code null} for database-level commands
+     * @author Maruf Bepary
+     */
+    void record(String commandName, String collection) {
+        commands.merge(collection == null ? commandName : commandName + " " + collection, 1, Integer::sum);
+        total++;
+        switch (type(commandName)) {
+            case "read" -> reads++;
+            case "write" -> writes++;
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Classifies a command for metrics and budgets.
+     *
+     * @param commandName driver command name
+     * @return {@code read}, {@code write} or {@code other}
+     * @author Maruf Bepary
+     */
+    static String type(String commandName) {
+        if (READ_COMMANDS.contains(commandName)) {
+            return "read";
+        }
+        return WRITE_COMMANDS.contains(commandName) ? "write" : "other";
+    }
+
+    /**
+     * @return number of read commands sent
+     * @author Maruf Bepary
+     */
+    public int reads() {
+        return reads;
+    }
+
+    /**
+     * @return number of write commands sent
+     * @author Maruf Bepary
+     */
+    public int writes() {
+        return writes;
+    }
+
+    /**
+     * @return number of commands of any type sent
+     * @author Maruf Bepary
+     */
+    public int total() {
+        return total;
+    }
+
+    /**
+     * @return command counts keyed by {@code "<command> <collection>"}, in the order first seen
+     * @author Maruf Bepary
+     */
+    public Map<String, Integer> commands() {
+        return Collections.unmodifiableMap(commands);
+    }
+
+    /**
+     * Lists the commands so budget failures show what the request actually sent.
+     *
+     * @author Maruf Bepary
+     */
+    @Override
+    public String toString() {
+        return commands.toString();
+    }
+}
@@ -0,0 +1,91 @@
+package com.maruf.oauth.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Counts the MongoDB commands each HTTP request sends and records them per endpoint.
+ * Runs first in the servlet chain so the security filters' token lookups are included.
+ * Passes requests straight through when no MongoDB client is configured, as in web-layer test slices.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class MongoCommandMetricsFilter extends OncePerRequestFilter {
+
+    /**
+     * Distribution of MongoDB commands per request.
+     */
+    static final String METRIC_NAME = "mongodb.request.commands";
+
+    private final ObjectProvider<MongoCommandCounter> commandCounter;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    /**
+     * Opens a counting scope around the rest of the chain, then publishes and records the counts.
+     *
+     * @param request     current HTTP request
+     * @param response    current HTTP response
+     * @param filterChain remaining filter chain
+     * @author Maruf Bepary
+     */
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        MongoCommandCounter counter = commandCounter.getIfAvailable();
+        if (counter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        MongoCommandCounts counts = counter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            counter.stop();
+            request.setAttribute(MongoCommandCounts.REQUEST_ATTRIBUTE, counts);
+            record(request, counts);
+        }
+    }
+
+    /**
+     * Records read, write and total command counts tagged by the matched route.
+     * Uses the handler's path pattern rather than the raw URI to keep tag cardinality bounded.
+     *
+     * @author Maruf Bepary
+     */
+    private void record(HttpServletRequest request, MongoCommandCounts counts) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        summary(registry, uri, "read").record(counts.reads());
+        summary(registry, uri, "write").record(counts.writes());
+        summary(registry, uri, "all").record(counts.total());
+    }
+
+    private static DistributionSummary summary(MeterRegistry registry, String uri, String type) {
+        return DistributionSummary.builder(METRIC_NAME)
+                .description("MongoDB commands sent while handling one HTTP request")
+                .baseUnit("commands")
+                .tag("uri", uri)
+                .tag("type", type)
+                .register(registry);
+    }
+}
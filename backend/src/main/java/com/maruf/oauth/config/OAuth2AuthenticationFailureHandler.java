@@ -6,14 +6,18 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
 import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.util.Set;
 
 /**
  * Logs OAuth2 authentication failures with detailed diagnostics and redirects to the frontend.
+ * Counts each failure by registration and OAuth2 error code.
  *
  * @author Maruf Bepary
  */
@@ -22,6 +26,26 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class OAuth2AuthenticationFailureHandler extends SimpleUrlAuthenticationFailureHandler {
 
+    /**
+     * Callback path prefix; the remainder names the client registration.
+     */
+    private static final String CALLBACK_PREFIX = "/login/oauth2/code/";
+
+    /**
+     * Error codes reported as metric tags; anything else, such as a code echoed from the callback URL, becomes {@code other}.
+     */
+    private static final Set<String> KNOWN_ERROR_CODES = Set.of(
+            OAuth2ErrorCodes.ACCESS_DENIED, OAuth2ErrorCodes.INVALID_REQUEST, OAuth2ErrorCodes.INVALID_GRANT,
+            OAuth2ErrorCodes.INVALID_CLIENT, OAuth2ErrorCodes.INVALID_SCOPE, OAuth2ErrorCodes.INVALID_TOKEN,
+            OAuth2ErrorCodes.SERVER_ERROR, OAuth2ErrorCodes.TEMPORARILY_UNAVAILABLE,
+            "authorization_request_not_found", "client_registration_not_found", "invalid_state_parameter",
+            "invalid_redirect_uri_parameter", "invalid_token_response", "invalid_user_info_response",
+            "missing_user_info_uri", "missing_user_name_attribute", "invalid_id_token", "missing_signature_verifier",
+            "invalid_nonce");
+
+    private final AuthMetrics authMetrics;
+    private final ClientRegistrationRepository clientRegistrationRepository;
+
     /**
      * Frontend base URL loaded from {@code frontend.url}; defaults to {@code http://localhost:3000}.
      *
@@ -43,11 +67,35 @@ public class OAuth2AuthenticationFailureHandler extends SimpleUrlAuthenticationF
         if (exception instanceof OAuth2AuthenticationException oauth2Exception) {
             log.error("OAuth2 authentication failed: {} - details: {}", oauth2Exception.getError().getErrorCode(),
                     oauth2Exception.getError().getDescription(), oauth2Exception);
+            String errorCode = oauth2Exception.getError().getErrorCode();
+            authMetrics.oauth2Login(registrationId(request), KNOWN_ERROR_CODES.contains(errorCode) ? errorCode : "other");
         } else {
             log.error("Authentication failed: {}", exception.getMessage(), exception);
+            authMetrics.oauth2Login(registrationId(request), "authentication_failed");
         }
 
         getRedirectStrategy().sendRedirect(request, response,
                 frontendUrl + "/?error=auth_failed");
     }
+
+    /**
+     * Reads the client registration from the callback path.
+     * Only configured registrations are returned so arbitrary paths cannot create new metric series.
+     *
+     * @param request failed callback request
+     * @return registration ID, or {@code unknown} when the path does not name a configured client
+     * @author Maruf Bepary
+     */
+    private String registrationId(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        int start = uri == null ? -1 : uri.indexOf(CALLBACK_PREFIX);
+        if (start < 0) {
+            return "unknown";
+        }
+        String registrationId = uri.substring(start + CALLBACK_PREFIX.length());
+        boolean configured = clientRegistrationRepository instanceof LazyClientRegistrationRepository lazyRepository
+                ? lazyRepository.getClientNames().containsKey(registrationId)
+                : clientRegistrationRepository.findByRegistrationId(registrationId) != null;
+        return configured ? registrationId : "unknown";
+    }
 }
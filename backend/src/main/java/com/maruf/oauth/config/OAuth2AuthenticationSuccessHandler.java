@@ -1,6 +1,8 @@
 package com.maruf.oauth.config;
 
 import com.maruf.oauth.exception.InsufficientScopeException;
+import com.maruf.oauth.service.AuthEventBus;
+import com.maruf.oauth.service.AuthEventType;
 import com.maruf.oauth.service.JwtService;
 import com.maruf.oauth.service.RefreshTokenStore;
 import com.maruf.oauth.util.OAuth2AttributeExtractor;
@@ -12,6 +14,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseCookie;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.security.web.authentication.SimpleUrlAuthenticationSuccessHandler;
 import org.springframework.stereotype.Component;
@@ -25,6 +28,7 @@ import java.util.Map;
 /**
  * Handles the OAuth2 login success flow by issuing access and refresh tokens as cookies.
  * Bridges Spring Security's OAuth2 support with the JWT based session strategy used by the frontend.
+ * Each outcome is published to the {@link AuthEventBus} for auditing.
  *
  * @author Maruf Bepary
  */
@@ -36,6 +40,8 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
     private final JwtService jwtService;
     private final RefreshTokenStore refreshTokenStore;
     private final HttpCookieFactory cookieFactory;
+    private final AuthMetrics authMetrics;
+    private final AuthEventBus authEventBus;
 
     /**
      * Frontend base URL loaded from {@code frontend.url}; defaults to {@code http://localhost:3000}.
@@ -76,12 +82,18 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
                                        Authentication authentication) throws IOException {
         
         OAuth2User oauth2User = (OAuth2User) authentication.getPrincipal();
+        String registrationId = authentication instanceof OAuth2AuthenticationToken token
+                ? token.getAuthorizedClientRegistrationId()
+                : "unknown";
         
         // Validate minimum required attributes are present
         try {
             OAuth2AttributeExtractor.validateRequiredAttributes(oauth2User);
         } catch (InsufficientScopeException e) {
             log.warn("OAuth scope validation failed: {}", e.getMessage());
+            authMetrics.oauth2Login(registrationId, "missing_scope");
+            authEventBus.publish(AuthEventType.LOGIN_FAILED, OAuth2AttributeExtractor.resolveUsername(oauth2User),
+                    registrationId + ":missing_scope");
             getRedirectStrategy().sendRedirect(request, response, frontendUrl + "/?error=missing_scope");
             return;
         }
@@ -89,6 +101,8 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
         String username = OAuth2AttributeExtractor.resolveUsername(oauth2User);
         if (username == null) {
             log.error("Unable to determine username from OAuth2 attributes: {}", oauth2User.getAttributes());
+            authMetrics.oauth2Login(registrationId, "missing_profile");
+            authEventBus.publish(AuthEventType.LOGIN_FAILED, null, registrationId + ":missing_profile");
             getRedirectStrategy().sendRedirect(request, response, frontendUrl + "/?error=missing_profile");
             return;
         }
@@ -116,6 +130,8 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
         addCookie(response, "refresh_token", refreshToken, Duration.ofMillis(refreshTokenExpiration));
         
         log.info("Access and refresh tokens generated for user: {}", username);
+        authMetrics.oauth2Login(registrationId, "success");
+        authEventBus.publish(AuthEventType.LOGIN, username, registrationId);
         
         // Redirect to frontend dashboard
         getRedirectStrategy().sendRedirect(request, response, frontendUrl + "/dashboard");
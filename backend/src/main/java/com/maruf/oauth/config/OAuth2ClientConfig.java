@@ -0,0 +1,83 @@
+package com.maruf.oauth.config;
+
+import org.springframework.boot.autoconfigure.security.oauth2.client.OAuth2ClientProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AccessTokenResponseClient;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AuthorizationCodeGrantRequest;
+import org.springframework.security.oauth2.client.endpoint.RestClientAuthorizationCodeTokenResponseClient;
+import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserService;
+import org.springframework.security.oauth2.client.userinfo.DefaultOAuth2UserService;
+
+/**
+ * Wires the OAuth2 login collaborators that call providers onto {@link OAuth2ProviderHttpClient}.
+ * Replaces Spring Security's per-component default clients, which have no pooling or deadlines,
+ * and Spring Boot's eager client registration repository.
+ *
+ * @author Maruf Bepary
+ */
+@Configuration
+@EnableConfigurationProperties(OAuth2ClientProperties.class)
+public class OAuth2ClientConfig {
+
+    /**
+     * Registers the configured OAuth2 clients, deferring OIDC discovery until each is first used.
+     * Takes precedence over Spring Boot's repository, which contacts every issuer during startup.
+     *
+     * @param properties          Spring Boot OAuth2 client properties
+     * @param metadataCache       cache of provider discovery documents
+     * @param discoveryProperties metadata lifetime settings
+     * @return client registration repository used by {@code oauth2Login}
+     * @author Maruf Bepary
+     */
+    @Bean
+    public LazyClientRegistrationRepository clientRegistrationRepository(OAuth2ClientProperties properties,
+                                                                         ProviderMetadataCache metadataCache,
+                                                                         OAuth2DiscoveryProperties discoveryProperties) {
+        return new LazyClientRegistrationRepository(properties, metadataCache, discoveryProperties);
+    }
+
+    /**
+     * Exchanges authorization codes for tokens over the pooled provider client.
+     *
+     * @param providerHttpClient shared provider HTTP client
+     * @return token response client used by {@code oauth2Login}
+     * @author Maruf Bepary
+     */
+    @Bean
+    public OAuth2AccessTokenResponseClient<OAuth2AuthorizationCodeGrantRequest> authorizationCodeTokenResponseClient(
+            OAuth2ProviderHttpClient providerHttpClient) {
+        RestClientAuthorizationCodeTokenResponseClient client = new RestClientAuthorizationCodeTokenResponseClient();
+        client.setRestClient(providerHttpClient.tokenRestClient());
+        return client;
+    }
+
+    /**
+     * Loads OAuth2 user-info (e.g. GitHub {@code /user}) over the pooled provider client.
+     *
+     * @param providerHttpClient shared provider HTTP client
+     * @return user service for plain OAuth2 registrations
+     * @author Maruf Bepary
+     */
+    @Bean
+    public DefaultOAuth2UserService oauth2UserService(OAuth2ProviderHttpClient providerHttpClient) {
+        DefaultOAuth2UserService userService = new DefaultOAuth2UserService();
+        userService.setRestOperations(providerHttpClient.restTemplate());
+        return userService;
+    }
+
+    /**
+     * Loads OIDC user-info through {@link #oauth2UserService} so Entra calls share the same client.
+     *
+     * @param oauth2UserService user service backed by the pooled client
+     * @return user service for OIDC registrations
+     * @author Maruf Bepary
+     */
+    @Bean
+    public OidcUserService oidcUserService(DefaultOAuth2UserService oauth2UserService) {
+        OidcUserService userService = new OidcUserService();
+        userService.setOauth2UserService(oauth2UserService);
+        return userService;
+    }
+}
@@ -0,0 +1,43 @@
+package com.maruf.oauth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Binds caching settings for OIDC provider metadata and JWKS documents.
+ * Lets registrations with an {@code issuer-uri} start without contacting the provider.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+@ConfigurationProperties(prefix = "app.security.oauth2.discovery")
+@Data
+public class OAuth2DiscoveryProperties {
+
+    /**
+     * Directory where fetched provider documents are persisted; empty by default, keeping them in memory only.
+     * Point it at an application-private location: the directory is created owner-only, and a directory or file
+     * that another user owns or can write is ignored, as a planted JWKS would be trusted to verify ID tokens.
+     *
+     * @author Maruf Bepary
+     */
+    private String cacheDir = "";
+
+    /**
+     * How long discovered provider metadata is trusted before it must be fetched again.
+     *
+     * @author Maruf Bepary
+     */
+    private Duration metadataTtl = Duration.ofHours(24);
+
+    /**
+     * How long a provider's JWKS is trusted before it must be fetched again.
+     * Unknown key IDs trigger an earlier refetch so key rotation is picked up promptly.
+     *
+     * @author Maruf Bepary
+     */
+    private Duration jwksTtl = Duration.ofHours(6);
+}
@@ -0,0 +1,61 @@
+package com.maruf.oauth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Binds the HTTP client settings used for calls to OAuth2 providers during login.
+ * Covers the token, user-info and JWKS requests made while handling the OAuth2 callback.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+@ConfigurationProperties(prefix = "app.security.oauth2.http-client")
+@Data
+public class OAuth2HttpClientProperties {
+
+    /**
+     * Longest time to wait for a TCP connection to a provider.
+     *
+     * @author Maruf Bepary
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Longest time to wait for a provider to respond on an open connection.
+     *
+     * @author Maruf Bepary
+     */
+    private Duration readTimeout = Duration.ofSeconds(5);
+
+    /**
+     * How long an idle pooled connection is kept open for reuse.
+     *
+     * @author Maruf Bepary
+     */
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    /**
+     * Pooled connections allowed per provider host.
+     *
+     * @author Maruf Bepary
+     */
+    private int maxConnectionsPerProvider = 20;
+
+    /**
+     * Provider calls allowed in flight per client registration before callers are rejected.
+     *
+     * @author Maruf Bepary
+     */
+    private int maxConcurrentRequests = 20;
+
+    /**
+     * Longest time a call waits for a bulkhead permit or pooled connection before failing.
+     *
+     * @author Maruf Bepary
+     */
+    private Duration bulkheadWait = Duration.ofMillis(250);
+}
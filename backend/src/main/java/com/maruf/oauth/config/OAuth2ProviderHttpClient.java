@@ -0,0 +1,380 @@
+package com.maruf.oauth.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.http.Outcome;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.FormHttpMessageConverter;
+import org.springframework.security.oauth2.client.http.OAuth2ErrorResponseErrorHandler;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.core.http.converter.OAuth2AccessTokenResponseHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Shared HTTP client for the provider calls made while completing an OAuth2 login.
+ * Pools keep-alive connections per provider host, applies connect and read deadlines, caps in-flight
+ * calls per client registration, and records a latency histogram tagged by registration ID.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OAuth2ProviderHttpClient {
+
+    /**
+     * Timer recording provider call latency.
+     */
+    static final String METRIC_NAME = "oauth2.client.requests";
+
+    /**
+     * Target for URIs no registration configures, so arbitrary hosts cannot add meter tags or bulkheads.
+     */
+    private static final Target UNKNOWN = new Target("unknown", "other");
+
+    /**
+     * Bound on indexed URIs, so unconfigured URIs cached as {@link #UNKNOWN} cannot grow the index without limit.
+     */
+    private static final int MAX_TARGETS = 1024;
+
+    private final OAuth2HttpClientProperties properties;
+    private final ObjectProvider<ClientRegistrationRepository> clientRegistrationRepository;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    /**
+     * Registration and endpoint kind per provider URI, including URIs known to be unconfigured.
+     * Rebuilt only when the registrations have changed since {@link #targetsVersion}.
+     */
+    private volatile Map<String, Target> targets = new ConcurrentHashMap<>();
+
+    /**
+     * Registration version {@link #targets} was built from, or {@code -1} before the first build.
+     */
+    private volatile long targetsVersion = -1;
+
+    /**
+     * In-flight permits per client registration.
+     */
+    private final Map<String, Semaphore> bulkheads = new ConcurrentHashMap<>();
+
+    private CloseableHttpClient httpClient;
+    private HttpComponentsClientHttpRequestFactory requestFactory;
+
+    /**
+     * Builds the pooled client once so every login reuses its connections.
+     *
+     * @author Maruf Bepary
+     */
+    @PostConstruct
+    void init() {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnPerRoute(properties.getMaxConnectionsPerProvider())
+                .setMaxConnTotal(properties.getMaxConnectionsPerProvider() * 4)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.of(properties.getReadTimeout()))
+                        .build())
+                .build();
+
+        httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(properties.getBulkheadWait()))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> TimeValue.of(properties.getKeepAlive()))
+                .evictIdleConnections(TimeValue.of(properties.getKeepAlive()))
+                .disableCookieManagement()
+                .build();
+        requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    /**
+     * Closes pooled connections on shutdown.
+     *
+     * @author Maruf Bepary
+     */
+    @PreDestroy
+    void close() throws IOException {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+    }
+
+    /**
+     * Creates the client used for authorization code exchanges at provider token endpoints.
+     * Registers the same converters and error handling Spring Security uses by default.
+     *
+     * @return rest client backed by the pooled connections
+     * @author Maruf Bepary
+     */
+    public RestClient tokenRestClient() {
+        return RestClient.builder()
+                .requestFactory(requestFactory)
+                .requestInterceptor(this::intercept)
+                .messageConverters(converters -> {
+                    converters.clear();
+                    converters.add(new FormHttpMessageConverter());
+                    converters.add(new OAuth2AccessTokenResponseHttpMessageConverter());
+                })
+                .defaultStatusHandler(new OAuth2ErrorResponseErrorHandler())
+                .build();
+    }
+
+    /**
+     * Creates the client used for user-info and JWKS requests.
+     *
+     * @return rest template backed by the pooled connections
+     * @author Maruf Bepary
+     */
+    public RestTemplate restTemplate() {
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.getInterceptors().add(this::intercept);
+        restTemplate.setErrorHandler(new OAuth2ErrorResponseErrorHandler());
+        return restTemplate;
+    }
+
+    /**
+     * Applies the registration's bulkhead around a provider call and records its latency.
+     * Calls that cannot get a permit within {@code bulkhead-wait} fail fast instead of queueing.
+     * The permit is held, and the call timed, until the caller closes the response, since the body is still
+     * being read from the provider's connection after the status line arrives.
+     *
+     * @author Maruf Bepary
+     */
+    private ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        Target target = resolve(request.getURI());
+        Semaphore permits = bulkheads.computeIfAbsent(target.registrationId(),
+                id -> new Semaphore(properties.getMaxConcurrentRequests()));
+        long started = System.nanoTime();
+
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(properties.getBulkheadWait().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for " + target.registrationId() + " bulkhead");
+        }
+        if (!acquired) {
+            record(target, "REJECTED", started);
+            log.warn("Rejected {} call to {}: bulkhead full", target.endpoint(), target.registrationId());
+            throw new IOException("Too many concurrent requests to provider " + target.registrationId());
+        }
+
+        ClientHttpResponse response = null;
+        try {
+            response = execution.execute(request, body);
+            String outcome = Outcome.forStatus(response.getStatusCode().value()).name();
+            return new PermitHoldingResponse(response, permits, target, outcome, started);
+        } catch (IOException | RuntimeException e) {
+            if (response != null) {
+                response.close();
+            }
+            permits.release();
+            record(target, Outcome.UNKNOWN.name(), started);
+            throw e;
+        }
+    }
+
+    /**
+     * Records one provider call in the latency histogram.
+     *
+     * @author Maruf Bepary
+     */
+    private void record(Target target, String outcome, long started) {
+        Timer.builder(METRIC_NAME)
+                .description("Latency of OAuth2 provider calls made during login")
+                .tag("registration_id", target.registrationId())
+                .tag("endpoint", target.endpoint())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry))
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Maps a request URI to the registration and endpoint it belongs to.
+     * An unseen URI rebuilds the index only when the registrations have changed since it was built; otherwise
+     * the URI is remembered as {@link #UNKNOWN}, so repeated calls to it never walk the repository again.
+     *
+     * @param uri provider URI being called
+     * @return matching target, or {@link #UNKNOWN} when the URI is not configured
+     * @author Maruf Bepary
+     */
+    private Target resolve(URI uri) {
+        String key = endpointKey(uri);
+        Target target = targets.get(key);
+        if (target != null) {
+            return target;
+        }
+        ClientRegistrationRepository repository = clientRegistrationRepository.getIfAvailable();
+        long version = registrationsVersion(repository);
+        if (version != targetsVersion) {
+            synchronized (this) {
+                if (version != targetsVersion) {
+                    targets = buildTargets(repository);
+                    targetsVersion = version;
+                }
+            }
+            target = targets.get(key);
+            if (target != null) {
+                return target;
+            }
+        }
+        Map<String, Target> current = targets;
+        if (current.size() < MAX_TARGETS) {
+            current.putIfAbsent(key, UNKNOWN);
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * Version of the registrations a repository can iterate; repositories other than
+     * {@link LazyClientRegistrationRepository} are fixed once built.
+     *
+     * @author Maruf Bepary
+     */
+    private static long registrationsVersion(ClientRegistrationRepository repository) {
+        return repository instanceof LazyClientRegistrationRepository lazy ? lazy.getVersion() : 0;
+    }
+
+    /**
+     * Indexes the token, user-info and JWKS URIs of every registration.
+     *
+     * @param repository configured registrations, may be {@code null}
+     * @return targets keyed by URI without query string
+     * @author Maruf Bepary
+     */
+    private Map<String, Target> buildTargets(ClientRegistrationRepository repository) {
+        Map<String, Target> built = new ConcurrentHashMap<>();
+        if (!(repository instanceof Iterable<?> registrations)) {
+            return built;
+        }
+        for (Object item : registrations) {
+            ClientRegistration registration = (ClientRegistration) item;
+            ClientRegistration.ProviderDetails provider = registration.getProviderDetails();
+            List.of(
+                    new String[]{provider.getTokenUri(), "token"},
+                    new String[]{provider.getUserInfoEndpoint().getUri(), "user_info"},
+                    new String[]{provider.getJwkSetUri(), "jwks"}
+            ).forEach(entry -> {
+                if (StringUtils.hasText(entry[0])) {
+                    built.putIfAbsent(endpointKey(URI.create(entry[0])),
+                            new Target(registration.getRegistrationId(), entry[1]));
+                }
+            });
+        }
+        return built;
+    }
+
+    /**
+     * Normalises a URI to scheme, authority and path.
+     *
+     * @author Maruf Bepary
+     */
+    private static String endpointKey(URI uri) {
+        return uri.getScheme() + "://" + uri.getRawAuthority() + uri.getRawPath();
+    }
+
+    /**
+     * Registration and endpoint kind a provider call is attributed to.
+     *
+     * @param registrationId client registration ID, or {@code unknown} for unconfigured URIs
+     * @param endpoint       {@code token}, {@code user_info}, {@code jwks} or {@code other}
+     * @author Maruf Bepary
+     */
+    private record Target(String registrationId, String endpoint) {
+    }
+
+    /**
+     * Response that gives back its bulkhead permit and records the call once the caller closes it.
+     * Closing twice releases and records only once.
+     *
+     * @author Maruf Bepary
+     */
+    private final class PermitHoldingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final Semaphore permits;
+        private final Target target;
+        private final String outcome;
+        private final long started;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        PermitHoldingResponse(ClientHttpResponse delegate, Semaphore permits, Target target, String outcome,
+                              long started) {
+            this.delegate = delegate;
+            this.permits = permits;
+            this.target = target;
+            this.outcome = outcome;
+            this.started = started;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                delegate.close();
+            } finally {
+                permits.release();
+                record(target, outcome, started);
+            }
+        }
+    }
+}
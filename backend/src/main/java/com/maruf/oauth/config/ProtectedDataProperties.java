@@ -0,0 +1,39 @@
+package com.maruf.oauth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Binds page and batch sizes for the protected data endpoints from {@code app.protected-data}.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+@ConfigurationProperties(prefix = "app.protected-data")
+@Data
+public class ProtectedDataProperties {
+
+    /**
+     * Items returned per page when the request gives no {@code limit}; defaults to 50.
+     *
+     * @author Maruf Bepary
+     */
+    private int defaultPageSize = 50;
+
+    /**
+     * Largest {@code limit} a request may ask for; larger values are capped. Defaults to 500.
+     * Clients needing everything should use the NDJSON stream instead of big pages.
+     *
+     * @author Maruf Bepary
+     */
+    private int maxPageSize = 500;
+
+    /**
+     * Documents fetched from MongoDB per cursor round trip while streaming; bounds the memory held per stream.
+     * Defaults to 500.
+     *
+     * @author Maruf Bepary
+     */
+    private int streamBatchSize = 500;
+}
@@ -0,0 +1,183 @@
+package com.maruf.oauth.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Login options offered to the frontend, built once at startup because they only change on redeploy.
+ * Holds the list for callers that embed it, and the serialized JSON with a strong {@code ETag}
+ * and an optional gzip-compressed copy so the providers endpoint can write bytes without rebuilding or re-serializing.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+public class ProviderCatalog {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Providers in configuration order, each with a {@code key} and {@code name}; unmodifiable.
+     *
+     * @author Maruf Bepary
+     */
+    @Getter
+    private final List<Map<String, String>> providers;
+
+    /**
+     * Providers serialized as a JSON array.
+     *
+     * @author Maruf Bepary
+     */
+    @Getter
+    private final byte[] json;
+
+    /**
+     * Quoted strong entity tag of {@link #getJson()}.
+     *
+     * @author Maruf Bepary
+     */
+    @Getter
+    private final String etag;
+
+    /**
+     * Gzip-compressed {@link #getJson()}, or {@code null} when compression is disabled.
+     *
+     * @author Maruf Bepary
+     */
+    @Getter
+    private final byte[] gzip;
+
+    /**
+     * Entity tag of the gzip-compressed representation, distinct from {@link #getEtag()} because its bytes differ.
+     *
+     * @author Maruf Bepary
+     */
+    @Getter
+    private final String gzipEtag;
+
+    /**
+     * Lists the configured clients followed by local authentication when enabled, then serializes and compresses them.
+     * Providers awaiting OIDC discovery are listed from configuration without contacting them.
+     *
+     * @param clientRegistrationRepository configured OAuth2 clients
+     * @param properties                   compression setting
+     * @param localAuthEnabled             whether email and password login is offered
+     * @author Maruf Bepary
+     */
+    public ProviderCatalog(ClientRegistrationRepository clientRegistrationRepository,
+                           ProviderCatalogProperties properties,
+                           @Value("${app.security.local-auth.enabled:false}") boolean localAuthEnabled) {
+        List<Map<String, String>> list = new ArrayList<>();
+        if (clientRegistrationRepository instanceof LazyClientRegistrationRepository lazyRepository) {
+            lazyRepository.getClientNames().forEach((key, name) -> list.add(provider(key, name)));
+        } else if (clientRegistrationRepository instanceof Iterable<?> iterable) {
+            for (Object registration : iterable) {
+                ClientRegistration client = (ClientRegistration) registration;
+                list.add(provider(client.getRegistrationId(), client.getClientName()));
+            }
+        }
+        if (localAuthEnabled) {
+            list.add(provider("local", "Email & Password"));
+        }
+        this.providers = Collections.unmodifiableList(list);
+
+        try {
+            this.json = objectMapper.writeValueAsBytes(providers);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize login providers", e);
+        }
+        this.etag = entityTag(json);
+        this.gzip = properties.isGzip() ? compress(json) : null;
+        this.gzipEtag = gzip == null ? null : entityTag(gzip);
+    }
+
+    private static Map<String, String> provider(String key, String name) {
+        Map<String, String> provider = new LinkedHashMap<>();
+        provider.put("key", key);
+        provider.put("name", name);
+        return Collections.unmodifiableMap(provider);
+    }
+
+    /**
+     * Quoted, URL-safe SHA-256 of the bytes, so the tag changes whenever the representation does.
+     *
+     * @param bytes representation exactly as written to the response
+     * @return strong entity tag
+     * @author Maruf Bepary
+     */
+    public static String entityTag(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Whether an {@code Accept-Encoding} header admits gzip, per RFC 9110: {@code gzip} or {@code x-gzip} with a
+     * non-zero quality, or {@code *} with a non-zero quality when gzip is not listed explicitly.
+     *
+     * @param acceptEncoding the client's {@code Accept-Encoding} header, may be {@code null}
+     * @return {@code true} when the gzip representation may be sent
+     * @author Maruf Bepary
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double wildcard = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = gzip == null ? quality : Math.max(gzip, quality);
+            } else if (coding.equals("*")) {
+                wildcard = quality;
+            }
+        }
+        double effective = gzip != null ? gzip : wildcard != null ? wildcard : 0;
+        return effective > 0;
+    }
+
+    private static byte[] compress(byte[] bytes) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length);
+        try (GZIPOutputStream gzipOutput = new GZIPOutputStream(output)) {
+            gzipOutput.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,34 @@
+package com.maruf.oauth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Binds caching settings for the login providers response from {@code app.security.providers}.
+ * The response only changes on redeploy, so browsers and shared caches may keep it for a while.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+@ConfigurationProperties(prefix = "app.security.providers")
+@Data
+public class ProviderCatalogProperties {
+
+    /**
+     * How long clients may reuse the response before revalidating it; defaults to 1 hour.
+     * A provider added or removed on redeploy can take this long to show up in browsers that already loaded it.
+     *
+     * @author Maruf Bepary
+     */
+    private Duration cacheMaxAge = Duration.ofHours(1);
+
+    /**
+     * Keeps a gzip-compressed copy of the response for clients that accept it; defaults to {@code true}.
+     *
+     * @author Maruf Bepary
+     */
+    private boolean gzip = true;
+}
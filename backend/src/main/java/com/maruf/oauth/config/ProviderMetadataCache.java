@@ -0,0 +1,319 @@
+package com.maruf.oauth.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Caches JSON documents fetched from OAuth2 providers, such as OIDC discovery metadata and JWKS.
+ * Keeps documents in memory, optionally persists them to disk so a restarted node can work offline, and
+ * refreshes them in the background once three quarters of their lifetime has passed.
+ * A document past its lifetime is still served while its refresh runs in the background, so no request waits on
+ * the provider once a copy exists. Fetches are single-flight per URI: concurrent callers share one in-flight
+ * request instead of each contacting the provider.
+ * The cache directory and its files must be owned by the running user and writable by nobody else, since a
+ * planted JWKS would let anyone sign ID tokens; anything else is ignored and the document fetched instead.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+@Slf4j
+public class ProviderMetadataCache {
+
+    private static final TypeReference<Map<String, Object>> DOCUMENT_TYPE = new TypeReference<>() {
+    };
+    private static final ParameterizedTypeReference<Map<String, Object>> RESPONSE_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final OAuth2DiscoveryProperties properties;
+    private final ObjectProvider<OAuth2ProviderHttpClient> providerHttpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final Map<String, CompletableFuture<Map<String, Object>>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "provider-metadata-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Creates the cache; the HTTP client is resolved lazily because it depends on the client registrations
+     * that this cache helps build.
+     *
+     * @param properties         cache location and lifetimes
+     * @param providerHttpClient pooled provider client used for fetches
+     * @author Maruf Bepary
+     */
+    public ProviderMetadataCache(OAuth2DiscoveryProperties properties,
+                                 ObjectProvider<OAuth2ProviderHttpClient> providerHttpClient) {
+        this.properties = properties;
+        this.providerHttpClient = providerHttpClient;
+    }
+
+    /**
+     * Stops the background refresher.
+     *
+     * @author Maruf Bepary
+     */
+    @PreDestroy
+    void close() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Returns the document at a URI from memory or disk, fetching it from the provider only when no copy exists.
+     * A copy past three quarters of its lifetime is refreshed in the background and served meanwhile, even once
+     * fully expired, so an unreachable provider degrades to stale documents rather than failed logins.
+     *
+     * @param uri provider URI of the document
+     * @param ttl how long a fetched copy is considered fresh
+     * @return parsed JSON document
+     * @throws IllegalStateException when no copy exists and the provider cannot be reached
+     * @author Maruf Bepary
+     */
+    public Map<String, Object> get(String uri, Duration ttl) {
+        Entry entry = entries.get(uri);
+        if (entry == null) {
+            // Read outside computeIfAbsent so disk I/O never holds a lock on the map
+            Entry stored = readFromDisk(uri);
+            if (stored != null) {
+                Entry raced = entries.putIfAbsent(uri, stored);
+                entry = raced == null ? stored : raced;
+            }
+        }
+        if (entry == null) {
+            return refresh(uri);
+        }
+
+        Duration age = Duration.between(entry.fetchedAt(), Instant.now());
+        if (age.compareTo(ttl.multipliedBy(3).dividedBy(4)) >= 0) {
+            if (age.compareTo(ttl) >= 0) {
+                log.debug("Serving stale provider document {} while it is refreshed", uri);
+            }
+            refreshInBackground(uri);
+        }
+        return entry.document();
+    }
+
+    /**
+     * Fetches the document from the provider now, replacing the cached copy.
+     * Joins a fetch of the same URI already in flight instead of starting another.
+     *
+     * @param uri provider URI of the document
+     * @return freshly fetched document
+     * @author Maruf Bepary
+     */
+    public Map<String, Object> refresh(String uri) {
+        CompletableFuture<Map<String, Object>> fetch = new CompletableFuture<>();
+        CompletableFuture<Map<String, Object>> running = inFlight.putIfAbsent(uri, fetch);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            fetch.complete(fetch(uri));
+        } catch (RuntimeException e) {
+            fetch.completeExceptionally(e);
+        } finally {
+            inFlight.remove(uri, fetch);
+        }
+        return await(fetch);
+    }
+
+    private Map<String, Object> fetch(String uri) {
+        OAuth2ProviderHttpClient client = providerHttpClient.getObject();
+        Map<String, Object> document = client.restTemplate()
+                .exchange(uri, HttpMethod.GET, null, RESPONSE_TYPE)
+                .getBody();
+        if (document == null) {
+            throw new IllegalStateException("Empty provider document at " + uri);
+        }
+        Entry entry = new Entry(Instant.now(), document);
+        entries.put(uri, entry);
+        writeToDisk(uri, entry);
+        log.debug("Fetched provider document {}", uri);
+        return document;
+    }
+
+    /**
+     * Waits for a fetch, rethrowing its failure as thrown by the fetching thread.
+     */
+    private static Map<String, Object> await(CompletableFuture<Map<String, Object>> fetch) {
+        try {
+            return fetch.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Schedules a single background refresh per URI, ignoring failures so the current copy stays in use.
+     *
+     * @author Maruf Bepary
+     */
+    private void refreshInBackground(String uri) {
+        if (!refreshing.add(uri)) {
+            return;
+        }
+        refresher.execute(() -> {
+            try {
+                refresh(uri);
+            } catch (RuntimeException e) {
+                log.warn("Background refresh of {} failed: {}", uri, e.getMessage());
+            } finally {
+                refreshing.remove(uri);
+            }
+        });
+    }
+
+    /**
+     * Loads a persisted copy of the document, if the cache directory holds one.
+     *
+     * @return cached entry, or {@code null} when none is stored or it cannot be read
+     * @author Maruf Bepary
+     */
+    private Entry readFromDisk(String uri) {
+        Path file = cacheFile(uri);
+        if (file == null || !Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS)) {
+            return null;
+        }
+        try {
+            if (!isPrivate(file.getParent()) || !isPrivate(file)) {
+                log.warn("Ignoring provider cache file {}: it must be owned by {} and writable by nobody else",
+                        file, System.getProperty("user.name"));
+                return null;
+            }
+            Map<String, Object> stored = objectMapper.readValue(file.toFile(), DOCUMENT_TYPE);
+            if (!uri.equals(stored.get("uri"))) {
+                return null;
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> document = (Map<String, Object>) stored.get("document");
+            Instant fetchedAt = Instant.ofEpochMilli(((Number) stored.get("fetchedAt")).longValue());
+            log.info("Loaded cached provider document {} fetched at {}", uri, fetchedAt);
+            return new Entry(fetchedAt, document);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable provider cache file {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Persists a document atomically so readers never see a partial file.
+     *
+     * @author Maruf Bepary
+     */
+    private void writeToDisk(String uri, Entry entry) {
+        Path file = cacheFile(uri);
+        if (file == null) {
+            return;
+        }
+        Map<String, Object> stored = new LinkedHashMap<>();
+        stored.put("uri", uri);
+        stored.put("fetchedAt", entry.fetchedAt().toEpochMilli());
+        stored.put("document", entry.document());
+        try {
+            Path dir = file.getParent();
+            if (!Files.isDirectory(dir)) {
+                createPrivateDirectory(dir);
+            } else if (!isPrivate(dir)) {
+                log.warn("Not persisting provider document {}: {} is writable by other users", uri, dir);
+                return;
+            }
+            // Temporary files are created owner-only on POSIX file systems
+            Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            objectMapper.writeValue(temp.toFile(), stored);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not persist provider document {}: {}", uri, e.getMessage());
+        }
+    }
+
+    /**
+     * Creates the cache directory readable and writable by the running user only, where the file system allows.
+     *
+     * @author Maruf Bepary
+     */
+    private static void createPrivateDirectory(Path dir) throws IOException {
+        if (dir.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.createDirectories(dir, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+        } else {
+            Files.createDirectories(dir);
+        }
+    }
+
+    /**
+     * Checks that a cache path is owned by the running user and, on POSIX file systems, not writable by group or others.
+     *
+     * @author Maruf Bepary
+     */
+    private static boolean isPrivate(Path path) throws IOException {
+        if (!System.getProperty("user.name").equals(Files.getOwner(path, LinkOption.NOFOLLOW_LINKS).getName())) {
+            return false;
+        }
+        if (!path.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            return true;
+        }
+        Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(path, LinkOption.NOFOLLOW_LINKS);
+        return !permissions.contains(PosixFilePermission.GROUP_WRITE)
+                && !permissions.contains(PosixFilePermission.OTHERS_WRITE);
+    }
+
+    /**
+     * Names the cache file for a URI after its SHA-256 hash.
+     *
+     * @return file path, or {@code null} when disk caching is disabled
+     * @author Maruf Bepary
+     */
+    private Path cacheFile(String uri) {
+        if (!StringUtils.hasText(properties.getCacheDir())) {
+            return null;
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(uri.getBytes(StandardCharsets.UTF_8));
+            return Path.of(properties.getCacheDir(), HexFormat.of().formatHex(hash) + ".json");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 digest is not available", e);
+        }
+    }
+
+    /**
+     * A cached document and when it was fetched.
+     *
+     * @author Maruf Bepary
+     */
+    private record Entry(Instant fetchedAt, Map<String, Object> document) {
+    }
+}
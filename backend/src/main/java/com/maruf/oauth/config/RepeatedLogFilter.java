@@ -0,0 +1,207 @@
+package com.maruf.oauth.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import ch.qos.logback.core.util.Duration;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limits repeated warnings and errors marked {@link LogMarkers#RATE_LIMITED}, so one noisy client cannot
+ * flood the logs. Unmarked events, such as operational warnings about the token store, are never suppressed.
+ * Messages are grouped by logger and format string, so {@code "Invalid JWT token: {}"} counts as one message
+ * whatever token text it carries. Each group may log {@code maxPerWindow} times per {@code window}; later
+ * repeats are dropped and, once the window has passed, a single line reports how many were suppressed.
+ * The summary is written by a background thread at the end of each window, so it appears even when the
+ * client stops and the message never repeats; groups idle for a whole window are forgotten.
+ *
+ * @author Maruf Bepary
+ */
+public class RepeatedLogFilter extends TurboFilter {
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private int maxPerWindow = 5;
+    private long windowMillis = 60_000;
+    private int cacheSize = 1024;
+    private ScheduledExecutorService flusher;
+
+    /**
+     * Sets how many times one message may be logged per window.
+     *
+     * @param maxPerWindow allowed repeats per window
+     * @author Maruf Bepary
+     */
+    public void setMaxPerWindow(int maxPerWindow) {
+        this.maxPerWindow = maxPerWindow;
+    }
+
+    /**
+     * Sets the length of the rate limiting window, e.g. {@code 1 minute}.
+     *
+     * @param window window length
+     * @author Maruf Bepary
+     */
+    public void setWindow(Duration window) {
+        this.windowMillis = window.getMilliseconds();
+    }
+
+    /**
+     * Sets how many distinct messages are tracked; further messages are logged without limits.
+     *
+     * @param cacheSize tracked message groups
+     * @author Maruf Bepary
+     */
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    /**
+     * Starts the thread that writes summaries for windows that have passed.
+     *
+     * @author Maruf Bepary
+     */
+    @Override
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "log-repeat-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleAtFixedRate(() -> flush(System.currentTimeMillis()),
+                windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+        super.start();
+    }
+
+    /**
+     * Stops the summary thread; suppressed counts not yet reported are discarded.
+     *
+     * @author Maruf Bepary
+     */
+    @Override
+    public void stop() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        super.stop();
+    }
+
+    /**
+     * Denies marked WARN and ERROR events beyond the allowance for their message group.
+     *
+     * @author Maruf Bepary
+     */
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (format == null || marker == null || !marker.contains(LogMarkers.RATE_LIMITED)
+                || !level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        String key = logger.getName() + '|' + format;
+        long now = System.currentTimeMillis();
+        int suppressed;
+        Window window;
+        while (true) {
+            window = windows.get(key);
+            if (window == null) {
+                if (windows.size() >= cacheSize) {
+                    return FilterReply.NEUTRAL;
+                }
+                window = windows.computeIfAbsent(key, ignored -> new Window(logger, format));
+            }
+            synchronized (window) {
+                if (window.retired) {
+                    continue;
+                }
+                window.level = level;
+                if (now - window.started < windowMillis) {
+                    if (window.logged < maxPerWindow) {
+                        window.logged++;
+                        return FilterReply.NEUTRAL;
+                    }
+                    window.suppressed++;
+                    LoggingMetrics.rateLimited();
+                    return FilterReply.DENY;
+                }
+                suppressed = window.restart(now);
+                window.logged = 1;
+            }
+            break;
+        }
+        summarise(window, suppressed);
+        return FilterReply.NEUTRAL;
+    }
+
+    /**
+     * Reports and restarts every window that has passed, and forgets groups that logged nothing in theirs.
+     *
+     * @param now current time in epoch milliseconds
+     * @author Maruf Bepary
+     */
+    void flush(long now) {
+        for (Map.Entry<String, Window> entry : windows.entrySet()) {
+            Window window = entry.getValue();
+            int suppressed;
+            synchronized (window) {
+                if (now - window.started < windowMillis) {
+                    continue;
+                }
+                if (window.logged == 0) {
+                    window.retired = true;
+                    windows.remove(entry.getKey(), window);
+                    continue;
+                }
+                suppressed = window.restart(now);
+            }
+            summarise(window, suppressed);
+        }
+    }
+
+    /**
+     * Writes one line reporting the repeats a window suppressed, at the level they were logged at.
+     *
+     * @author Maruf Bepary
+     */
+    private void summarise(Window window, int suppressed) {
+        if (suppressed > 0) {
+            window.logger.log(LogMarkers.SUPPRESSION_SUMMARY, Logger.FQCN,
+                    Level.toLocationAwareLoggerInteger(window.level), "Suppressed {} repeats of \"{}\" in the last {} s",
+                    new Object[]{suppressed, window.format, windowMillis / 1000}, null);
+        }
+    }
+
+    /**
+     * Rate limiting state for one message group.
+     */
+    private static final class Window {
+        private final Logger logger;
+        private final String format;
+        private Level level = Level.WARN;
+        private long started = System.currentTimeMillis();
+        private int logged;
+        private int suppressed;
+        private boolean retired;
+
+        private Window(Logger logger, String format) {
+            this.logger = logger;
+            this.format = format;
+        }
+
+        /**
+         * Starts a new window and returns how many repeats the previous one suppressed.
+         */
+        private int restart(long now) {
+            int previous = suppressed;
+            started = now;
+            logged = 0;
+            suppressed = 0;
+            return previous;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.maruf.oauth.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes one in every {@code rate} events marked {@link LogMarkers#SAMPLED} and denies the rest,
+ * so per-request success messages still show traffic without costing a log line per request.
+ * Runs before the event is created, so skipped events cost a marker check and a counter increment.
+ *
+ * @author Maruf Bepary
+ */
+public class SampledLogFilter extends TurboFilter {
+
+    private final AtomicLong seen = new AtomicLong();
+    private int rate = 100;
+
+    /**
+     * Sets how many sampled events share one written line; {@code 1} writes them all.
+     *
+     * @param rate sampling rate, at least {@code 1}
+     * @author Maruf Bepary
+     */
+    public void setRate(int rate) {
+        this.rate = Math.max(1, rate);
+    }
+
+    /**
+     * Lets every {@code rate}-th sampled event through and denies the others.
+     *
+     * @author Maruf Bepary
+     */
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (format == null || marker == null || !marker.contains(LogMarkers.SAMPLED)) {
+            return FilterReply.NEUTRAL;
+        }
+        if (seen.getAndIncrement() % rate == 0) {
+            return FilterReply.NEUTRAL;
+        }
+        LoggingMetrics.sampled();
+        return FilterReply.DENY;
+    }
+}
@@ -1,27 +1,40 @@
 package com.maruf.oauth.config;
 
+import com.maruf.oauth.service.AuthEventBus;
+import com.maruf.oauth.service.AuthEventType;
 import com.maruf.oauth.service.JwtService;
 import com.maruf.oauth.service.RefreshTokenStore;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AccessTokenResponseClient;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AuthorizationCodeGrantRequest;
+import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserService;
+import org.springframework.security.oauth2.client.userinfo.DefaultOAuth2UserService;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.util.StringUtils;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -59,6 +72,12 @@ public class SecurityConfig {
     private final JwtService jwtService;
     private final HttpCookieFactory cookieFactory;
     private final OAuth2AuthenticationFailureHandler oauth2FailureHandler;
+    private final CookieOAuth2AuthorizationRequestRepository authorizationRequestRepository;
+    private final OAuth2AccessTokenResponseClient<OAuth2AuthorizationCodeGrantRequest> authorizationCodeTokenResponseClient;
+    private final DefaultOAuth2UserService oauth2UserService;
+    private final OidcUserService oidcUserService;
+    private final AuthEventBus authEventBus;
+    private final AccessTokenRenewal accessTokenRenewal;
 
     /**
      * Provides BCrypt password encoding for local authentication.
@@ -71,11 +90,52 @@ public class SecurityConfig {
         return new BCryptPasswordEncoder();
     }
 
+    /**
+     * Guards the Flight Recorder endpoint with HTTP Basic credentials of its own, separate from user logins,
+     * because recordings can reveal request timing and internals. Ordered ahead of the primary chain.
+     * Every request is denied while no password is configured.
+     *
+     * @param http       the mutable {@link HttpSecurity} builder provided by Spring Boot
+     * @param properties operator credentials and recording limits
+     * @author Maruf Bepary
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain flightRecordingFilterChain(HttpSecurity http, FlightRecordingProperties properties)
+            throws Exception {
+        boolean configured = StringUtils.hasText(properties.getPassword());
+        http
+                .securityMatcher(EndpointRequest.to(FlightRecordingEndpoint.class))
+                .csrf(csrf -> csrf.disable())
+                .sessionManagement(session -> session
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(authz -> {
+                    if (configured) {
+                        authz.anyRequest().hasRole("OPERATOR");
+                    } else {
+                        authz.anyRequest().denyAll();
+                    }
+                })
+                .httpBasic(Customizer.withDefaults());
+        if (configured) {
+            http.userDetailsService(new InMemoryUserDetailsManager(User.withUsername(properties.getUsername())
+                    .password(passwordEncoder().encode(properties.getPassword()))
+                    .roles("OPERATOR")
+                    .build()));
+        }
+        return http.build();
+    }
+
     /**
      * Builds the primary security filter chain covering OAuth2 login, JWT filters,
      * and logout handling.
      * Disables server side sessions to rely solely on tokens and enforces cookie
-     * cleanup during logout.
+     * cleanup during logout. The pending authorization request travels in an
+     * encrypted cookie so the OAuth2 round trip does not create a session either.
+     * Logout revocations and the logout itself are published to the {@link AuthEventBus}.
+     * Logout also revokes any successor {@link AccessTokenRenewal} issued for the presented access token.
+     * Health and Prometheus endpoints are open because they are served on the separate management port,
+     * which should only be reachable from the monitoring network.
      *
      * @param http the mutable {@link HttpSecurity} builder provided by Spring Boot
      * @author Maruf Bepary
@@ -88,9 +148,13 @@ public class SecurityConfig {
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authz -> authz
+                        // Session event streams complete on an async dispatch, after the original request was authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/", "/login", "/error", "/webjars/**").permitAll()
+                        .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
                         .requestMatchers("/api/public/**").permitAll()
                         .requestMatchers("/api/auth/status").permitAll()
+                        .requestMatchers("/api/auth/bootstrap").permitAll()
                         .requestMatchers("/api/auth/providers").permitAll()
                         .requestMatchers("/api/auth/refresh").permitAll()
                         .requestMatchers("/api/auth/signup").permitAll()
@@ -102,12 +166,22 @@ public class SecurityConfig {
                 .exceptionHandling(exceptions -> exceptions
                         .authenticationEntryPoint(apiAuthenticationEntryPoint()))
                 .oauth2Login(oauth2 -> oauth2
+                        .authorizationEndpoint(authorization -> authorization
+                                .authorizationRequestRepository(authorizationRequestRepository))
+                        .tokenEndpoint(token -> token
+                                .accessTokenResponseClient(authorizationCodeTokenResponseClient))
+                        .userInfoEndpoint(userInfo -> userInfo
+                                .userService(oauth2UserService)
+                                .oidcUserService(oidcUserService))
                         .successHandler(oauth2SuccessHandler)
                         .failureHandler(oauth2FailureHandler))
                 .logout(logout -> logout
                         .logoutUrl("/logout")
                         .logoutSuccessHandler((request, response, authentication) -> {
                             // Invalidate tokens with proper error handling
+                            String username = null;
+                            boolean accessRevoked = false;
+                            boolean refreshRevoked = false;
                             if (request.getCookies() != null) {
                                 for (Cookie cookie : request.getCookies()) {
                                     try {
@@ -117,11 +191,20 @@ public class SecurityConfig {
                                             if (jwtService.isTokenValid(token) && !jwtService.isTokenExpired(token)) {
                                                 java.time.Instant expiresAt = jwtService.getExpirationDate(token)
                                                         .toInstant();
-                                                String username = jwtService.extractUsername(token);
+                                                username = jwtService.extractUsername(token);
                                                 refreshTokenStore.invalidateAccessToken(token, username, expiresAt);
+                                                // A renewed successor may still be on its way to another tab
+                                                AccessTokenRenewal.Renewal renewal = accessTokenRenewal.forget(
+                                                        jwtService.extractAllClaims(token).getId());
+                                                if (renewal != null) {
+                                                    refreshTokenStore.invalidateAccessToken(renewal.token(), username,
+                                                            renewal.expiresAt());
+                                                }
+                                                accessRevoked = true;
                                             }
                                         } else if ("refresh_token".equals(cookie.getName())) {
                                             refreshTokenStore.invalidateRefreshToken(cookie.getValue());
+                                            refreshRevoked = true;
                                         }
                                     } catch (Exception e) {
                                         // Log but don't fail logout if token invalidation fails
@@ -129,6 +212,13 @@ public class SecurityConfig {
                                     }
                                 }
                             }
+                            if (accessRevoked) {
+                                authEventBus.publish(AuthEventType.REVOCATION, username, "access");
+                            }
+                            if (refreshRevoked) {
+                                authEventBus.publish(AuthEventType.REVOCATION, username, "refresh");
+                            }
+                            authEventBus.publish(AuthEventType.LOGOUT, username, null);
 
                             // Delete JWT cookie
                             writeCookie(response, "jwt", "", Duration.ZERO);
@@ -0,0 +1,155 @@
+package com.maruf.oauth.config;
+
+/**
+ * Per-request accumulator for the {@code Server-Timing} response header.
+ * Each {@link Stage} owns a fixed slot in preallocated arrays, so recording a stage is an array update with no
+ * allocation. {@link ServerTimingFilter} opens a scope per request on the handling thread; outside a scope, as when
+ * the header is disabled, {@link #record(Stage, long)} is a thread-local read and nothing else.
+ *
+ * @author Maruf Bepary
+ */
+public final class ServerTiming {
+
+    /**
+     * Stages reported in the header, in the order they are written.
+     *
+     * @author Maruf Bepary
+     */
+    public enum Stage {
+
+        /**
+         * JWT parsing, signature and expiry checks.
+         */
+        VERIFY("jwt", "JWT verification"),
+
+        /**
+         * Lookup of the access token in the revocation list.
+         */
+        REVOCATION("revocation", "Revocation check"),
+
+        /**
+         * All MongoDB calls made by the token store, the revocation check included.
+         */
+        MONGO("mongo", "Token store"),
+
+        /**
+         * BCrypt hashing or comparison during local signup and login.
+         */
+        BCRYPT("bcrypt", "Password hashing"),
+
+        /**
+         * Filters after authentication and the controller, up to the moment the response is committed.
+         */
+        CONTROLLER("app", "Controller");
+
+        private final String metric;
+        private final String description;
+
+        Stage(String metric, String description) {
+            this.metric = metric;
+            this.description = description;
+        }
+    }
+
+    private static final Stage[] STAGES = Stage.values();
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private final long started = System.nanoTime();
+    private final long[] nanos = new long[STAGES.length];
+    private final int[] counts = new int[STAGES.length];
+    private final long[] open = new long[STAGES.length];
+
+    /**
+     * Opens a scope on the current thread.
+     *
+     * @return timings collected until {@link #close()} is called
+     * @author Maruf Bepary
+     */
+    static ServerTiming open() {
+        ServerTiming timing = new ServerTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    /**
+     * Closes the scope on the current thread.
+     *
+     * @author Maruf Bepary
+     */
+    static void close() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Adds the time since {@code started} to a stage, if a scope is open on this thread.
+     *
+     * @param stage   stage to charge
+     * @param started {@link System#nanoTime()} when the stage began
+     * @author Maruf Bepary
+     */
+    public static void record(Stage stage, long started) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.nanos[stage.ordinal()] += System.nanoTime() - started;
+            timing.counts[stage.ordinal()]++;
+        }
+    }
+
+    /**
+     * Marks a stage as running until the response is committed, for stages such as the controller
+     * whose end is only known to the servlet container.
+     *
+     * @param stage stage to start
+     * @author Maruf Bepary
+     */
+    public static void begin(Stage stage) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.open[stage.ordinal()] = System.nanoTime();
+        }
+    }
+
+    /**
+     * Closes any stage still running and formats the header value, e.g.
+     * {@code jwt;dur=0.21;desc="JWT verification", total;dur=3.4}.
+     * Stages that did not run are left out; a stage run more than once is reported as its total.
+     *
+     * @return header value
+     * @author Maruf Bepary
+     */
+    String header() {
+        long now = System.nanoTime();
+        StringBuilder header = new StringBuilder(160);
+        for (Stage stage : STAGES) {
+            int slot = stage.ordinal();
+            if (open[slot] != 0) {
+                nanos[slot] += now - open[slot];
+                counts[slot]++;
+                open[slot] = 0;
+            }
+            if (counts[slot] > 0) {
+                header.append(stage.metric).append(";dur=");
+                appendMillis(header, nanos[slot]);
+                header.append(";desc=\"").append(stage.description).append("\", ");
+            }
+        }
+        header.append("total;dur=");
+        appendMillis(header, now - started);
+        return header.toString();
+    }
+
+    /**
+     * Appends a duration in milliseconds with two decimal places.
+     *
+     * @author Maruf Bepary
+     */
+    private static void appendMillis(StringBuilder header, long nanos) {
+        long hundredths = (nanos + 5_000) / 10_000;
+        header.append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) {
+            header.append('0');
+        }
+        header.append(fraction);
+    }
+}
@@ -0,0 +1,90 @@
+package com.maruf.oauth.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Adds a {@code Server-Timing} header to every response, breaking the request down into JWT verification,
+ * the revocation check, token store calls, password hashing and the controller.
+ * Browser devtools show the breakdown next to each request, and {@code Timing-Allow-Origin} lets the frontend
+ * read it through the Resource Timing API. Only registered when {@code app.server-timing.enabled} is {@code true}.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(prefix = "app.server-timing", name = "enabled", havingValue = "true")
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    /**
+     * Response header carrying the per-stage durations.
+     */
+    static final String HEADER = "Server-Timing";
+
+    @Value("${frontend.url:http://localhost:3000}")
+    private String frontendUrl;
+
+    /**
+     * Opens a timing scope for the request and writes the header just before the response is committed,
+     * since headers cannot be added once the body has started.
+     *
+     * @param request     current HTTP request
+     * @param response    current HTTP response, wrapped to detect the commit
+     * @param filterChain remaining filter chain
+     * @author Maruf Bepary
+     */
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        ServerTiming timing = ServerTiming.open();
+        ServerTimingResponse timedResponse = new ServerTimingResponse(response, timing);
+        try {
+            filterChain.doFilter(request, timedResponse);
+        } finally {
+            ServerTiming.close();
+            timedResponse.writeHeader();
+        }
+    }
+
+    /**
+     * Writes the header once, at commit time or after the chain for responses that never flushed.
+     */
+    private final class ServerTimingResponse extends OnCommittedResponseWrapper {
+
+        private final ServerTiming timing;
+        private boolean written;
+
+        ServerTimingResponse(HttpServletResponse response, ServerTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeader();
+        }
+
+        void writeHeader() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            response.setHeader(HEADER, timing.header());
+            response.setHeader("Timing-Allow-Origin", frontendUrl);
+        }
+    }
+}
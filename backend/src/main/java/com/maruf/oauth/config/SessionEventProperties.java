@@ -0,0 +1,51 @@
+package com.maruf.oauth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Binds the session event stream settings from {@code app.session-events}.
+ * The stream pushes expiry warnings, refreshes and revocations to open tabs so they need not poll the status endpoint.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+@ConfigurationProperties(prefix = "app.session-events")
+@Data
+public class SessionEventProperties {
+
+    /**
+     * How often the dispatcher sweeps open connections; a connection that received nothing for this long
+     * gets a heartbeat comment in the same sweep as every other idle connection. Defaults to 25 seconds,
+     * under the idle timeouts common in proxies.
+     *
+     * @author Maruf Bepary
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(25);
+
+    /**
+     * Remaining access token lifetime at which an {@code expiring} event is pushed; defaults to 1 minute.
+     *
+     * @author Maruf Bepary
+     */
+    private Duration expiringWindow = Duration.ofMinutes(1);
+
+    /**
+     * How often the revocations recorded since the previous poll are read from the shared token store, whichever
+     * instance handled the logout. Bounds how late a revocation is pushed; defaults to 5 seconds.
+     *
+     * @author Maruf Bepary
+     */
+    private Duration pollInterval = Duration.ofSeconds(5);
+
+    /**
+     * Open streams allowed per user on one instance, across tabs and devices; opening another closes the user's
+     * oldest stream. Defaults to 5.
+     *
+     * @author Maruf Bepary
+     */
+    private int maxConnectionsPerUser = 5;
+}
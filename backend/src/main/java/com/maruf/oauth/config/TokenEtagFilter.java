@@ -0,0 +1,115 @@
+package com.maruf.oauth.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Answers conditional GETs for endpoints whose body is fixed for the life of an access token.
+ * {@code /api/user} and {@code /api/auth/status} only echo the profile signed into the token, so a weak {@code ETag}
+ * derived from the token's {@code jti} identifies the representation, and a matching {@code If-None-Match}
+ * gets a bodyless 304 before the controller builds or serializes anything.
+ * Responses are {@code private}, vary by {@code Cookie} and may be reused until the token expires.
+ * Runs after the Spring Security chain, which has already verified the token and recorded its identity.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class TokenEtagFilter extends OncePerRequestFilter {
+
+    /**
+     * Endpoints whose response depends only on the verified access token.
+     */
+    static final Set<String> PATHS = Set.of("/api/user", "/api/auth/status");
+
+    /**
+     * Skips everything except GET and HEAD requests to the token-scoped endpoints.
+     *
+     * @param request current HTTP request
+     * @return {@code true} when the filter should not run
+     * @author Maruf Bepary
+     */
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String method = request.getMethod();
+        return !("GET".equals(method) || "HEAD".equals(method)) || !PATHS.contains(request.getRequestURI());
+    }
+
+    /**
+     * Adds the token's entity tag and cache headers, then either answers 304 or lets the controller respond.
+     * Requests without a verified, unexpired token pass through untouched.
+     *
+     * @param request     current HTTP request carrying the attributes set by {@link JwtAuthenticationFilter}
+     * @param response    current HTTP response
+     * @param filterChain remaining filter chain, skipped when the client's copy is current
+     * @author Maruf Bepary
+     */
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        Object tokenId = request.getAttribute(JwtAuthenticationFilter.ACCESS_TOKEN_ID);
+        Object expiresAt = request.getAttribute(JwtAuthenticationFilter.ACCESS_TOKEN_EXPIRES_AT);
+        if (!(tokenId instanceof String id) || !(expiresAt instanceof Instant expiry)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Duration remaining = Duration.between(Instant.now(), expiry);
+        if (remaining.isNegative() || remaining.isZero()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String etag = "W/\"" + id + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                CacheControl.maxAge(remaining).cachePrivate().getHeaderValue());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.COOKIE);
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Applies the weak comparison {@code If-None-Match} calls for, so {@code W/} prefixes are ignored on both sides.
+     *
+     * @param ifNoneMatch request header value, may be {@code null}
+     * @param etag        current entity tag
+     * @return {@code true} when any listed tag, or {@code *}, matches
+     * @author Maruf Bepary
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if ("*".equals(tag) || stripWeak(tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -0,0 +1,38 @@
+package com.maruf.oauth.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event timing one MongoDB token store operation, such as the revocation lookup
+ * made for every authenticated request.
+ *
+ * @author Maruf Bepary
+ */
+@Name("com.maruf.oauth.TokenStore")
+@Label("Token Store Operation")
+@Category({"OAuth", "Token Store"})
+@Description("Duration of a refresh or revoked token operation against MongoDB")
+@StackTrace(false)
+public class TokenStoreEvent extends Event {
+
+    @Label("Operation")
+    private String operation;
+
+    /**
+     * Ends the operation and commits the event if a recording is collecting it and the threshold is met.
+     *
+     * @param operation operation name matching the {@code auth.token.store} timer tag
+     * @author Maruf Bepary
+     */
+    public void record(String operation) {
+        if (shouldCommit()) {
+            this.operation = operation;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.maruf.oauth.config;
+
+import com.maruf.oauth.service.TokenStoreOperation;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binds persistence tuning for the refresh and revoked token collections.
+ * Keeps storage strategies opt-in so the default remains one synchronous write per call.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+@ConfigurationProperties(prefix = "app.security.token-store")
+@Data
+public class TokenStoreProperties {
+
+    /**
+     * Settings for batching token writes off the request thread.
+     *
+     * @author Maruf Bepary
+     */
+    private WriteBehind writeBehind = new WriteBehind();
+
+    /**
+     * Write concern and read preference overrides per store operation.
+     * Operations without an entry use the MongoDB client defaults.
+     *
+     * @author Maruf Bepary
+     */
+    private Map<TokenStoreOperation, OperationPolicy> policies = new EnumMap<>(TokenStoreOperation.class);
+
+    /**
+     * Databases the token collections are spread across, routed by token hash prefix.
+     * Leave empty to keep every token in the application's default database.
+     *
+     * @author Maruf Bepary
+     */
+    private List<Shard> shards = new ArrayList<>();
+
+    /**
+     * Settings for writing tokens into per-expiry-bucket collections that are dropped whole.
+     *
+     * @author Maruf Bepary
+     */
+    private TimeBuckets timeBuckets = new TimeBuckets();
+
+    /**
+     * Groups token writes into bulk operations flushed by size or elapsed time.
+     *
+     * @author Maruf Bepary
+     */
+    @Data
+    public static class WriteBehind {
+
+        /**
+         * Queues token writes and flushes them in batches when {@code true}; defaults to {@code false}.
+         *
+         * @author Maruf Bepary
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum number of writes sent in one bulk operation.
+         *
+         * @author Maruf Bepary
+         */
+        private int batchSize = 500;
+
+        /**
+         * Longest time a queued write waits for the batch to fill before it is flushed.
+         *
+         * @author Maruf Bepary
+         */
+        private Duration flushInterval = Duration.ofMillis(20);
+
+        /**
+         * Number of writes that may be queued before callers block until the flusher catches up.
+         *
+         * @author Maruf Bepary
+         */
+        private int queueCapacity = 10_000;
+    }
+
+    /**
+     * Stores revoked access tokens in hourly and refresh tokens in daily collections named by expiry.
+     * Expired buckets are dropped in one operation instead of being deleted document by document
+     * by the TTL monitor.
+     *
+     * @author Maruf Bepary
+     */
+    @Data
+    public static class TimeBuckets {
+
+        /**
+         * Writes tokens into expiry bucket collections when {@code true}; defaults to {@code false}.
+         *
+         * @author Maruf Bepary
+         */
+        private boolean enabled = false;
+
+        /**
+         * How often expired buckets are looked for and dropped.
+         *
+         * @author Maruf Bepary
+         */
+        private Duration dropInterval = Duration.ofMinutes(5);
+    }
+
+    /**
+     * Durability and read routing for a single store operation.
+     *
+     * @author Maruf Bepary
+     */
+    @Data
+    public static class OperationPolicy {
+
+        /**
+         * Write concern name accepted by {@code WriteConcern.valueOf}, e.g. {@code unacknowledged},
+         * {@code w1}, {@code journaled} or {@code majority}.
+         *
+         * @author Maruf Bepary
+         */
+        private String writeConcern;
+
+        /**
+         * Read preference name, e.g. {@code primary}, {@code secondaryPreferred} or {@code nearest}.
+         *
+         * @author Maruf Bepary
+         */
+        private String readPreference;
+
+        /**
+         * Bounded staleness for secondary reads; MongoDB requires at least 90 seconds.
+         *
+         * @author Maruf Bepary
+         */
+        private Duration maxStaleness;
+    }
+
+    /**
+     * One database holding a share of the token collections.
+     *
+     * @author Maruf Bepary
+     */
+    @Data
+    public static class Shard {
+
+        /**
+         * Connection string for a separate MongoDB deployment; omit to reuse the application's client.
+         *
+         * @author Maruf Bepary
+         */
+        private String uri;
+
+        /**
+         * Database holding this shard's collections; defaults to the URI's database or the application's.
+         *
+         * @author Maruf Bepary
+         */
+        private String database;
+
+        /**
+         * Hash prefix range owned by the shard, e.g. {@code 0-127}, out of 256 slots.
+         * When no shard declares slots they are split evenly in list order.
+         *
+         * @author Maruf Bepary
+         */
+        private String slots;
+    }
+}
@@ -1,25 +1,44 @@
 package com.maruf.oauth.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.maruf.oauth.config.LogMarkers;
 import com.maruf.oauth.dto.*;
+import com.maruf.oauth.entity.ProtectedItem;
+import com.maruf.oauth.service.ProtectedItemService;
 import com.maruf.oauth.util.OAuth2AttributeExtractor;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Exposes public and protected API endpoints consumed by the Next.js client.
  * Keeps responses small and log-friendly while delegating attribute parsing to dedicated helpers.
+ * Protected data is read from MongoDB a page or a stream at a time through {@link ProtectedItemService}.
+ * Per-request success messages carry {@link LogMarkers#SAMPLED} so only a sample of them is written.
  *
  * @author Maruf Bepary
  */
 @RestController
+@RequiredArgsConstructor
 @Slf4j
 public class ApiController {
 
+    private final ProtectedItemService protectedItemService;
+    private final ObjectMapper objectMapper;
+
     /**
      * Reports service health for monitoring tools and anonymous callers.
      * Uses a builder so fields stay explicit even as telemetry needs grow.
@@ -34,7 +53,7 @@ public class ApiController {
                 .timestamp(System.currentTimeMillis())
                 .build();
         
-        log.info("Public health endpoint accessed");
+        log.info(LogMarkers.SAMPLED, "Public health endpoint accessed");
         return ResponseEntity.ok(response);
     }
 
@@ -62,31 +81,39 @@ public class ApiController {
                 .avatarUrl(OAuth2AttributeExtractor.getAvatarUrl(principal))
                 .build();
         
-        log.info("User info requested for: {}", response.getLogin());
+        log.info(LogMarkers.SAMPLED, "User info requested for: {}", response.getLogin());
         return ResponseEntity.ok(response);
     }
 
     /**
-     * Delivers sample protected data to demonstrate JWT guarded requests.
-     * Separates user identification from payload generation to simplify future storage integration.
+     * Returns one page of the user's protected items, read by keyset pagination.
+     * Pass the previous page's {@code nextCursor} as {@code cursor} to continue; a {@code null} cursor marks the last page.
      *
      * @param principal the authenticated OAuth2 user requesting protected content
+     * @param cursor    continuation cursor from the previous page, absent for the first page
+     * @param limit     page size, capped by {@code app.protected-data.max-page-size}
+     * @param fields    item fields to return, all of them when absent
      * @author Maruf Bepary
      */
     @GetMapping("/api/protected/data")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<ProtectedDataResponse> getProtectedData(@AuthenticationPrincipal OAuth2User principal) {
+    public ResponseEntity<ProtectedDataResponse> getProtectedData(
+            @AuthenticationPrincipal OAuth2User principal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) List<String> fields) {
         if (principal == null) {
             log.warn("Unauthenticated access attempt to /api/protected/data");
             return ResponseEntity.status(401).build();
         }
         String username = OAuth2AttributeExtractor.resolveUsername(principal);
 
-        // mock data
+        ProtectedItemService.Page page = protectedItemService.findPage(username, cursor, limit, fields);
         ProtectedDataResponse.DataContent dataContent = ProtectedDataResponse.DataContent.builder()
-                .items(new String[]{"Item 1", "Item 2", "Item 3"})
-                .count(3)
+                .items(page.items().stream().map(ApiController::toItemResponse).toList())
+                .count(page.items().size())
                 .lastUpdated(System.currentTimeMillis())
+                .nextCursor(page.nextCursor())
                 .build();
         
         ProtectedDataResponse response = ProtectedDataResponse.builder()
@@ -95,10 +122,50 @@ public class ApiController {
                 .data(dataContent)
                 .build();
         
-        log.info("Protected data accessed by: {}", username);
+        log.info(LogMarkers.SAMPLED, "Protected data accessed by: {}", username);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Streams all of the user's protected items as newline-delimited JSON, one item per line.
+     * Items are written as they come off the MongoDB cursor on an async request thread, so neither the
+     * full list nor the full body is held in memory however many items the user has.
+     *
+     * @param principal the authenticated OAuth2 user requesting protected content
+     * @param fields    item fields to return, all of them when absent
+     * @author Maruf Bepary
+     */
+    @GetMapping(value = "/api/protected/data/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<StreamingResponseBody> streamProtectedData(
+            @AuthenticationPrincipal OAuth2User principal,
+            @RequestParam(required = false) List<String> fields) {
+        if (principal == null) {
+            log.warn("Unauthenticated access attempt to /api/protected/data/stream");
+            return ResponseEntity.status(401).build();
+        }
+        String username = OAuth2AttributeExtractor.resolveUsername(principal);
+
+        // Opened here so an unknown field is still answered with a 400 rather than a broken stream
+        Stream<ProtectedItem> items = protectedItemService.stream(username, fields);
+        ObjectWriter writer = objectMapper.writerFor(ProtectedItemResponse.class);
+        StreamingResponseBody body = out -> {
+            try (items) {
+                Iterator<ProtectedItem> iterator = items.iterator();
+                while (iterator.hasNext()) {
+                    out.write(writer.writeValueAsBytes(toItemResponse(iterator.next())));
+                    out.write('\n');
+                }
+            }
+        };
+
+        log.info(LogMarkers.SAMPLED, "Protected data streamed to: {}", username);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .cacheControl(CacheControl.noStore())
+                .body(body);
+    }
+
     /**
      * Handles state changing actions for authenticated users.
      * Validates the incoming payload and echoes a structured response for easy client side notifications.
@@ -130,4 +197,13 @@ public class ApiController {
         log.info("Action '{}' performed by: {}", request.getAction(), username);
         return ResponseEntity.ok(response);
     }
+
+    private static ProtectedItemResponse toItemResponse(ProtectedItem item) {
+        return ProtectedItemResponse.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .createdAt(item.getCreatedAt())
+                .build();
+    }
 }
\ No newline at end of file
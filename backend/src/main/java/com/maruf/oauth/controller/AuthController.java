@@ -1,16 +1,29 @@
 package com.maruf.oauth.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maruf.oauth.config.AuthMetrics;
 import com.maruf.oauth.config.HttpCookieFactory;
+import com.maruf.oauth.config.JwtAuthenticationFilter;
+import com.maruf.oauth.config.LogMarkers;
+import com.maruf.oauth.config.ProviderCatalog;
+import com.maruf.oauth.config.ProviderCatalogProperties;
 import com.maruf.oauth.config.RefreshTokenSecurityProperties;
 import com.maruf.oauth.dto.AuthStatusResponse;
 import com.maruf.oauth.dto.ErrorResponse;
 import com.maruf.oauth.dto.LoginRequest;
+import com.maruf.oauth.dto.SessionBootstrapResponse;
 import com.maruf.oauth.dto.SignupRequest;
 import com.maruf.oauth.dto.UserResponse;
 import com.maruf.oauth.entity.User;
+import com.maruf.oauth.service.AuthEventBus;
+import com.maruf.oauth.service.AuthEventType;
 import com.maruf.oauth.service.JwtService;
 import com.maruf.oauth.service.LocalAuthService;
 import com.maruf.oauth.service.RefreshTokenStore;
+import com.maruf.oauth.service.SessionEventDispatcher;
+import com.maruf.oauth.service.TokenOutcome;
+import com.maruf.oauth.service.TokenVerification;
 import com.maruf.oauth.util.OAuth2AttributeExtractor;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,32 +32,35 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.oauth2.client.registration.ClientRegistration;
-import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import io.jsonwebtoken.Claims;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Manages authentication lifecycle endpoints such as status checks and token refresh.
  * Coordinates JWT generation with cookie settings to match the Next.js client flow.
+ * Logins, signups, refreshes and rotations are published to the {@link AuthEventBus} for auditing,
+ * and session events are streamed to open tabs through the {@link SessionEventDispatcher}.
  *
  * @author Maruf Bepary
  */
@@ -57,8 +73,13 @@ public class AuthController {
     private final RefreshTokenStore refreshTokenStore;
     private final HttpCookieFactory cookieFactory;
     private final RefreshTokenSecurityProperties refreshTokenSecurityProperties;
-    private final ClientRegistrationRepository clientRegistrationRepository;
+    private final ProviderCatalog providerCatalog;
+    private final ProviderCatalogProperties providerCatalogProperties;
     private final LocalAuthService localAuthService;
+    private final AuthMetrics authMetrics;
+    private final AuthEventBus authEventBus;
+    private final SessionEventDispatcher sessionEventDispatcher;
+    private final ObjectMapper objectMapper;
 
     /**
      * Flag controlling whether email/password endpoints are exposed.
@@ -95,15 +116,9 @@ public class AuthController {
     @GetMapping("/api/auth/status")
     public ResponseEntity<AuthStatusResponse> getAuthStatus(@AuthenticationPrincipal OAuth2User principal) {
         if (principal != null) { // user is authenticated
-            UserResponse user = UserResponse.builder()
-                    .id(OAuth2AttributeExtractor.getUserId(principal))
-                    .login(OAuth2AttributeExtractor.resolveUsername(principal))
-                    .name(OAuth2AttributeExtractor.getName(principal))
-                    .email(OAuth2AttributeExtractor.getEmail(principal))
-                    .avatarUrl(OAuth2AttributeExtractor.getAvatarUrl(principal))
-                    .build();
-
-            log.info("Auth status checked for user: {}", user.getLogin());
+            UserResponse user = toUserResponse(principal);
+
+            log.info(LogMarkers.SAMPLED, "Auth status checked for user: {}", user.getLogin());
             
             return ResponseEntity.ok(
                 AuthStatusResponse.builder()
@@ -112,7 +127,7 @@ public class AuthController {
                     .build()
             );
         } else { // user is not authenticated
-            log.info("Auth status checked - user not authenticated");
+            log.info(LogMarkers.SAMPLED, "Auth status checked - user not authenticated");
             return ResponseEntity.ok(
                 AuthStatusResponse.builder()
                     .authenticated(false)
@@ -124,6 +139,7 @@ public class AuthController {
     /**
      * Issues a new access token when a valid refresh token cookie is presented.
      * Reuses a minimal {@link OAuth2User} instance so downstream JWT code remains shared with login.
+     * The token is parsed once, and the store is only consulted when its signature, expiry and type check out.
      *
      * @param request  HTTP servlet request containing authentication cookies
      * @param response HTTP servlet response used to publish a renewed access token cookie
@@ -132,18 +148,10 @@ public class AuthController {
     @PostMapping("/api/auth/refresh")
     public ResponseEntity<?> refreshToken(HttpServletRequest request, HttpServletResponse response) {
         // Extract refresh token from cookie
-        String refreshToken = null;
-        if (request.getCookies() != null) {
-            for (Cookie cookie : request.getCookies()) {
-                if ("refresh_token".equals(cookie.getName())) {
-                    refreshToken = cookie.getValue();
-                    break;
-                }
-            }
-        }
+        String refreshToken = extractCookie(request, "refresh_token");
 
         if (refreshToken == null) {
-            log.warn("Refresh token not found in cookies");
+            log.warn(LogMarkers.RATE_LIMITED, "Refresh token not found in cookies");
             return ResponseEntity.status(401)
                     .body(ErrorResponse.builder()
                             .error("token_missing")
@@ -151,40 +159,46 @@ public class AuthController {
                             .build());
         }
 
-        // Validate refresh token and get username
-        String username = refreshTokenStore.getUsernameFromRefreshToken(refreshToken);
+        // Validate the refresh token itself with JWT before touching the store
+        TokenVerification verification = jwtService.verify(refreshToken, "refresh");
+        if (!verification.isValid()) {
+            authMetrics.tokenOutcome("refresh", verification.outcome());
+            if (verification.outcome() == TokenOutcome.EXPIRED) {
+                // Signed by us, so it may still be stored; tokens failing the signature check never were
+                refreshTokenStore.invalidateRefreshToken(refreshToken);
+            }
+            if (verification.outcome() == TokenOutcome.WRONG_TYPE) {
+                log.warn(LogMarkers.RATE_LIMITED, "Token presented is not a refresh token");
+                return ResponseEntity.status(401)
+                        .body(ErrorResponse.builder()
+                                .error("token_invalid")
+                                .message("Invalid token type")
+                                .build());
+            }
+            log.warn(LogMarkers.RATE_LIMITED, "Refresh token is invalid or expired");
+            return ResponseEntity.status(401)
+                    .body(ErrorResponse.builder()
+                            .error("token_expired")
+                            .message("Refresh token has expired")
+                            .build());
+        }
+
+        // Get username from the store; rotation rewrites the record, so skip the touch then
+        String username = refreshTokenStore.getUsernameFromRefreshToken(
+                refreshToken, !refreshTokenSecurityProperties.isRotationEnabled());
         if (username == null) {
-            log.warn("Invalid or expired refresh token");
+            authMetrics.tokenOutcome("refresh", TokenOutcome.REVOKED);
+            log.warn(LogMarkers.RATE_LIMITED, "Invalid or expired refresh token");
             return ResponseEntity.status(401)
                     .body(ErrorResponse.builder()
                             .error("token_invalid")
                             .message("Invalid or expired refresh token")
                             .build());
         }
+        authMetrics.tokenOutcome("refresh", TokenOutcome.VALID);
 
         try {
-            // Validate the refresh token itself with JWT
-            if (!jwtService.isTokenValid(refreshToken) || jwtService.isTokenExpired(refreshToken)) {
-                log.warn("Refresh token is invalid or expired");
-                refreshTokenStore.invalidateRefreshToken(refreshToken);
-                return ResponseEntity.status(401)
-                        .body(ErrorResponse.builder()
-                                .error("token_expired")
-                                .message("Refresh token has expired")
-                                .build());
-            }
-
-            Claims claims = jwtService.extractAllClaims(refreshToken);
-            String tokenType = (String) claims.get("type");
-            if (!"refresh".equals(tokenType)) {
-                log.warn("Token presented is not a refresh token");
-                refreshTokenStore.invalidateRefreshToken(refreshToken);
-                return ResponseEntity.status(401)
-                        .body(ErrorResponse.builder()
-                                .error("token_invalid")
-                                .message("Invalid token type")
-                                .build());
-            }
+            Claims claims = verification.claims();
 
             // Create a minimal OAuth2User for token generation
             Map<String, Object> attributes = new HashMap<>();
@@ -200,18 +214,26 @@ public class AuthController {
                     "login"
             );
 
+            // Rotate refresh token if enabled; losing a concurrent rotation leaves the winner's cookie alone
+            if (refreshTokenSecurityProperties.isRotationEnabled()
+                    && !rotateRefreshToken(response, refreshToken, username, attributes)) {
+                authMetrics.tokenOutcome("refresh", TokenOutcome.REVOKED);
+                log.warn(LogMarkers.RATE_LIMITED, "Refresh token for user {} was already rotated", username);
+                return ResponseEntity.status(401)
+                        .body(ErrorResponse.builder()
+                                .error("token_rotated")
+                                .message("Refresh token was already used")
+                                .build());
+            }
+
             // Generate new access token
             String newAccessToken = jwtService.generateAccessToken(oauth2User);
-            
-            // Rotate refresh token if enabled
-            if (refreshTokenSecurityProperties.isRotationEnabled()) {
-                rotateRefreshToken(response, refreshToken, username, attributes);
-            }
 
             // Set new access token as cookie
             addCookie(response, "jwt", newAccessToken, Duration.ofMillis(accessTokenExpiration));
 
             log.info("Access token refreshed for user: {}", username);
+            authEventBus.publish(AuthEventType.REFRESH, username, null);
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
@@ -230,31 +252,148 @@ public class AuthController {
     /**
      * Returns a list of configured OAuth2 providers.
      * Used by the frontend to dynamically render login buttons.
+     * Writes the JSON precomputed by {@link ProviderCatalog}, gzip-compressed when the client accepts it,
+     * with a strong {@code ETag} per representation so Spring answers a matching {@code If-None-Match} with 304.
      *
-     * @return List of provider details (key, name)
+     * @param acceptEncoding the client's {@code Accept-Encoding} header, may be {@code null}
+     * @return List of provider details (key, name) as JSON bytes
      * @author Maruf Bepary
      */
     @GetMapping("/api/auth/providers")
-    public ResponseEntity<List<Map<String, String>>> getProviders() {
-        List<Map<String, String>> providers = new ArrayList<>();
-        if (clientRegistrationRepository instanceof Iterable) {
-            Iterable<ClientRegistration> iterable = (Iterable<ClientRegistration>) clientRegistrationRepository;
-            iterable.forEach(registration -> {
-                Map<String, String> provider = new HashMap<>();
-                provider.put("key", registration.getRegistrationId());
-                provider.put("name", registration.getClientName());
-                providers.add(provider);
-            });
+    public ResponseEntity<byte[]> getProviders(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.maxAge(providerCatalogProperties.getCacheMaxAge()).cachePublic())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (providerCatalog.getGzip() != null && ProviderCatalog.acceptsGzip(acceptEncoding)) {
+            return response.eTag(providerCatalog.getGzipEtag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(providerCatalog.getGzip());
+        }
+        return response.eTag(providerCatalog.getEtag()).body(providerCatalog.getJson());
+    }
+
+    /**
+     * Returns auth status, profile, login options and token expiry in one response for the frontend's first paint.
+     * The response carries an {@code ETag} hashed from the JSON bytes it sends and must be revalidated on every use,
+     * so a browser presenting {@code If-None-Match} for an unchanged session receives an empty 304.
+     * Access token expiry comes from the authentication filter; the refresh token cookie is parsed but not looked up.
+     *
+     * @param principal the authenticated principal resolved by Spring Security, may be {@code null}
+     * @param request   HTTP request carrying the refresh token cookie and the filter's expiry attribute
+     * @return bootstrap payload as JSON bytes, or 304 when the client's copy is current
+     * @throws JsonProcessingException when the payload cannot be serialized
+     * @author Maruf Bepary
+     */
+    @GetMapping("/api/auth/bootstrap")
+    public ResponseEntity<byte[]> bootstrap(@AuthenticationPrincipal OAuth2User principal,
+                                            HttpServletRequest request) throws JsonProcessingException {
+        Instant refreshTokenExpiresAt = null;
+        String refreshToken = extractCookie(request, "refresh_token");
+        if (refreshToken != null) {
+            TokenVerification verification = jwtService.verify(refreshToken, "refresh");
+            if (verification.isValid() && verification.claims().getExpiration() != null) {
+                refreshTokenExpiresAt = verification.claims().getExpiration().toInstant();
+            }
         }
-        
-        if (localAuthEnabled) {
-            Map<String, String> localProvider = new HashMap<>();
-            localProvider.put("key", "local");
-            localProvider.put("name", "Email & Password");
-            providers.add(localProvider);
+
+        SessionBootstrapResponse body = SessionBootstrapResponse.builder()
+                .authenticated(principal != null)
+                .user(principal != null ? toUserResponse(principal) : null)
+                .providers(providerCatalog.getProviders())
+                .localAuthEnabled(localAuthEnabled)
+                .accessTokenExpiresAt(principal != null
+                        ? (Instant) request.getAttribute(JwtAuthenticationFilter.ACCESS_TOKEN_EXPIRES_AT)
+                        : null)
+                .refreshTokenExpiresAt(refreshTokenExpiresAt)
+                .build();
+
+        // Spring answers 304 itself when If-None-Match matches the ETag of a GET response
+        byte[] json = objectMapper.writeValueAsBytes(body);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(ProviderCatalog.entityTag(json))
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.COOKIE)
+                .body(json);
+    }
+
+    /**
+     * Builds the profile DTO by hand to keep tight control over which OAuth fields leave the server.
+     *
+     * @param principal authenticated user
+     * @return profile for the response body
+     * @author Maruf Bepary
+     */
+    private UserResponse toUserResponse(OAuth2User principal) {
+        return UserResponse.builder()
+                .id(OAuth2AttributeExtractor.getUserId(principal))
+                .login(OAuth2AttributeExtractor.resolveUsername(principal))
+                .name(OAuth2AttributeExtractor.getName(principal))
+                .email(OAuth2AttributeExtractor.getEmail(principal))
+                .avatarUrl(OAuth2AttributeExtractor.getAvatarUrl(principal))
+                .build();
+    }
+
+    /**
+     * Opens a Server-Sent Events stream of session events for the current user, so open tabs learn about
+     * expiry and revocations without polling the status endpoint.
+     * Streams are served by the shared {@link SessionEventDispatcher} and close when the access token expires;
+     * the browser's {@code EventSource} then reconnects with its current cookie.
+     *
+     * @param principal the authenticated principal resolved by Spring Security
+     * @param request   HTTP request carrying the access token expiry recorded by the authentication filter
+     * @return event stream, or 401 without a verified access token
+     * @author Maruf Bepary
+     */
+    @GetMapping(value = "/api/auth/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> sessionEvents(@AuthenticationPrincipal OAuth2User principal,
+                                                    HttpServletRequest request) {
+        Object expiresAt = request.getAttribute(JwtAuthenticationFilter.ACCESS_TOKEN_EXPIRES_AT);
+        String accessToken = extractCookie(request, "jwt");
+        if (principal == null || accessToken == null || !(expiresAt instanceof Instant expiry)) {
+            return ResponseEntity.status(401).build();
         }
-        
-        return ResponseEntity.ok(providers);
+        SseEmitter emitter = sessionEventDispatcher.open(
+                OAuth2AttributeExtractor.resolveUsername(principal), accessToken, expiry);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                // Stops reverse proxies such as nginx from buffering the stream
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+
+    /**
+     * Ends every session of the current user: revokes all their refresh tokens and the presented access token,
+     * clears this browser's cookies and notifies their open event streams.
+     * Access tokens already held by other devices stay valid until they expire, like after a single logout.
+     *
+     * @param principal the authenticated principal resolved by Spring Security
+     * @param request   HTTP request carrying the access token cookie
+     * @param response  HTTP response used to clear the token cookies
+     * @author Maruf Bepary
+     */
+    @PostMapping("/api/auth/logout-all")
+    public ResponseEntity<?> logoutEverywhere(@AuthenticationPrincipal OAuth2User principal,
+                                              HttpServletRequest request, HttpServletResponse response) {
+        if (principal == null) {
+            return ResponseEntity.status(401).build();
+        }
+        String username = OAuth2AttributeExtractor.resolveUsername(principal);
+        long revoked = refreshTokenStore.invalidateAllRefreshTokens(username);
+
+        String accessToken = extractCookie(request, "jwt");
+        if (accessToken != null) {
+            refreshTokenStore.invalidateAccessToken(accessToken, username,
+                    jwtService.getExpirationDate(accessToken).toInstant());
+        }
+        authEventBus.publish(AuthEventType.LOGOUT_ALL, username, Long.toString(revoked));
+
+        addCookie(response, "jwt", "", Duration.ZERO);
+        addCookie(response, "refresh_token", "", Duration.ZERO);
+        log.info("Logged out everywhere for user: {} ({} refresh tokens revoked)", username, revoked);
+        return ResponseEntity.ok(Map.of("success", true, "revoked", revoked));
     }
 
     /**
@@ -275,6 +414,7 @@ public class AuthController {
 
         try {
             User user = localAuthService.register(signupRequest.getEmail(), signupRequest.getPassword(), signupRequest.getName());
+            authEventBus.publish(AuthEventType.SIGNUP, user.getEmail(), "local");
             return authenticateUser(user);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(ErrorResponse.builder()
@@ -300,12 +440,16 @@ public class AuthController {
                     .build());
         }
 
-        return localAuthService.login(loginRequest.getEmail(), loginRequest.getPassword())
-                .map(this::authenticateUser)
-                .orElse(ResponseEntity.status(401).body(ErrorResponse.builder()
-                        .error("login_failed")
-                        .message("Invalid email or password")
-                        .build()));
+        Optional<User> user = localAuthService.login(loginRequest.getEmail(), loginRequest.getPassword());
+        if (user.isEmpty()) {
+            authEventBus.publish(AuthEventType.LOGIN_FAILED, loginRequest.getEmail(), "local");
+            return ResponseEntity.status(401).body(ErrorResponse.builder()
+                    .error("login_failed")
+                    .message("Invalid email or password")
+                    .build());
+        }
+        authEventBus.publish(AuthEventType.LOGIN, user.get().getEmail(), "local");
+        return authenticateUser(user.get());
     }
 
     /**
@@ -343,6 +487,25 @@ public class AuthController {
         return ResponseEntity.ok().headers(headers).body(Map.of("success", true));
     }
 
+    /**
+     * Reads a cookie value from the request.
+     *
+     * @param request HTTP request that may carry the cookie
+     * @param name    cookie name
+     * @return cookie value, or {@code null} when absent
+     * @author Maruf Bepary
+     */
+    private static String extractCookie(HttpServletRequest request, String name) {
+        if (request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (name.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
     /**
      * Creates an HTTP only cookie aligned with the configured security rules.
      * Centralises cookie flags to avoid divergent settings across authentication responses.
@@ -360,21 +523,25 @@ public class AuthController {
     /**
      * Replaces the presented refresh token with a new one and updates persistence accordingly.
      * Called only when rotation is enabled to enforce single-use refresh tokens.
+     * Sets no cookie and publishes nothing when the presented token was already rotated or revoked.
      *
      * @param response HTTP response used to publish the rotated cookie
-     * @param currentRefreshToken existing refresh token to invalidate
+     * @param currentRefreshToken existing refresh token to replace
      * @param username username associated with the session
      * @param refreshClaims claims to embed in the new refresh token
+     * @return {@code true} when the successor was stored and its cookie set
      * @author Maruf Bepary
      */
-    private void rotateRefreshToken(HttpServletResponse response, String currentRefreshToken, String username, Map<String, Object> refreshClaims) {
-        refreshTokenStore.invalidateRefreshToken(currentRefreshToken);
-
+    private boolean rotateRefreshToken(HttpServletResponse response, String currentRefreshToken, String username, Map<String, Object> refreshClaims) {
         String newRefreshToken = jwtService.generateRefreshToken(username, refreshClaims);
         Instant refreshExpiresAt = Instant.now().plusMillis(refreshTokenExpiration);
-        refreshTokenStore.storeRefreshToken(newRefreshToken, username, refreshExpiresAt);
+        if (!refreshTokenStore.rotateRefreshToken(currentRefreshToken, newRefreshToken, username, refreshExpiresAt)) {
+            return false;
+        }
         addCookie(response, "refresh_token", newRefreshToken, Duration.ofMillis(refreshTokenExpiration));
 
         log.info("Refresh token rotated for user: {}", username);
+        authEventBus.publish(AuthEventType.ROTATION, username, null);
+        return true;
     }
 }
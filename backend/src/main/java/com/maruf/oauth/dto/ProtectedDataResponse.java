@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 /**
  * Wraps sensitive data returned to authenticated clients.
  * Separates metadata from payload items so caching rules can differ per field if needed.
@@ -38,8 +40,8 @@ public class ProtectedDataResponse {
     private DataContent data;
 
     /**
-     * Groups the protected items that belong to a single response.
-     * Keeps counts and timestamps together to aid client side freshness checks.
+     * Groups the protected items that belong to a single page.
+     * Keeps counts, timestamps and the continuation cursor together to aid client side paging and freshness checks.
      *
      * @author Maruf Bepary
      */
@@ -48,8 +50,9 @@ public class ProtectedDataResponse {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class DataContent {
-        private String[] items;
+        private List<ProtectedItemResponse> items;
         private Integer count;
         private Long lastUpdated;
+        private String nextCursor;
     }
 }
@@ -0,0 +1,50 @@
+package com.maruf.oauth.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One protected item as returned to its owner.
+ * Fields left out of the requested projection are {@code null} and omitted from the JSON.
+ *
+ * @author Maruf Bepary
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProtectedItemResponse {
+    /**
+     * Item identifier; always present.
+     *
+     * @author Maruf Bepary
+     */
+    private String id;
+
+    /**
+     * Short title of the item.
+     *
+     * @author Maruf Bepary
+     */
+    private String name;
+
+    /**
+     * Longer free text describing the item.
+     *
+     * @author Maruf Bepary
+     */
+    private String description;
+
+    /**
+     * Time the item was created.
+     *
+     * @author Maruf Bepary
+     */
+    private Instant createdAt;
+}
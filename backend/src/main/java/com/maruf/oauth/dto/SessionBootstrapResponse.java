@@ -0,0 +1,65 @@
+package com.maruf.oauth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything the frontend needs on page load in one response: session state, profile, login options and token expiry.
+ * Replaces separate calls to the status and providers endpoints so first paint waits on a single round trip.
+ *
+ * @author Maruf Bepary
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionBootstrapResponse {
+    /**
+     * Indicates whether the requester is authenticated.
+     *
+     * @author Maruf Bepary
+     */
+    private boolean authenticated;
+
+    /**
+     * Profile details returned when authenticated; {@code null} otherwise.
+     *
+     * @author Maruf Bepary
+     */
+    private UserResponse user;
+
+    /**
+     * Login options in the same shape as {@code /api/auth/providers}, including {@code local} when enabled.
+     *
+     * @author Maruf Bepary
+     */
+    private List<Map<String, String>> providers;
+
+    /**
+     * Indicates whether email and password signup and login are available.
+     *
+     * @author Maruf Bepary
+     */
+    private boolean localAuthEnabled;
+
+    /**
+     * Expiry of the access token the client will hold after this response; {@code null} when unauthenticated.
+     *
+     * @author Maruf Bepary
+     */
+    private Instant accessTokenExpiresAt;
+
+    /**
+     * Expiry signed into the refresh token cookie; {@code null} when absent or invalid.
+     * Revocation is not checked here, so a revoked token still reports its original expiry.
+     *
+     * @author Maruf Bepary
+     */
+    private Instant refreshTokenExpiresAt;
+}
@@ -55,10 +55,11 @@ public class InvalidatedToken {
     private Instant expiresAt;
     
     /**
-     * Time when the token was explicitly invalidated.
+     * Time when the token was explicitly invalidated; indexed so revocations since a moment can be read back.
      *
      * @author Maruf Bepary
      */
+    @Indexed
     private Instant invalidatedAt;
     
     /**
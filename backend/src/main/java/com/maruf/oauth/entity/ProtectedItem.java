@@ -0,0 +1,63 @@
+package com.maruf.oauth.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * MongoDB document holding one item of a user's protected data.
+ * The compound index on owner and id serves keyset pagination: a page is the next run of ids after the cursor
+ * within one owner, read in index order without a sort or skip.
+ *
+ * @author Maruf Bepary
+ */
+@Document(collection = "protected_items")
+@CompoundIndex(name = "owner_id", def = "{'owner': 1, '_id': 1}")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProtectedItem {
+
+    /**
+     * ObjectId generated on insert; increases with insertion time, so it doubles as the pagination key.
+     *
+     * @author Maruf Bepary
+     */
+    @Id
+    private String id;
+
+    /**
+     * Username the item belongs to.
+     *
+     * @author Maruf Bepary
+     */
+    private String owner;
+
+    /**
+     * Short title shown in listings.
+     *
+     * @author Maruf Bepary
+     */
+    private String name;
+
+    /**
+     * Longer free text; clients listing many items usually leave it out of the projection.
+     *
+     * @author Maruf Bepary
+     */
+    private String description;
+
+    /**
+     * Time the item was created.
+     *
+     * @author Maruf Bepary
+     */
+    private Instant createdAt;
+}
@@ -0,0 +1,13 @@
+package com.maruf.oauth.service;
+
+/**
+ * One structured auth event, as published by request threads and stored in the journal.
+ *
+ * @param timestamp milliseconds since the epoch when the event happened
+ * @param type      what happened
+ * @param username  account concerned, or {@code null} when unknown
+ * @param detail    short context such as the provider or revoked token type, or {@code null}
+ * @author Maruf Bepary
+ */
+public record AuthEvent(long timestamp, AuthEventType type, String username, String detail) {
+}
@@ -0,0 +1,213 @@
+package com.maruf.oauth.service;
+
+import com.maruf.oauth.config.AuthEventProperties;
+import com.maruf.oauth.config.AuthMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Carries auth events from request threads to the {@link AuthEventListener}s through a bounded lock-free ring buffer.
+ * Publishers claim a slot with a single compare-and-set and never wait: when the buffer is full the event is dropped
+ * and counted. One consumer thread drains the buffer in batches and hands each event to every listener in order, so
+ * the journal, metrics and any other consumer read the same stream and each listener has a single writer.
+ * Each slot carries a sequence number, as in Vyukov's bounded queue, telling producers and the consumer whose turn it is.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+@Slf4j
+public class AuthEventBus {
+
+    /**
+     * Most events handed to listeners before {@link AuthEventListener#onBatchEnd()} is called.
+     */
+    private static final int MAX_BATCH = 256;
+
+    /**
+     * Longest the consumer sleeps when the buffer is empty.
+     */
+    private static final long MAX_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final ObjectProvider<AuthEventListener> listenerProvider;
+    private final AuthMetrics authMetrics;
+    private final int mask;
+    private final AuthEvent[] slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Next position the consumer reads; only touched by the consumer thread.
+     */
+    private long head;
+
+    private List<AuthEventListener> listeners;
+    private Thread consumer;
+    private volatile boolean running;
+
+    /**
+     * Allocates the ring buffer.
+     *
+     * @param properties       buffer size
+     * @param listenerProvider listeners, resolved in order when the consumer starts
+     * @param authMetrics      metrics for dropped events
+     * @author Maruf Bepary
+     */
+    public AuthEventBus(AuthEventProperties properties, ObjectProvider<AuthEventListener> listenerProvider,
+                        AuthMetrics authMetrics) {
+        this.listenerProvider = listenerProvider;
+        this.authMetrics = authMetrics;
+        int capacity = Integer.highestOneBit(Math.max(2, properties.getBufferSize() - 1)) << 1;
+        this.mask = capacity - 1;
+        this.slots = new AuthEvent[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Starts the consumer thread.
+     *
+     * @author Maruf Bepary
+     */
+    @PostConstruct
+    void start() {
+        listeners = listenerProvider.orderedStream().toList();
+        running = true;
+        consumer = new Thread(this::runConsumeLoop, "auth-event-consumer");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    /**
+     * Stops the consumer after it has handed every buffered event to the listeners.
+     *
+     * @author Maruf Bepary
+     */
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (consumer == null) {
+            return;
+        }
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Publishes an event without blocking.
+     *
+     * @param type     what happened
+     * @param username account concerned, or {@code null}
+     * @param detail   short context, or {@code null}
+     * @return {@code false} when the buffer was full and the event was dropped
+     * @author Maruf Bepary
+     */
+    public boolean publish(AuthEventType type, String username, String detail) {
+        AuthEvent event = new AuthEvent(System.currentTimeMillis(), type, username, detail);
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = event;
+                    // Release the slot to the consumer only after the event is in place
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                authMetrics.authEventDropped();
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Takes the next event if one has been published.
+     *
+     * @return next event, or {@code null} when the buffer is empty
+     * @author Maruf Bepary
+     */
+    AuthEvent poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        AuthEvent event = slots[index];
+        slots[index] = null;
+        // Hand the slot back to producers for the next lap round the ring
+        sequences.lazySet(index, head + slots.length);
+        head++;
+        return event;
+    }
+
+    /**
+     * Drains batches until stopped, backing off while the buffer is empty so an idle
+     * consumer costs almost nothing and publishers never have to signal it.
+     *
+     * @author Maruf Bepary
+     */
+    private void runConsumeLoop() {
+        long idleNanos = TimeUnit.MICROSECONDS.toNanos(50);
+        while (true) {
+            int drained = drainBatch();
+            if (drained > 0) {
+                idleNanos = TimeUnit.MICROSECONDS.toNanos(50);
+                continue;
+            }
+            if (!running) {
+                return;
+            }
+            LockSupport.parkNanos(idleNanos);
+            idleNanos = Math.min(idleNanos * 2, MAX_IDLE_NANOS);
+        }
+    }
+
+    /**
+     * Hands up to {@link #MAX_BATCH} events to every listener, isolating listener failures.
+     *
+     * @return number of events drained
+     * @author Maruf Bepary
+     */
+    int drainBatch() {
+        int drained = 0;
+        AuthEvent event;
+        while (drained < MAX_BATCH && (event = poll()) != null) {
+            drained++;
+            for (AuthEventListener listener : listeners) {
+                try {
+                    listener.onEvent(event);
+                } catch (RuntimeException e) {
+                    log.warn("Auth event listener {} failed: {}", listener.getClass().getSimpleName(), e.getMessage());
+                }
+            }
+        }
+        if (drained > 0) {
+            for (AuthEventListener listener : listeners) {
+                try {
+                    listener.onBatchEnd();
+                } catch (RuntimeException e) {
+                    log.warn("Auth event listener {} failed: {}", listener.getClass().getSimpleName(), e.getMessage());
+                }
+            }
+        }
+        return drained;
+    }
+}
@@ -0,0 +1,305 @@
+package com.maruf.oauth.service;
+
+import com.maruf.oauth.config.AuthEventProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Appends auth events to a memory-mapped, segmented binary journal for auditing.
+ * Only the {@link AuthEventBus} consumer thread writes, so appends need no locking. Each segment is preallocated
+ * and mapped at its full size; records are written straight into the mapping and reach disk through the page cache,
+ * so they survive a crash of the JVM but not of the machine. When a record does not fit, the next segment is started
+ * and segments beyond the retention period or count are deleted. {@link AuthEventJournalReader} reads the files back.
+ *
+ * <p>Segment layout: a header of {@link #MAGIC} and {@link #VERSION}, then records of
+ * {@code [int length][int crc32][payload]} with payload
+ * {@code [long timestamp][byte type][short username length][username][short detail length][detail]}.
+ * A length of zero marks the end of written data; string lengths of {@code -1} encode {@code null}.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class AuthEventJournal implements AuthEventListener {
+
+    /**
+     * Identifies journal segments: {@code AEVJ} in ASCII.
+     */
+    static final int MAGIC = 0x4145564A;
+
+    /**
+     * Format version written after the magic number.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Bytes taken by the segment header.
+     */
+    static final int HEADER_BYTES = 8;
+
+    /**
+     * Bytes in front of each payload: its length and checksum.
+     */
+    static final int RECORD_PREFIX_BYTES = 8;
+
+    /**
+     * Longest username or detail stored, in UTF-8 bytes; longer values are cut short.
+     */
+    static final int MAX_FIELD_BYTES = 512;
+
+    private static final String SEGMENT_PREFIX = "auth-events-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final AuthEventProperties.Journal properties;
+    private final ByteBuffer payload = ByteBuffer.allocate(11 + 2 * (2 + MAX_FIELD_BYTES));
+    private final CRC32 crc = new CRC32();
+
+    private MappedByteBuffer segment;
+    private long segmentIndex = -1;
+
+    /**
+     * Creates the journal from the audit settings.
+     *
+     * @param properties audit settings holding the journal configuration
+     * @author Maruf Bepary
+     */
+    public AuthEventJournal(AuthEventProperties properties) {
+        this.properties = properties.getJournal();
+    }
+
+    /**
+     * Opens the newest segment and positions after its last record, or starts the first segment.
+     *
+     * @author Maruf Bepary
+     */
+    @PostConstruct
+    void open() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Path dir = Path.of(properties.getDir());
+        try {
+            Files.createDirectories(dir);
+            List<Path> segments = segments(dir);
+            if (segments.isEmpty()) {
+                roll();
+            } else {
+                Path newest = segments.get(segments.size() - 1);
+                segmentIndex = indexOf(newest);
+                segment = map(newest, Files.size(newest));
+                segment.position(endOfRecords(segment));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open auth event journal in " + dir, e);
+        }
+        log.info("Auth event journal writing to {}", dir);
+    }
+
+    /**
+     * Forces written records to disk.
+     *
+     * @author Maruf Bepary
+     */
+    @PreDestroy
+    void close() {
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Appends one event, starting a new segment when the current one is full.
+     *
+     * @param event event to store
+     * @author Maruf Bepary
+     */
+    @Override
+    public void onEvent(AuthEvent event) {
+        if (segment == null) {
+            return;
+        }
+        encode(event, payload.clear());
+        payload.flip();
+        int length = payload.remaining();
+        if (segment.remaining() < RECORD_PREFIX_BYTES + length + Integer.BYTES) {
+            try {
+                roll();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        crc.reset();
+        crc.update(payload.duplicate());
+        int start = segment.position();
+        segment.position(start + Integer.BYTES);
+        segment.putInt((int) crc.getValue());
+        segment.put(payload);
+        // Write the length last so a reader never sees a record whose body is still being written
+        segment.putInt(start, length);
+    }
+
+    /**
+     * Finishes the current segment and maps a new preallocated one, then applies retention.
+     *
+     * @author Maruf Bepary
+     */
+    private void roll() throws IOException {
+        if (segment != null) {
+            segment.force();
+        }
+        Path dir = Path.of(properties.getDir());
+        segmentIndex++;
+        Path next = dir.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, segmentIndex, SEGMENT_SUFFIX));
+        segment = map(next, properties.getSegmentSize().toBytes());
+        segment.putInt(MAGIC).putInt(VERSION);
+        applyRetention(dir, next);
+    }
+
+    /**
+     * Deletes the oldest segments beyond the configured count and any older than the retention period.
+     *
+     * @author Maruf Bepary
+     */
+    private void applyRetention(Path dir, Path active) throws IOException {
+        List<Path> segments = segments(dir);
+        Instant cutoff = Instant.now().minus(properties.getRetention());
+        int excess = segments.size() - Math.max(1, properties.getMaxSegments());
+        for (Path candidate : segments) {
+            if (candidate.equals(active)) {
+                continue;
+            }
+            if (excess > 0 || Files.getLastModifiedTime(candidate).toInstant().isBefore(cutoff)) {
+                Files.deleteIfExists(candidate);
+                excess--;
+                log.debug("Deleted auth event journal segment {}", candidate.getFileName());
+            }
+        }
+    }
+
+    private static MappedByteBuffer map(Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(size, Integer.MAX_VALUE));
+        }
+    }
+
+    /**
+     * Lists journal segments in the order they were written.
+     *
+     * @param dir journal directory
+     * @return segment files, oldest first
+     * @author Maruf Bepary
+     */
+    static List<Path> segments(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long indexOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Finds the offset just past the last complete record of a segment.
+     *
+     * @param buffer mapped segment
+     * @return offset where the next record belongs
+     * @author Maruf Bepary
+     */
+    static int endOfRecords(ByteBuffer buffer) {
+        ByteBuffer view = buffer.duplicate().position(HEADER_BYTES);
+        while (next(view) != null) {
+            // advance to the end
+        }
+        return view.position();
+    }
+
+    /**
+     * Reads the record at the buffer's position and advances past it.
+     * Stops at the end marker, a truncated record or a checksum mismatch, leaving the position unchanged.
+     *
+     * @param buffer segment contents positioned at a record
+     * @return decoded event, or {@code null} at the end of valid data
+     * @author Maruf Bepary
+     */
+    static AuthEvent next(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() < RECORD_PREFIX_BYTES) {
+            return null;
+        }
+        int length = buffer.getInt(start);
+        if (length <= 0 || length > buffer.remaining() - RECORD_PREFIX_BYTES) {
+            return null;
+        }
+        ByteBuffer body = buffer.slice(start + RECORD_PREFIX_BYTES, length);
+        CRC32 checksum = new CRC32();
+        checksum.update(body.duplicate());
+        if ((int) checksum.getValue() != buffer.getInt(start + Integer.BYTES)) {
+            return null;
+        }
+        buffer.position(start + RECORD_PREFIX_BYTES + length);
+        return decode(body);
+    }
+
+    private static void encode(AuthEvent event, ByteBuffer buffer) {
+        buffer.putLong(event.timestamp());
+        buffer.put(event.type().code());
+        putString(buffer, event.username());
+        putString(buffer, event.detail());
+    }
+
+    private static AuthEvent decode(ByteBuffer buffer) {
+        long timestamp = buffer.getLong();
+        AuthEventType type = AuthEventType.fromCode(buffer.get());
+        return new AuthEvent(timestamp, type, getString(buffer), getString(buffer));
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, MAX_FIELD_BYTES);
+        buffer.putShort((short) length).put(bytes, 0, length);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,102 @@
+package com.maruf.oauth.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * Reads and filters events from an {@link AuthEventJournal} directory.
+ * Safe to run against a journal that is still being written; records appended after a segment is read are skipped.
+ * Also usable from the command line through {@code ./gradlew authEvents --args="<dir> [filters]"}.
+ *
+ * @author Maruf Bepary
+ */
+public final class AuthEventJournalReader {
+
+    private AuthEventJournalReader() {
+    }
+
+    /**
+     * Returns the events matching a filter, oldest first.
+     *
+     * @param dir    journal directory
+     * @param filter events to keep
+     * @param limit  most events returned, counting from the newest match
+     * @return matching events in the order they were written
+     * @author Maruf Bepary
+     */
+    public static List<AuthEvent> read(Path dir, Predicate<AuthEvent> filter, int limit) throws IOException {
+        List<AuthEvent> matches = new ArrayList<>();
+        for (Path segment : AuthEventJournal.segments(dir)) {
+            ByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            if (buffer.remaining() < AuthEventJournal.HEADER_BYTES
+                    || buffer.getInt(0) != AuthEventJournal.MAGIC
+                    || buffer.getInt(Integer.BYTES) != AuthEventJournal.VERSION) {
+                continue;
+            }
+            buffer.position(AuthEventJournal.HEADER_BYTES);
+            AuthEvent event;
+            while ((event = AuthEventJournal.next(buffer)) != null) {
+                if (filter.test(event)) {
+                    matches.add(event);
+                }
+            }
+        }
+        return matches.size() > limit ? matches.subList(matches.size() - limit, matches.size()) : matches;
+    }
+
+    /**
+     * Prints matching events as tab-separated lines.
+     * Usage: {@code <dir> [--user <username>] [--type <TYPE>] [--since <ISO-8601 instant>] [--limit <n>]}.
+     *
+     * @param args journal directory followed by optional filters
+     * @author Maruf Bepary
+     */
+    public static void main(String[] args) {
+        if (args.length == 0 || args.length % 2 == 0) {
+            System.err.println("Usage: <dir> [--user <username>] [--type <TYPE>] [--since <ISO-8601 instant>] [--limit <n>]");
+            System.exit(2);
+        }
+        Predicate<AuthEvent> filter = event -> true;
+        int limit = Integer.MAX_VALUE;
+        for (int i = 1; i < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--user" -> filter = filter.and(event -> value.equals(event.username()));
+                case "--type" -> {
+                    AuthEventType type = AuthEventType.valueOf(value.toUpperCase(Locale.ROOT));
+                    filter = filter.and(event -> event.type() == type);
+                }
+                case "--since" -> {
+                    long since = Instant.parse(value).toEpochMilli();
+                    filter = filter.and(event -> event.timestamp() >= since);
+                }
+                case "--limit" -> limit = Integer.parseInt(value);
+                default -> {
+                    System.err.println("Unknown option " + args[i]);
+                    System.exit(2);
+                }
+            }
+        }
+        try {
+            for (AuthEvent event : read(Path.of(args[0]), filter, limit)) {
+                System.out.println(Instant.ofEpochMilli(event.timestamp()) + "\t" + event.type()
+                        + "\t" + (event.username() != null ? event.username() : "-")
+                        + "\t" + (event.detail() != null ? event.detail() : "-"));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
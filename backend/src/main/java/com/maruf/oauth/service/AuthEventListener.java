@@ -0,0 +1,26 @@
+package com.maruf.oauth.service;
+
+/**
+ * Consumer of the auth event stream. Beans implementing it are called in order on the
+ * {@link AuthEventBus} consumer thread, never on a request thread, so they may do I/O.
+ *
+ * @author Maruf Bepary
+ */
+public interface AuthEventListener {
+
+    /**
+     * Handles one event.
+     *
+     * @param event event taken from the buffer
+     * @author Maruf Bepary
+     */
+    void onEvent(AuthEvent event);
+
+    /**
+     * Called after each batch drained from the buffer, e.g. to flush buffered output.
+     *
+     * @author Maruf Bepary
+     */
+    default void onBatchEnd() {
+    }
+}
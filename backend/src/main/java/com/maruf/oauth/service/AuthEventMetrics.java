@@ -0,0 +1,30 @@
+package com.maruf.oauth.service;
+
+import com.maruf.oauth.config.AuthMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Counts auth events by type from the event stream, off the request thread.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthEventMetrics implements AuthEventListener {
+
+    private final AuthMetrics authMetrics;
+
+    /**
+     * Increments the counter for the event's type.
+     *
+     * @param event event taken from the buffer
+     * @author Maruf Bepary
+     */
+    @Override
+    public void onEvent(AuthEvent event) {
+        authMetrics.authEvent(event.type().name().toLowerCase(Locale.ROOT));
+    }
+}
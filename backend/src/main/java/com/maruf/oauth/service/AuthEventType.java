@@ -0,0 +1,86 @@
+package com.maruf.oauth.service;
+
+/**
+ * Kinds of auth events published to the {@link AuthEventBus}.
+ * Each type has a fixed code used in the journal, so constants may be reordered or added without
+ * changing how existing journals are read.
+ *
+ * @author Maruf Bepary
+ */
+public enum AuthEventType {
+
+    /**
+     * A user logged in through an OAuth2 provider or with local credentials.
+     */
+    LOGIN(1),
+
+    /**
+     * A login was refused, e.g. wrong password or missing OAuth2 scopes.
+     */
+    LOGIN_FAILED(2),
+
+    /**
+     * A local account was created.
+     */
+    SIGNUP(3),
+
+    /**
+     * A refresh token was exchanged for a new access token.
+     */
+    REFRESH(4),
+
+    /**
+     * A refresh token was replaced by its successor.
+     */
+    ROTATION(5),
+
+    /**
+     * A user logged out.
+     */
+    LOGOUT(6),
+
+    /**
+     * An access or refresh token was revoked.
+     */
+    REVOCATION(7),
+
+    /**
+     * Every refresh token of a user was revoked, ending their sessions on all devices.
+     */
+    LOGOUT_ALL(8);
+
+    private static final AuthEventType[] BY_CODE = new AuthEventType[9];
+
+    static {
+        for (AuthEventType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final byte code;
+
+    AuthEventType(int code) {
+        this.code = (byte) code;
+    }
+
+    /**
+     * Returns the code stored in the journal for this type.
+     *
+     * @return stable one-byte code
+     * @author Maruf Bepary
+     */
+    public byte code() {
+        return code;
+    }
+
+    /**
+     * Resolves a journal code back to its type.
+     *
+     * @param code code read from the journal
+     * @return matching type, or {@code null} for codes written by a newer version
+     * @author Maruf Bepary
+     */
+    public static AuthEventType fromCode(byte code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
@@ -1,9 +1,17 @@
 package com.maruf.oauth.service;
 
+import com.maruf.oauth.config.AuthMetrics;
+import com.maruf.oauth.config.AuthStageEvent;
+import com.maruf.oauth.config.LogMarkers;
+import com.maruf.oauth.config.ServerTiming;
 import com.maruf.oauth.util.OAuth2AttributeExtractor;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.oauth2.core.user.OAuth2User;
@@ -11,9 +19,11 @@ import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * Handles creation and validation of JWT access and refresh tokens.
@@ -22,6 +32,7 @@ import java.util.Map;
  * @author Maruf Bepary
  */
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class JwtService {
 
@@ -50,6 +61,13 @@ public class JwtService {
     @Value("${jwt.refresh-token-expiration:604800000}")
     private Long refreshTokenExpiration;
 
+    /**
+     * Records signing and verification timings.
+     *
+     * @author Maruf Bepary
+     */
+    private final AuthMetrics authMetrics;
+
     /**
      * Builds the HMAC signing key from the configured secret string.
      * Uses UTF-8 encoding to mirror the expectations of {@code io.jsonwebtoken} documentation.
@@ -71,6 +89,19 @@ public class JwtService {
         return generateToken(oauth2User, accessTokenExpiration, "access");
     }
 
+    /**
+     * Generates an access token that expires at the given instant instead of after the configured lifetime.
+     * Used by sliding renewal so a successor never outlives the refresh token of its session.
+     *
+     * @param oauth2User authenticated OAuth2 user providing claims for the access token
+     * @param expiresAt  expiry of the new token; must be in the future
+     * @return signed access token string
+     * @author Maruf Bepary
+     */
+    public String generateAccessToken(OAuth2User oauth2User, Instant expiresAt) {
+        return generateToken(oauth2User, expiresAt.toEpochMilli() - System.currentTimeMillis(), "access");
+    }
+
     /**
      * Creates a refresh token bound to the given username.
      * Marks the token type to simplify downstream validation.
@@ -92,21 +123,26 @@ public class JwtService {
      * @author Maruf Bepary
      */
     public String generateRefreshToken(String username, Map<String, Object> additionalClaims) {
+        long started = System.nanoTime();
         Map<String, Object> claims = new HashMap<>(additionalClaims);
         claims.put("type", "refresh");
 
-        return Jwts.builder()
+        String token = Jwts.builder()
             .claims(claims)
+            .id(UUID.randomUUID().toString())
             .subject(username)
             .issuedAt(new Date())
             .expiration(new Date(System.currentTimeMillis() + refreshTokenExpiration))
             .signWith(getSigningKey())
             .compact();
+        authMetrics.tokenIssued("refresh", started);
+        return token;
     }
 
     /**
      * Internal helper that creates a signed JWT with shared claim population.
      * Accepts an explicit expiration to support both access and refresh token flows.
+     * A random {@code jti} keeps tokens issued to the same user within one second distinct.
      *
      * @param oauth2User authenticated user whose attributes become token claims
      * @param expiration lifetime in milliseconds from now for the token
@@ -114,6 +150,7 @@ public class JwtService {
      * @author Maruf Bepary
      */
     private String generateToken(OAuth2User oauth2User, Long expiration, String type) {
+        long started = System.nanoTime();
         Map<String, Object> claims = new HashMap<>();
         claims.put("id", OAuth2AttributeExtractor.getUserId(oauth2User));
         String resolvedUsername = OAuth2AttributeExtractor.resolveUsername(oauth2User);
@@ -128,13 +165,48 @@ public class JwtService {
             throw new IllegalStateException("Unable to determine username from OAuth2 user");
         }
         
-        return Jwts.builder()
+        String token = Jwts.builder()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(username)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + expiration))
                 .signWith(getSigningKey())
                 .compact();
+        authMetrics.tokenIssued(type, started);
+        return token;
+    }
+
+    /**
+     * Parses a presented token once and classifies it, so callers need not parse it again per check.
+     * Distinguishes expired tokens and bad signatures from malformed input for metrics and responses;
+     * revocation is left to the caller because it needs the token store. Emits an {@link AuthStageEvent} for the check.
+     *
+     * @param token        JWT string presented by the client
+     * @param expectedType required {@code type} claim, {@code access} or {@code refresh}
+     * @return outcome with the verified claims, or without claims when verification failed
+     * @author Maruf Bepary
+     */
+    public TokenVerification verify(String token, String expectedType) {
+        long started = System.nanoTime();
+        AuthStageEvent event = new AuthStageEvent();
+        event.begin();
+        TokenVerification verification;
+        try {
+            Claims claims = extractAllClaims(token);
+            verification = new TokenVerification(
+                    expectedType.equals(claims.get("type")) ? TokenOutcome.VALID : TokenOutcome.WRONG_TYPE, claims);
+        } catch (ExpiredJwtException e) {
+            verification = new TokenVerification(TokenOutcome.EXPIRED, null);
+        } catch (SecurityException e) {
+            verification = new TokenVerification(TokenOutcome.BAD_SIGNATURE, null);
+        } catch (JwtException | IllegalArgumentException e) {
+            verification = new TokenVerification(TokenOutcome.MALFORMED, null);
+        }
+        authMetrics.tokenVerified(verification.outcome(), started);
+        ServerTiming.record(ServerTiming.Stage.VERIFY, started);
+        event.record(AuthStageEvent.VERIFY, expectedType, verification.outcome().tag());
+        return verification;
     }
 
     /**
@@ -176,7 +248,7 @@ public class JwtService {
 
     /**
      * Checks if the token signature is valid and not expired.
-     * Logs parsing errors to aid debugging while returning a boolean to callers.
+     * Logs parsing errors at WARN, since they are caused by client input, while returning a boolean to callers.
      *
      * @param token JWT candidate to validate
      * @author Maruf Bepary
@@ -186,7 +258,7 @@ public class JwtService {
             Claims claims = extractAllClaims(token);
             return !isTokenExpired(token);
         } catch (Exception e) {
-            log.error("Invalid JWT token: {}", e.getMessage());
+            log.warn(LogMarkers.RATE_LIMITED, "Invalid JWT token: {}", e.getMessage());
             return false;
         }
     }
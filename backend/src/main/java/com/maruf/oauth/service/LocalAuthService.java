@@ -1,5 +1,8 @@
 package com.maruf.oauth.service;
 
+import com.maruf.oauth.config.AuthMetrics;
+import com.maruf.oauth.config.LocalAuthEvent;
+import com.maruf.oauth.config.ServerTiming;
 import com.maruf.oauth.entity.User;
 import com.maruf.oauth.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -13,6 +16,7 @@ import java.util.Optional;
 /**
  * Handles email/password authentication flows when local auth is enabled.
  * Uses {@link PasswordEncoder} for hashing and persists users in MongoDB.
+ * Records each signup and login attempt's latency and outcome through {@link AuthMetrics} and a {@link LocalAuthEvent}.
  *
  * @author Maruf Bepary
  */
@@ -23,6 +27,7 @@ public class LocalAuthService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AuthMetrics authMetrics;
 
     /**
      * Registers a new local user with hashed password and a default user role.
@@ -35,18 +40,30 @@ public class LocalAuthService {
      * @author Maruf Bepary
      */
     public User register(String email, String password, String name) {
+        long started = System.nanoTime();
+        LocalAuthEvent event = new LocalAuthEvent();
+        event.begin();
         if (userRepository.existsByEmail(email)) {
+            authMetrics.localAuth("signup", "email_taken", started);
+            event.record("signup", "email_taken");
             throw new IllegalArgumentException("Email already in use");
         }
 
+        long hashing = System.nanoTime();
+        String passwordHash = passwordEncoder.encode(password);
+        ServerTiming.record(ServerTiming.Stage.BCRYPT, hashing);
+
         User user = User.builder()
                 .email(email)
-                .password(passwordEncoder.encode(password))
+                .password(passwordHash)
                 .name(name)
                 .roles(Collections.singletonList("ROLE_USER"))
                 .build();
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        authMetrics.localAuth("signup", "success", started);
+        event.record("signup", "success");
+        return saved;
     }
 
     /**
@@ -59,13 +76,23 @@ public class LocalAuthService {
      * @author Maruf Bepary
      */
     public Optional<User> login(String email, String password) {
+        long started = System.nanoTime();
+        LocalAuthEvent event = new LocalAuthEvent();
+        event.begin();
         Optional<User> userOpt = userRepository.findByEmail(email);
         if (userOpt.isPresent()) {
             User user = userOpt.get();
-            if (passwordEncoder.matches(password, user.getPassword())) {
+            long hashing = System.nanoTime();
+            boolean matches = passwordEncoder.matches(password, user.getPassword());
+            ServerTiming.record(ServerTiming.Stage.BCRYPT, hashing);
+            if (matches) {
+                authMetrics.localAuth("login", "success", started);
+                event.record("login", "success");
                 return Optional.of(user);
             }
         }
+        authMetrics.localAuth("login", "invalid_credentials", started);
+        event.record("login", "invalid_credentials");
         return Optional.empty();
     }
 }
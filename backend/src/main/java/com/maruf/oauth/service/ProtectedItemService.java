@@ -0,0 +1,131 @@
+package com.maruf.oauth.service;
+
+import com.maruf.oauth.config.ProtectedDataProperties;
+import com.maruf.oauth.entity.ProtectedItem;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Reads a user's protected items from MongoDB a page or a stream at a time.
+ * Pages use keyset pagination: the cursor is the id of the last item returned, and the next page is the items
+ * with a greater id, read along the {@code owner_id} index. Deep pages therefore cost the same as the first,
+ * unlike skip-based paging, and items inserted meanwhile neither repeat nor shift the page boundaries.
+ * Both reads fetch only the requested fields.
+ *
+ * @author Maruf Bepary
+ */
+@Service
+@RequiredArgsConstructor
+public class ProtectedItemService {
+
+    /**
+     * Fields a client may ask for; the id is always returned and the owner never is.
+     */
+    public static final Set<String> PROJECTABLE_FIELDS = Set.of("name", "description", "createdAt");
+
+    private final MongoTemplate mongoTemplate;
+    private final ProtectedDataProperties properties;
+
+    /**
+     * One page of items and the cursor to continue from.
+     *
+     * @param items      items in id order
+     * @param nextCursor cursor for the following page, or {@code null} when this page is the last
+     * @author Maruf Bepary
+     */
+    public record Page(List<ProtectedItem> items, String nextCursor) {
+    }
+
+    /**
+     * Creates the index pagination and streaming read along.
+     * Index creation is off in Spring Data by default, so the annotation on {@link ProtectedItem} alone does not build it.
+     *
+     * @author Maruf Bepary
+     */
+    @PostConstruct
+    void ensureIndexes() {
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(ProtectedItem.class))
+                .createIndex(Indexes.ascending("owner", "_id"), new IndexOptions().name("owner_id"));
+    }
+
+    /**
+     * Reads the page of a user's items after a cursor.
+     * Fetches one item more than asked for to learn whether another page follows, without a count query.
+     *
+     * @param owner  username whose items are read
+     * @param cursor value of {@link Page#nextCursor()} from the previous page, or {@code null} for the first page
+     * @param limit  requested page size; missing or non-positive values use the default and larger ones are capped
+     * @param fields fields to return, or {@code null}/empty for all of {@link #PROJECTABLE_FIELDS}
+     * @return items of the page and the cursor to continue from
+     * @throws IllegalArgumentException when the cursor is malformed or a field is unknown
+     * @author Maruf Bepary
+     */
+    public Page findPage(String owner, String cursor, Integer limit, Collection<String> fields) {
+        int size = limit == null || limit <= 0
+                ? properties.getDefaultPageSize()
+                : Math.min(limit, properties.getMaxPageSize());
+
+        Criteria criteria = Criteria.where("owner").is(owner);
+        if (cursor != null && !cursor.isBlank()) {
+            if (!ObjectId.isValid(cursor)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            criteria = criteria.and("_id").gt(new ObjectId(cursor));
+        }
+        Query query = project(new Query(criteria), fields)
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(size + 1);
+
+        List<ProtectedItem> items = mongoTemplate.find(query, ProtectedItem.class);
+        if (items.size() <= size) {
+            return new Page(items, null);
+        }
+        List<ProtectedItem> page = items.subList(0, size);
+        return new Page(page, page.get(size - 1).getId());
+    }
+
+    /**
+     * Opens a stream over all of a user's items in id order, backed by a MongoDB cursor.
+     * Documents arrive in batches of {@link ProtectedDataProperties#getStreamBatchSize()}, so memory use does not grow
+     * with the number of items. The caller must close the stream to release the cursor.
+     *
+     * @param owner  username whose items are read
+     * @param fields fields to return, or {@code null}/empty for all of {@link #PROJECTABLE_FIELDS}
+     * @return lazily populated stream of items
+     * @throws IllegalArgumentException when a field is unknown
+     * @author Maruf Bepary
+     */
+    public Stream<ProtectedItem> stream(String owner, Collection<String> fields) {
+        Query query = project(new Query(Criteria.where("owner").is(owner)), fields)
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .cursorBatchSize(properties.getStreamBatchSize());
+        return mongoTemplate.stream(query, ProtectedItem.class);
+    }
+
+    /**
+     * Restricts the query to the requested fields plus the id.
+     */
+    private static Query project(Query query, Collection<String> fields) {
+        Collection<String> included = fields == null || fields.isEmpty() ? PROJECTABLE_FIELDS : fields;
+        for (String field : included) {
+            if (!PROJECTABLE_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+            query.fields().include(field);
+        }
+        return query;
+    }
+}
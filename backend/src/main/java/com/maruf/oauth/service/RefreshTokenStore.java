@@ -2,23 +2,45 @@ package com.maruf.oauth.service;
 
 import com.maruf.oauth.entity.InvalidatedToken;
 import com.maruf.oauth.entity.RefreshToken;
-import com.maruf.oauth.repository.InvalidatedTokenRepository;
-import com.maruf.oauth.repository.RefreshTokenRepository;
+import com.maruf.oauth.config.AuthMetrics;
 import com.maruf.oauth.config.RefreshTokenSecurityProperties;
+import com.maruf.oauth.config.ServerTiming;
+import com.maruf.oauth.config.TokenStoreEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.time.Instant;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Objects;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Coordinates persistence of refresh and invalidated access tokens.
- * Uses MongoDB repositories so token state survives server restarts.
+ * Stores them in MongoDB so token state survives server restarts, running each operation
+ * against the collection handle {@link TokenCollections} configures for it.
+ * Each operation's latency and every revocation are recorded through {@link AuthMetrics}, and each operation
+ * is also emitted as a {@link TokenStoreEvent} for Flight Recorder and charged to the request's {@link ServerTiming}.
+ * With time buckets on, a token is filed under the expiry in its own {@code exp} claim, so any lookup holding the
+ * token reads that claim back and goes straight to its one bucket instead of trying every live bucket.
  *
  * @author Maruf Bepary
  */
@@ -27,62 +49,295 @@ import java.util.Optional;
 @Slf4j
 public class RefreshTokenStore {
 
-    private final RefreshTokenRepository refreshTokenRepository;
-    private final InvalidatedTokenRepository invalidatedTokenRepository;
+    private final TokenCollections tokenCollections;
     private final RefreshTokenSecurityProperties refreshTokenSecurityProperties;
+    private final TokenWriteBatcher writeBatcher;
+    private final AuthMetrics authMetrics;
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    /**
+     * Reason recorded on the entry that marks a logout from everywhere.
+     */
+    public static final String LOGOUT_ALL_REASON = "logout_all";
+
+    /**
+     * Access token lifetime in milliseconds from {@code jwt.access-token-expiration}; a logout-from-everywhere
+     * entry is kept this long, until every access token issued before it has expired.
+     */
+    @Value("${jwt.access-token-expiration:900000}")
+    private Long accessTokenExpiration;
+
+    /**
+     * Publishes the number of stored refresh sessions as a gauge.
+     *
+     * @author Maruf Bepary
+     */
+    @PostConstruct
+    void registerMetrics() {
+        authMetrics.activeRefreshSessions(this::estimateActiveSessions);
+    }
 
     /**
      * Saves a refresh token record with creation and usage timestamps.
      * Writes to MongoDB so multiple application instances can share token state.
+     * With write-behind enabled the write is queued and the returned future tracks its acknowledgement.
      *
      * @param token refresh token string generated for the session
      * @param username  account owner associated with the token
      * @param expiresAt expiration moment tracked for cleanup
+     * @return future completed once the write is durable
      * @author Maruf Bepary
      */
-    public void storeRefreshToken(String token, String username, Instant expiresAt) {
-        String tokenValue = applyHash(token);
-        RefreshToken refreshToken = RefreshToken.builder()
-                .token(tokenValue)
-                .username(username)
-                .expiresAt(expiresAt)
-                .createdAt(Instant.now())
-                .lastUsed(Instant.now())
-                .build();
-        
-        refreshTokenRepository.save(refreshToken);
-        log.debug("Stored refresh token for user: {}", username);
+    public CompletableFuture<Void> storeRefreshToken(String token, String username, Instant expiresAt) {
+        long started = System.nanoTime();
+        TokenStoreEvent event = new TokenStoreEvent();
+        event.begin();
+        try {
+            String tokenValue = applyHash(token);
+            Instant storedExpiry = Objects.requireNonNullElse(expiryOf(token), expiresAt);
+            RefreshToken refreshToken = RefreshToken.builder()
+                    .token(tokenValue)
+                    .username(username)
+                    .expiresAt(storedExpiry)
+                    .createdAt(Instant.now())
+                    .lastUsed(Instant.now())
+                    .build();
+
+            if (writeBatcher.isEnabled()) {
+                log.debug("Queued refresh token for user: {}", username);
+                return writeBatcher.storeRefreshToken(refreshToken);
+            }
+
+            tokenCollections.forWrite(TokenStoreOperation.STORE_REFRESH_TOKEN, tokenValue, storedExpiry)
+                    .insertOne(tokenCollections.toDocument(refreshToken));
+            log.debug("Stored refresh token for user: {}", username);
+            return CompletableFuture.completedFuture(null);
+        } finally {
+            authMetrics.tokenStoreOperation("store_refresh_token", started);
+            ServerTiming.record(ServerTiming.Stage.MONGO, started);
+            event.record("store_refresh_token");
+        }
     }
 
     /**
      * Looks up the username for a refresh token and updates the last used timestamp.
      * Returns {@code null} when the token is missing so callers can send an HTTP 401.
+     * Finds the owner and bumps {@code lastUsed} in a single {@code findAndModify} round trip.
      *
      * @param token refresh token presented by the client
      * @author Maruf Bepary
      */
     public String getUsernameFromRefreshToken(String token) {
-        return findTokenRecord(token)
-                .map(refreshToken -> {
-                    // Update last used timestamp
-                    refreshToken.setLastUsed(Instant.now());
-                    refreshTokenRepository.save(refreshToken);
-                    return refreshToken.getUsername();
-                })
-                .orElse(null);
+        return getUsernameFromRefreshToken(token, true);
+    }
+
+    /**
+     * Looks up the username for a refresh token, optionally updating the last used timestamp.
+     * Callers about to rotate the token skip the touch, since rotation rewrites the document anyway.
+     *
+     * @param token refresh token presented by the client
+     * @param touch whether to bump {@code lastUsed} as part of the lookup
+     * @return owner of the token, or {@code null} when it is missing or revoked
+     * @author Maruf Bepary
+     */
+    public String getUsernameFromRefreshToken(String token, boolean touch) {
+        long started = System.nanoTime();
+        TokenStoreEvent event = new TokenStoreEvent();
+        event.begin();
+        try {
+            String hashedToken = applyHash(token);
+            if (writeBatcher.isRefreshTokenRevocationPending(hashedToken)) {
+                return null;
+            }
+            Optional<RefreshToken> pending = writeBatcher.findPendingRefreshToken(hashedToken);
+            if (pending.isPresent()) {
+                return pending.get().getUsername();
+            }
+
+            TokenStoreOperation operation = touch ? TokenStoreOperation.TOUCH_REFRESH_TOKEN : TokenStoreOperation.FIND_REFRESH_TOKEN;
+            for (MongoCollection<Document> collection
+                    : tokenCollections.forLookup(operation, hashedToken, expiryOf(token))) {
+                Document record = touch
+                        ? collection.findOneAndUpdate(Filters.eq("token", hashedToken),
+                                Updates.set("lastUsed", Date.from(Instant.now())),
+                                new FindOneAndUpdateOptions().projection(Projections.include("username")))
+                        : collection.find(Filters.eq("token", hashedToken))
+                                .projection(Projections.include("username"))
+                                .first();
+                if (record != null) {
+                    return record.getString("username");
+                }
+            }
+            return null;
+        } finally {
+            String operation = touch ? "touch_refresh_token" : "find_refresh_token";
+            authMetrics.tokenStoreOperation(operation, started);
+            ServerTiming.record(ServerTiming.Stage.MONGO, started);
+            event.record(operation);
+        }
+    }
+
+    /**
+     * Replaces a refresh token with its successor for single-use rotation.
+     * When both tokens live in the same collection and writes are not batched, rewrites the existing
+     * document in one update instead of a delete followed by an insert. Otherwise deletes the old token and
+     * stores the new one only if the delete removed something. With write-behind on, a token whose insert is
+     * still queued is revoked by queueing its delete, and one already written is deleted straight away, so the
+     * acknowledged delete count still decides the winner after earlier writes have been flushed. Either way, a token that was already rotated or revoked is not replaced, so of
+     * two concurrent refreshes with the same token exactly one wins and the other must not hand out its successor.
+     *
+     * @param currentToken refresh token presented by the client
+     * @param newToken     replacement refresh token
+     * @param username     owner of both tokens
+     * @param expiresAt    expiry of the replacement token
+     * @return {@code true} when the successor was stored (or queued), {@code false} when the current token was
+     *         already rotated or revoked
+     * @author Maruf Bepary
+     */
+    public boolean rotateRefreshToken(String currentToken, String newToken, String username, Instant expiresAt) {
+        long started = System.nanoTime();
+        TokenStoreEvent event = new TokenStoreEvent();
+        event.begin();
+        try {
+            String currentHash = applyHash(currentToken);
+            String newHash = applyHash(newToken);
+            if (writeBatcher.isEnabled()) {
+                if (writeBatcher.revokeRefreshTokenOnce(currentHash, expiryOf(currentToken)) == null) {
+                    log.debug("Refresh token for user {} was already rotated or revoked", username);
+                    return false;
+                }
+                authMetrics.tokensRevoked("refresh", 1);
+                storeRefreshToken(newToken, username, expiresAt);
+                return true;
+            }
+
+            MongoCollection<Document> collection = tokenCollections.forOperation(TokenStoreOperation.STORE_REFRESH_TOKEN, currentHash);
+            if (tokenCollections.isBucketed()
+                    || collection != tokenCollections.forOperation(TokenStoreOperation.STORE_REFRESH_TOKEN, newHash)) {
+                if (deleteRefreshToken(currentHash, expiryOf(currentToken)) == 0) {
+                    log.debug("Refresh token for user {} was already rotated or revoked", username);
+                    return false;
+                }
+                authMetrics.tokensRevoked("refresh", 1);
+                storeRefreshToken(newToken, username, expiresAt);
+                return true;
+            }
+
+            Date now = Date.from(Instant.now());
+            Instant newExpiry = Objects.requireNonNullElse(expiryOf(newToken), expiresAt);
+            UpdateResult result = collection.updateOne(
+                    Filters.and(Filters.eq("token", currentHash), Filters.eq("username", username)),
+                    Updates.combine(
+                            Updates.set("token", newHash),
+                            Updates.set("expiresAt", Date.from(newExpiry)),
+                            Updates.set("createdAt", now),
+                            Updates.set("lastUsed", now)));
+            ServerTiming.record(ServerTiming.Stage.MONGO, started);
+            if (result.getMatchedCount() == 0) {
+                log.debug("Refresh token for user {} was already rotated or revoked", username);
+                return false;
+            }
+            log.debug("Rotated refresh token in place for user: {}", username);
+            return true;
+        } finally {
+            authMetrics.tokenStoreOperation("rotate_refresh_token", started);
+            event.record("rotate_refresh_token");
+        }
     }
 
     /**
      * Removes the refresh token entry when a client logs out or presents an invalid token.
      * Using delete avoids storing stale rows that the TTL index might not catch quickly.
+     * With time buckets on, a token without a readable expiry is looked for in the live buckets in turn.
      *
      * @param token refresh token value to remove from persistence
+     * @return future completed once the delete is durable
+     * @author Maruf Bepary
+     */
+    public CompletableFuture<Void> invalidateRefreshToken(String token) {
+        long started = System.nanoTime();
+        TokenStoreEvent event = new TokenStoreEvent();
+        event.begin();
+        try {
+            String hashedToken = applyHash(token);
+            if (writeBatcher.isEnabled()) {
+                log.debug("Queued refresh token invalidation");
+                authMetrics.tokensRevoked("refresh", 1);
+                return writeBatcher.revokeRefreshToken(hashedToken, expiryOf(token));
+            }
+
+            deleteRefreshToken(hashedToken, expiryOf(token));
+            authMetrics.tokensRevoked("refresh", 1);
+            log.debug("Refresh token invalidated");
+            return CompletableFuture.completedFuture(null);
+        } finally {
+            authMetrics.tokenStoreOperation("revoke_refresh_token", started);
+            ServerTiming.record(ServerTiming.Stage.MONGO, started);
+            event.record("revoke_refresh_token");
+        }
+    }
+
+    /**
+     * Deletes a stored refresh token from the first collection that holds it.
+     *
+     * @param hashedToken stored token value
+     * @param expiresAt   expiry read from the token, or {@code null} to try every live bucket
+     * @return number of documents deleted; {@code 0} when the token was already gone or the write was unacknowledged
+     * @author Maruf Bepary
+     */
+    private long deleteRefreshToken(String hashedToken, Instant expiresAt) {
+        for (MongoCollection<Document> collection
+                : tokenCollections.forLookup(TokenStoreOperation.REVOKE_REFRESH_TOKEN, hashedToken, expiresAt)) {
+            DeleteResult result = collection.deleteOne(Filters.eq("token", hashedToken));
+            if (result.wasAcknowledged() && result.getDeletedCount() > 0) {
+                return result.getDeletedCount();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Removes every refresh token issued to a user, ending all of their sessions.
+     * The query is not keyed by token, so it runs against every shard.
+     * Queued inserts for the user are revoked too so a later flush cannot resurrect them.
+     * An entry with reason {@link #LOGOUT_ALL_REASON} is also recorded among the revoked access tokens, so every
+     * instance can tell the user's open streams they were logged out.
+     *
+     * @param username account whose refresh tokens should be removed
+     * @return number of refresh tokens deleted from MongoDB
      * @author Maruf Bepary
      */
-    public void invalidateRefreshToken(String token) {
-        String hashedToken = applyHash(token);
-        refreshTokenRepository.deleteByToken(hashedToken);
-        log.debug("Refresh token invalidated");
+    public long invalidateAllRefreshTokens(String username) {
+        long started = System.nanoTime();
+        TokenStoreEvent event = new TokenStoreEvent();
+        event.begin();
+        try {
+            if (writeBatcher.isEnabled()) {
+                writeBatcher.pendingRefreshTokenKeys(username).forEach(writeBatcher::revokeRefreshToken);
+            }
+
+            long deleted = 0;
+            for (MongoCollection<Document> collection
+                    : tokenCollections.allForOperation(TokenStoreOperation.REVOKE_REFRESH_TOKEN)) {
+                deleted += collection.deleteMany(Filters.eq("username", username)).getDeletedCount();
+            }
+            Instant now = Instant.now();
+            recordRevocation(InvalidatedToken.builder()
+                    .token(LOGOUT_ALL_REASON + ":" + username + ":" + UUID.randomUUID())
+                    .username(username)
+                    .expiresAt(now.plusMillis(accessTokenExpiration))
+                    .invalidatedAt(now)
+                    .reason(LOGOUT_ALL_REASON)
+                    .build());
+            authMetrics.tokensRevoked("refresh", deleted);
+            log.debug("Invalidated {} refresh tokens for user: {}", deleted, username);
+            return deleted;
+        } finally {
+            authMetrics.tokenStoreOperation("revoke_all_refresh_tokens", started);
+            ServerTiming.record(ServerTiming.Stage.MONGO, started);
+            event.record("revoke_all_refresh_tokens");
+        }
     }
 
     /**
@@ -92,19 +347,47 @@ public class RefreshTokenStore {
      * @param token access token string that should no longer authenticate requests
      * @param username  principal associated with the invalidated token
      * @param expiresAt expiration instant copied from the JWT payload
+     * @return future completed once the revocation is durable
+     * @author Maruf Bepary
+     */
+    public CompletableFuture<Void> invalidateAccessToken(String token, String username, Instant expiresAt) {
+        long started = System.nanoTime();
+        TokenStoreEvent event = new TokenStoreEvent();
+        event.begin();
+        try {
+            Instant storedExpiry = Objects.requireNonNullElse(expiryOf(token), expiresAt);
+            InvalidatedToken invalidatedToken = InvalidatedToken.builder()
+                    .token(token)
+                    .username(username)
+                    .expiresAt(storedExpiry)
+                    .invalidatedAt(Instant.now())
+                    .reason("logout")
+                    .build();
+
+            authMetrics.tokensRevoked("access", 1);
+            log.debug("Access token invalidated");
+            return recordRevocation(invalidatedToken);
+        } finally {
+            authMetrics.tokenStoreOperation("revoke_access_token", started);
+            ServerTiming.record(ServerTiming.Stage.MONGO, started);
+            event.record("revoke_access_token");
+        }
+    }
+
+    /**
+     * Writes an access token revocation entry, queued when write-behind is on.
+     *
+     * @param invalidatedToken entry to insert
+     * @return future completed once the entry is durable
      * @author Maruf Bepary
      */
-    public void invalidateAccessToken(String token, String username, Instant expiresAt) {
-        InvalidatedToken invalidatedToken = InvalidatedToken.builder()
-                .token(token)
-                .username(username)
-                .expiresAt(expiresAt)
-                .invalidatedAt(Instant.now())
-                .reason("logout")
-                .build();
-        
-        invalidatedTokenRepository.save(invalidatedToken);
-        log.debug("Access token invalidated");
+    private CompletableFuture<Void> recordRevocation(InvalidatedToken invalidatedToken) {
+        if (writeBatcher.isEnabled()) {
+            return writeBatcher.revokeAccessToken(invalidatedToken);
+        }
+        tokenCollections.forWrite(TokenStoreOperation.REVOKE_ACCESS_TOKEN, invalidatedToken.getToken(),
+                invalidatedToken.getExpiresAt()).insertOne(tokenCollections.toDocument(invalidatedToken));
+        return CompletableFuture.completedFuture(null);
     }
 
     /**
@@ -115,40 +398,115 @@ public class RefreshTokenStore {
      * @author Maruf Bepary
      */
     public boolean isAccessTokenInvalidated(String token) {
-        return invalidatedTokenRepository.existsByToken(token);
+        long started = System.nanoTime();
+        TokenStoreEvent event = new TokenStoreEvent();
+        event.begin();
+        try {
+            if (writeBatcher.isAccessTokenRevocationPending(token)) {
+                return true;
+            }
+            for (MongoCollection<Document> collection
+                    : tokenCollections.forLookup(TokenStoreOperation.CHECK_ACCESS_TOKEN, token, expiryOf(token))) {
+                if (collection.find(Filters.eq("token", token)).projection(Projections.include("_id")).first() != null) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            authMetrics.tokenStoreOperation("check_access_token", started);
+            ServerTiming.record(ServerTiming.Stage.MONGO, started);
+            event.record("check_access_token");
+        }
     }
 
     /**
-     * Hashes refresh tokens when hashing is enabled to avoid storing raw tokens.
-     * Uses SHA-256 and URL-safe Base64 encoding; returns plain token when hashing is disabled.
+     * Lists the access token revocations recorded since a moment, including those still queued on this instance.
+     * Lets the session event dispatcher pick up logouts handled by any instance by reading only what changed,
+     * along the {@code invalidatedAt} index, so its cost follows the rate of logouts rather than the number of
+     * open streams. A logout from everywhere appears as an entry with reason {@link #LOGOUT_ALL_REASON}.
      *
-     * @param token raw refresh token value received from the client
-     * @return hashed or original token depending on configuration
+     * @param since earliest revocation time to include
+     * @return revocations with their token, username, reason and time
      * @author Maruf Bepary
      */
-    private String applyHash(String token) {
-        if (!refreshTokenSecurityProperties.isHashingEnabled()) {
-            return token;
+    public List<InvalidatedToken> findAccessTokenRevocationsSince(Instant since) {
+        long started = System.nanoTime();
+        TokenStoreEvent event = new TokenStoreEvent();
+        event.begin();
+        try {
+            List<InvalidatedToken> revocations = new ArrayList<>(writeBatcher.pendingAccessTokenRevocations());
+            for (MongoCollection<Document> collection
+                    : tokenCollections.allForOperation(TokenStoreOperation.CHECK_ACCESS_TOKEN)) {
+                for (Document record : collection.find(Filters.gte("invalidatedAt", Date.from(since)))
+                        .projection(Projections.include("token", "username", "reason", "invalidatedAt"))) {
+                    revocations.add(InvalidatedToken.builder()
+                            .token(record.getString("token"))
+                            .username(record.getString("username"))
+                            .reason(record.getString("reason"))
+                            .invalidatedAt(record.getDate("invalidatedAt").toInstant())
+                            .build());
+                }
+            }
+            return revocations;
+        } finally {
+            authMetrics.tokenStoreOperation("find_revocations", started);
+            event.record("find_revocations");
+        }
+    }
+
+    /**
+     * Estimates the number of stored refresh sessions from collection metadata.
+     * Uses {@code estimatedDocumentCount} so a metrics scrape never scans the collections; tokens
+     * past expiry but not yet removed by the TTL monitor are included.
+     *
+     * @return refresh token records across every shard and live bucket
+     * @author Maruf Bepary
+     */
+    long estimateActiveSessions() {
+        long sessions = 0;
+        for (MongoCollection<Document> collection
+                : tokenCollections.allForOperation(TokenStoreOperation.FIND_REFRESH_TOKEN)) {
+            sessions += collection.estimatedDocumentCount();
+        }
+        return sessions;
+    }
+
+    /**
+     * Reads the {@code exp} claim of a JWT without verifying its signature, to find the expiry bucket holding it.
+     * Only used for routing: a tampered expiry points at a bucket where the token is not stored, so the lookup
+     * finds nothing, exactly as for an unknown token.
+     *
+     * @param token raw token presented by the client
+     * @return the token's expiry, or {@code null} when it is not a JWT with a numeric {@code exp}
+     * @author Maruf Bepary
+     */
+    static Instant expiryOf(String token) {
+        int payloadStart = token.indexOf('.') + 1;
+        int payloadEnd = payloadStart == 0 ? -1 : token.indexOf('.', payloadStart);
+        if (payloadEnd < 0) {
+            return null;
         }
         try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hashed = digest.digest(token.getBytes(StandardCharsets.UTF_8));
-            return Base64.getUrlEncoder().withoutPadding().encodeToString(hashed);
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException("SHA-256 digest is not available", e);
+            JsonNode exp = JSON.readTree(Base64.getUrlDecoder().decode(token.substring(payloadStart, payloadEnd)))
+                    .get("exp");
+            return exp != null && exp.canConvertToLong() ? Instant.ofEpochSecond(exp.asLong()) : null;
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
         }
     }
 
     /**
-     * Fetches a refresh token record using the configured hashing strategy.
-     * Encapsulates hashing so callers do not repeat the logic.
+     * Hashes refresh tokens when hashing is enabled to avoid storing raw tokens.
+     * Uses {@link TokenHashing#sha256(String)}; returns plain token when hashing is disabled.
      *
-     * @param token refresh token supplied by the client
-     * @return optional refresh token document when found
+     * @param token raw refresh token value received from the client
+     * @return hashed or original token depending on configuration
      * @author Maruf Bepary
      */
-    private Optional<RefreshToken> findTokenRecord(String token) {
-        String hashedToken = applyHash(token);
-        return refreshTokenRepository.findByToken(hashedToken);
+    String applyHash(String token) {
+        if (!refreshTokenSecurityProperties.isHashingEnabled()) {
+            return token;
+        }
+        return TokenHashing.sha256(token);
     }
 }
@@ -0,0 +1,330 @@
+package com.maruf.oauth.service;
+
+import com.maruf.oauth.config.SessionEventProperties;
+import com.maruf.oauth.entity.InvalidatedToken;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes session lifecycle events to each user's open Server-Sent Events streams.
+ * One shared dispatcher thread decides what each stream is sent. Revocations are read from the shared token store
+ * rather than from this instance's {@link AuthEventBus}, so a logout handled by any node reaches streams held by every
+ * node: each poll reads only the revocations recorded since the previous one, so its cost follows the rate of logouts
+ * and not the number of open streams. A stream whose own access token was revoked is told so and closed, leaving the
+ * user's other sessions alone, and a logout from everywhere closes every stream the user opened before it.
+ * A periodic sweep also warns streams whose access token is about to expire, closes streams whose token has expired
+ * so the browser reconnects with its current cookie, and sends one heartbeat comment to every stream that has been
+ * idle for an interval. An idle stream therefore holds no thread and costs one map entry.
+ * Writes run on virtual threads, one stream at a time in order, so a client that stops reading blocks only its own
+ * writes; a stream with a write still unfinished at the next sweep, or too many writes waiting, is dropped.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SessionEventDispatcher {
+
+    /**
+     * Pushed once per stream when the access token enters the expiring window.
+     */
+    static final String EXPIRING = "expiring";
+
+    /**
+     * Pushed before a stream is closed because the access token it was opened with was revoked.
+     */
+    static final String REVOKED = "revoked";
+
+    /**
+     * Pushed before every stream of the user is closed because all their sessions were ended.
+     */
+    static final String LOGGED_OUT_EVERYWHERE = "logged_out_everywhere";
+
+    /**
+     * Pushed before the user's oldest stream is closed to admit a new one over the per-user cap.
+     */
+    static final String SUPERSEDED = "superseded";
+
+    /**
+     * How far before the previous poll each poll reads revocations back from, covering clock skew between instances
+     * and revocations written late by write-behind. Revocations seen twice are harmless: their streams are gone.
+     */
+    private static final Duration REVOCATION_LAG = Duration.ofSeconds(30);
+
+    /**
+     * Writes that may wait behind a stream's unfinished one before the stream is dropped.
+     */
+    private static final int MAX_PENDING_WRITES = 4;
+
+    private final SessionEventProperties properties;
+    private final RefreshTokenStore refreshTokenStore;
+    private final Map<String, List<Connection>> connections = new ConcurrentHashMap<>();
+
+    /**
+     * Start of the previous poll; touched only on the dispatcher thread.
+     */
+    private Instant lastPolled = Instant.now();
+    private ScheduledExecutorService dispatcher;
+    private ExecutorService writers;
+
+    /**
+     * Starts the dispatcher thread and schedules the sweep at the heartbeat interval.
+     *
+     * @author Maruf Bepary
+     */
+    @PostConstruct
+    void start() {
+        writers = Executors.newVirtualThreadPerTaskExecutor();
+        dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-event-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getHeartbeatInterval().toMillis();
+        dispatcher.scheduleAtFixedRate(this::sweep, interval, interval, TimeUnit.MILLISECONDS);
+        long pollInterval = properties.getPollInterval().toMillis();
+        dispatcher.scheduleWithFixedDelay(this::poll, pollInterval, pollInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the dispatcher and completes every open stream.
+     *
+     * @author Maruf Bepary
+     */
+    @PreDestroy
+    void stop() {
+        if (dispatcher != null) {
+            dispatcher.shutdownNow();
+            writers.shutdownNow();
+        }
+        connections.values().forEach(streams -> streams.forEach(connection -> connection.emitter.complete()));
+        connections.clear();
+    }
+
+    /**
+     * Opens a stream for a user. When the user already has the maximum number open, their oldest stream is told it
+     * was superseded and closed, so a reloaded or reopened tab is never refused while a stale one holds the slot.
+     * The stream is closed once the access token expires, or shortly after if the sweep runs late.
+     *
+     * @param username    user the stream belongs to
+     * @param accessToken access token the stream was opened with, checked against revocations on every poll
+     * @param expiresAt   expiry of that access token
+     * @return emitter to return from the controller
+     * @author Maruf Bepary
+     */
+    public SseEmitter open(String username, String accessToken, Instant expiresAt) {
+        long remaining = Math.max(0, Duration.between(Instant.now(), expiresAt).toMillis());
+        Connection connection = new Connection(
+                new SseEmitter(remaining + properties.getHeartbeatInterval().toMillis()), accessToken,
+                expiresAt.toEpochMilli());
+        List<Connection> evicted = new ArrayList<>();
+        connections.compute(username, (key, streams) -> {
+            List<Connection> current = streams == null ? new CopyOnWriteArrayList<>() : streams;
+            while (!current.isEmpty() && current.size() >= properties.getMaxConnectionsPerUser()) {
+                evicted.add(current.remove(0));
+            }
+            current.add(connection);
+            return current;
+        });
+        for (Connection oldest : evicted) {
+            sendAndClose(username, oldest, SUPERSEDED, payload(System.currentTimeMillis(), null, null));
+        }
+        connection.emitter.onCompletion(() -> remove(username, connection));
+        connection.emitter.onTimeout(() -> remove(username, connection));
+        connection.emitter.onError(error -> remove(username, connection));
+        send(username, connection, "ready", payload(System.currentTimeMillis(), null, expiresAt));
+        return connection.emitter;
+    }
+
+    /**
+     * Reports how many streams are open for a user.
+     *
+     * @param username user to count streams for
+     * @return open streams
+     * @author Maruf Bepary
+     */
+    int openStreams(String username) {
+        List<Connection> streams = connections.get(username);
+        return streams == null ? 0 : streams.size();
+    }
+
+    /**
+     * Reads the revocations recorded since the previous poll and closes the streams they apply to: the stream opened
+     * with a revoked access token, or every stream a user opened before logging out everywhere.
+     */
+    void poll() {
+        Instant started = Instant.now();
+        if (connections.isEmpty()) {
+            lastPolled = started;
+            return;
+        }
+        try {
+            List<InvalidatedToken> revocations =
+                    refreshTokenStore.findAccessTokenRevocationsSince(lastPolled.minus(REVOCATION_LAG));
+            lastPolled = started;
+            long now = System.currentTimeMillis();
+            for (InvalidatedToken revocation : revocations) {
+                List<Connection> streams = connections.get(revocation.getUsername());
+                if (streams == null) {
+                    continue;
+                }
+                boolean everywhere = RefreshTokenStore.LOGOUT_ALL_REASON.equals(revocation.getReason());
+                long revokedAt = revocation.getInvalidatedAt().toEpochMilli();
+                for (Connection connection : streams) {
+                    if (everywhere && connection.openedAt <= revokedAt) {
+                        sendAndClose(revocation.getUsername(), connection, LOGGED_OUT_EVERYWHERE,
+                                payload(now, null, null));
+                    } else if (!everywhere && connection.accessToken.equals(revocation.getToken())) {
+                        sendAndClose(revocation.getUsername(), connection, REVOKED, payload(now, "access", null));
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            // An exception would cancel the scheduled poll for good
+            log.warn("Session event poll failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Warns streams entering the expiring window, closes expired ones, and sends a heartbeat to the rest if idle.
+     */
+    void sweep() {
+        long now = System.currentTimeMillis();
+        long idleNanos = properties.getHeartbeatInterval().toNanos();
+        long window = properties.getExpiringWindow().toMillis();
+        try {
+            connections.forEach((username, streams) -> {
+                for (Connection connection : streams) {
+                    long writing = connection.writingSince;
+                    if (now >= connection.expiresAt || (writing != 0 && System.nanoTime() - writing >= idleNanos)) {
+                        drop(username, connection);
+                    } else if (!connection.expiringSent && connection.expiresAt - now <= window) {
+                        connection.expiringSent = true;
+                        send(username, connection, EXPIRING,
+                                payload(now, null, Instant.ofEpochMilli(connection.expiresAt)));
+                    } else if (System.nanoTime() - connection.lastSent >= idleNanos) {
+                        write(username, connection, SseEmitter.event().comment("heartbeat"), false);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // An exception would cancel the scheduled sweep for good
+            log.warn("Session event sweep failed: {}", e.getMessage());
+        }
+    }
+
+    private void send(String username, Connection connection, String name, Map<String, Object> data) {
+        write(username, connection, SseEmitter.event().name(name).data(data), false);
+    }
+
+    /**
+     * Stops dispatching to a stream at once and closes it after a final event has been written.
+     */
+    private void sendAndClose(String username, Connection connection, String name, Map<String, Object> data) {
+        remove(username, connection);
+        write(username, connection, SseEmitter.event().name(name).data(data), true);
+    }
+
+    /**
+     * Queues an event behind the stream's earlier writes on a virtual thread, dropping the stream instead when too
+     * many writes are already waiting on a client that stopped reading.
+     */
+    private void write(String username, Connection connection, SseEmitter.SseEventBuilder event, boolean close) {
+        if (connection.pendingWrites.incrementAndGet() > MAX_PENDING_WRITES) {
+            drop(username, connection);
+            return;
+        }
+        synchronized (connection) {
+            connection.lastWrite = connection.lastWrite.thenRunAsync(() -> {
+                connection.writingSince = System.nanoTime();
+                try {
+                    connection.emitter.send(event);
+                    connection.lastSent = System.nanoTime();
+                    if (close) {
+                        drop(username, connection);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    drop(username, connection);
+                } finally {
+                    connection.writingSince = 0;
+                    connection.pendingWrites.decrementAndGet();
+                }
+            }, writers);
+        }
+    }
+
+    /**
+     * Forgets a stream the client has gone away from; completing it releases the async request.
+     */
+    private void drop(String username, Connection connection) {
+        remove(username, connection);
+        synchronized (connection) {
+            if (connection.closed) {
+                return;
+            }
+            connection.closed = true;
+        }
+        connection.emitter.complete();
+    }
+
+    private void remove(String username, Connection connection) {
+        connections.computeIfPresent(username, (key, streams) -> {
+            streams.remove(connection);
+            return streams.isEmpty() ? null : streams;
+        });
+    }
+
+    private static Map<String, Object> payload(long timestamp, String detail, Instant expiresAt) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("timestamp", timestamp);
+        if (detail != null) {
+            data.put("detail", detail);
+        }
+        if (expiresAt != null) {
+            data.put("expiresAt", expiresAt.toString());
+        }
+        return data;
+    }
+
+    /**
+     * One open stream. Its writes are chained on {@code lastWrite} so they reach the client in order.
+     */
+    private static final class Connection {
+        private final SseEmitter emitter;
+        private final String accessToken;
+        private final long expiresAt;
+        private final long openedAt = System.currentTimeMillis();
+        private final AtomicInteger pendingWrites = new AtomicInteger();
+        private CompletableFuture<Void> lastWrite = CompletableFuture.completedFuture(null);
+        private volatile long writingSince;
+        private volatile long lastSent = System.nanoTime();
+        private volatile boolean expiringSent;
+        private volatile boolean closed;
+
+        private Connection(SseEmitter emitter, String accessToken, long expiresAt) {
+            this.emitter = emitter;
+            this.accessToken = accessToken;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
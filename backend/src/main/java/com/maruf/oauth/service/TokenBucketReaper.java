@@ -0,0 +1,38 @@
+package com.maruf.oauth.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Drops token bucket collections once every token they hold has expired.
+ * Replaces per-document TTL deletes with one {@code drop} per bucket when time buckets are enabled.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenBucketReaper {
+
+    private final TokenCollections tokenCollections;
+
+    /**
+     * Drops expired buckets on every shard; does nothing unless time buckets are enabled.
+     *
+     * @author Maruf Bepary
+     */
+    @Scheduled(fixedDelayString = "${app.security.token-store.time-buckets.drop-interval:PT5M}")
+    public void dropExpiredBuckets() {
+        if (!tokenCollections.isBucketed()) {
+            return;
+        }
+        int dropped = tokenCollections.dropExpiredBuckets(Instant.now());
+        if (dropped > 0) {
+            log.info("Dropped {} expired token buckets", dropped);
+        }
+    }
+}
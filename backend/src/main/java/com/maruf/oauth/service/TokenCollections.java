@@ -0,0 +1,623 @@
+package com.maruf.oauth.service;
+
+import com.maruf.oauth.config.MongoCommandCounter;
+import com.maruf.oauth.config.TokenStoreProperties;
+import com.maruf.oauth.entity.InvalidatedToken;
+import com.maruf.oauth.entity.RefreshToken;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsCommandListener;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsConnectionPoolListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves the MongoDB collection handle used for each {@link TokenStoreOperation}.
+ * Applies the configured write concern and read preference per operation so a {@code lastUsed}
+ * bump, a refresh token insert and a revocation can carry different durability guarantees.
+ * When shards are configured, routes each token to a database by the prefix of its hash, and when
+ * time buckets are on, to a collection named after the token's expiry hour or day.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenCollections {
+
+    /**
+     * Number of hash prefix slots distributed across shards.
+     */
+    static final int SLOT_COUNT = 256;
+
+    /**
+     * Bytes in a SHA-256 hash; one byte of it selects among the {@link #SLOT_COUNT} slots.
+     */
+    private static final int HASH_BYTES = 32;
+
+    /**
+     * Length of a SHA-256 hash in unpadded URL-safe Base64, the form hashed refresh tokens are stored in.
+     */
+    private static final int HASHED_KEY_LENGTH = 43;
+
+    /**
+     * Revoked access token buckets cover one hour of expiry times each.
+     */
+    private static final DateTimeFormatter HOUR_BUCKET = DateTimeFormatter.ofPattern("yyyyMMddHH").withZone(ZoneOffset.UTC);
+
+    /**
+     * Refresh token buckets cover one day of expiry times each.
+     */
+    private static final DateTimeFormatter DAY_BUCKET = DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+
+    private final MongoTemplate mongoTemplate;
+    private final TokenStoreProperties tokenStoreProperties;
+    private final ObjectProvider<MongoCommandCounter> commandCounter;
+    private final ObjectProvider<MongoMetricsCommandListener> commandMetrics;
+    private final ObjectProvider<MongoMetricsConnectionPoolListener> connectionPoolMetrics;
+
+    /**
+     * Access token lifetime in milliseconds from {@code jwt.access-token-expiration}; bounds the live hourly buckets.
+     */
+    @Value("${jwt.access-token-expiration:900000}")
+    private Long accessTokenExpiration;
+
+    /**
+     * Refresh token lifetime in milliseconds from {@code jwt.refresh-token-expiration}; bounds the live daily buckets.
+     */
+    @Value("${jwt.refresh-token-expiration:604800000}")
+    private Long refreshTokenExpiration;
+
+    /**
+     * Databases holding the token collections, indexed like {@code app.security.token-store.shards}.
+     */
+    private final List<MongoDatabase> shards = new ArrayList<>();
+
+    /**
+     * Collection handles keyed by shard, collection name and the operation's settings.
+     * Operations with identical settings share a handle so batches can be grouped by it.
+     */
+    private final Map<String, MongoCollection<Document>> handles = new ConcurrentHashMap<>();
+
+    private final Map<TokenStoreOperation, WriteConcern> writeConcerns = new EnumMap<>(TokenStoreOperation.class);
+    private final Map<TokenStoreOperation, ReadPreference> readPreferences = new EnumMap<>(TokenStoreOperation.class);
+
+    /**
+     * Shard index owning each hash prefix slot.
+     */
+    private final int[] slotOwners = new int[SLOT_COUNT];
+
+    /**
+     * Clients opened for shards on separate deployments, keyed by connection string.
+     */
+    private final Map<String, MongoClient> clients = new LinkedHashMap<>();
+
+    /**
+     * Resolves the per-operation policies and the shard databases up front.
+     * Without configured shards the default database acts as the only shard.
+     *
+     * @author Maruf Bepary
+     */
+    @PostConstruct
+    void init() {
+        tokenStoreProperties.getPolicies().forEach((operation, policy) -> {
+            WriteConcern writeConcern = resolveWriteConcern(policy);
+            ReadPreference readPreference = resolveReadPreference(policy);
+            if (writeConcern != null) {
+                writeConcerns.put(operation, writeConcern);
+            }
+            if (readPreference != null) {
+                readPreferences.put(operation, readPreference);
+            }
+            log.info("Token store policy for {}: write concern {}, read preference {}",
+                    operation, writeConcern, readPreference);
+        });
+
+        List<TokenStoreProperties.Shard> configured = tokenStoreProperties.getShards();
+        if (configured.isEmpty()) {
+            shards.add(mongoTemplate.getDb());
+            return;
+        }
+
+        for (TokenStoreProperties.Shard shard : configured) {
+            MongoDatabase database = resolveDatabase(shard);
+            ensureIndexes(database);
+            shards.add(database);
+        }
+        assignSlots(configured);
+        log.info("Token collections sharded across {} databases", shards.size());
+    }
+
+    /**
+     * Closes clients opened for shards on separate deployments.
+     *
+     * @author Maruf Bepary
+     */
+    @PreDestroy
+    void close() {
+        clients.values().forEach(MongoClient::close);
+        clients.clear();
+    }
+
+    /**
+     * Reports whether tokens are stored in expiry bucket collections.
+     *
+     * @return {@code true} when {@code app.security.token-store.time-buckets.enabled} is set
+     * @author Maruf Bepary
+     */
+    public boolean isBucketed() {
+        return tokenStoreProperties.getTimeBuckets().isEnabled();
+    }
+
+    /**
+     * Returns the base collection handle for the operation on the shard owning the token.
+     *
+     * @param operation store operation about to run
+     * @param key       stored token value, hashed for refresh tokens when hashing is on
+     * @return collection with the operation's write concern and read preference applied
+     * @author Maruf Bepary
+     */
+    public MongoCollection<Document> forOperation(TokenStoreOperation operation, String key) {
+        return handle(shardOf(key), operation, collectionName(operation));
+    }
+
+    /**
+     * Returns the collection a token document belongs in, picking its expiry bucket when buckets are on.
+     *
+     * @param operation store operation about to run
+     * @param key       stored token value, hashed for refresh tokens when hashing is on
+     * @param expiresAt expiry of the token document
+     * @return collection with the operation's write concern and read preference applied
+     * @author Maruf Bepary
+     */
+    public MongoCollection<Document> forWrite(TokenStoreOperation operation, String key, Instant expiresAt) {
+        if (!isBucketed()) {
+            return forOperation(operation, key);
+        }
+        return handle(shardOf(key), operation, bucketName(operation, expiresAt));
+    }
+
+    /**
+     * Returns every collection that may hold the token, i.e. the live expiry buckets when buckets are on.
+     *
+     * @param operation store operation about to run
+     * @param key       stored token value, hashed for refresh tokens when hashing is on
+     * @return candidate collections on the owning shard, earliest bucket first
+     * @author Maruf Bepary
+     */
+    public List<MongoCollection<Document>> forLookup(TokenStoreOperation operation, String key) {
+        if (!isBucketed()) {
+            return List.of(forOperation(operation, key));
+        }
+        int shard = shardOf(key);
+        List<MongoCollection<Document>> collections = new ArrayList<>();
+        for (String bucket : liveBuckets(operation, Instant.now())) {
+            collections.add(handle(shard, operation, bucket));
+        }
+        return collections;
+    }
+
+    /**
+     * Returns the collection holding a token whose expiry is known, e.g. from the token's own {@code exp} claim.
+     * With time buckets on, this is the one bucket covering that expiry instead of every live bucket.
+     * An expiry in the past, or beyond the longest token lifetime with a bucket's slack for clock skew, cannot
+     * belong to a stored token, so no collection is returned and no bucket is created for it.
+     *
+     * @param operation store operation about to run
+     * @param key       stored token value, hashed for refresh tokens when hashing is on
+     * @param expiresAt expiry the token was stored under, or {@code null} to try every live bucket
+     * @return candidate collections on the owning shard
+     * @author Maruf Bepary
+     */
+    public List<MongoCollection<Document>> forLookup(TokenStoreOperation operation, String key, Instant expiresAt) {
+        if (!isBucketed() || expiresAt == null) {
+            return forLookup(operation, key);
+        }
+        Instant now = Instant.now();
+        boolean access = operation.isAccessTokenOperation();
+        Instant latest = now.plusMillis(access ? accessTokenExpiration : refreshTokenExpiration)
+                .plus(1, access ? ChronoUnit.HOURS : ChronoUnit.DAYS);
+        if (!expiresAt.isAfter(now) || expiresAt.isAfter(latest)) {
+            return List.of();
+        }
+        return List.of(handle(shardOf(key), operation, bucketName(operation, expiresAt)));
+    }
+
+    /**
+     * Returns the operation's collections on every shard, for queries not keyed by token.
+     *
+     * @param operation store operation about to run
+     * @return handles for every shard and, when buckets are on, every live bucket
+     * @author Maruf Bepary
+     */
+    public List<MongoCollection<Document>> allForOperation(TokenStoreOperation operation) {
+        List<String> names = isBucketed()
+                ? liveBuckets(operation, Instant.now())
+                : List.of(collectionName(operation));
+        List<MongoCollection<Document>> collections = new ArrayList<>(shards.size() * names.size());
+        for (int shard = 0; shard < shards.size(); shard++) {
+            for (String name : names) {
+                collections.add(handle(shard, operation, name));
+            }
+        }
+        return collections;
+    }
+
+    /**
+     * Drops bucket collections whose whole expiry range has passed.
+     *
+     * @param now moment to compare bucket ends against
+     * @return number of collections dropped across all shards
+     * @author Maruf Bepary
+     */
+    public int dropExpiredBuckets(Instant now) {
+        int dropped = 0;
+        for (int shard = 0; shard < shards.size(); shard++) {
+            MongoDatabase database = shards.get(shard);
+            for (String name : database.listCollectionNames()) {
+                Instant end = bucketEnd(name);
+                if (end != null && !end.isAfter(now)) {
+                    database.getCollection(name).drop();
+                    int shardIndex = shard;
+                    handles.keySet().removeIf(key -> key.startsWith(shardIndex + "|" + name + "|"));
+                    dropped++;
+                    log.debug("Dropped expired token bucket {}", name);
+                }
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * Converts a token entity into the BSON document Spring Data would persist for it.
+     *
+     * @param entity {@link RefreshToken} or {@link InvalidatedToken} to convert
+     * @return document ready for a driver insert
+     * @author Maruf Bepary
+     */
+    public Document toDocument(Object entity) {
+        Document document = new Document();
+        mongoTemplate.getConverter().write(entity, document);
+        return document;
+    }
+
+    /**
+     * Returns the shared handle for a collection on a shard with the operation's settings applied.
+     * Bucket collections get their unique token index, and the {@code username} index that signing a user out
+     * everywhere reads, plus an {@code invalidatedAt} index on revoked access token buckets for reading recent
+     * revocations, the first time this instance touches them. The indexes are created outside the map's
+     * compute lock, since they are server round trips that would stall every other caller hashing to the same bin;
+     * two threads racing on a new bucket both send the idempotent requests.
+     *
+     * @param shard          shard index
+     * @param operation      store operation about to run
+     * @param collectionName base or bucket collection name
+     * @return collection handle
+     * @author Maruf Bepary
+     */
+    private MongoCollection<Document> handle(int shard, TokenStoreOperation operation, String collectionName) {
+        WriteConcern writeConcern = writeConcerns.get(operation);
+        ReadPreference readPreference = readPreferences.get(operation);
+        String key = shard + "|" + collectionName + "|" + writeConcern + "|" + readPreference;
+        MongoCollection<Document> cached = handles.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        MongoCollection<Document> collection = shards.get(shard).getCollection(collectionName);
+        if (!collectionName.equals(collectionName(operation))) {
+            collection.createIndex(Indexes.ascending("token"), new IndexOptions().unique(true));
+            collection.createIndex(Indexes.ascending("username"));
+            if (operation.isAccessTokenOperation()) {
+                collection.createIndex(Indexes.ascending("invalidatedAt"));
+            }
+        }
+        if (writeConcern != null) {
+            collection = collection.withWriteConcern(writeConcern);
+        }
+        if (readPreference != null) {
+            collection = collection.withReadPreference(readPreference);
+        }
+        MongoCollection<Document> raced = handles.putIfAbsent(key, collection);
+        return raced != null ? raced : collection;
+    }
+
+    /**
+     * Names the bucket collection covering an expiry time.
+     *
+     * @param operation store operation, deciding between hourly and daily buckets
+     * @param expiresAt token expiry
+     * @return collection name such as {@code invalidated_access_tokens_2025010112}
+     * @author Maruf Bepary
+     */
+    private String bucketName(TokenStoreOperation operation, Instant expiresAt) {
+        DateTimeFormatter format = operation.isAccessTokenOperation() ? HOUR_BUCKET : DAY_BUCKET;
+        return collectionName(operation) + "_" + format.format(expiresAt);
+    }
+
+    /**
+     * Lists the buckets that can still hold unexpired tokens, from the current one to the one
+     * covering the longest token lifetime.
+     *
+     * @param operation store operation, deciding bucket size and lifetime
+     * @param now       current time
+     * @return bucket collection names, earliest first
+     * @author Maruf Bepary
+     */
+    private List<String> liveBuckets(TokenStoreOperation operation, Instant now) {
+        boolean access = operation.isAccessTokenOperation();
+        ChronoUnit unit = access ? ChronoUnit.HOURS : ChronoUnit.DAYS;
+        Instant last = now.plusMillis(access ? accessTokenExpiration : refreshTokenExpiration).truncatedTo(unit);
+        List<String> names = new ArrayList<>();
+        for (Instant bucket = now.truncatedTo(unit); !bucket.isAfter(last); bucket = bucket.plus(1, unit)) {
+            names.add(bucketName(operation, bucket));
+        }
+        return names;
+    }
+
+    /**
+     * Parses the end of a bucket's expiry range from its collection name.
+     *
+     * @param name collection name
+     * @return first instant after the bucket, or {@code null} when the name is not a token bucket
+     * @author Maruf Bepary
+     */
+    private Instant bucketEnd(String name) {
+        String accessPrefix = collectionName(TokenStoreOperation.REVOKE_ACCESS_TOKEN) + "_";
+        String refreshPrefix = collectionName(TokenStoreOperation.STORE_REFRESH_TOKEN) + "_";
+        try {
+            if (name.startsWith(accessPrefix)) {
+                return LocalDateTime.parse(name.substring(accessPrefix.length()), HOUR_BUCKET)
+                        .toInstant(ZoneOffset.UTC).plus(1, ChronoUnit.HOURS);
+            }
+            if (name.startsWith(refreshPrefix)) {
+                return LocalDate.parse(name.substring(refreshPrefix.length()), DAY_BUCKET)
+                        .atStartOfDay(ZoneOffset.UTC).toInstant().plus(1, ChronoUnit.DAYS);
+            }
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the shard owning a token.
+     *
+     * @param key stored token value
+     * @return shard index
+     * @author Maruf Bepary
+     */
+    private int shardOf(String key) {
+        return slotOwners[slotOf(key)];
+    }
+
+    /**
+     * Maps a token to its hash prefix slot: the first byte of the token's SHA-256 hash.
+     * Hashed refresh tokens are stored as that hash already, so its first byte is read back from the
+     * stored value; anything else, such as access tokens or refresh tokens stored unhashed, is hashed here.
+     * Either way every instance routes the same token to the same shard, and slots are spread evenly.
+     *
+     * @param key stored token value
+     * @return slot between {@code 0} and {@link #SLOT_COUNT} exclusive
+     * @author Maruf Bepary
+     */
+    static int slotOf(String key) {
+        if (key.length() == HASHED_KEY_LENGTH) {
+            try {
+                byte[] stored = Base64.getUrlDecoder().decode(key);
+                if (stored.length == HASH_BYTES) {
+                    return stored[0] & 0xFF;
+                }
+            } catch (IllegalArgumentException e) {
+                // Not a stored hash; fall through and hash it
+            }
+        }
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8))[0] & 0xFF;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 digest is not available", e);
+        }
+    }
+
+    /**
+     * Opens the database a shard points at, reusing the application's client when no URI is set.
+     * Clients opened here report to the same {@link MongoCommandCounter} and Micrometer command and pool
+     * listeners as the application's client.
+     *
+     * @param shard shard configuration
+     * @return database holding the shard's collections
+     * @author Maruf Bepary
+     */
+    private MongoDatabase resolveDatabase(TokenStoreProperties.Shard shard) {
+        if (!StringUtils.hasText(shard.getUri())) {
+            return StringUtils.hasText(shard.getDatabase())
+                    ? mongoTemplate.getMongoDatabaseFactory().getMongoDatabase(shard.getDatabase())
+                    : mongoTemplate.getDb();
+        }
+
+        ConnectionString connectionString = new ConnectionString(shard.getUri());
+        MongoClient client = clients.computeIfAbsent(shard.getUri(), uri -> {
+            MongoClientSettings.Builder settings = MongoClientSettings.builder().applyConnectionString(connectionString);
+            commandCounter.ifAvailable(settings::addCommandListener);
+            commandMetrics.ifAvailable(settings::addCommandListener);
+            connectionPoolMetrics.ifAvailable(listener ->
+                    settings.applyToConnectionPoolSettings(pool -> pool.addConnectionPoolListener(listener)));
+            return MongoClients.create(settings.build());
+        });
+        String databaseName = StringUtils.hasText(shard.getDatabase())
+                ? shard.getDatabase()
+                : connectionString.getDatabase() != null ? connectionString.getDatabase() : mongoTemplate.getDb().getName();
+        return client.getDatabase(databaseName);
+    }
+
+    /**
+     * Creates the token lookup, TTL and revocation time indexes in a shard database when they are missing.
+     * Spring Data only manages indexes in the default database, so shards need their own.
+     *
+     * @param database shard database
+     * @author Maruf Bepary
+     */
+    private void ensureIndexes(MongoDatabase database) {
+        for (String collectionName : List.of(collectionName(TokenStoreOperation.STORE_REFRESH_TOKEN),
+                collectionName(TokenStoreOperation.REVOKE_ACCESS_TOKEN))) {
+            MongoCollection<Document> collection = database.getCollection(collectionName);
+            Set<Object> existing = new HashSet<>();
+            collection.listIndexes().forEach(index -> existing.add(index.get("key")));
+
+            createIndexIfMissing(collection, existing, "token", new IndexOptions().unique(true));
+            createIndexIfMissing(collection, existing, "username", new IndexOptions());
+            createIndexIfMissing(collection, existing, "expiresAt", new IndexOptions().expireAfter(0L, TimeUnit.SECONDS));
+            if (collectionName.equals(collectionName(TokenStoreOperation.REVOKE_ACCESS_TOKEN))) {
+                createIndexIfMissing(collection, existing, "invalidatedAt", new IndexOptions());
+            }
+        }
+    }
+
+    /**
+     * Creates a single-field ascending index unless one already exists on that field.
+     *
+     * @param collection target collection
+     * @param existing   key documents of the indexes already present
+     * @param field      indexed field
+     * @param options    index options to apply
+     * @author Maruf Bepary
+     */
+    private void createIndexIfMissing(MongoCollection<Document> collection, Set<Object> existing,
+                                      String field, IndexOptions options) {
+        if (!existing.contains(new Document(field, 1))) {
+            collection.createIndex(Indexes.ascending(field), options);
+        }
+    }
+
+    /**
+     * Assigns every hash prefix slot to exactly one shard.
+     * Uses declared ranges when present, otherwise splits the slots evenly in list order.
+     *
+     * @param configured shard configuration, in list order
+     * @author Maruf Bepary
+     */
+    private void assignSlots(List<TokenStoreProperties.Shard> configured) {
+        boolean declared = configured.stream().anyMatch(shard -> StringUtils.hasText(shard.getSlots()));
+        if (!declared) {
+            for (int slot = 0; slot < SLOT_COUNT; slot++) {
+                slotOwners[slot] = slot * configured.size() / SLOT_COUNT;
+            }
+            return;
+        }
+
+        Arrays.fill(slotOwners, -1);
+        for (int index = 0; index < configured.size(); index++) {
+            String slots = configured.get(index).getSlots();
+            if (!StringUtils.hasText(slots)) {
+                continue;
+            }
+            for (String range : slots.split(",")) {
+                String[] bounds = range.trim().split("-");
+                int from = Integer.parseInt(bounds[0].trim());
+                int to = bounds.length > 1 ? Integer.parseInt(bounds[1].trim()) : from;
+                if (from < 0 || to >= SLOT_COUNT || from > to) {
+                    throw new IllegalStateException("Invalid token shard slot range: " + range);
+                }
+                for (int slot = from; slot <= to; slot++) {
+                    if (slotOwners[slot] != -1) {
+                        throw new IllegalStateException("Token shard slot " + slot + " is assigned twice");
+                    }
+                    slotOwners[slot] = index;
+                }
+            }
+        }
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            if (slotOwners[slot] == -1) {
+                throw new IllegalStateException("Token shard slot " + slot + " is not assigned");
+            }
+        }
+    }
+
+    /**
+     * Resolves the collection name an operation targets from the entity mappings.
+     *
+     * @param operation store operation
+     * @return MongoDB collection name
+     * @author Maruf Bepary
+     */
+    private String collectionName(TokenStoreOperation operation) {
+        return mongoTemplate.getCollectionName(operation.isAccessTokenOperation()
+                ? InvalidatedToken.class
+                : RefreshToken.class);
+    }
+
+    /**
+     * Parses the configured write concern name.
+     *
+     * @param policy operation policy from configuration
+     * @return write concern, or {@code null} to keep the client default
+     * @author Maruf Bepary
+     */
+    private WriteConcern resolveWriteConcern(TokenStoreProperties.OperationPolicy policy) {
+        if (policy.getWriteConcern() == null) {
+            return null;
+        }
+        WriteConcern writeConcern = WriteConcern.valueOf(policy.getWriteConcern());
+        if (writeConcern == null) {
+            throw new IllegalStateException("Unknown write concern: " + policy.getWriteConcern());
+        }
+        return writeConcern;
+    }
+
+    /**
+     * Parses the configured read preference, applying bounded staleness when set.
+     *
+     * @param policy operation policy from configuration
+     * @return read preference, or {@code null} to keep the client default
+     * @author Maruf Bepary
+     */
+    private ReadPreference resolveReadPreference(TokenStoreProperties.OperationPolicy policy) {
+        if (policy.getReadPreference() == null) {
+            return null;
+        }
+        if (policy.getMaxStaleness() == null) {
+            return ReadPreference.valueOf(policy.getReadPreference());
+        }
+        return ReadPreference.valueOf(policy.getReadPreference(), Collections.emptyList(),
+                policy.getMaxStaleness().toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,35 @@
+package com.maruf.oauth.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Digest applied to refresh tokens before they are stored, shared by the servlet and reactive token stores
+ * so either edition can look up tokens the other wrote.
+ *
+ * @author Maruf Bepary
+ */
+public final class TokenHashing {
+
+    private TokenHashing() {
+    }
+
+    /**
+     * Hashes a token with SHA-256 and encodes the digest as unpadded URL-safe Base64.
+     *
+     * @param token raw token value received from the client
+     * @return stored form of the token
+     * @author Maruf Bepary
+     */
+    public static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hashed = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hashed);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 digest is not available", e);
+        }
+    }
+}
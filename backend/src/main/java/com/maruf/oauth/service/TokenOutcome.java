@@ -0,0 +1,52 @@
+package com.maruf.oauth.service;
+
+import java.util.Locale;
+
+/**
+ * Enumerates what happens to a token presented by a client.
+ * Shared by the authentication filter, the refresh endpoint and metrics so outcomes are reported consistently.
+ *
+ * @author Maruf Bepary
+ */
+public enum TokenOutcome {
+
+    /**
+     * Signature, expiry, type and revocation checks all passed.
+     */
+    VALID,
+
+    /**
+     * The signature is valid but the token has expired.
+     */
+    EXPIRED,
+
+    /**
+     * The token is well formed and signed but was revoked or is no longer stored.
+     */
+    REVOKED,
+
+    /**
+     * A refresh token was presented where an access token was expected, or the reverse.
+     */
+    WRONG_TYPE,
+
+    /**
+     * The signature does not match the signing key.
+     */
+    BAD_SIGNATURE,
+
+    /**
+     * The token could not be parsed as a signed JWT.
+     */
+    MALFORMED;
+
+    /**
+     * Returns the metric tag value for the outcome.
+     *
+     * @return lower-case name such as {@code bad_signature}
+     * @author Maruf Bepary
+     */
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
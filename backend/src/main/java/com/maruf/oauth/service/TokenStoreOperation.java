@@ -0,0 +1,50 @@
+package com.maruf.oauth.service;
+
+/**
+ * Enumerates the persistence operations performed by {@link RefreshTokenStore}.
+ * Lets batching and storage tuning treat each kind of token write separately.
+ *
+ * @author Maruf Bepary
+ */
+public enum TokenStoreOperation {
+
+    /**
+     * Inserts a newly issued refresh token, or rewrites the old one in place on rotation.
+     */
+    STORE_REFRESH_TOKEN,
+
+    /**
+     * Reads a refresh token to resolve its owner.
+     */
+    FIND_REFRESH_TOKEN,
+
+    /**
+     * Resolves a refresh token's owner and bumps its {@code lastUsed} timestamp in one round trip.
+     */
+    TOUCH_REFRESH_TOKEN,
+
+    /**
+     * Deletes a refresh token on logout, rotation or failed validation.
+     */
+    REVOKE_REFRESH_TOKEN,
+
+    /**
+     * Records an access token that must be rejected until it expires.
+     */
+    REVOKE_ACCESS_TOKEN,
+
+    /**
+     * Checks whether an access token has been revoked.
+     */
+    CHECK_ACCESS_TOKEN;
+
+    /**
+     * Reports whether the operation targets the revoked access token collection.
+     *
+     * @return {@code true} for access token operations, {@code false} for refresh token ones
+     * @author Maruf Bepary
+     */
+    public boolean isAccessTokenOperation() {
+        return this == REVOKE_ACCESS_TOKEN || this == CHECK_ACCESS_TOKEN;
+    }
+}
@@ -0,0 +1,23 @@
+package com.maruf.oauth.service;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Result of parsing a presented token once: the outcome and, when the signature was valid, its claims.
+ *
+ * @param outcome result of signature, expiry and type checks
+ * @param claims  verified claims, or {@code null} when the token could not be verified
+ * @author Maruf Bepary
+ */
+public record TokenVerification(TokenOutcome outcome, Claims claims) {
+
+    /**
+     * Reports whether the token passed every check.
+     *
+     * @return {@code true} when the outcome is {@link TokenOutcome#VALID}
+     * @author Maruf Bepary
+     */
+    public boolean isValid() {
+        return outcome == TokenOutcome.VALID;
+    }
+}
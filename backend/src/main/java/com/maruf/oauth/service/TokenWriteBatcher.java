@@ -0,0 +1,505 @@
+package com.maruf.oauth.service;
+
+import com.maruf.oauth.config.AuthMetrics;
+import com.maruf.oauth.config.TokenStoreProperties;
+import com.maruf.oauth.entity.InvalidatedToken;
+import com.maruf.oauth.entity.RefreshToken;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.client.result.DeleteResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queues token writes and flushes them to MongoDB as unordered {@code bulkWrite} batches.
+ * Takes per-request inserts and deletes off the request thread during login storms while
+ * keeping pending writes visible to lookups until MongoDB acknowledges them.
+ * Each flush's batch size and duration are recorded through {@link AuthMetrics}, and every write MongoDB does
+ * not acknowledge is counted and logged, since a lost revocation leaves a token usable.
+ *
+ * @author Maruf Bepary
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenWriteBatcher {
+
+    /**
+     * MongoDB duplicate key error code, raised when an access token is revoked twice.
+     */
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final TokenCollections tokenCollections;
+    private final TokenStoreProperties tokenStoreProperties;
+    private final AuthMetrics authMetrics;
+
+    /**
+     * Latest pending write per hashed refresh token, consulted by lookups before MongoDB.
+     */
+    private final Map<String, PendingWrite> pendingRefreshTokens = new ConcurrentHashMap<>();
+
+    /**
+     * Pending access token revocations keyed by token value.
+     */
+    private final Map<String, PendingWrite> pendingAccessTokens = new ConcurrentHashMap<>();
+
+    private BlockingQueue<PendingWrite> queue;
+    private Thread flusher;
+    private volatile boolean running;
+
+    /**
+     * Starts the background flusher when write-behind is enabled.
+     * Leaves the batcher inert otherwise so {@link RefreshTokenStore} writes synchronously.
+     *
+     * @author Maruf Bepary
+     */
+    @PostConstruct
+    void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(tokenStoreProperties.getWriteBehind().getQueueCapacity());
+        running = true;
+        flusher = new Thread(this::runFlushLoop, "token-write-batcher");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Token write-behind enabled (batch size {}, flush interval {})",
+                tokenStoreProperties.getWriteBehind().getBatchSize(),
+                tokenStoreProperties.getWriteBehind().getFlushInterval());
+    }
+
+    /**
+     * Stops the flusher and writes anything still queued before the context closes.
+     *
+     * @author Maruf Bepary
+     */
+    @PreDestroy
+    void stop() {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        try {
+            flusher.join(tokenStoreProperties.getWriteBehind().getFlushInterval().toMillis() * 2 + 5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<PendingWrite> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+    }
+
+    /**
+     * Reports whether writes should be queued instead of written synchronously.
+     *
+     * @return {@code true} when {@code app.security.token-store.write-behind.enabled} is set
+     * @author Maruf Bepary
+     */
+    public boolean isEnabled() {
+        return tokenStoreProperties.getWriteBehind().isEnabled();
+    }
+
+    /**
+     * Queues a refresh token insert.
+     *
+     * @param refreshToken document to insert, with the token already hashed if hashing is on
+     * @return future completed once MongoDB acknowledges the write
+     * @author Maruf Bepary
+     */
+    public CompletableFuture<Void> storeRefreshToken(RefreshToken refreshToken) {
+        PendingWrite write = new PendingWrite(TokenStoreOperation.STORE_REFRESH_TOKEN,
+                refreshToken.getToken(), refreshToken, refreshToken.getExpiresAt(), new CompletableFuture<>());
+        pendingRefreshTokens.put(write.key(), write);
+        return enqueue(write);
+    }
+
+    /**
+     * Queues a refresh token delete, sent to every live bucket since the token's expiry is not known.
+     *
+     * @param hashedToken stored token value to delete
+     * @return future completed once MongoDB acknowledges the write
+     * @author Maruf Bepary
+     */
+    public CompletableFuture<Void> revokeRefreshToken(String hashedToken) {
+        return revokeRefreshToken(hashedToken, null);
+    }
+
+    /**
+     * Queues a refresh token delete aimed at the bucket covering the token's expiry.
+     *
+     * @param hashedToken stored token value to delete
+     * @param expiresAt   expiry the token was stored under, or {@code null} when unknown
+     * @return future completed once MongoDB acknowledges the write
+     * @author Maruf Bepary
+     */
+    public CompletableFuture<Void> revokeRefreshToken(String hashedToken, Instant expiresAt) {
+        PendingWrite write = new PendingWrite(TokenStoreOperation.REVOKE_REFRESH_TOKEN,
+                hashedToken, null, expiresAt, new CompletableFuture<>());
+        pendingRefreshTokens.put(hashedToken, write);
+        return enqueue(write);
+    }
+
+    /**
+     * Revokes a refresh token for rotation, reporting whether this caller revoked it first.
+     * While the token's insert is still queued, the insert is swapped for a queued delete in one atomic step,
+     * and a delete already queued means another caller won. Once nothing is queued for the token, the winner is
+     * decided by an acknowledged delete against MongoDB instead, since the in-memory index no longer remembers a
+     * revocation after it has been flushed. Either way two rotations of the same token cannot both win.
+     *
+     * @param hashedToken stored token value to delete
+     * @param expiresAt   expiry the token was stored under, or {@code null} when unknown
+     * @return future completed once MongoDB acknowledges the delete, or {@code null} when the token was already
+     *         revoked, queued for revocation or never stored
+     * @author Maruf Bepary
+     */
+    public CompletableFuture<Void> revokeRefreshTokenOnce(String hashedToken, Instant expiresAt) {
+        PendingWrite write = new PendingWrite(TokenStoreOperation.REVOKE_REFRESH_TOKEN,
+                hashedToken, null, expiresAt, new CompletableFuture<>());
+        PendingWrite registered = pendingRefreshTokens.computeIfPresent(hashedToken, (key, current) ->
+                current.operation() == TokenStoreOperation.REVOKE_REFRESH_TOKEN ? current : write);
+        if (registered == write) {
+            return enqueue(write);
+        }
+        if (registered != null) {
+            return null;
+        }
+        for (MongoCollection<Document> collection
+                : tokenCollections.forLookup(TokenStoreOperation.REVOKE_REFRESH_TOKEN, hashedToken, expiresAt)) {
+            DeleteResult result = collection.deleteOne(Filters.eq("token", hashedToken));
+            if (result.wasAcknowledged() && result.getDeletedCount() > 0) {
+                return CompletableFuture.completedFuture(null);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Queues an access token revocation.
+     *
+     * @param invalidatedToken revocation record to insert
+     * @return future completed once MongoDB acknowledges the write
+     * @author Maruf Bepary
+     */
+    public CompletableFuture<Void> revokeAccessToken(InvalidatedToken invalidatedToken) {
+        PendingWrite write = new PendingWrite(TokenStoreOperation.REVOKE_ACCESS_TOKEN,
+                invalidatedToken.getToken(), invalidatedToken, invalidatedToken.getExpiresAt(),
+                new CompletableFuture<>());
+        pendingAccessTokens.put(write.key(), write);
+        return enqueue(write);
+    }
+
+    /**
+     * Lists refresh tokens whose inserts for a user are queued but not yet acknowledged.
+     *
+     * @param username account owning the tokens
+     * @return stored token values of the pending inserts
+     * @author Maruf Bepary
+     */
+    public List<String> pendingRefreshTokenKeys(String username) {
+        List<String> keys = new ArrayList<>();
+        pendingRefreshTokens.forEach((key, write) -> {
+            if (write.operation() == TokenStoreOperation.STORE_REFRESH_TOKEN
+                    && username.equals(((RefreshToken) write.entity()).getUsername())) {
+                keys.add(key);
+            }
+        });
+        return keys;
+    }
+
+    /**
+     * Returns a refresh token whose insert is queued but not yet acknowledged.
+     *
+     * @param hashedToken stored token value to look up
+     * @return pending document, or empty when nothing is queued or a delete is queued
+     * @author Maruf Bepary
+     */
+    public Optional<RefreshToken> findPendingRefreshToken(String hashedToken) {
+        PendingWrite write = pendingRefreshTokens.get(hashedToken);
+        if (write == null || write.operation() != TokenStoreOperation.STORE_REFRESH_TOKEN) {
+            return Optional.empty();
+        }
+        return Optional.of((RefreshToken) write.entity());
+    }
+
+    /**
+     * Lists access token revocations that are queued but not yet acknowledged.
+     *
+     * @return pending revocation records
+     * @author Maruf Bepary
+     */
+    public List<InvalidatedToken> pendingAccessTokenRevocations() {
+        List<InvalidatedToken> revocations = new ArrayList<>();
+        pendingAccessTokens.values().forEach(write -> revocations.add((InvalidatedToken) write.entity()));
+        return revocations;
+    }
+
+    /**
+     * Checks whether a delete for the refresh token is queued.
+     *
+     * @param hashedToken stored token value to look up
+     * @return {@code true} when the token must already be treated as revoked
+     * @author Maruf Bepary
+     */
+    public boolean isRefreshTokenRevocationPending(String hashedToken) {
+        PendingWrite write = pendingRefreshTokens.get(hashedToken);
+        return write != null && write.operation() == TokenStoreOperation.REVOKE_REFRESH_TOKEN;
+    }
+
+    /**
+     * Checks whether a revocation for the access token is queued.
+     *
+     * @param token access token value to look up
+     * @return {@code true} when the token must already be treated as revoked
+     * @author Maruf Bepary
+     */
+    public boolean isAccessTokenRevocationPending(String token) {
+        return pendingAccessTokens.containsKey(token);
+    }
+
+    /**
+     * Adds a write to the queue, blocking when it is full so writes are never reordered or lost.
+     *
+     * @param write pending write already registered in the lookup index
+     * @return the write's acknowledgement future
+     * @author Maruf Bepary
+     */
+    private CompletableFuture<Void> enqueue(PendingWrite write) {
+        if (!running) {
+            flush(List.of(write));
+            return write.ack();
+        }
+        if (!queue.offer(write)) {
+            log.warn("Token write queue is full; blocking caller until the flusher catches up");
+            try {
+                queue.put(write);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                complete(write, e);
+            }
+        }
+        return write.ack();
+    }
+
+    /**
+     * Collects writes until the batch is full or the flush interval elapses, then flushes.
+     *
+     * @author Maruf Bepary
+     */
+    private void runFlushLoop() {
+        int batchSize = tokenStoreProperties.getWriteBehind().getBatchSize();
+        long flushIntervalNanos = tokenStoreProperties.getWriteBehind().getFlushInterval().toNanos();
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.error("Token write batch failed: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Sends one batch to MongoDB and completes each write's future.
+     * An insert and delete of the same refresh token within a batch cancel out, which
+     * also keeps the unordered bulk write free of same-key ordering hazards.
+     * Writes are grouped by collection handle, so operations with different write concerns
+     * or on different shards go out as separate bulk requests.
+     *
+     * @param batch writes to send, in queue order
+     * @author Maruf Bepary
+     */
+    private void flush(List<PendingWrite> batch) {
+        long started = System.nanoTime();
+        Map<String, PendingWrite> queuedInserts = new HashMap<>();
+        List<PendingWrite> cancelled = new ArrayList<>();
+        Map<MongoCollection<Document>, List<PendingWrite>> byCollection = new LinkedHashMap<>();
+
+        for (PendingWrite write : batch) {
+            if (write.operation() == TokenStoreOperation.REVOKE_REFRESH_TOKEN) {
+                PendingWrite insert = queuedInserts.remove(write.key());
+                if (insert != null) {
+                    byCollection.get(targets(insert).get(0)).remove(insert);
+                    cancelled.add(insert);
+                    cancelled.add(write);
+                    continue;
+                }
+            } else if (write.operation() == TokenStoreOperation.STORE_REFRESH_TOKEN) {
+                queuedInserts.put(write.key(), write);
+            }
+            List<MongoCollection<Document>> targets = targets(write);
+            if (targets.isEmpty()) {
+                // A delete whose expiry bucket cannot hold a live token has nothing to remove
+                cancelled.add(write);
+                continue;
+            }
+            for (MongoCollection<Document> target : targets) {
+                byCollection.computeIfAbsent(target, collection -> new ArrayList<>()).add(write);
+            }
+        }
+
+        byCollection.forEach(this::bulkWrite);
+        cancelled.forEach(write -> complete(write, null));
+
+        authMetrics.tokenWriteFlush(batch.size(), started);
+        log.debug("Flushed {} token writes in {} ms", batch.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    /**
+     * Resolves the collections a write goes to.
+     * Inserts land in a single collection; a refresh token delete goes to the bucket covering its expiry
+     * when known, and otherwise to every live time bucket.
+     *
+     * @param write pending write
+     * @return target collection handles
+     * @author Maruf Bepary
+     */
+    private List<MongoCollection<Document>> targets(PendingWrite write) {
+        if (write.operation() == TokenStoreOperation.REVOKE_REFRESH_TOKEN) {
+            return tokenCollections.forLookup(write.operation(), write.key(), write.expiresAt());
+        }
+        return List.of(tokenCollections.forWrite(write.operation(), write.key(), write.expiresAt()));
+    }
+
+    /**
+     * Runs an unordered bulk write for one collection and resolves the writes' futures.
+     * Duplicate access token revocations are treated as success because the end state matches.
+     *
+     * @param collection target collection handle, carrying the operation's write concern
+     * @param writes     pending writes destined for that collection
+     * @author Maruf Bepary
+     */
+    private void bulkWrite(MongoCollection<Document> collection, List<PendingWrite> writes) {
+        if (writes.isEmpty()) {
+            return;
+        }
+        String collectionName = collection.getNamespace().getCollectionName();
+        List<WriteModel<Document>> models = new ArrayList<>(writes.size());
+        for (PendingWrite write : writes) {
+            models.add(toModel(write));
+        }
+
+        try {
+            collection.bulkWrite(models, new BulkWriteOptions().ordered(false));
+            writes.forEach(write -> complete(write, null));
+        } catch (MongoBulkWriteException e) {
+            Map<Integer, BulkWriteError> errors = new HashMap<>();
+            e.getWriteErrors().forEach(error -> errors.put(error.getIndex(), error));
+            for (int i = 0; i < writes.size(); i++) {
+                PendingWrite write = writes.get(i);
+                BulkWriteError error = errors.get(i);
+                boolean failed = error != null && !(error.getCode() == DUPLICATE_KEY
+                        && write.operation() == TokenStoreOperation.REVOKE_ACCESS_TOKEN);
+                boolean concernFailed = e.getWriteConcernError() != null;
+                complete(write, failed || concernFailed ? e : null);
+            }
+            log.warn("Token bulk write to {} reported {} errors", collectionName, errors.size());
+        } catch (RuntimeException e) {
+            writes.forEach(write -> complete(write, e));
+            log.warn("Token bulk write of {} writes to {} failed: {}", writes.size(), collectionName, e.getMessage());
+        }
+    }
+
+    /**
+     * Maps a pending write to the equivalent driver write model.
+     *
+     * @param write pending write to convert
+     * @return insert or delete model for the bulk request
+     * @author Maruf Bepary
+     */
+    private WriteModel<Document> toModel(PendingWrite write) {
+        if (write.operation() == TokenStoreOperation.REVOKE_REFRESH_TOKEN) {
+            return new DeleteOneModel<>(Filters.eq("token", write.key()));
+        }
+        return new InsertOneModel<>(tokenCollections.toDocument(write.entity()));
+    }
+
+    /**
+     * Removes the write from the lookup index and completes its future.
+     * Only removes the index entry if no newer write for the same key replaced it.
+     *
+     * @param write pending write that finished
+     * @param error failure to propagate, or {@code null} on success
+     * @author Maruf Bepary
+     */
+    private void complete(PendingWrite write, Throwable error) {
+        Map<String, PendingWrite> index = write.operation() == TokenStoreOperation.REVOKE_ACCESS_TOKEN
+                ? pendingAccessTokens
+                : pendingRefreshTokens;
+        index.remove(write.key(), write);
+        if (error == null) {
+            write.ack().complete(null);
+        } else {
+            String operation = write.operation().name().toLowerCase(Locale.ROOT);
+            authMetrics.tokenWriteFailed(operation);
+            if (write.operation() != TokenStoreOperation.STORE_REFRESH_TOKEN) {
+                log.warn("Queued {} was not written and the token stays usable: {}", operation, error.getMessage());
+            }
+            write.ack().completeExceptionally(error);
+        }
+    }
+
+    /**
+     * A queued token write and the future its caller holds.
+     *
+     * @param operation kind of write
+     * @param key       hashed refresh token or raw access token identifying the document
+     * @param entity    document to insert, {@code null} for deletes
+     * @param expiresAt expiry of the document to insert, or of the token to delete when known
+     * @param ack       completed when MongoDB acknowledges the write
+     * @author Maruf Bepary
+     */
+    private record PendingWrite(TokenStoreOperation operation, String key, Object entity, Instant expiresAt,
+                                CompletableFuture<Void> ack) {
+    }
+}
@@ -1,9 +1,12 @@
 package com.maruf.oauth.util;
 
 import com.maruf.oauth.exception.InsufficientScopeException;
+import io.jsonwebtoken.Claims;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Provides helpers for reading OAuth2 attributes with predictable types.
@@ -209,4 +212,47 @@ public final class OAuth2AttributeExtractor {
             throw new InsufficientScopeException("Missing username/email - required scope may not have been granted");
         }
     }
+
+    /**
+     * Extracts OAuth2 user attributes from JWT claims, so a principal can be rebuilt from an access token.
+     * Handles type conversions for numeric IDs and ensures all claims are preserved.
+     *
+     * @param claims JWT claims containing user attributes
+     * @return map of attributes for OAuth2User reconstruction
+     * @author Maruf Bepary
+     */
+    public static Map<String, Object> fromClaims(Claims claims) {
+        Map<String, Object> attributes = new HashMap<>();
+        
+        // Handle ID with proper type conversion (GitHub uses Integer, others may use Long/String)
+        Object idClaim = claims.get("id");
+        if (idClaim instanceof Number) {
+            attributes.put("id", ((Number) idClaim).intValue());
+        } else if (idClaim != null) {
+            attributes.put("id", idClaim);
+        }
+        
+        // Add all standard claims, filtering out nulls
+        addIfNotNull(attributes, "login", claims.get("login"));
+        addIfNotNull(attributes, "name", claims.get("name"));
+        addIfNotNull(attributes, "email", claims.get("email"));
+        addIfNotNull(attributes, "avatar_url", claims.get("avatar_url"));
+        
+        return attributes;
+    }
+
+    /**
+     * Adds attribute to map only if value is not null.
+     * Prevents null values from causing issues in OAuth2User construction.
+     *
+     * @param attributes target map to add attribute to
+     * @param key        attribute key
+     * @param value      attribute value to add if not null
+     * @author Maruf Bepary
+     */
+    private static void addIfNotNull(Map<String, Object> attributes, String key, Object value) {
+        if (value != null) {
+            attributes.put(key, value);
+        }
+    }
 }
@@ -0,0 +1,138 @@
+package com.maruf.oauth.config;
+
+import com.maruf.oauth.repository.RefreshTokenRepository;
+import com.maruf.oauth.service.JwtService;
+import com.maruf.oauth.service.RefreshTokenStore;
+import com.maruf.oauth.service.TokenCollections;
+import com.maruf.oauth.service.TokenWriteBatcher;
+import com.maruf.oauth.support.TestOAuth2Users;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that tokens close to expiry are renewed once per presented token, only while their session lives,
+ * and that renewal can be turned off.
+ */
+@DataMongoTest
+@Import({RefreshTokenStore.class, RefreshTokenSecurityProperties.class, TokenWriteBatcher.class, TokenStoreProperties.class,
+        TokenCollections.class, AuthMetrics.class})
+@ActiveProfiles("test")
+class AccessTokenRenewalTest {
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AccessTokenRenewalProperties properties = new AccessTokenRenewalProperties();
+    private JwtService jwtService;
+    private AccessTokenRenewal renewal;
+    private OAuth2User user;
+    private String refreshToken;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(new AuthMetrics(registry));
+        ReflectionTestUtils.setField(jwtService, "secret",
+                "very-long-test-secret-key-for-jwt-signing-should-be-strong-1234567890");
+        ReflectionTestUtils.setField(jwtService, "accessTokenExpiration", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshTokenExpiration", 604800000L);
+
+        CookieSecurityProperties cookies = new CookieSecurityProperties();
+        cookies.setSameSite("Lax");
+        properties.setEnabled(true);
+        renewal = new AccessTokenRenewal(properties, jwtService, refreshTokenStore, new HttpCookieFactory(cookies),
+                new AuthMetrics(registry));
+        ReflectionTestUtils.setField(renewal, "accessTokenExpiration", 60_000L);
+
+        user = TestOAuth2Users.withAttributes(Map.of("id", 1, "login", "octocat", "name", "Octo Cat"));
+        refreshToken = jwtService.generateRefreshToken("octocat");
+        refreshTokenStore.storeRefreshToken(refreshToken, "octocat", jwtService.getExpirationDate(refreshToken).toInstant());
+    }
+
+    @AfterEach
+    void tearDown() {
+        refreshTokenRepository.deleteAll();
+    }
+
+    @Test
+    void reissuesOneTokenPerPresentedTokenWithinWindow() {
+        Claims claims = jwtService.extractAllClaims(jwtService.generateAccessToken(user));
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        renewal.renewIfExpiring(claims, user, refreshToken, first);
+        renewal.renewIfExpiring(claims, user, refreshToken, second);
+
+        assertThat(first.getCookie("jwt")).isNotNull();
+        String renewed = first.getCookie("jwt").getValue();
+        assertThat(second.getCookie("jwt").getValue()).isEqualTo(renewed);
+        assertThat(jwtService.extractAllClaims(renewed).getId()).isNotEqualTo(claims.getId());
+        assertThat(jwtService.extractUsername(renewed)).isEqualTo("octocat");
+        assertThat(registry.get("auth.token.renewals").tag("result", "reissued").counter().count()).isEqualTo(1);
+        assertThat(registry.get("auth.token.renewals").tag("result", "reused").counter().count()).isEqualTo(1);
+        assertThat(renewal.forget(claims.getId()).token()).isEqualTo(renewed);
+    }
+
+    @Test
+    void leavesTokensOutsideWindowOrWhenDisabled() {
+        Claims claims = jwtService.extractAllClaims(jwtService.generateAccessToken(user));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        properties.setWindow(Duration.ofSeconds(10));
+        renewal.renewIfExpiring(claims, user, refreshToken, response);
+        properties.setWindow(Duration.ofMinutes(2));
+        properties.setEnabled(false);
+        renewal.renewIfExpiring(claims, user, refreshToken, response);
+
+        assertThat(response.getCookie("jwt")).isNull();
+        assertThat(renewal.forget(claims.getId())).isNull();
+    }
+
+    @Test
+    void stopsRenewingOnceSessionsAreInvalidated() {
+        Claims claims = jwtService.extractAllClaims(jwtService.generateAccessToken(user));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        refreshTokenStore.invalidateAllRefreshTokens("octocat");
+        renewal.renewIfExpiring(claims, user, refreshToken, response);
+        renewal.renewIfExpiring(claims, user, null, response);
+
+        assertThat(response.getCookie("jwt")).isNull();
+        assertThat(renewal.forget(claims.getId())).isNull();
+        assertThat(registry.get("auth.token.renewals").tag("result", "no_session").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void capsSuccessorAtRefreshTokenExpiry() {
+        Claims claims = jwtService.extractAllClaims(jwtService.generateAccessToken(user));
+        ReflectionTestUtils.setField(jwtService, "refreshTokenExpiration", 30_000L);
+        String shortLived = jwtService.generateRefreshToken("octocat");
+        Instant sessionExpiry = jwtService.getExpirationDate(shortLived).toInstant();
+        refreshTokenStore.storeRefreshToken(shortLived, "octocat", sessionExpiry);
+
+        Instant renewedExpiry = renewal.renewIfExpiring(claims, user, shortLived, new MockHttpServletResponse());
+
+        assertThat(renewedExpiry).isEqualTo(sessionExpiry);
+        assertThat(jwtService.getExpirationDate(renewal.forget(claims.getId()).token()).toInstant())
+                .isBeforeOrEqualTo(sessionExpiry);
+    }
+}
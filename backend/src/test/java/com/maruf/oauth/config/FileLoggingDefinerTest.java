@@ -0,0 +1,23 @@
+package com.maruf.oauth.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks file logging is enabled only for a configured log file.
+ */
+class FileLoggingDefinerTest {
+
+    @Test
+    void enablesFileLoggingOnlyWhenALogFileIsSet() {
+        FileLoggingDefiner definer = new FileLoggingDefiner();
+        assertThat(definer.getPropertyValue()).isEqualTo("disabled");
+
+        definer.setFile("");
+        assertThat(definer.getPropertyValue()).isEqualTo("disabled");
+
+        definer.setFile("/var/log/oauth/app.log");
+        assertThat(definer.getPropertyValue()).isEqualTo("enabled");
+    }
+}
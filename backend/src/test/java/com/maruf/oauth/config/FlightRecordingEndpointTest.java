@@ -0,0 +1,68 @@
+package com.maruf.oauth.config;
+
+import com.maruf.oauth.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs a recording through the endpoint and reads the authentication events back from the returned file.
+ */
+class FlightRecordingEndpointTest {
+
+    private final FlightRecordingProperties properties = new FlightRecordingProperties();
+    private final FlightRecordingEndpoint endpoint = new FlightRecordingEndpoint(properties);
+
+    @AfterEach
+    void tearDown() {
+        endpoint.close();
+    }
+
+    @Test
+    void recordsVerificationEventsAndStreamsThemBack() throws Exception {
+        JwtService jwtService = new JwtService(new AuthMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(jwtService, "secret",
+                "very-long-test-secret-key-for-jwt-signing-should-be-strong-1234567890");
+
+        WebEndpointResponse<Map<String, Object>> started = endpoint.start(Duration.ofSeconds(30), null);
+        assertThat(started.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        assertThat(started.getBody()).containsEntry("state", "RUNNING");
+        jwtService.verify("not-a-jwt", "access");
+
+        WebEndpointResponse<Resource> stopped = endpoint.stop();
+        assertThat(stopped.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(stopped.getBody().getFile().toPath());
+        assertThat(events)
+                .filteredOn(event -> event.getEventType().getName().equals("com.maruf.oauth.AuthStage"))
+                .anySatisfy(event -> {
+                    assertThat(event.getString("stage")).isEqualTo("verify");
+                    assertThat(event.getString("tokenType")).isEqualTo("access");
+                    assertThat(event.getString("outcome")).isEqualTo("malformed");
+                });
+        assertThat(endpoint.status()).containsEntry("state", "NONE");
+    }
+
+    @Test
+    void boundsRecordingsAndAllowsOneAtATime() throws Exception {
+        properties.setMaxDuration(Duration.ofSeconds(10));
+
+        assertThat(endpoint.start(Duration.ofHours(1), "default").getBody())
+                .containsEntry("duration", Duration.ofSeconds(10).toString());
+        assertThat(endpoint.start(null, null).getStatus()).isEqualTo(WebEndpointResponse.STATUS_CONFLICT);
+        assertThat(endpoint.stop().getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+
+        assertThat(endpoint.start(null, "everything").getStatus()).isEqualTo(WebEndpointResponse.STATUS_BAD_REQUEST);
+        assertThat(endpoint.stop().getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+}
@@ -0,0 +1,99 @@
+package com.maruf.oauth.config;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Holds hot endpoints to a budget of MongoDB round trips per request, so extra queries show up as test failures.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MongoCommandBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Cookie accessToken;
+    private Cookie refreshToken;
+
+    @BeforeEach
+    void signUp() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/signup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"budget-" + UUID.randomUUID() + "@example.com\","
+                                + "\"password\":\"budget-password\",\"name\":\"Budget Test\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        accessToken = result.getResponse().getCookie("jwt");
+        refreshToken = result.getResponse().getCookie("refresh_token");
+    }
+
+    @Test
+    void publicHealthDoesNotTouchMongo() throws Exception {
+        MongoCommandCounts counts = perform(get("/api/public/health"));
+
+        assertThat(counts.total()).as("commands %s", counts).isZero();
+    }
+
+    @Test
+    void userEndpointReadsAtMostOnce() throws Exception {
+        MongoCommandCounts counts = perform(get("/api/user").cookie(accessToken));
+
+        assertThat(counts.reads()).as("reads %s", counts).isLessThanOrEqualTo(1);
+        assertThat(counts.writes()).as("writes %s", counts).isZero();
+    }
+
+    @Test
+    void protectedDataReadsOnePageInOneQuery() throws Exception {
+        MongoCommandCounts counts = perform(get("/api/protected/data").cookie(accessToken));
+
+        // The revocation check plus a single keyset query for the page, with no count or getMore
+        assertThat(counts.reads()).as("reads %s", counts).isLessThanOrEqualTo(2);
+        assertThat(counts.writes()).as("writes %s", counts).isZero();
+    }
+
+    @Test
+    void refreshReadsAndWritesAtMostOnce() throws Exception {
+        MvcResult first = mockMvc.perform(post("/api/auth/refresh").cookie(refreshToken))
+                .andExpect(status().isOk())
+                .andReturn();
+        MongoCommandCounts counts = counts(first);
+        assertThat(counts.reads()).as("reads %s", counts).isLessThanOrEqualTo(1);
+        assertThat(counts.writes()).as("writes %s", counts).isLessThanOrEqualTo(1);
+        assertThat(counts.total()).as("commands %s", counts).isLessThanOrEqualTo(2);
+
+        Cookie rotated = first.getResponse().getCookie("refresh_token");
+        assertThat(rotated.getValue()).isNotEqualTo(refreshToken.getValue());
+        mockMvc.perform(post("/api/auth/refresh").cookie(refreshToken))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/auth/refresh").cookie(rotated))
+                .andExpect(status().isOk());
+    }
+
+    private MongoCommandCounts perform(RequestBuilder request) throws Exception {
+        return counts(mockMvc.perform(request).andExpect(status().isOk()).andReturn());
+    }
+
+    private static MongoCommandCounts counts(MvcResult result) {
+        Object counts = result.getRequest().getAttribute(MongoCommandCounts.REQUEST_ATTRIBUTE);
+        assertThat(counts).as("MongoDB command counts").isInstanceOf(MongoCommandCounts.class);
+        return (MongoCommandCounts) counts;
+    }
+}
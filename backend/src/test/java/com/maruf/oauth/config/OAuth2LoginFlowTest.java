@@ -0,0 +1,111 @@
+package com.maruf.oauth.config;
+
+import com.maruf.oauth.support.StubOAuthProvider;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Drives the full OAuth2 login round trip against a local stub provider and checks that
+ * no HTTP session is created along the way.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OAuth2LoginFlowTest {
+
+    private static final StubOAuthProvider PROVIDER = StubOAuthProvider.start();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void providerProperties(DynamicPropertyRegistry registry) {
+        PROVIDER.register(registry);
+    }
+
+    @AfterAll
+    static void stopProvider() {
+        PROVIDER.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"github", "azure"})
+    void completesLoginWithoutCreatingSession(String registrationId) throws Exception {
+        MvcResult authorization = mockMvc.perform(get("/oauth2/authorization/" + registrationId))
+                .andExpect(status().is3xxRedirection())
+                .andReturn();
+        assertThat(authorization.getRequest().getSession(false)).isNull();
+
+        Cookie requestCookie = authorization.getResponse().getCookie(CookieOAuth2AuthorizationRequestRepository.COOKIE_NAME);
+        assertThat(requestCookie).isNotNull();
+        assertThat(requestCookie.getValue()).isNotBlank();
+
+        MultiValueMap<String, String> query = UriComponentsBuilder
+                .fromUriString(authorization.getResponse().getHeader(HttpHeaders.LOCATION))
+                .build()
+                .getQueryParams();
+        String state = UriUtils.decode(query.getFirst("state"), StandardCharsets.UTF_8);
+        String nonce = query.getFirst("nonce") == null ? null : UriUtils.decode(query.getFirst("nonce"), StandardCharsets.UTF_8);
+        String code = PROVIDER.approve(nonce);
+
+        MvcResult callback = mockMvc.perform(get("/login/oauth2/code/" + registrationId)
+                        .param("code", code)
+                        .param("state", state)
+                        .cookie(requestCookie))
+                .andExpect(status().is3xxRedirection())
+                .andReturn();
+
+        assertThat(callback.getRequest().getSession(false)).isNull();
+        assertThat(callback.getResponse().getRedirectedUrl()).isEqualTo("http://localhost:3000/dashboard");
+        assertThat(callback.getResponse().getCookie("jwt")).isNotNull();
+        assertThat(callback.getResponse().getCookie(CookieOAuth2AuthorizationRequestRepository.COOKIE_NAME).getMaxAge())
+                .isZero();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"github", "azure"})
+    void rejectsCallbackWithTamperedRequestCookie(String registrationId) throws Exception {
+        MvcResult authorization = mockMvc.perform(get("/oauth2/authorization/" + registrationId)).andReturn();
+        Cookie requestCookie = authorization.getResponse().getCookie(CookieOAuth2AuthorizationRequestRepository.COOKIE_NAME);
+        String state = UriComponentsBuilder
+                .fromUriString(authorization.getResponse().getHeader(HttpHeaders.LOCATION))
+                .build()
+                .getQueryParams()
+                .getFirst("state");
+        String value = requestCookie.getValue();
+        int middle = value.length() / 2;
+        char flipped = value.charAt(middle) == 'A' ? 'B' : 'A';
+        Cookie tampered = new Cookie(requestCookie.getName(),
+                value.substring(0, middle) + flipped + value.substring(middle + 1));
+
+        MvcResult callback = mockMvc.perform(get("/login/oauth2/code/" + registrationId)
+                        .param("code", PROVIDER.approve(null))
+                        .param("state", UriUtils.decode(state, StandardCharsets.UTF_8))
+                        .cookie(tampered))
+                .andExpect(status().is3xxRedirection())
+                .andReturn();
+
+        assertThat(callback.getResponse().getRedirectedUrl()).isEqualTo("http://localhost:3000/?error=auth_failed");
+        assertThat(callback.getResponse().getCookie("jwt")).isNull();
+    }
+}
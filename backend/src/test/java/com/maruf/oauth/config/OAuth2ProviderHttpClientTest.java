@@ -0,0 +1,206 @@
+package com.maruf.oauth.config;
+
+import com.maruf.oauth.support.StubOAuthProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "app.security.oauth2.http-client.read-timeout=1s",
+        "app.security.oauth2.http-client.max-concurrent-requests=1",
+        "app.security.oauth2.http-client.bulkhead-wait=50ms"
+})
+class OAuth2ProviderHttpClientTest {
+
+    private static final StubOAuthProvider PROVIDER = StubOAuthProvider.start();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OAuth2ProviderHttpClient providerHttpClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @SpyBean
+    private LazyClientRegistrationRepository clientRegistrationRepository;
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @DynamicPropertySource
+    static void providerProperties(DynamicPropertyRegistry registry) {
+        PROVIDER.register(registry);
+    }
+
+    @AfterEach
+    void resetLatency() {
+        PROVIDER.setLatency(Duration.ZERO);
+    }
+
+    @AfterAll
+    static void stopProvider() {
+        PROVIDER.close();
+    }
+
+    @Test
+    void loginCallsAreTimedPerRegistrationAndEndpoint() throws Exception {
+        MvcResult authorization = mockMvc.perform(get("/oauth2/authorization/github")).andReturn();
+        String state = UriComponentsBuilder
+                .fromUriString(authorization.getResponse().getHeader(HttpHeaders.LOCATION))
+                .build()
+                .getQueryParams()
+                .getFirst("state");
+        Cookie requestCookie = authorization.getResponse().getCookie(CookieOAuth2AuthorizationRequestRepository.COOKIE_NAME);
+
+        mockMvc.perform(get("/login/oauth2/code/github")
+                .param("code", PROVIDER.approve(null))
+                .param("state", UriUtils.decode(state, StandardCharsets.UTF_8))
+                .cookie(requestCookie));
+
+        assertThat(meterRegistry.get(OAuth2ProviderHttpClient.METRIC_NAME)
+                .tags("registration_id", "github", "endpoint", "token", "outcome", "SUCCESS")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(OAuth2ProviderHttpClient.METRIC_NAME)
+                .tags("registration_id", "github", "endpoint", "user_info", "outcome", "SUCCESS")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondTheRegistrationLimit() throws Exception {
+        PROVIDER.setLatency(Duration.ofMillis(400));
+        RestTemplate restTemplate = providerHttpClient.restTemplate();
+        String userInfoUri = PROVIDER.baseUrl() + "/github/user";
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<String>> calls = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                calls.add(executor.submit(() -> restTemplate.getForObject(userInfoUri, String.class)));
+            }
+            int rejected = 0;
+            for (Future<String> call : calls) {
+                try {
+                    call.get(5, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(ResourceAccessException.class);
+                    rejected++;
+                }
+            }
+            assertThat(rejected).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(meterRegistry.get(OAuth2ProviderHttpClient.METRIC_NAME)
+                .tags("registration_id", "github", "outcome", "REJECTED")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void holdsPermitUntilResponseIsClosed() {
+        RestTemplate restTemplate = providerHttpClient.restTemplate();
+        String userInfoUri = PROVIDER.baseUrl() + "/github/user";
+
+        String nested = restTemplate.execute(userInfoUri, HttpMethod.GET, null, response -> {
+            try {
+                return restTemplate.getForObject(userInfoUri, String.class);
+            } catch (ResourceAccessException e) {
+                return "rejected";
+            }
+        });
+
+        assertThat(nested).isEqualTo("rejected");
+        assertThat(restTemplate.getForObject(userInfoUri, String.class)).isNotNull();
+    }
+
+    @Test
+    void tagsUnconfiguredUrisWithoutTheirHost() {
+        RestTemplate restTemplate = providerHttpClient.restTemplate();
+        long before = unknownCalls();
+
+        restTemplate.getForObject(PROVIDER.baseUrl() + StubOAuthProvider.AZURE_DISCOVERY_PATH, String.class);
+
+        assertThat(unknownCalls()).isEqualTo(before + 1);
+        assertThat(meterRegistry.find(OAuth2ProviderHttpClient.METRIC_NAME)
+                .tag("registration_id", "127.0.0.1")
+                .timer()).isNull();
+    }
+
+    @Test
+    void remembersUnconfiguredUrisUntilRegistrationsChange() {
+        RestTemplate restTemplate = providerHttpClient.restTemplate();
+        String unconfigured = PROVIDER.baseUrl() + StubOAuthProvider.AZURE_DISCOVERY_PATH;
+        clearInvocations(clientRegistrationRepository);
+
+        for (int i = 0; i < 5; i++) {
+            restTemplate.getForObject(unconfigured, String.class);
+        }
+
+        verify(clientRegistrationRepository, atMost(1)).iterator();
+    }
+
+    @Test
+    void slowProviderHitsReadDeadline() {
+        PROVIDER.setLatency(Duration.ofMillis(1500));
+        RestTemplate restTemplate = providerHttpClient.restTemplate();
+
+        assertThatThrownBy(() -> restTemplate.getForObject(PROVIDER.baseUrl() + "/github/user", String.class))
+                .isInstanceOf(ResourceAccessException.class);
+    }
+
+    private long unknownCalls() {
+        Timer timer = meterRegistry.find(OAuth2ProviderHttpClient.METRIC_NAME)
+                .tags("registration_id", "unknown", "endpoint", "other")
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
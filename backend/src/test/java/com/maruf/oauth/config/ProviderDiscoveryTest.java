@@ -0,0 +1,167 @@
+package com.maruf.oauth.config;
+
+import com.maruf.oauth.support.StubOAuthProvider;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that issuer-based registrations start without contacting the provider, discover their
+ * endpoints on first login, and keep working from the on-disk cache when the provider is offline.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProviderDiscoveryTest {
+
+    private static final StubOAuthProvider PROVIDER = StubOAuthProvider.start();
+    private static final Path CACHE_DIR = createCacheDir();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OAuth2ProviderHttpClient providerHttpClient;
+
+    @DynamicPropertySource
+    static void providerProperties(DynamicPropertyRegistry registry) {
+        PROVIDER.register(registry);
+        PROVIDER.registerAzureIssuer(registry);
+        registry.add("app.security.oauth2.discovery.cache-dir", CACHE_DIR::toString);
+    }
+
+    @AfterAll
+    static void stopProvider() {
+        PROVIDER.close();
+    }
+
+    @Test
+    void discoversIssuerOnFirstLoginAndReusesCachedDocuments() throws Exception {
+        assertThat(PROVIDER.requestCount(StubOAuthProvider.AZURE_DISCOVERY_PATH)).isZero();
+
+        mockMvc.perform(get("/api/auth/providers"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].key", hasItem("azure")))
+                .andExpect(jsonPath("$[*].name", hasItem("Microsoft Entra ID")));
+        assertThat(PROVIDER.requestCount(StubOAuthProvider.AZURE_DISCOVERY_PATH)).isZero();
+
+        int jwksRequests = PROVIDER.requestCount("/azure/jwks");
+        login();
+        login();
+
+        assertThat(PROVIDER.requestCount(StubOAuthProvider.AZURE_DISCOVERY_PATH)).isEqualTo(1);
+        assertThat(PROVIDER.requestCount("/azure/jwks")).isEqualTo(jwksRequests + 1);
+        try (Stream<Path> files = Files.list(CACHE_DIR)) {
+            assertThat(files.filter(file -> file.toString().endsWith(".json"))).hasSize(2);
+        }
+    }
+
+    @Test
+    void servesPersistedDocumentWhenProviderIsUnreachable(@TempDir Path cacheDir) {
+        OAuth2DiscoveryProperties properties = new OAuth2DiscoveryProperties();
+        properties.setCacheDir(cacheDir.toString());
+        String jwksUri = PROVIDER.azureIssuer() + "/jwks";
+
+        ProviderMetadataCache online = new ProviderMetadataCache(properties, clientProvider(providerHttpClient));
+        Map<String, Object> fetched = online.get(jwksUri, Duration.ofHours(1));
+
+        ProviderMetadataCache offline = new ProviderMetadataCache(properties, clientProvider(null));
+        assertThat(offline.get(jwksUri, Duration.ofHours(1))).isEqualTo(fetched);
+        assertThat(offline.get(jwksUri, Duration.ZERO)).isEqualTo(fetched);
+
+        online.close();
+        offline.close();
+    }
+
+    @Test
+    void ignoresCacheFilesOtherUsersCanWrite(@TempDir Path cacheDir) throws IOException {
+        assumeTrue(cacheDir.getFileSystem().supportedFileAttributeViews().contains("posix"));
+        OAuth2DiscoveryProperties properties = new OAuth2DiscoveryProperties();
+        properties.setCacheDir(cacheDir.toString());
+        String jwksUri = PROVIDER.azureIssuer() + "/jwks";
+
+        ProviderMetadataCache online = new ProviderMetadataCache(properties, clientProvider(providerHttpClient));
+        online.get(jwksUri, Duration.ofHours(1));
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            Path file = files.filter(candidate -> candidate.toString().endsWith(".json")).findFirst().orElseThrow();
+            assertThat(Files.getPosixFilePermissions(file)).doesNotContain(PosixFilePermission.OTHERS_WRITE);
+            Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-rw-rw-"));
+        }
+
+        ProviderMetadataCache offline = new ProviderMetadataCache(properties, clientProvider(null));
+        assertThatThrownBy(() -> offline.get(jwksUri, Duration.ofHours(1))).isInstanceOf(RuntimeException.class);
+
+        online.close();
+        offline.close();
+    }
+
+    private void login() throws Exception {
+        MvcResult authorization = mockMvc.perform(get("/oauth2/authorization/azure"))
+                .andExpect(status().is3xxRedirection())
+                .andReturn();
+        String location = authorization.getResponse().getHeader(HttpHeaders.LOCATION);
+        assertThat(location).startsWith(PROVIDER.azureIssuer() + "/authorize");
+
+        MultiValueMap<String, String> query = UriComponentsBuilder.fromUriString(location).build().getQueryParams();
+        Cookie requestCookie = authorization.getResponse().getCookie(CookieOAuth2AuthorizationRequestRepository.COOKIE_NAME);
+        String code = PROVIDER.approve(UriUtils.decode(query.getFirst("nonce"), StandardCharsets.UTF_8));
+
+        MvcResult callback = mockMvc.perform(get("/login/oauth2/code/azure")
+                        .param("code", code)
+                        .param("state", UriUtils.decode(query.getFirst("state"), StandardCharsets.UTF_8))
+                        .cookie(requestCookie))
+                .andExpect(status().is3xxRedirection())
+                .andReturn();
+        assertThat(callback.getResponse().getRedirectedUrl()).isEqualTo("http://localhost:3000/dashboard");
+    }
+
+    private static ObjectProvider<OAuth2ProviderHttpClient> clientProvider(OAuth2ProviderHttpClient client) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        if (client != null) {
+            beanFactory.registerSingleton("providerHttpClient", client);
+        }
+        return beanFactory.getBeanProvider(OAuth2ProviderHttpClient.class);
+    }
+
+    private static Path createCacheDir() {
+        try {
+            return Files.createTempDirectory("oauth2-provider-cache");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.maruf.oauth.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import ch.qos.logback.core.util.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives a private logger context to check marked repeated warnings are capped and later summarised.
+ */
+class RepeatedLogFilterTest {
+
+    private final RepeatedLogFilter filter = new RepeatedLogFilter();
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private Logger logger;
+
+    @AfterEach
+    void tearDown() {
+        filter.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        LoggerContext context = new LoggerContext();
+        filter.setMaxPerWindow(3);
+        filter.setWindow(Duration.buildBySeconds(1));
+        filter.start();
+        context.addTurboFilter(filter);
+        appender.setContext(context);
+        appender.start();
+        logger = context.getLogger("repeated");
+        logger.addAppender(appender);
+    }
+
+    @Test
+    void capsRepeatsAndReportsHowManyWereSuppressed() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            logger.warn(LogMarkers.RATE_LIMITED, "Invalid JWT token: {}", "garbage-" + i);
+        }
+        logger.error(LogMarkers.RATE_LIMITED, "Different message");
+        logger.info("Routine message {}", 1);
+        logger.info("Routine message {}", 2);
+        logger.info("Routine message {}", 3);
+        logger.info("Routine message {}", 4);
+
+        assertThat(appender.list).hasSize(3 + 1 + 4);
+
+        Thread.sleep(1100);
+        logger.warn(LogMarkers.RATE_LIMITED, "Invalid JWT token: {}", "garbage-again");
+
+        assertThat(appender.list.subList(8, 10))
+                .extracting(ILoggingEvent::getFormattedMessage)
+                .containsExactly("Suppressed 47 repeats of \"Invalid JWT token: {}\" in the last 1 s",
+                        "Invalid JWT token: garbage-again");
+    }
+
+    @Test
+    void reportsSuppressedRepeatsWhenTheMessageStops() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            logger.warn(LogMarkers.RATE_LIMITED, "Invalid JWT token: {}", "garbage-" + i);
+        }
+
+        Thread.sleep(2500);
+
+        assertThat(appender.list)
+                .extracting(ILoggingEvent::getFormattedMessage)
+                .endsWith("Suppressed 2 repeats of \"Invalid JWT token: {}\" in the last 1 s");
+    }
+
+    @Test
+    void leavesUnmarkedWarningsAlone() {
+        for (int i = 0; i < 10; i++) {
+            logger.warn("Token bulk write reported {} errors", i);
+        }
+
+        assertThat(appender.list).hasSize(10);
+    }
+}
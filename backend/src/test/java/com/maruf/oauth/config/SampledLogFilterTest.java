@@ -0,0 +1,37 @@
+package com.maruf.oauth.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks only marked events are sampled.
+ */
+class SampledLogFilterTest {
+
+    @Test
+    void writesOneInRateMarkedEvents() {
+        LoggerContext context = new LoggerContext();
+        SampledLogFilter filter = new SampledLogFilter();
+        filter.setRate(10);
+        filter.start();
+        context.addTurboFilter(filter);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.setContext(context);
+        appender.start();
+        Logger logger = context.getLogger("sampled");
+        logger.addAppender(appender);
+
+        for (int i = 0; i < 100; i++) {
+            logger.info(LogMarkers.SAMPLED, "User info requested for: {}", i);
+            logger.info("Unmarked {}", i);
+        }
+
+        assertThat(appender.list).filteredOn(event -> event.getFormattedMessage().startsWith("User info")).hasSize(10);
+        assertThat(appender.list).filteredOn(event -> event.getFormattedMessage().startsWith("Unmarked")).hasSize(100);
+    }
+}
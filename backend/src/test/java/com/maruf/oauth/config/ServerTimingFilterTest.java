@@ -0,0 +1,56 @@
+package com.maruf.oauth.config;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the header is written before the body commits the response and only lists stages that ran.
+ */
+class ServerTimingFilterTest {
+
+    private final ServerTimingFilter filter = new ServerTimingFilter();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(filter, "frontendUrl", "http://localhost:3000");
+    }
+
+    @Test
+    void writesStagesBeforeTheBodyIsCommitted() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/user"), response, (req, res) -> {
+            ServerTiming.record(ServerTiming.Stage.VERIFY, System.nanoTime() - 1_500_000);
+            ServerTiming.record(ServerTiming.Stage.MONGO, System.nanoTime());
+            ServerTiming.record(ServerTiming.Stage.MONGO, System.nanoTime());
+            ServerTiming.begin(ServerTiming.Stage.CONTROLLER);
+            res.getWriter().write("{}");
+            res.flushBuffer();
+            res.getWriter().write("ignored by the header");
+        });
+
+        String header = response.getHeader(ServerTimingFilter.HEADER);
+        assertThat(header)
+                .matches("jwt;dur=\\d+\\.\\d{2};desc=\"JWT verification\", "
+                        + "mongo;dur=\\d+\\.\\d{2};desc=\"Token store\", "
+                        + "app;dur=\\d+\\.\\d{2};desc=\"Controller\", total;dur=\\d+\\.\\d{2}");
+        assertThat(Double.parseDouble(header.substring(8, header.indexOf(';', 8)))).isGreaterThanOrEqualTo(1.5);
+        assertThat(response.getHeader("Timing-Allow-Origin")).isEqualTo("http://localhost:3000");
+    }
+
+    @Test
+    void writesHeaderForResponsesThatNeverFlush() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/public/health"), response,
+                (req, res) -> ((HttpServletResponse) res).setStatus(204));
+
+        assertThat(response.getHeader(ServerTimingFilter.HEADER)).matches("total;dur=\\d+\\.\\d{2}");
+    }
+}
@@ -0,0 +1,57 @@
+package com.maruf.oauth.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that token-scoped endpoints get a weak ETag bound to the token and skip the controller on a match.
+ */
+class TokenEtagFilterTest {
+
+    private final TokenEtagFilter filter = new TokenEtagFilter();
+
+    @Test
+    void answersMatchingRequestWithoutRunningTheController() throws Exception {
+        AtomicInteger controllerCalls = new AtomicInteger();
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(authenticated("/api/user"), first, (req, res) -> controllerCalls.incrementAndGet());
+
+        assertThat(first.getHeader(HttpHeaders.ETAG)).isEqualTo("W/\"token-id\"");
+        assertThat(first.getHeader(HttpHeaders.CACHE_CONTROL)).matches("max-age=(59\\d|600), private");
+        assertThat(first.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.COOKIE);
+
+        MockHttpServletRequest revalidation = authenticated("/api/user");
+        revalidation.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", \"token-id\"");
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        filter.doFilter(revalidation, second, (req, res) -> controllerCalls.incrementAndGet());
+
+        assertThat(second.getStatus()).isEqualTo(304);
+        assertThat(second.getContentLength()).isZero();
+        assertThat(controllerCalls).hasValue(1);
+    }
+
+    @Test
+    void leavesAnonymousAndOtherRequestsAlone() throws Exception {
+        MockHttpServletResponse anonymous = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/auth/status"), anonymous, (req, res) -> { });
+        MockHttpServletResponse otherPath = new MockHttpServletResponse();
+        filter.doFilter(authenticated("/api/protected/data"), otherPath, (req, res) -> { });
+
+        assertThat(anonymous.getHeader(HttpHeaders.ETAG)).isNull();
+        assertThat(otherPath.getHeader(HttpHeaders.ETAG)).isNull();
+    }
+
+    private static MockHttpServletRequest authenticated(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setAttribute(JwtAuthenticationFilter.ACCESS_TOKEN_ID, "token-id");
+        request.setAttribute(JwtAuthenticationFilter.ACCESS_TOKEN_EXPIRES_AT, Instant.now().plusSeconds(600));
+        return request;
+    }
+}
@@ -4,21 +4,32 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.maruf.oauth.config.JwtAuthenticationFilter;
 import com.maruf.oauth.dto.ActionRequest;
 import com.maruf.oauth.dto.ProtectedDataResponse;
+import com.maruf.oauth.dto.ProtectedItemResponse;
 import com.maruf.oauth.dto.UserResponse;
+import com.maruf.oauth.entity.ProtectedItem;
+import com.maruf.oauth.service.ProtectedItemService;
 import com.maruf.oauth.support.TestOAuth2Users;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
 import org.springframework.http.MediaType;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -37,6 +48,9 @@ class ApiControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @MockBean
+    private ProtectedItemService protectedItemService;
+
     @Test
     void publicHealthEndpointResponds() throws Exception {
         mockMvc.perform(get("/api/public/health"))
@@ -61,7 +75,7 @@ class ApiControllerTest {
                 "avatar_url", "http://example.com/avatar.png"
         ));
 
-        ApiController controller = new ApiController();
+        ApiController controller = new ApiController(protectedItemService, objectMapper);
         UserResponse response = controller.getUser(principal).getBody();
 
         assertThat(response).isNotNull();
@@ -74,6 +88,9 @@ class ApiControllerTest {
         mockMvc.perform(get("/api/protected/data"))
                 .andExpect(status().isUnauthorized());
 
+        mockMvc.perform(get("/api/protected/data/stream"))
+                .andExpect(status().isUnauthorized());
+
         mockMvc.perform(post("/api/protected/action")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(Map.of("action", "demo"))))
@@ -89,12 +106,18 @@ class ApiControllerTest {
                 "email", "octo@example.com"
         ));
 
-        ApiController controller = new ApiController();
+        ApiController controller = new ApiController(protectedItemService, objectMapper);
+        when(protectedItemService.findPage("octocat", null, null, null)).thenReturn(new ProtectedItemService.Page(
+                List.of(item("65a000000000000000000001", "Item 1"), item("65a000000000000000000002", "Item 2")),
+                "65a000000000000000000002"));
 
-        ProtectedDataResponse dataResponse = controller.getProtectedData(principal).getBody();
+        ProtectedDataResponse dataResponse = controller.getProtectedData(principal, null, null, null).getBody();
         assertThat(dataResponse).isNotNull();
         assertThat(dataResponse.getUser()).isEqualTo("octocat");
-        assertThat(dataResponse.getData().getItems()).isNotEmpty();
+        assertThat(dataResponse.getData().getItems()).extracting(ProtectedItemResponse::getName)
+                .containsExactly("Item 1", "Item 2");
+        assertThat(dataResponse.getData().getCount()).isEqualTo(2);
+        assertThat(dataResponse.getData().getNextCursor()).isEqualTo("65a000000000000000000002");
 
         ActionRequest request = new ActionRequest();
         request.setAction("demo-action");
@@ -103,4 +126,29 @@ class ApiControllerTest {
         assertThat(actionResponse.getUser()).isEqualTo("octocat");
         assertThat(actionResponse.getAction()).isEqualTo("demo-action");
     }
+
+    @Test
+    void streamsProtectedItemsAsNdjsonAndReleasesTheCursor() throws Exception {
+        OAuth2User principal = TestOAuth2Users.withAttributes(Map.of("id", "1", "login", "octocat"));
+        AtomicBoolean closed = new AtomicBoolean();
+        when(protectedItemService.stream("octocat", List.of("name"))).thenReturn(Stream.of(
+                ProtectedItem.builder().id("65a000000000000000000001").name("Item 1").build(),
+                ProtectedItem.builder().id("65a000000000000000000002").name("Item 2").build())
+                .onClose(() -> closed.set(true)));
+
+        ApiController controller = new ApiController(protectedItemService, objectMapper);
+        var response = controller.streamProtectedData(principal, List.of("name"));
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        response.getBody().writeTo(body);
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        assertThat(body.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "{\"id\":\"65a000000000000000000001\",\"name\":\"Item 1\"}\n"
+                        + "{\"id\":\"65a000000000000000000002\",\"name\":\"Item 2\"}\n");
+        assertThat(closed).isTrue();
+    }
+
+    private static ProtectedItem item(String id, String name) {
+        return ProtectedItem.builder().id(id).name(name).createdAt(Instant.now()).build();
+    }
 }
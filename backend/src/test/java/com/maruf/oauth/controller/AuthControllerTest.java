@@ -1,13 +1,25 @@
 package com.maruf.oauth.controller;
 
+import com.maruf.oauth.config.AccessTokenRenewal;
+import com.maruf.oauth.config.AccessTokenRenewalProperties;
+import com.maruf.oauth.config.AuthMetrics;
 import com.maruf.oauth.config.CookieSecurityProperties;
 import com.maruf.oauth.config.HttpCookieFactory;
+import com.maruf.oauth.config.ProviderCatalog;
+import com.maruf.oauth.config.ProviderCatalogProperties;
 import com.maruf.oauth.config.RefreshTokenSecurityProperties;
 import com.maruf.oauth.dto.LoginRequest;
 import com.maruf.oauth.entity.User;
+import com.maruf.oauth.service.AuthEventBus;
+import com.maruf.oauth.service.AuthEventType;
 import com.maruf.oauth.service.JwtService;
 import com.maruf.oauth.service.LocalAuthService;
 import com.maruf.oauth.service.RefreshTokenStore;
+import com.maruf.oauth.service.SessionEventDispatcher;
+import com.maruf.oauth.service.TokenOutcome;
+import com.maruf.oauth.service.TokenVerification;
+import com.maruf.oauth.support.TestOAuth2Users;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.jsonwebtoken.impl.DefaultClaims;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,24 +29,35 @@ import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.oauth2.client.registration.ClientRegistration;
 import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.Date;
 import java.util.Map;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.stringContainsInOrder;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
@@ -62,6 +85,12 @@ class AuthControllerTest {
     @MockBean
     private LocalAuthService localAuthService;
 
+    @MockBean
+    private AuthEventBus authEventBus;
+
+    @MockBean
+    private SessionEventDispatcher sessionEventDispatcher;
+
     @TestConfiguration
     static class TestConfig {
         @Bean
@@ -93,6 +122,16 @@ class AuthControllerTest {
             return new InMemoryClientRegistrationRepository(github, azure);
         }
 
+        @Bean
+        ProviderCatalogProperties providerCatalogProperties() {
+            return new ProviderCatalogProperties();
+        }
+
+        @Bean
+        ProviderCatalog providerCatalog(ClientRegistrationRepository repository, ProviderCatalogProperties properties) {
+            return new ProviderCatalog(repository, properties, true);
+        }
+
         @Bean
         CookieSecurityProperties cookieSecurityProperties() {
             CookieSecurityProperties props = new CookieSecurityProperties();
@@ -106,6 +145,18 @@ class AuthControllerTest {
             return new HttpCookieFactory(properties);
         }
 
+        @Bean
+        AuthMetrics authMetrics() {
+            return new AuthMetrics(new SimpleMeterRegistry());
+        }
+
+        @Bean
+        AccessTokenRenewal accessTokenRenewal(JwtService jwtService, RefreshTokenStore refreshTokenStore,
+                                              HttpCookieFactory cookieFactory, AuthMetrics authMetrics) {
+            return new AccessTokenRenewal(new AccessTokenRenewalProperties(), jwtService, refreshTokenStore, cookieFactory,
+                    authMetrics);
+        }
+
         @Bean
         RefreshTokenSecurityProperties refreshTokenSecurityProperties() {
             RefreshTokenSecurityProperties props = new RefreshTokenSecurityProperties();
@@ -123,6 +174,43 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$[*].name").value(hasItems("GitHub", "Microsoft Entra ID", "Email & Password")));
     }
 
+    @Test
+    void providersEndpointServesCachedBytesWithEtagPerEncoding() throws Exception {
+        String etag = mockMvc.perform(get("/api/auth/providers"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=3600, public"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/auth/providers").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        byte[] compressed = mockMvc.perform(get("/api/auth/providers").header(HttpHeaders.ACCEPT_ENCODING, "gzip, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertThat(new String(input.readAllBytes(), StandardCharsets.UTF_8))
+                    .contains("\"key\":\"github\"", "\"key\":\"local\"");
+        }
+    }
+
+    @Test
+    void providersEndpointHonoursQualityValuesAndExactCodings() throws Exception {
+        for (String refused : new String[]{"gzip;q=0", "identity, x-gzip-foo", "br, *;q=0", "gzip;q=0, *"}) {
+            mockMvc.perform(get("/api/auth/providers").header(HttpHeaders.ACCEPT_ENCODING, refused))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                    .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)));
+        }
+        for (String accepted : new String[]{"GZIP;q=0.5", "x-gzip", "br;q=1, *;q=0.1"}) {
+            mockMvc.perform(get("/api/auth/providers").header(HttpHeaders.ACCEPT_ENCODING, accepted))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                    .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)));
+        }
+    }
+
     @Test
     void refreshTokenReturnsUnauthorizedWhenMissingCookie() throws Exception {
         mockMvc.perform(post("/api/auth/refresh"))
@@ -132,9 +220,7 @@ class AuthControllerTest {
 
     @Test
     void refreshTokenRotatesAndIssuesCookies() throws Exception {
-        when(refreshTokenStore.getUsernameFromRefreshToken("refresh-token")).thenReturn("user@example.com");
-        when(jwtService.isTokenValid("refresh-token")).thenReturn(true);
-        when(jwtService.isTokenExpired("refresh-token")).thenReturn(false);
+        when(refreshTokenStore.getUsernameFromRefreshToken("refresh-token", false)).thenReturn("user@example.com");
 
         DefaultClaims claims = new DefaultClaims(Map.of(
                 "type", "refresh",
@@ -144,9 +230,11 @@ class AuthControllerTest {
                 "email", "user@example.com",
                 "avatar_url", "http://example.com/avatar.png"
         ));
-        when(jwtService.extractAllClaims("refresh-token")).thenReturn(claims);
+        when(jwtService.verify("refresh-token", "refresh")).thenReturn(new TokenVerification(TokenOutcome.VALID, claims));
         when(jwtService.generateAccessToken(any())).thenReturn("new-access");
         when(jwtService.generateRefreshToken(eq("user@example.com"), anyMap())).thenReturn("new-refresh");
+        when(refreshTokenStore.rotateRefreshToken(eq("refresh-token"), eq("new-refresh"), eq("user@example.com"), any(Instant.class)))
+                .thenReturn(true);
 
         mockMvc.perform(post("/api/auth/refresh")
                         .cookie(new jakarta.servlet.http.Cookie("refresh_token", "refresh-token")))
@@ -154,8 +242,40 @@ class AuthControllerTest {
                 .andExpect(header().stringValues(HttpHeaders.SET_COOKIE, hasItem(stringContainsInOrder("jwt=new-access"))))
                 .andExpect(header().stringValues(HttpHeaders.SET_COOKIE, hasItem(stringContainsInOrder("refresh_token=new-refresh"))));
 
-        verify(refreshTokenStore).invalidateRefreshToken("refresh-token");
-        verify(refreshTokenStore).storeRefreshToken(eq("new-refresh"), eq("user@example.com"), any(Instant.class));
+        verify(refreshTokenStore).rotateRefreshToken(eq("refresh-token"), eq("new-refresh"), eq("user@example.com"), any(Instant.class));
+        verify(authEventBus).publish(AuthEventType.ROTATION, "user@example.com", null);
+        verify(authEventBus).publish(AuthEventType.REFRESH, "user@example.com", null);
+    }
+
+    @Test
+    void refreshLosingConcurrentRotationLeavesCookiesAlone() throws Exception {
+        when(refreshTokenStore.getUsernameFromRefreshToken("refresh-token", false)).thenReturn("user@example.com");
+        DefaultClaims claims = new DefaultClaims(Map.of("type", "refresh", "id", "1", "login", "user@example.com"));
+        when(jwtService.verify("refresh-token", "refresh")).thenReturn(new TokenVerification(TokenOutcome.VALID, claims));
+        when(jwtService.generateRefreshToken(eq("user@example.com"), anyMap())).thenReturn("new-refresh");
+        when(refreshTokenStore.rotateRefreshToken(eq("refresh-token"), eq("new-refresh"), eq("user@example.com"), any(Instant.class)))
+                .thenReturn(false);
+
+        mockMvc.perform(post("/api/auth/refresh")
+                        .cookie(new jakarta.servlet.http.Cookie("refresh_token", "refresh-token")))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.error").value("token_rotated"))
+                .andExpect(header().doesNotExist(HttpHeaders.SET_COOKIE));
+
+        verify(authEventBus, never()).publish(eq(AuthEventType.ROTATION), any(), any());
+    }
+
+    @Test
+    void refreshRejectsExpiredTokenWithoutLookingItUp() throws Exception {
+        when(jwtService.verify("expired-token", "refresh")).thenReturn(new TokenVerification(TokenOutcome.EXPIRED, null));
+
+        mockMvc.perform(post("/api/auth/refresh")
+                        .cookie(new jakarta.servlet.http.Cookie("refresh_token", "expired-token")))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.error").value("token_expired"));
+
+        verify(refreshTokenStore).invalidateRefreshToken("expired-token");
+        verify(refreshTokenStore, never()).getUsernameFromRefreshToken(anyString(), anyBoolean());
     }
 
     @Test
@@ -182,6 +302,7 @@ class AuthControllerTest {
                 .andExpect(header().stringValues(HttpHeaders.SET_COOKIE, hasItem(stringContainsInOrder("refresh_token=refresh-token"))));
 
         verify(refreshTokenStore).storeRefreshToken(eq("refresh-token"), eq("user@example.com"), any(Instant.class));
+        verify(authEventBus).publish(AuthEventType.LOGIN, "user@example.com", "local");
     }
 
     @Test
@@ -191,6 +312,50 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.authenticated").value(false));
     }
 
+    @Test
+    void bootstrapCombinesStatusProvidersAndExpiryAndRevalidatesWithEtag() throws Exception {
+        long refreshExpiresAt = Instant.now().plusSeconds(3600).getEpochSecond();
+        DefaultClaims claims = new DefaultClaims(Map.of("type", "refresh", "exp", refreshExpiresAt));
+        when(jwtService.verify("refresh-token", "refresh")).thenReturn(new TokenVerification(TokenOutcome.VALID, claims));
+        jakarta.servlet.http.Cookie refreshCookie = new jakarta.servlet.http.Cookie("refresh_token", "refresh-token");
+
+        MockHttpServletResponse response = mockMvc.perform(get("/api/auth/bootstrap").cookie(refreshCookie))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(jsonPath("$.authenticated").value(false))
+                .andExpect(jsonPath("$.localAuthEnabled").value(true))
+                .andExpect(jsonPath("$.providers[*].key").value(hasItems("github", "azure", "local")))
+                .andExpect(jsonPath("$.refreshTokenExpiresAt").value(Instant.ofEpochSecond(refreshExpiresAt).toString()))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse();
+        String etag = response.getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isEqualTo(ProviderCatalog.entityTag(response.getContentAsByteArray()));
+
+        mockMvc.perform(get("/api/auth/bootstrap").cookie(refreshCookie).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/auth/bootstrap").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void logoutEverywhereRevokesAllSessionsAndNotifiesStreams() throws Exception {
+        OAuth2User principal = TestOAuth2Users.withAttributes(Map.of("id", "1", "login", "octocat"));
+        when(refreshTokenStore.invalidateAllRefreshTokens("octocat")).thenReturn(3L);
+        Date accessExpiry = new Date(System.currentTimeMillis() + 60_000);
+        when(jwtService.getExpirationDate("access-token")).thenReturn(accessExpiry);
+
+        mockMvc.perform(post("/api/auth/logout-all")
+                        .cookie(new jakarta.servlet.http.Cookie("jwt", "access-token"))
+                        .with(authentication(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.revoked").value(3))
+                .andExpect(header().stringValues(HttpHeaders.SET_COOKIE, hasItem(stringContainsInOrder("jwt=", "Max-Age=0"))))
+                .andExpect(header().stringValues(HttpHeaders.SET_COOKIE, hasItem(stringContainsInOrder("refresh_token=", "Max-Age=0"))));
+
+        verify(refreshTokenStore).invalidateAccessToken("access-token", "octocat", accessExpiry.toInstant());
+        verify(authEventBus).publish(AuthEventType.LOGOUT_ALL, "octocat", "3");
+    }
+
     private String asJson(Object value) throws Exception {
         com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
         mapper.findAndRegisterModules();
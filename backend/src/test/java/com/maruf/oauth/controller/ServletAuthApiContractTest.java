@@ -0,0 +1,27 @@
+package com.maruf.oauth.controller;
+
+import com.maruf.oauth.contract.AuthApiContract;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.client.MockMvcWebTestClient;
+
+/**
+ * Runs the HTTP contract shared with the reactive edition against the servlet edition through MockMvc.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ServletAuthApiContractTest extends AuthApiContract {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Override
+    protected WebTestClient client() {
+        return MockMvcWebTestClient.bindTo(mockMvc).build();
+    }
+}
@@ -0,0 +1,175 @@
+package com.maruf.oauth.performance;
+
+import jakarta.servlet.http.Cookie;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Measures the bytes the request thread allocates per authenticated request once the JIT has warmed up,
+ * and fails when an endpoint allocates noticeably more than the checked-in {@code allocation-baseline.properties}.
+ * MockMvc runs the filter chain and controller on the calling thread, so its own request and response objects are
+ * included; the figures are for comparing commits, not absolute costs. Run with {@code ./gradlew performanceTest};
+ * tune with {@code -Dallocation.*} system properties.
+ */
+@Tag("performance")
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AllocationBudgetTest {
+
+    private static final int WARMUP_REQUESTS = Integer.getInteger("allocation.warmup-requests", 5000);
+    private static final int ROUNDS = Integer.getInteger("allocation.rounds", 5);
+    private static final int REQUESTS_PER_ROUND = Integer.getInteger("allocation.requests-per-round", 500);
+    private static final double TOLERANCE = Double.parseDouble(System.getProperty("allocation.tolerance", "0.10"));
+
+    private static com.sun.management.ThreadMXBean threads;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Cookie accessToken;
+    private Cookie refreshToken;
+
+    @BeforeAll
+    static void enableAllocationCounting() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "JVM does not report per-thread allocation");
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "JVM does not report per-thread allocation");
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    void staysWithinAllocationBaseline() throws Exception {
+        signUp();
+        Map<String, Request> requests = new LinkedHashMap<>();
+        requests.put("user", () -> mockMvc.perform(get("/api/user").cookie(accessToken))
+                .andExpect(status().isOk()));
+        requests.put("protected", () -> mockMvc.perform(get("/api/protected/data").cookie(accessToken))
+                .andExpect(status().isOk()));
+        requests.put("refresh", () -> {
+            MvcResult result = mockMvc.perform(post("/api/auth/refresh").cookie(refreshToken))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            refreshToken = result.getResponse().getCookie("refresh_token");
+        });
+
+        Map<String, Long> measured = new LinkedHashMap<>();
+        for (Map.Entry<String, Request> entry : requests.entrySet()) {
+            measured.put(entry.getKey(), measure(entry.getValue()));
+        }
+
+        Properties baseline = loadBaseline();
+        writeReport(measured, baseline);
+        SoftAssertions softly = new SoftAssertions();
+        measured.forEach((endpoint, bytes) -> {
+            String budget = baseline.getProperty(endpoint);
+            softly.assertThat(budget).as("baseline for %s", endpoint).isNotNull();
+            if (budget != null) {
+                softly.assertThat(bytes)
+                        .as("%s bytes allocated per request (baseline %s, tolerance %.0f%%)", endpoint, budget, TOLERANCE * 100)
+                        .isLessThanOrEqualTo((long) (Long.parseLong(budget.trim()) * (1 + TOLERANCE)));
+            }
+        });
+        softly.assertAll();
+    }
+
+    /**
+     * Warms the endpoint up, then returns the median over several rounds of the mean bytes allocated per request.
+     */
+    private long measure(Request request) throws Exception {
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            request.run();
+        }
+        long[] perRequest = new long[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < REQUESTS_PER_ROUND; i++) {
+                request.run();
+            }
+            perRequest[round] = (threads.getCurrentThreadAllocatedBytes() - before) / REQUESTS_PER_ROUND;
+        }
+        Arrays.sort(perRequest);
+        return perRequest[ROUNDS / 2];
+    }
+
+    private void signUp() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/signup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"allocation-" + UUID.randomUUID() + "@example.com\","
+                                + "\"password\":\"allocation-password\",\"name\":\"Allocation Test\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        accessToken = result.getResponse().getCookie("jwt");
+        refreshToken = result.getResponse().getCookie("refresh_token");
+        assertThat(accessToken).isNotNull();
+        assertThat(refreshToken).isNotNull();
+    }
+
+    private static Properties loadBaseline() throws IOException {
+        Properties baseline = new Properties();
+        try (InputStream input = AllocationBudgetTest.class.getResourceAsStream("/allocation-baseline.properties")) {
+            if (input != null) {
+                baseline.load(input);
+            }
+        }
+        return baseline;
+    }
+
+    /**
+     * Prints measured against baseline figures and writes the measurements as a candidate baseline,
+     * to be copied over {@code src/test/resources/allocation-baseline.properties} after an intended change.
+     */
+    private static void writeReport(Map<String, Long> measured, Properties baseline) throws IOException {
+        StringBuilder report = new StringBuilder(String.format(
+                "Allocation per request after %d warm-up requests, median of %d rounds of %d, Java %s%n%-10s %12s %12s %8s%n",
+                WARMUP_REQUESTS, ROUNDS, REQUESTS_PER_ROUND, Runtime.version().feature(),
+                "endpoint", "bytes", "baseline", "change"));
+        StringBuilder candidate = new StringBuilder(
+                "# Bytes allocated on the request thread per MockMvc request; see AllocationBudgetTest\n");
+        measured.forEach((endpoint, bytes) -> {
+            String budget = baseline.getProperty(endpoint);
+            String change = budget == null ? "n/a"
+                    : String.format("%+.1f%%", (bytes - Long.parseLong(budget.trim())) * 100.0 / Long.parseLong(budget.trim()));
+            report.append(String.format("%-10s %12d %12s %8s%n", endpoint, bytes, budget == null ? "-" : budget.trim(), change));
+            candidate.append(endpoint).append('=').append(bytes).append('\n');
+        });
+
+        Path directory = Path.of("build", "reports", "performance");
+        Files.createDirectories(directory);
+        System.out.println(report);
+        Files.writeString(directory.resolve("allocation.txt"), report);
+        Files.writeString(directory.resolve("allocation-baseline.properties"), candidate);
+    }
+
+    @FunctionalInterface
+    private interface Request {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,240 @@
+package com.maruf.oauth.performance;
+
+import com.maruf.oauth.support.CookieJar;
+import com.maruf.oauth.support.OpenModelLoadGenerator;
+import com.maruf.oauth.support.OpenModelLoadGenerator.Operation;
+import com.maruf.oauth.support.OpenModelLoadGenerator.OperationResult;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Boots the application on a random port against embedded MongoDB and drives a mixed workload
+ * from an open-model load generator, failing when an operation's p99 latency or error rate exceeds
+ * its budget. Run with {@code ./gradlew performanceTest}; tune with {@code -Dloadtest.*} system properties,
+ * e.g. {@code -Dloadtest.slo.refresh-p99-ms=250}.
+ */
+@Tag("performance")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class HttpLoadTest {
+
+    private static final double RATE = Double.parseDouble(System.getProperty("loadtest.rate", "100"));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 30));
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 10));
+    private static final int USERS = Integer.getInteger("loadtest.users", 50);
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+    private static final String PASSWORD = "load-test-password";
+
+    /**
+     * Default p99 budgets in milliseconds; login and signup include a BCrypt hash.
+     */
+    private static final Map<String, Long> DEFAULT_P99_MILLIS = Map.of(
+            "health", 50L,
+            "user", 100L,
+            "protected", 100L,
+            "refresh", 150L,
+            "login", 500L,
+            "signup", 500L,
+            "logout", 150L);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final Queue<Session> active = new ConcurrentLinkedQueue<>();
+    private final Queue<Session> loggedOut = new ConcurrentLinkedQueue<>();
+    private final List<String> seededEmails = new ArrayList<>();
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void meetsLatencyObjectivesUnderMixedLoad() throws Exception {
+        for (int i = 0; i < USERS; i++) {
+            Session session = new Session("load-user-" + i + "-" + UUID.randomUUID() + "@example.com");
+            if (!session.signup()) {
+                throw new IllegalStateException("Could not create load test user " + session.email);
+            }
+            active.add(session);
+            seededEmails.add(session.email);
+        }
+
+        new OpenModelLoadGenerator(workload(), 7L).run(RATE, WARMUP);
+        Map<String, OperationResult> results = new OpenModelLoadGenerator(workload(), 42L).run(RATE, DURATION);
+
+        writeReport(results);
+        SoftAssertions softly = new SoftAssertions();
+        results.forEach((operation, result) -> {
+            long budget = Long.getLong("loadtest.slo." + operation + "-p99-ms", DEFAULT_P99_MILLIS.get(operation));
+            softly.assertThat(result.percentileMillis(99))
+                    .as("%s p99 latency in ms", operation)
+                    .isLessThanOrEqualTo(budget);
+            softly.assertThat(result.errorRate())
+                    .as("%s error rate", operation)
+                    .isLessThanOrEqualTo(MAX_ERROR_RATE);
+        });
+        softly.assertAll();
+    }
+
+    private List<Operation> workload() {
+        return List.of(
+                new Operation("health", 15, () -> send(HttpRequest.newBuilder(app("/api/public/health")).GET(), null) == 200),
+                new Operation("user", 25, () -> withSession(session ->
+                        send(HttpRequest.newBuilder(app("/api/user")).GET(), session) == 200)),
+                new Operation("protected", 25, () -> withSession(session ->
+                        send(HttpRequest.newBuilder(app("/api/protected/data")).GET(), session) == 200)),
+                new Operation("refresh", 15, () -> withSession(session ->
+                        send(HttpRequest.newBuilder(app("/api/auth/refresh"))
+                                .POST(HttpRequest.BodyPublishers.noBody()), session) == 200)),
+                new Operation("login", 8, this::login),
+                new Operation("signup", 4, this::signup),
+                new Operation("logout", 8, this::logout));
+    }
+
+    /**
+     * Borrows a logged-in session for one request so no two requests share cookies.
+     */
+    private boolean withSession(SessionAction action) throws Exception {
+        Session session = active.poll();
+        if (session == null) {
+            return false;
+        }
+        try {
+            return action.run(session);
+        } finally {
+            active.add(session);
+        }
+    }
+
+    /**
+     * Logs a signed-out session back in, or opens another session for a seeded user when none is signed out.
+     */
+    private boolean login() throws Exception {
+        Session session = loggedOut.poll();
+        if (session == null) {
+            session = new Session(seededEmails.get(ThreadLocalRandom.current().nextInt(seededEmails.size())));
+        }
+        if (session.login()) {
+            active.add(session);
+            return true;
+        }
+        loggedOut.add(session);
+        return false;
+    }
+
+    private boolean signup() throws Exception {
+        Session session = new Session("load-signup-" + UUID.randomUUID() + "@example.com");
+        if (!session.signup()) {
+            return false;
+        }
+        active.add(session);
+        return true;
+    }
+
+    private boolean logout() throws Exception {
+        Session session = active.poll();
+        if (session == null) {
+            return false;
+        }
+        boolean succeeded = send(HttpRequest.newBuilder(app("/logout")).POST(HttpRequest.BodyPublishers.noBody()), session) == 200;
+        session.cookies.clear();
+        loggedOut.add(session);
+        return succeeded;
+    }
+
+    private int send(HttpRequest.Builder request, Session session) throws IOException, InterruptedException {
+        request.timeout(Duration.ofSeconds(30));
+        if (session != null) {
+            session.cookies.applyTo(request);
+        }
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (session != null) {
+            session.cookies.update(response);
+        }
+        return response.statusCode();
+    }
+
+    private URI app(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private void writeReport(Map<String, OperationResult> results) throws IOException {
+        StringBuilder summary = new StringBuilder(String.format(
+                "HTTP load: %.0f req/s for %ds against %d seeded users%n%-10s %8s %7s %9s %9s %9s %9s %9s%n",
+                RATE, DURATION.toSeconds(), USERS,
+                "operation", "count", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        Path directory = Path.of("build", "reports", "performance");
+        Files.createDirectories(directory);
+        for (Map.Entry<String, OperationResult> entry : results.entrySet()) {
+            OperationResult result = entry.getValue();
+            summary.append(String.format("%-10s %8d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(), result.latencies().getTotalCount(), result.errors(),
+                    result.percentileMillis(50), result.percentileMillis(90), result.percentileMillis(99),
+                    result.percentileMillis(99.9), result.latencies().getMaxValue() / 1e6));
+
+            ByteArrayOutputStream distribution = new ByteArrayOutputStream();
+            result.latencies().outputPercentileDistribution(new PrintStream(distribution, true, StandardCharsets.UTF_8), 1e6);
+            Files.write(directory.resolve("http-load-" + entry.getKey() + ".hgrm"), distribution.toByteArray());
+        }
+        System.out.println(summary);
+        Files.writeString(directory.resolve("http-load.txt"), summary);
+    }
+
+    @FunctionalInterface
+    private interface SessionAction {
+        boolean run(Session session) throws Exception;
+    }
+
+    /**
+     * A local account and the cookies of its current login.
+     */
+    private final class Session {
+        private final String email;
+        private final CookieJar cookies = new CookieJar();
+
+        private Session(String email) {
+            this.email = email;
+        }
+
+        private boolean signup() throws IOException, InterruptedException {
+            return authenticate("/api/auth/signup",
+                    "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\",\"name\":\"Load Test\"}");
+        }
+
+        private boolean login() throws IOException, InterruptedException {
+            return authenticate("/api/auth/login", "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}");
+        }
+
+        private boolean authenticate(String path, String body) throws IOException, InterruptedException {
+            HttpRequest.Builder request = HttpRequest.newBuilder(app(path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+            return send(request, this) == 200 && cookies.contains("jwt");
+        }
+    }
+}
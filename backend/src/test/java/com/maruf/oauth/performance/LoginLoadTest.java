@@ -0,0 +1,249 @@
+package com.maruf.oauth.performance;
+
+import com.maruf.oauth.support.CookieJar;
+import com.maruf.oauth.support.StubOAuthProvider;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives full login, refresh, protected call and logout sessions over real HTTP against a
+ * stub GitHub and Entra provider, and reports throughput and latency percentiles per step.
+ * Run with {@code ./gradlew performanceTest}; tune with {@code -Dloadtest.*} system properties.
+ */
+@Tag("performance")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class LoginLoadTest {
+
+    private static final int SESSIONS = Integer.getInteger("loadtest.sessions", 2000);
+    private static final int WARMUP_SESSIONS = Integer.getInteger("loadtest.warmup-sessions", 200);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 32);
+    private static final Duration PROVIDER_LATENCY = Duration.ofMillis(Long.getLong("loadtest.provider-latency-ms", 20));
+    private static final double PROVIDER_FAILURE_RATE =
+            Double.parseDouble(System.getProperty("loadtest.provider-failure-rate", "0"));
+    private static final String DASHBOARD_URL = "http://localhost:3000/dashboard";
+
+    private static final StubOAuthProvider PROVIDER = StubOAuthProvider.start();
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void providerProperties(DynamicPropertyRegistry registry) {
+        PROVIDER.register(registry);
+    }
+
+    @AfterAll
+    static void stopProvider() {
+        PROVIDER.close();
+    }
+
+    @Test
+    void completesLoginSessionsAgainstStubProviders() throws Exception {
+        PROVIDER.setLatency(PROVIDER_LATENCY);
+        PROVIDER.setFailureRate(PROVIDER_FAILURE_RATE);
+
+        run(WARMUP_SESSIONS, new EnumMap<>(Step.class));
+
+        Map<Step, StepStats> stats = new EnumMap<>(Step.class);
+        for (Step step : Step.values()) {
+            stats.put(step, new StepStats());
+        }
+        long started = System.nanoTime();
+        int completed = run(SESSIONS, stats);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        String report = report(stats, completed, seconds);
+        System.out.println(report);
+        Path output = Path.of("build", "reports", "performance", "login-load.txt");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, report);
+
+        if (PROVIDER_FAILURE_RATE == 0) {
+            assertThat(completed).isEqualTo(SESSIONS);
+        }
+    }
+
+    /**
+     * Runs sessions on a fixed pool of virtual users, alternating between GitHub and Entra.
+     *
+     * @return number of sessions that completed every step
+     */
+    private int run(int sessions, Map<Step, StepStats> stats) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(CONCURRENCY);
+        AtomicInteger completed = new AtomicInteger();
+        for (int i = 0; i < sessions; i++) {
+            String registrationId = i % 2 == 0 ? "github" : "azure";
+            workers.execute(() -> {
+                if (session(registrationId, stats)) {
+                    completed.incrementAndGet();
+                }
+            });
+        }
+        workers.shutdown();
+        assertThat(workers.awaitTermination(10, TimeUnit.MINUTES)).isTrue();
+        return completed.get();
+    }
+
+    private boolean session(String registrationId, Map<Step, StepStats> stats) {
+        CookieJar cookies = new CookieJar();
+
+        HttpResponse<String> authorization = send(stats, Step.AUTHORIZE,
+                request(app("/oauth2/authorization/" + registrationId), cookies).GET(),
+                response -> response.statusCode() == 302);
+        if (authorization == null) {
+            return false;
+        }
+        cookies.update(authorization);
+
+        HttpResponse<String> consent = send(stats, Step.PROVIDER_CONSENT,
+                request(location(authorization), new CookieJar()).GET(),
+                response -> response.statusCode() == 302);
+        if (consent == null) {
+            return false;
+        }
+
+        HttpResponse<String> callback = send(stats, Step.CALLBACK,
+                request(location(consent), cookies).GET(),
+                response -> DASHBOARD_URL.equals(response.headers().firstValue("Location").orElse(null)));
+        if (callback == null) {
+            return false;
+        }
+        cookies.update(callback);
+
+        HttpResponse<String> refresh = send(stats, Step.REFRESH,
+                request(app("/api/auth/refresh"), cookies).POST(HttpRequest.BodyPublishers.noBody()),
+                response -> response.statusCode() == 200);
+        if (refresh == null) {
+            return false;
+        }
+        cookies.update(refresh);
+
+        HttpResponse<String> protectedCall = send(stats, Step.PROTECTED_CALL,
+                request(app("/api/protected/data"), cookies).GET(),
+                response -> response.statusCode() == 200);
+        if (protectedCall == null) {
+            return false;
+        }
+
+        return send(stats, Step.LOGOUT,
+                request(app("/logout"), cookies).POST(HttpRequest.BodyPublishers.noBody()),
+                response -> response.statusCode() == 200) != null;
+    }
+
+    /**
+     * Sends one request and records its latency, or an error when it fails or is unexpected.
+     *
+     * @return response, or {@code null} when the step failed
+     */
+    private HttpResponse<String> send(Map<Step, StepStats> stats, Step step, HttpRequest.Builder request,
+                                      Predicate<HttpResponse<String>> expected) {
+        StepStats stepStats = stats.get(step);
+        long started = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            long elapsed = System.nanoTime() - started;
+            if (!expected.test(response)) {
+                if (stepStats != null) {
+                    stepStats.errors.increment();
+                }
+                return null;
+            }
+            if (stepStats != null) {
+                stepStats.latencies.add(elapsed);
+            }
+            return response;
+        } catch (IOException e) {
+            if (stepStats != null) {
+                stepStats.errors.increment();
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private HttpRequest.Builder request(URI uri, CookieJar cookies) {
+        return cookies.applyTo(HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)));
+    }
+
+    private URI app(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static URI location(HttpResponse<String> response) {
+        return URI.create(response.headers().firstValue("Location").orElseThrow());
+    }
+
+    private static String report(Map<Step, StepStats> stats, int completed, double seconds) {
+        StringBuilder report = new StringBuilder()
+                .append(String.format("Login load: %d/%d sessions completed in %.1fs (%.1f sessions/s), "
+                                + "concurrency %d, provider latency %dms, provider failure rate %.3f%n",
+                        completed, SESSIONS, seconds, completed / seconds, CONCURRENCY,
+                        PROVIDER_LATENCY.toMillis(), PROVIDER_FAILURE_RATE))
+                .append(String.format("%-16s %8s %7s %10s %9s %9s %9s %9s%n",
+                        "step", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        stats.forEach((step, stepStats) -> {
+            long[] sorted = stepStats.latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            report.append(String.format("%-16s %8d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    step.name().toLowerCase(), sorted.length, stepStats.errors.sum(), sorted.length / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                    percentile(sorted, 1.0)));
+        });
+        return report.toString();
+    }
+
+    /**
+     * Nearest-rank percentile of sorted nanosecond samples, in milliseconds.
+     */
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)] / 1e6;
+    }
+
+    private enum Step {
+        AUTHORIZE, PROVIDER_CONSENT, CALLBACK, REFRESH, PROTECTED_CALL, LOGOUT
+    }
+
+    private static final class StepStats {
+        private final Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final LongAdder errors = new LongAdder();
+    }
+}
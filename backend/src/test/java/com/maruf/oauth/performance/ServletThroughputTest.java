@@ -0,0 +1,28 @@
+package com.maruf.oauth.performance;
+
+import com.maruf.oauth.contract.ThroughputComparison;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Measures the servlet edition for comparison with the reactive edition's {@code ReactiveThroughputTest}.
+ * Run with {@code ./gradlew performanceTest}, which runs both.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ServletThroughputTest extends ThroughputComparison {
+
+    @LocalServerPort
+    private int port;
+
+    @Override
+    protected int port() {
+        return port;
+    }
+
+    @Override
+    protected String edition() {
+        return "servlet";
+    }
+}
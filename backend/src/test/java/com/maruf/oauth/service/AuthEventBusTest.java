@@ -0,0 +1,92 @@
+package com.maruf.oauth.service;
+
+import com.maruf.oauth.config.AuthEventProperties;
+import com.maruf.oauth.config.AuthMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Publishes from several threads and checks every listener sees each accepted event exactly once.
+ */
+class AuthEventBusTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<AuthEvent> received = new CopyOnWriteArrayList<>();
+    private AuthEventBus bus;
+
+    @AfterEach
+    void tearDown() {
+        bus.stop();
+    }
+
+    @Test
+    void deliversEventsFromConcurrentPublishers() throws Exception {
+        bus = newBus(1024);
+        bus.start();
+        int threads = 8;
+        int perThread = 2_000;
+        CountDownLatch done = new CountDownLatch(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            String username = "user-" + t;
+            executor.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    while (!bus.publish(AuthEventType.REFRESH, username, Integer.toString(i))) {
+                        Thread.onSpinWait();
+                    }
+                }
+                done.countDown();
+            });
+        }
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+        bus.stop();
+
+        assertThat(received).hasSize(threads * perThread);
+        // Each publisher's events arrive in the order it published them
+        for (int t = 0; t < threads; t++) {
+            String username = "user-" + t;
+            assertThat(received.stream().filter(event -> username.equals(event.username())).map(AuthEvent::detail))
+                    .containsExactlyElementsOf(IntStream.range(0, perThread).mapToObj(Integer::toString).toList());
+        }
+    }
+
+    @Test
+    void dropsEventsWhenTheBufferIsFullInsteadOfBlocking() {
+        bus = newBus(4);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(bus.publish(AuthEventType.LOGIN, "user", null)).isTrue();
+        }
+        assertThat(bus.publish(AuthEventType.LOGIN, "user", null)).isFalse();
+        assertThat(registry.get("auth.events.dropped").counter().count()).isEqualTo(1);
+
+        bus.start();
+        bus.stop();
+        assertThat(received).hasSize(4);
+        assertThat(registry.get("auth.events").tag("type", "login").counter().count()).isEqualTo(4);
+    }
+
+    private AuthEventBus newBus(int bufferSize) {
+        AuthEventProperties properties = new AuthEventProperties();
+        properties.setBufferSize(bufferSize);
+        AuthMetrics authMetrics = new AuthMetrics(registry);
+        StaticListableBeanFactory listeners = new StaticListableBeanFactory(Map.of(
+                "collector", (AuthEventListener) received::add,
+                "metrics", new AuthEventMetrics(authMetrics)));
+        return new AuthEventBus(properties, listeners.getBeanProvider(AuthEventListener.class), authMetrics);
+    }
+}
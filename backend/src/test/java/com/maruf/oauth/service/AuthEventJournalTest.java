@@ -0,0 +1,68 @@
+package com.maruf.oauth.service;
+
+import com.maruf.oauth.config.AuthEventProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Writes events through the journal and reads them back with {@link AuthEventJournalReader}.
+ */
+class AuthEventJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void appendsAcrossRestartsAndQueriesByUserAndType() throws Exception {
+        AuthEventJournal journal = newJournal(DataSize.ofKilobytes(64), 10);
+        journal.onEvent(new AuthEvent(1_000, AuthEventType.LOGIN, "alice", "github"));
+        journal.onEvent(new AuthEvent(2_000, AuthEventType.LOGIN_FAILED, null, "azure:missing_profile"));
+        journal.close();
+
+        AuthEventJournal reopened = newJournal(DataSize.ofKilobytes(64), 10);
+        reopened.onEvent(new AuthEvent(3_000, AuthEventType.LOGOUT, "alice", null));
+        reopened.close();
+
+        assertThat(AuthEventJournalReader.read(dir, event -> true, Integer.MAX_VALUE)).containsExactly(
+                new AuthEvent(1_000, AuthEventType.LOGIN, "alice", "github"),
+                new AuthEvent(2_000, AuthEventType.LOGIN_FAILED, null, "azure:missing_profile"),
+                new AuthEvent(3_000, AuthEventType.LOGOUT, "alice", null));
+        assertThat(AuthEventJournalReader.read(dir,
+                event -> "alice".equals(event.username()) && event.type() == AuthEventType.LOGOUT, 10))
+                .extracting(AuthEvent::timestamp)
+                .containsExactly(3_000L);
+    }
+
+    @Test
+    void rollsSegmentsAndKeepsOnlyTheNewest() throws Exception {
+        AuthEventJournal journal = newJournal(DataSize.ofKilobytes(4), 3);
+        for (int i = 0; i < 1_000; i++) {
+            journal.onEvent(new AuthEvent(i, AuthEventType.REFRESH, "user-" + i, null));
+        }
+        journal.close();
+
+        assertThat(AuthEventJournal.segments(dir)).hasSize(3);
+        List<AuthEvent> events = AuthEventJournalReader.read(dir, event -> true, Integer.MAX_VALUE);
+        assertThat(events).isNotEmpty().hasSizeLessThan(1_000);
+        assertThat(events.get(events.size() - 1).username()).isEqualTo("user-999");
+        assertThat(AuthEventJournalReader.read(dir, event -> true, 5)).extracting(AuthEvent::timestamp)
+                .containsExactly(995L, 996L, 997L, 998L, 999L);
+    }
+
+    private AuthEventJournal newJournal(DataSize segmentSize, int maxSegments) {
+        AuthEventProperties properties = new AuthEventProperties();
+        properties.getJournal().setEnabled(true);
+        properties.getJournal().setDir(dir.toString());
+        properties.getJournal().setSegmentSize(segmentSize);
+        properties.getJournal().setMaxSegments(maxSegments);
+        AuthEventJournal journal = new AuthEventJournal(properties);
+        journal.open();
+        return journal;
+    }
+}
@@ -1,7 +1,9 @@
 package com.maruf.oauth.service;
 
+import com.maruf.oauth.config.AuthMetrics;
 import com.maruf.oauth.support.TestOAuth2Users;
 import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -16,10 +18,11 @@ class JwtServiceTest {
 
     private JwtService jwtService;
     private OAuth2User oauth2User;
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
 
     @BeforeEach
     void setUp() {
-        jwtService = new JwtService();
+        jwtService = new JwtService(new AuthMetrics(registry));
         ReflectionTestUtils.setField(jwtService, "secret",
                 "very-long-test-secret-key-for-jwt-signing-should-be-strong-1234567890");
         ReflectionTestUtils.setField(jwtService, "accessTokenExpiration", 3600000L);
@@ -57,6 +60,12 @@ class JwtServiceTest {
         assertThat(claims.get("login")).isEqualTo("octocat");
     }
 
+    @Test
+    void issuesDistinctTokensForSameUserWithinOneSecond() {
+        assertThat(jwtService.generateAccessToken(oauth2User)).isNotEqualTo(jwtService.generateAccessToken(oauth2User));
+        assertThat(jwtService.generateRefreshToken("octocat")).isNotEqualTo(jwtService.generateRefreshToken("octocat"));
+    }
+
     @Test
     void detectsExpiredTokens() {
         ReflectionTestUtils.setField(jwtService, "accessTokenExpiration", -1000L);
@@ -65,4 +74,28 @@ class JwtServiceTest {
         assertTrue(jwtService.isTokenExpired(token));
         assertThat(jwtService.isTokenValid(token)).isFalse();
     }
+
+    @Test
+    void classifiesPresentedTokensByOutcome() {
+        String accessToken = jwtService.generateAccessToken(oauth2User);
+
+        TokenVerification valid = jwtService.verify(accessToken, "access");
+        assertThat(valid.outcome()).isEqualTo(TokenOutcome.VALID);
+        assertThat(valid.claims().getSubject()).isEqualTo("octocat");
+        assertThat(jwtService.verify(accessToken, "refresh").outcome()).isEqualTo(TokenOutcome.WRONG_TYPE);
+        JwtService otherService = new JwtService(new AuthMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(otherService, "secret",
+                "another-long-test-secret-key-for-jwt-signing-that-does-not-match-0987654321");
+        ReflectionTestUtils.setField(otherService, "accessTokenExpiration", 3600000L);
+        assertThat(jwtService.verify(otherService.generateAccessToken(oauth2User), "access").outcome())
+                .isEqualTo(TokenOutcome.BAD_SIGNATURE);
+        assertThat(jwtService.verify("not-a-jwt", "access").outcome()).isEqualTo(TokenOutcome.MALFORMED);
+
+        ReflectionTestUtils.setField(jwtService, "accessTokenExpiration", -1000L);
+        assertThat(jwtService.verify(jwtService.generateAccessToken(oauth2User), "access").outcome())
+                .isEqualTo(TokenOutcome.EXPIRED);
+
+        assertThat(registry.get("auth.token.issue").tag("type", "access").timer().count()).isEqualTo(2);
+        assertThat(registry.get("auth.token.verify").tag("outcome", "valid").timer().count()).isEqualTo(1);
+    }
 }
@@ -1,12 +1,15 @@
 package com.maruf.oauth.service;
 
+import com.maruf.oauth.config.AuthMetrics;
 import com.maruf.oauth.entity.User;
 import com.maruf.oauth.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -27,6 +30,11 @@ class LocalAuthServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private AuthMetrics authMetrics = new AuthMetrics(meterRegistry);
+
     @InjectMocks
     private LocalAuthService localAuthService;
 
@@ -59,5 +67,7 @@ class LocalAuthServiceTest {
 
         assertThat(localAuthService.login("user@example.com", "password")).contains(existing);
         assertThat(localAuthService.login("user@example.com", "wrong")).isEmpty();
+        assertThat(meterRegistry.get("auth.local.requests").tag("outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.local.requests").tag("outcome", "invalid_credentials").timer().count()).isEqualTo(1);
     }
 }
@@ -0,0 +1,96 @@
+package com.maruf.oauth.service;
+
+import com.maruf.oauth.config.ProtectedDataProperties;
+import com.maruf.oauth.entity.ProtectedItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks keyset pagination, projection and cursor-backed streaming over a user's protected items.
+ */
+@DataMongoTest
+@Import({ProtectedItemService.class, ProtectedDataProperties.class})
+@ActiveProfiles("test")
+class ProtectedItemServiceTest {
+
+    @Autowired
+    private ProtectedItemService protectedItemService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.remove(new Query(), ProtectedItem.class);
+        for (int i = 1; i <= 5; i++) {
+            mongoTemplate.insert(item("alice", "Item " + i));
+        }
+        mongoTemplate.insert(item("bob", "Other"));
+    }
+
+    @Test
+    void pagesThroughOwnItemsWithCursor() {
+        List<String> names = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            ProtectedItemService.Page page = protectedItemService.findPage("alice", cursor, 2, null);
+            page.items().forEach(item -> names.add(item.getName()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(names).containsExactly("Item 1", "Item 2", "Item 3", "Item 4", "Item 5");
+        assertThat(pages).isEqualTo(3);
+    }
+
+    @Test
+    void returnsOnlyRequestedFields() {
+        ProtectedItemService.Page page = protectedItemService.findPage("alice", null, 1, List.of("name"));
+
+        ProtectedItem item = page.items().get(0);
+        assertThat(item.getId()).isNotNull();
+        assertThat(item.getName()).isEqualTo("Item 1");
+        assertThat(item.getDescription()).isNull();
+        assertThat(item.getOwner()).isNull();
+    }
+
+    @Test
+    void rejectsMalformedCursorAndUnknownFields() {
+        assertThatThrownBy(() -> protectedItemService.findPage("alice", "not-a-cursor", 2, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> protectedItemService.findPage("alice", null, 2, List.of("owner")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void streamsEveryOwnItemInOrder() {
+        try (Stream<ProtectedItem> items = protectedItemService.stream("alice", List.of("name"))) {
+            assertThat(items.map(ProtectedItem::getName))
+                    .containsExactly("Item 1", "Item 2", "Item 3", "Item 4", "Item 5");
+        }
+    }
+
+    private static ProtectedItem item(String owner, String name) {
+        return ProtectedItem.builder()
+                .owner(owner)
+                .name(name)
+                .description("Description of " + name)
+                .createdAt(Instant.now())
+                .build();
+    }
+}
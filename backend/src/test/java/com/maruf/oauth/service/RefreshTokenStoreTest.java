@@ -1,6 +1,8 @@
 package com.maruf.oauth.service;
 
+import com.maruf.oauth.config.AuthMetrics;
 import com.maruf.oauth.config.RefreshTokenSecurityProperties;
+import com.maruf.oauth.config.TokenStoreProperties;
 import com.maruf.oauth.entity.InvalidatedToken;
 import com.maruf.oauth.entity.RefreshToken;
 import com.maruf.oauth.repository.InvalidatedTokenRepository;
@@ -14,11 +16,17 @@ import org.springframework.test.context.ActiveProfiles;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DataMongoTest
-@Import({RefreshTokenStore.class, RefreshTokenSecurityProperties.class})
+@Import({RefreshTokenStore.class, RefreshTokenSecurityProperties.class, TokenWriteBatcher.class, TokenStoreProperties.class,
+        TokenCollections.class, AuthMetrics.class})
 @ActiveProfiles("test")
 class RefreshTokenStoreTest {
 
@@ -57,6 +65,62 @@ class RefreshTokenStoreTest {
         assertThat(updated.getLastUsed()).isAfterOrEqualTo(saved.getLastUsed());
     }
 
+    @Test
+    void rotatesRefreshTokenInPlace() {
+        refreshTokenStore.storeRefreshToken("token-before-rotation", "user@example.com", Instant.now().plusSeconds(60));
+        String id = refreshTokenRepository.findAll().get(0).getId();
+
+        refreshTokenStore.rotateRefreshToken("token-before-rotation", "token-after-rotation", "user@example.com",
+                Instant.now().plusSeconds(120));
+
+        assertThat(refreshTokenRepository.findAll()).singleElement()
+                .satisfies(rotated -> assertThat(rotated.getId()).isEqualTo(id));
+        assertThat(refreshTokenStore.getUsernameFromRefreshToken("token-before-rotation", false)).isNull();
+        assertThat(refreshTokenStore.getUsernameFromRefreshToken("token-after-rotation", false)).isEqualTo("user@example.com");
+    }
+
+    @Test
+    void rotationDoesNotResurrectRevokedToken() {
+        refreshTokenStore.storeRefreshToken("revoked-before-rotation", "user@example.com", Instant.now().plusSeconds(60));
+        refreshTokenStore.invalidateRefreshToken("revoked-before-rotation");
+
+        boolean rotated = refreshTokenStore.rotateRefreshToken("revoked-before-rotation", "never-stored", "user@example.com",
+                Instant.now().plusSeconds(120));
+
+        assertThat(rotated).isFalse();
+        assertThat(refreshTokenRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    void concurrentRotationsOfSameTokenHaveOneWinner() throws Exception {
+        refreshTokenStore.storeRefreshToken("shared-token", "user@example.com", Instant.now().plusSeconds(60));
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> first = executor.submit(() -> {
+                start.await();
+                return refreshTokenStore.rotateRefreshToken("shared-token", "successor-a", "user@example.com",
+                        Instant.now().plusSeconds(120));
+            });
+            Future<Boolean> second = executor.submit(() -> {
+                start.await();
+                return refreshTokenStore.rotateRefreshToken("shared-token", "successor-b", "user@example.com",
+                        Instant.now().plusSeconds(120));
+            });
+            start.countDown();
+
+            assertThat(List.of(first.get(10, TimeUnit.SECONDS), second.get(10, TimeUnit.SECONDS)))
+                    .containsExactlyInAnyOrder(true, false);
+            String winner = first.get() ? "successor-a" : "successor-b";
+            String loser = first.get() ? "successor-b" : "successor-a";
+            assertThat(refreshTokenRepository.findAll()).hasSize(1);
+            assertThat(refreshTokenStore.getUsernameFromRefreshToken(winner, false)).isEqualTo("user@example.com");
+            assertThat(refreshTokenStore.getUsernameFromRefreshToken(loser, false)).isNull();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     void invalidatesRefreshTokens() {
         String rawToken = "token-to-invalidate";
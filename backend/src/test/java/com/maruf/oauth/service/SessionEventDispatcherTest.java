@@ -0,0 +1,124 @@
+package com.maruf.oauth.service;
+
+import com.maruf.oauth.config.AuthMetrics;
+import com.maruf.oauth.config.RefreshTokenSecurityProperties;
+import com.maruf.oauth.config.SessionEventProperties;
+import com.maruf.oauth.config.TokenStoreProperties;
+import com.maruf.oauth.repository.InvalidatedTokenRepository;
+import com.maruf.oauth.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the oldest stream gives way at the per-user cap and that streams close on token expiry,
+ * on revocation of their own token and on logout from everywhere, as recorded in the shared token store,
+ * while streams opened after a logout from everywhere stay open.
+ */
+@DataMongoTest
+@Import({RefreshTokenStore.class, RefreshTokenSecurityProperties.class, TokenWriteBatcher.class, TokenStoreProperties.class,
+        TokenCollections.class, AuthMetrics.class})
+@ActiveProfiles("test")
+class SessionEventDispatcherTest {
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private InvalidatedTokenRepository invalidatedTokenRepository;
+
+    private final SessionEventProperties properties = new SessionEventProperties();
+    private SessionEventDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        properties.setMaxConnectionsPerUser(2);
+        properties.setHeartbeatInterval(Duration.ofHours(1));
+        properties.setPollInterval(Duration.ofHours(1));
+        dispatcher = new SessionEventDispatcher(properties, refreshTokenStore);
+        dispatcher.start();
+        refreshTokenStore.storeRefreshToken("alice-refresh", "alice", Instant.now().plusSeconds(600));
+        refreshTokenStore.storeRefreshToken("bob-refresh", "bob", Instant.now().plusSeconds(600));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.stop();
+        refreshTokenRepository.deleteAll();
+        invalidatedTokenRepository.deleteAll();
+    }
+
+    @Test
+    void closesOldestStreamOverCap() {
+        Instant expiresAt = Instant.now().plusSeconds(600);
+
+        dispatcher.open("alice", "alice-1", expiresAt);
+        dispatcher.open("alice", "alice-2", expiresAt);
+        dispatcher.open("alice", "alice-3", expiresAt);
+        dispatcher.open("bob", "bob-1", expiresAt);
+
+        assertThat(dispatcher.openStreams("alice")).isEqualTo(2);
+        assertThat(dispatcher.openStreams("bob")).isEqualTo(1);
+    }
+
+    @Test
+    void closesStreamsWhenTokenExpires() {
+        dispatcher.open("alice", "alice-1", Instant.now().minusSeconds(1));
+        dispatcher.open("alice", "alice-2", Instant.now().plusSeconds(600));
+
+        dispatcher.sweep();
+
+        assertThat(dispatcher.openStreams("alice")).isEqualTo(1);
+    }
+
+    @Test
+    void closesOnlyTheStreamWhoseTokenWasRevoked() {
+        Instant expiresAt = Instant.now().plusSeconds(600);
+        dispatcher.open("alice", "alice-1", expiresAt);
+        dispatcher.open("alice", "alice-2", expiresAt);
+
+        refreshTokenStore.invalidateAccessToken("alice-1", "alice", expiresAt);
+        dispatcher.poll();
+
+        assertThat(dispatcher.openStreams("alice")).isEqualTo(1);
+    }
+
+    @Test
+    void closesEveryStreamOfUserLoggedOutEverywhere() {
+        Instant expiresAt = Instant.now().plusSeconds(600);
+        dispatcher.open("alice", "alice-1", expiresAt);
+        dispatcher.open("alice", "alice-2", expiresAt);
+        dispatcher.open("bob", "bob-1", expiresAt);
+
+        refreshTokenStore.invalidateAllRefreshTokens("alice");
+        dispatcher.poll();
+
+        assertThat(dispatcher.openStreams("alice")).isZero();
+        assertThat(dispatcher.openStreams("bob")).isEqualTo(1);
+    }
+
+    @Test
+    void keepsStreamsOpenedAfterLoggingOutEverywhere() throws Exception {
+        Instant expiresAt = Instant.now().plusSeconds(600);
+        refreshTokenStore.invalidateAllRefreshTokens("alice");
+        Thread.sleep(5);
+        dispatcher.open("alice", "alice-new", expiresAt);
+
+        dispatcher.poll();
+        dispatcher.poll();
+
+        assertThat(dispatcher.openStreams("alice")).isEqualTo(1);
+    }
+}
@@ -0,0 +1,48 @@
+package com.maruf.oauth.service;
+
+import com.maruf.oauth.config.TokenStoreProperties;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataMongoTest
+@Import({TokenCollections.class, TokenStoreProperties.class})
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "app.security.token-store.policies.touch-refresh-token.write-concern=unacknowledged",
+        "app.security.token-store.policies.revoke-access-token.write-concern=journaled",
+        "app.security.token-store.policies.check-access-token.read-preference=nearest",
+        "app.security.token-store.policies.check-access-token.max-staleness=90s"
+})
+class TokenCollectionsTest {
+
+    @Autowired
+    private TokenCollections tokenCollections;
+
+    @Test
+    void appliesConfiguredPolicyPerOperation() {
+        assertThat(tokenCollections.forOperation(TokenStoreOperation.TOUCH_REFRESH_TOKEN, "token").getWriteConcern())
+                .isEqualTo(WriteConcern.UNACKNOWLEDGED);
+        assertThat(tokenCollections.forOperation(TokenStoreOperation.REVOKE_ACCESS_TOKEN, "token").getWriteConcern())
+                .isEqualTo(WriteConcern.JOURNALED);
+        assertThat(tokenCollections.forOperation(TokenStoreOperation.CHECK_ACCESS_TOKEN, "token").getReadPreference())
+                .isEqualTo(ReadPreference.nearest(90_000, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void operationsWithoutPolicyShareCollectionHandle() {
+        assertThat(tokenCollections.forOperation(TokenStoreOperation.STORE_REFRESH_TOKEN, "token"))
+                .isSameAs(tokenCollections.forOperation(TokenStoreOperation.REVOKE_REFRESH_TOKEN, "token"))
+                .isSameAs(tokenCollections.forOperation(TokenStoreOperation.FIND_REFRESH_TOKEN, "token"))
+                .isNotSameAs(tokenCollections.forOperation(TokenStoreOperation.TOUCH_REFRESH_TOKEN, "token"));
+    }
+}
@@ -0,0 +1,104 @@
+package com.maruf.oauth.service;
+
+import com.maruf.oauth.config.AuthMetrics;
+import com.maruf.oauth.config.RefreshTokenSecurityProperties;
+import com.maruf.oauth.config.TokenStoreProperties;
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Spreads tokens across two databases on the embedded server, standing in for separate deployments.
+ */
+@DataMongoTest
+@Import({RefreshTokenStore.class, RefreshTokenSecurityProperties.class, TokenWriteBatcher.class, TokenStoreProperties.class,
+        TokenCollections.class, AuthMetrics.class})
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "app.security.token-store.shards[0].database=oauth_test_shard_a",
+        "app.security.token-store.shards[0].slots=0-127",
+        "app.security.token-store.shards[1].database=oauth_test_shard_b",
+        "app.security.token-store.shards[1].slots=128-255"
+})
+class TokenShardingTest {
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @AfterEach
+    void tearDown() {
+        for (String database : List.of("oauth_test_shard_a", "oauth_test_shard_b")) {
+            MongoDatabase shard = mongoTemplate.getMongoDatabaseFactory().getMongoDatabase(database);
+            shard.getCollection("refresh_tokens").deleteMany(new Document());
+            shard.getCollection("invalidated_access_tokens").deleteMany(new Document());
+        }
+    }
+
+    @Test
+    void slotsStoredHashesByTheirFirstByte() {
+        String stored = refreshTokenStore.applyHash("sharded-refresh");
+
+        assertThat(TokenCollections.slotOf(stored)).isEqualTo(Base64.getUrlDecoder().decode(stored)[0] & 0xFF);
+        assertThat(TokenCollections.slotOf("raw.jwt.value")).isBetween(0, TokenCollections.SLOT_COUNT - 1);
+    }
+
+    @Test
+    void routesTokensAcrossShardsAndResolvesThem() {
+        for (int i = 0; i < 40; i++) {
+            refreshTokenStore.storeRefreshToken("sharded-" + i, "user@example.com", Instant.now().plusSeconds(60));
+            refreshTokenStore.invalidateAccessToken("access-" + i, "user@example.com", Instant.now().plusSeconds(60));
+        }
+
+        assertThat(countRefreshTokens("oauth_test_shard_a")).isPositive();
+        assertThat(countRefreshTokens("oauth_test_shard_b")).isPositive();
+        assertThat(countRefreshTokens("oauth_test_shard_a") + countRefreshTokens("oauth_test_shard_b")).isEqualTo(40);
+        assertThat(mongoTemplate.getCollection("refresh_tokens").countDocuments()).isZero();
+
+        for (int i = 0; i < 40; i++) {
+            assertThat(refreshTokenStore.getUsernameFromRefreshToken("sharded-" + i)).isEqualTo("user@example.com");
+            assertThat(refreshTokenStore.isAccessTokenInvalidated("access-" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void invalidateAllRefreshTokensFansOutToEveryShard() {
+        for (int i = 0; i < 20; i++) {
+            refreshTokenStore.storeRefreshToken("mine-" + i, "user@example.com", Instant.now().plusSeconds(60));
+        }
+        refreshTokenStore.storeRefreshToken("theirs", "other@example.com", Instant.now().plusSeconds(60));
+
+        assertThat(refreshTokenStore.invalidateAllRefreshTokens("user@example.com")).isEqualTo(20);
+
+        assertThat(refreshTokenStore.getUsernameFromRefreshToken("mine-0")).isNull();
+        assertThat(refreshTokenStore.getUsernameFromRefreshToken("theirs")).isEqualTo("other@example.com");
+    }
+
+    @Test
+    void shardDatabasesGetUniqueTokenIndex() {
+        assertThat(mongoTemplate.getMongoDatabaseFactory().getMongoDatabase("oauth_test_shard_b")
+                .getCollection("invalidated_access_tokens").listIndexes().into(new ArrayList<>()))
+                .anySatisfy(index -> assertThat(index.getBoolean("unique", false)).isTrue());
+    }
+
+    private long countRefreshTokens(String database) {
+        return mongoTemplate.getMongoDatabaseFactory().getMongoDatabase(database)
+                .getCollection("refresh_tokens").countDocuments();
+    }
+}
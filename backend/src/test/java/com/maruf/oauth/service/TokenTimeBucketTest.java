@@ -0,0 +1,110 @@
+package com.maruf.oauth.service;
+
+import com.maruf.oauth.config.AuthMetrics;
+import com.maruf.oauth.config.RefreshTokenSecurityProperties;
+import com.maruf.oauth.config.TokenStoreProperties;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataMongoTest
+@Import({RefreshTokenStore.class, RefreshTokenSecurityProperties.class, TokenWriteBatcher.class, TokenStoreProperties.class,
+        TokenCollections.class, AuthMetrics.class})
+@ActiveProfiles("test")
+@TestPropertySource(properties = "app.security.token-store.time-buckets.enabled=true")
+class TokenTimeBucketTest {
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private TokenCollections tokenCollections;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @AfterEach
+    void tearDown() {
+        tokenCollections.dropExpiredBuckets(Instant.now().plus(Duration.ofDays(30)));
+    }
+
+    @Test
+    void writesTokensIntoExpiryBuckets() {
+        Instant refreshExpiry = Instant.now().plus(Duration.ofDays(3));
+        Instant accessExpiry = Instant.now().plus(Duration.ofMinutes(10));
+        refreshTokenStore.storeRefreshToken("bucketed-refresh", "user@example.com", refreshExpiry);
+        refreshTokenStore.invalidateAccessToken("bucketed-access", "user@example.com", accessExpiry);
+
+        String refreshBucket = "refresh_tokens_"
+                + DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC).format(refreshExpiry);
+        String accessBucket = "invalidated_access_tokens_"
+                + DateTimeFormatter.ofPattern("yyyyMMddHH").withZone(ZoneOffset.UTC).format(accessExpiry);
+        assertThat(mongoTemplate.getCollection(refreshBucket).countDocuments()).isEqualTo(1);
+        assertThat(mongoTemplate.getCollection(accessBucket).countDocuments()).isEqualTo(1);
+
+        assertThat(refreshTokenStore.getUsernameFromRefreshToken("bucketed-refresh")).isEqualTo("user@example.com");
+        assertThat(refreshTokenStore.isAccessTokenInvalidated("bucketed-access")).isTrue();
+        assertThat(refreshTokenStore.isAccessTokenInvalidated("never-revoked")).isFalse();
+    }
+
+    @Test
+    void revokesRefreshTokenWithoutKnowingItsBucket() {
+        refreshTokenStore.storeRefreshToken("to-revoke", "user@example.com", Instant.now().plus(Duration.ofDays(5)));
+
+        refreshTokenStore.invalidateRefreshToken("to-revoke");
+
+        assertThat(refreshTokenStore.getUsernameFromRefreshToken("to-revoke")).isNull();
+    }
+
+    @Test
+    void filesJwtsUnderTheirOwnExpiryAndIndexesBucketsByUsername() {
+        Instant claimedExpiry = Instant.now().plus(Duration.ofDays(4));
+        String token = jwtExpiringAt(claimedExpiry);
+        refreshTokenStore.storeRefreshToken(token, "user@example.com", Instant.now().plus(Duration.ofDays(1)));
+
+        String bucket = "refresh_tokens_"
+                + DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC).format(claimedExpiry);
+        assertThat(mongoTemplate.getCollection(bucket).countDocuments()).isEqualTo(1);
+        assertThat(mongoTemplate.getCollection(bucket).listIndexes())
+                .anyMatch(index -> index.get("key", Document.class).containsKey("username"));
+        assertThat(refreshTokenStore.getUsernameFromRefreshToken(token)).isEqualTo("user@example.com");
+
+        String forged = jwtExpiringAt(Instant.now().plus(Duration.ofDays(400)));
+        assertThat(refreshTokenStore.getUsernameFromRefreshToken(forged)).isNull();
+    }
+
+    @Test
+    void dropsOnlyBucketsWhoseRangeHasPassed() {
+        Instant now = Instant.now();
+        refreshTokenStore.storeRefreshToken("tomorrow", "user@example.com", now.plus(Duration.ofDays(1)));
+        refreshTokenStore.storeRefreshToken("next-week", "user@example.com", now.plus(Duration.ofDays(6)));
+
+        int dropped = tokenCollections.dropExpiredBuckets(now.plus(Duration.ofDays(3)));
+
+        assertThat(dropped).isEqualTo(1);
+        assertThat(refreshTokenStore.getUsernameFromRefreshToken("tomorrow")).isNull();
+        assertThat(refreshTokenStore.getUsernameFromRefreshToken("next-week")).isEqualTo("user@example.com");
+    }
+
+    private static String jwtExpiringAt(Instant expiresAt) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String payload = "{\"sub\":\"user@example.com\",\"exp\":" + expiresAt.getEpochSecond() + "}";
+        return encoder.encodeToString("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + ".signature";
+    }
+}
@@ -0,0 +1,179 @@
+package com.maruf.oauth.service;
+
+import com.maruf.oauth.config.AuthMetrics;
+import com.maruf.oauth.config.RefreshTokenSecurityProperties;
+import com.maruf.oauth.config.TokenStoreProperties;
+import com.maruf.oauth.repository.InvalidatedTokenRepository;
+import com.maruf.oauth.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataMongoTest
+@Import({RefreshTokenStore.class, RefreshTokenSecurityProperties.class, TokenWriteBatcher.class, TokenStoreProperties.class,
+        TokenCollections.class, AuthMetrics.class})
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "app.security.token-store.write-behind.enabled=true",
+        "app.security.token-store.write-behind.batch-size=50",
+        "app.security.token-store.write-behind.flush-interval=200ms"
+})
+class TokenWriteBatcherTest {
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private InvalidatedTokenRepository invalidatedTokenRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        refreshTokenRepository.deleteAll();
+        invalidatedTokenRepository.deleteAll();
+    }
+
+    @Test
+    void pendingWritesAreVisibleBeforeTheyAreFlushed() throws Exception {
+        Instant expiresAt = Instant.now().plusSeconds(60);
+        CompletableFuture<Void> stored = refreshTokenStore.storeRefreshToken("queued-refresh", "user@example.com", expiresAt);
+        CompletableFuture<Void> revoked = refreshTokenStore.invalidateAccessToken("queued-access", "user@example.com", expiresAt);
+
+        assertThat(refreshTokenStore.getUsernameFromRefreshToken("queued-refresh")).isEqualTo("user@example.com");
+        assertThat(refreshTokenStore.isAccessTokenInvalidated("queued-access")).isTrue();
+
+        CompletableFuture.allOf(stored, revoked).get(5, TimeUnit.SECONDS);
+
+        assertThat(refreshTokenRepository.findAll()).hasSize(1);
+        assertThat(invalidatedTokenRepository.existsByToken("queued-access")).isTrue();
+        assertThat(refreshTokenStore.getUsernameFromRefreshToken("queued-refresh")).isEqualTo("user@example.com");
+    }
+
+    @Test
+    void queuedRevocationHidesRefreshTokenImmediately() throws Exception {
+        refreshTokenStore.storeRefreshToken("short-lived", "user@example.com", Instant.now().plusSeconds(60))
+                .get(5, TimeUnit.SECONDS);
+
+        CompletableFuture<Void> revoked = refreshTokenStore.invalidateRefreshToken("short-lived");
+        assertThat(refreshTokenStore.getUsernameFromRefreshToken("short-lived")).isNull();
+
+        revoked.get(5, TimeUnit.SECONDS);
+        assertThat(refreshTokenRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    void secondRotationOfQueuedTokenLoses() throws Exception {
+        refreshTokenStore.storeRefreshToken("rotated-twice", "user@example.com", Instant.now().plusSeconds(60))
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(refreshTokenStore.rotateRefreshToken("rotated-twice", "successor-a", "user@example.com",
+                Instant.now().plusSeconds(120))).isTrue();
+        assertThat(refreshTokenStore.rotateRefreshToken("rotated-twice", "successor-b", "user@example.com",
+                Instant.now().plusSeconds(120))).isFalse();
+
+        assertThat(refreshTokenStore.getUsernameFromRefreshToken("successor-a", false)).isEqualTo("user@example.com");
+        assertThat(refreshTokenStore.getUsernameFromRefreshToken("successor-b", false)).isNull();
+    }
+
+    @Test
+    void rotationAfterTheRevocationWasFlushedLoses() throws Exception {
+        refreshTokenStore.storeRefreshToken("rotated-late", "user@example.com", Instant.now().plusSeconds(60));
+
+        assertThat(refreshTokenStore.rotateRefreshToken("rotated-late", "successor-a", "user@example.com",
+                Instant.now().plusSeconds(120))).isTrue();
+        refreshTokenStore.storeRefreshToken("flush-marker", "user@example.com", Instant.now().plusSeconds(60))
+                .get(5, TimeUnit.SECONDS);
+        assertThat(refreshTokenStore.rotateRefreshToken("rotated-late", "successor-b", "user@example.com",
+                Instant.now().plusSeconds(120))).isFalse();
+
+        refreshTokenStore.storeRefreshToken("second-marker", "user@example.com", Instant.now().plusSeconds(60))
+                .get(5, TimeUnit.SECONDS);
+        assertThat(refreshTokenStore.getUsernameFromRefreshToken("rotated-late", false)).isNull();
+        assertThat(refreshTokenStore.getUsernameFromRefreshToken("successor-a", false)).isEqualTo("user@example.com");
+        assertThat(refreshTokenStore.getUsernameFromRefreshToken("successor-b", false)).isNull();
+    }
+
+    @Test
+    void batchesManyWritesAndAcknowledgesEachOne() throws Exception {
+        List<CompletableFuture<Void>> acks = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            acks.add(refreshTokenStore.storeRefreshToken("bulk-" + i, "user" + i + "@example.com",
+                    Instant.now().plusSeconds(60)));
+        }
+        acks.add(refreshTokenStore.invalidateRefreshToken("bulk-0"));
+
+        double flushedBefore = flushedWrites();
+        long flushesBefore = flushes();
+        CompletableFuture.allOf(acks.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        assertThat(refreshTokenRepository.count()).isEqualTo(119);
+        assertThat(flushedWrites() - flushedBefore).isEqualTo(121);
+        assertThat(flushes() - flushesBefore).isGreaterThanOrEqualTo(3);
+        assertThat(refreshTokenStore.getUsernameFromRefreshToken("bulk-0")).isNull();
+    }
+
+    @Test
+    void duplicateAccessTokenRevocationsSucceed() throws Exception {
+        Instant expiresAt = Instant.now().plusSeconds(60);
+        refreshTokenStore.invalidateAccessToken("twice", "user@example.com", expiresAt).get(5, TimeUnit.SECONDS);
+        refreshTokenStore.invalidateAccessToken("twice", "user@example.com", expiresAt).get(5, TimeUnit.SECONDS);
+
+        assertThat(refreshTokenStore.isAccessTokenInvalidated("twice")).isTrue();
+    }
+
+    @Test
+    void countsWritesMongoRejects() throws Exception {
+        Instant expiresAt = Instant.now().plusSeconds(60);
+        refreshTokenStore.storeRefreshToken("stored-twice", "user@example.com", expiresAt).get(5, TimeUnit.SECONDS);
+
+        assertThatThrownBy(() -> refreshTokenStore.storeRefreshToken("stored-twice", "user@example.com", expiresAt)
+                .get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+
+        assertThat(meterRegistry.get("auth.token.write.failures").tag("operation", "store_refresh_token")
+                .counter().count()).isEqualTo(1);
+    }
+
+    private double flushedWrites() {
+        DistributionSummary summary = meterRegistry.find("auth.token.write.batch.size").summary();
+        return summary == null ? 0 : summary.totalAmount();
+    }
+
+    private long flushes() {
+        Timer timer = meterRegistry.find("auth.token.write.flush").timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    @TestConfiguration
+    static class MeterConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.maruf.oauth.service;
+
+import com.maruf.oauth.config.AuthMetrics;
+import com.maruf.oauth.config.RefreshTokenSecurityProperties;
+import com.maruf.oauth.config.TokenStoreProperties;
+import com.maruf.oauth.repository.InvalidatedTokenRepository;
+import com.maruf.oauth.repository.RefreshTokenRepository;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the blocking token store operations on virtual threads and fails if Flight Recorder reports
+ * a {@code jdk.VirtualThreadPinned} event whose stack passes through application code.
+ */
+@DataMongoTest
+@Import({RefreshTokenStore.class, RefreshTokenSecurityProperties.class, TokenWriteBatcher.class, TokenStoreProperties.class,
+        TokenCollections.class, AuthMetrics.class})
+@ActiveProfiles("test")
+class VirtualThreadPinningTest {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private InvalidatedTokenRepository invalidatedTokenRepository;
+
+    @AfterEach
+    void tearDown() {
+        refreshTokenRepository.deleteAll();
+        invalidatedTokenRepository.deleteAll();
+    }
+
+    @Test
+    void tokenStoreOperationsDoNotPinCarrierThreads() throws Exception {
+        Path dump = Files.createTempFile("pinning", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < 50; i++) {
+                    String token = "pinning-token-" + i;
+                    futures.add(executor.submit(() -> {
+                        Instant expiresAt = Instant.now().plusSeconds(60);
+                        refreshTokenStore.storeRefreshToken(token, "user@example.com", expiresAt);
+                        refreshTokenStore.getUsernameFromRefreshToken(token);
+                        refreshTokenStore.invalidateAccessToken("access-" + token, "user@example.com", expiresAt);
+                        refreshTokenStore.isAccessTokenInvalidated("access-" + token);
+                        refreshTokenStore.invalidateRefreshToken(token);
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get(30, TimeUnit.SECONDS);
+                }
+            }
+
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<String> pinnedInApplicationCode = new ArrayList<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(dump)) {
+            if (PINNED_EVENT.equals(event.getEventType().getName()) && event.getStackTrace() != null) {
+                for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+                    String type = frame.getMethod().getType().getName();
+                    if (type.startsWith("com.maruf.oauth")) {
+                        pinnedInApplicationCode.add(type + "#" + frame.getMethod().getName());
+                        break;
+                    }
+                }
+            }
+        }
+        Files.deleteIfExists(dump);
+
+        assertThat(pinnedInApplicationCode).isEmpty();
+    }
+}
@@ -0,0 +1,53 @@
+package com.maruf.oauth.support;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Minimal per-session cookie store for load tests driving the backend with {@link java.net.http.HttpClient}.
+ * Ignores domain and path, since every request goes to the same host.
+ */
+public final class CookieJar {
+
+    private final Map<String, String> cookies = new LinkedHashMap<>();
+
+    /**
+     * Adds the stored cookies to a request.
+     */
+    public synchronized HttpRequest.Builder applyTo(HttpRequest.Builder request) {
+        if (!cookies.isEmpty()) {
+            request.header("Cookie", cookies.entrySet().stream()
+                    .map(cookie -> cookie.getKey() + "=" + cookie.getValue())
+                    .collect(Collectors.joining("; ")));
+        }
+        return request;
+    }
+
+    /**
+     * Applies {@code Set-Cookie} headers from a response, dropping cleared cookies.
+     */
+    public synchronized void update(HttpResponse<?> response) {
+        for (String header : response.headers().allValues("Set-Cookie")) {
+            String pair = header.split(";", 2)[0];
+            int separator = pair.indexOf('=');
+            String name = pair.substring(0, separator).trim();
+            String value = pair.substring(separator + 1).trim();
+            if (value.isEmpty() || header.contains("Max-Age=0")) {
+                cookies.remove(name);
+            } else {
+                cookies.put(name, value);
+            }
+        }
+    }
+
+    public synchronized boolean contains(String name) {
+        return cookies.containsKey(name);
+    }
+
+    public synchronized void clear() {
+        cookies.clear();
+    }
+}
@@ -0,0 +1,137 @@
+package com.maruf.oauth.support;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: requests arrive at a fixed rate regardless of how quickly earlier ones complete.
+ * Latency is measured from each request's intended start time rather than from when a thread got round to
+ * sending it, so queueing behind a stalled server is counted instead of hidden (coordinated omission).
+ */
+public final class OpenModelLoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final List<Operation> operations;
+    private final int totalWeight;
+    private final Random random;
+
+    public OpenModelLoadGenerator(List<Operation> operations, long seed) {
+        this.operations = List.copyOf(operations);
+        this.totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Issues requests at {@code ratePerSecond} for {@code duration}, picking operations by weight.
+     *
+     * @return per-operation latency histograms and error counts, in operation order
+     */
+    public Map<String, OperationResult> run(double ratePerSecond, Duration duration) throws InterruptedException {
+        Map<String, OperationResult> results = new LinkedHashMap<>();
+        operations.forEach(operation -> results.put(operation.name(), new OperationResult()));
+
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService workers = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "load-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long requests = duration.toNanos() / intervalNanos;
+        long start = System.nanoTime();
+        for (long i = 0; i < requests; i++) {
+            long intendedStart = start + i * intervalNanos;
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = pick();
+            OperationResult result = results.get(operation.name());
+            workers.execute(() -> {
+                boolean succeeded;
+                try {
+                    succeeded = operation.action().call();
+                } catch (Exception e) {
+                    succeeded = false;
+                }
+                if (succeeded) {
+                    long latency = System.nanoTime() - intendedStart;
+                    result.latencies.recordValue(Math.min(latency, HIGHEST_TRACKABLE_NANOS));
+                } else {
+                    result.errors.increment();
+                }
+            });
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(2, TimeUnit.MINUTES)) {
+            workers.shutdownNow();
+            throw new IllegalStateException("Load generator requests did not complete in time");
+        }
+        return results;
+    }
+
+    private Operation pick() {
+        int ticket = random.nextInt(totalWeight);
+        for (Operation operation : operations) {
+            ticket -= operation.weight();
+            if (ticket < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Operation weights must be positive");
+    }
+
+    /**
+     * One kind of request in the workload mix.
+     *
+     * @param name   name used in reports and SLO properties
+     * @param weight relative share of arrivals
+     * @param action sends the request and returns whether the response was as expected
+     */
+    public record Operation(String name, int weight, Action action) {
+    }
+
+    @FunctionalInterface
+    public interface Action {
+        boolean call() throws Exception;
+    }
+
+    /**
+     * Latencies of successful requests in nanoseconds, and the number that failed.
+     */
+    public static final class OperationResult {
+        private final Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+        private final LongAdder errors = new LongAdder();
+
+        public Histogram latencies() {
+            return latencies;
+        }
+
+        public long errors() {
+            return errors.sum();
+        }
+
+        public double errorRate() {
+            long total = latencies.getTotalCount() + errors();
+            return total == 0 ? 0 : (double) errors() / total;
+        }
+
+        public double percentileMillis(double percentile) {
+            return latencies.getValueAtPercentile(percentile) / 1e6;
+        }
+    }
+}
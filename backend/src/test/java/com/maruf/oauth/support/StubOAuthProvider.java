@@ -0,0 +1,313 @@
+package com.maruf.oauth.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the GitHub and Microsoft Entra ID endpoints the OAuth2 login flow calls.
+ * Serves authorize, token, user-info and JWKS responses over real HTTP so the full client stack is exercised,
+ * with optional latency and failure injection for load tests.
+ */
+public final class StubOAuthProvider implements AutoCloseable {
+
+    public static final String GITHUB_CLIENT_ID = "test-github-client-id";
+    public static final String AZURE_CLIENT_ID = "test-azure-client-id";
+    public static final String AZURE_DISCOVERY_PATH = "/azure/.well-known/openid-configuration";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RSAKey signingKey;
+    private final Map<String, Grant> grantsByCode = new ConcurrentHashMap<>();
+    private final AtomicInteger users = new AtomicInteger();
+    private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+    private volatile Duration latency = Duration.ZERO;
+    private volatile double failureRate;
+
+    private StubOAuthProvider() throws IOException, JOSEException {
+        this.signingKey = new RSAKeyGenerator(2048).keyID("stub-key").generate();
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/github/authorize", this::authorize);
+        server.createContext("/azure/authorize", this::authorize);
+        server.createContext("/github/token", exchange -> handle(exchange, (form, authorization) -> githubToken(form)));
+        server.createContext("/github/user", exchange -> handle(exchange, (form, authorization) -> githubUser(authorization)));
+        server.createContext("/azure/token", exchange -> handle(exchange, (form, authorization) -> azureToken(form)));
+        server.createContext("/azure/userinfo", exchange -> handle(exchange, (form, authorization) -> azureUser(authorization)));
+        server.createContext("/azure/jwks", exchange -> handle(exchange,
+                (form, authorization) -> new JWKSet(signingKey.toPublicJWK()).toJSONObject()));
+        server.createContext(AZURE_DISCOVERY_PATH, exchange -> handle(exchange, (form, authorization) -> azureMetadata()));
+        server.start();
+    }
+
+    public static StubOAuthProvider start() {
+        try {
+            return new StubOAuthProvider();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Points the GitHub and Azure registrations from {@code application-test.yaml} at this stub.
+     */
+    public void register(DynamicPropertyRegistry registry) {
+        String prefix = "spring.security.oauth2.client.provider.";
+        registry.add(prefix + "github.authorization-uri", () -> baseUrl() + "/github/authorize");
+        registry.add(prefix + "github.token-uri", () -> baseUrl() + "/github/token");
+        registry.add(prefix + "github.user-info-uri", () -> baseUrl() + "/github/user");
+        registry.add(prefix + "azure.authorization-uri", () -> baseUrl() + "/azure/authorize");
+        registry.add(prefix + "azure.token-uri", () -> baseUrl() + "/azure/token");
+        registry.add(prefix + "azure.user-info-uri", () -> baseUrl() + "/azure/userinfo");
+        registry.add(prefix + "azure.jwk-set-uri", () -> baseUrl() + "/azure/jwks");
+    }
+
+    /**
+     * Configures the Azure provider by {@code issuer-uri} only, so its endpoints come from this stub's
+     * OIDC discovery document.
+     */
+    public void registerAzureIssuer(DynamicPropertyRegistry registry) {
+        String prefix = "spring.security.oauth2.client.provider.azure.";
+        registry.add(prefix + "issuer-uri", this::azureIssuer);
+        registry.add(prefix + "authorization-uri", () -> "");
+        registry.add(prefix + "token-uri", () -> "");
+        registry.add(prefix + "user-info-uri", () -> "");
+        registry.add(prefix + "jwk-set-uri", () -> "");
+    }
+
+    public String azureIssuer() {
+        return baseUrl() + "/azure";
+    }
+
+    /**
+     * Simulates a new user approving the consent screen and returns the authorization code.
+     * Every approval signs in a distinct user so concurrent logins never share tokens.
+     *
+     * @param nonce nonce parameter from the authorization redirect, {@code null} for plain OAuth2
+     */
+    public String approve(String nonce) {
+        String code = UUID.randomUUID().toString();
+        grantsByCode.put(code, new Grant(users.incrementAndGet(), nonce));
+        return code;
+    }
+
+    /**
+     * Delays every response, simulating a slow provider.
+     */
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * Answers the given fraction of token, user-info and JWKS requests with HTTP 503, simulating
+     * an unreliable provider. Authorize redirects are never failed.
+     */
+    public void setFailureRate(double failureRate) {
+        this.failureRate = failureRate;
+    }
+
+    public int requestCount(String path) {
+        AtomicInteger count = requestCounts.get(path);
+        return count == null ? 0 : count.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private Map<String, Object> githubToken(Map<String, String> form) {
+        return Map.of(
+                "access_token", "gho_" + grant(form).user() + "_" + UUID.randomUUID(),
+                "token_type", "bearer",
+                "scope", "read:user user:email");
+    }
+
+    private Map<String, Object> githubUser(String authorization) {
+        int user = userFromAccessToken(authorization);
+        return Map.of(
+                "id", 583231 + user,
+                "login", "octocat-" + user,
+                "name", "The Octocat",
+                "email", "octocat-" + user + "@example.com",
+                "avatar_url", "https://avatars.githubusercontent.com/u/583231");
+    }
+
+    private Map<String, Object> azureToken(Map<String, String> form) throws JOSEException {
+        Instant now = Instant.now();
+        Grant grant = grant(form);
+        JWTClaimsSet.Builder claims = new JWTClaimsSet.Builder()
+                .issuer(azureIssuer())
+                .subject("entra-subject-" + grant.user())
+                .audience(AZURE_CLIENT_ID)
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plusSeconds(3600)));
+        if (grant.nonce() != null) {
+            claims.claim("nonce", grant.nonce());
+        }
+        SignedJWT idToken = new SignedJWT(
+                new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(signingKey.getKeyID()).build(), claims.build());
+        idToken.sign(new RSASSASigner(signingKey));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("access_token", "entra_" + grant.user() + "_" + UUID.randomUUID());
+        response.put("token_type", "Bearer");
+        response.put("expires_in", 3600);
+        response.put("id_token", idToken.serialize());
+        return response;
+    }
+
+    private Map<String, Object> azureMetadata() {
+        return Map.of(
+                "issuer", azureIssuer(),
+                "authorization_endpoint", azureIssuer() + "/authorize",
+                "token_endpoint", azureIssuer() + "/token",
+                "userinfo_endpoint", azureIssuer() + "/userinfo",
+                "jwks_uri", azureIssuer() + "/jwks",
+                "response_types_supported", List.of("code"),
+                "subject_types_supported", List.of("pairwise"),
+                "id_token_signing_alg_values_supported", List.of("RS256"));
+    }
+
+    private Map<String, Object> azureUser(String authorization) {
+        int user = userFromAccessToken(authorization);
+        return Map.of(
+                "sub", "entra-subject-" + user,
+                "oid", String.format("00000000-0000-0000-0000-%012d", user),
+                "name", "Entra User",
+                "preferred_username", "entra.user-" + user + "@example.com",
+                "email", "entra.user-" + user + "@example.com");
+    }
+
+    private Grant grant(Map<String, String> form) {
+        Grant grant = grantsByCode.remove(String.valueOf(form.get("code")));
+        return grant == null ? new Grant(0, null) : grant;
+    }
+
+    /**
+     * Reads the user number embedded in access tokens issued by this stub.
+     */
+    private static int userFromAccessToken(String authorization) {
+        if (authorization == null) {
+            return 0;
+        }
+        String[] parts = authorization.substring(authorization.indexOf(' ') + 1).split("_");
+        return parts.length < 3 ? 0 : Integer.parseInt(parts[1]);
+    }
+
+    private void handle(HttpExchange exchange, Endpoint endpoint) throws IOException {
+        requestCounts.computeIfAbsent(exchange.getRequestURI().getPath(), path -> new AtomicInteger()).incrementAndGet();
+        try {
+            sleep(latency);
+            if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            Map<String, String> form = parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            byte[] body;
+            try {
+                body = objectMapper.writeValueAsBytes(
+                        endpoint.respond(form, exchange.getRequestHeaders().getFirst("Authorization")));
+            } catch (JOSEException e) {
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            exchange.getResponseHeaders().put("Content-Type", List.of("application/json"));
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Emulates the consent screen being approved immediately by redirecting back to the client
+     * with a fresh authorization code and the original state.
+     */
+    private void authorize(HttpExchange exchange) throws IOException {
+        requestCounts.computeIfAbsent(exchange.getRequestURI().getPath(), path -> new AtomicInteger()).incrementAndGet();
+        try {
+            sleep(latency);
+            Map<String, String> query = parseForm(Objects.requireNonNullElse(exchange.getRequestURI().getRawQuery(), ""));
+            String location = query.get("redirect_uri")
+                    + "?code=" + URLEncoder.encode(approve(query.get("nonce")), StandardCharsets.UTF_8)
+                    + "&state=" + URLEncoder.encode(query.get("state"), StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().put("Location", List.of(location));
+            exchange.sendResponseHeaders(302, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Map<String, String> parseForm(String body) {
+        Map<String, String> form = new HashMap<>();
+        if (body.isEmpty()) {
+            return form;
+        }
+        for (String pair : body.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            form.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return form;
+    }
+
+    @FunctionalInterface
+    private interface Endpoint {
+        Object respond(Map<String, String> form, String authorization) throws JOSEException;
+    }
+
+    private record Grant(int user, String nonce) {
+    }
+}
@@ -2,8 +2,8 @@ import { render, renderHook, screen, waitFor } from "@testing-library/react";
 import userEvent from "@testing-library/user-event";
 import { beforeEach, describe, expect, it, vi } from "vitest";
 
-vi.mock("@/lib/auth/status", () => ({
-  checkAuthStatus: vi.fn(),
+vi.mock("@/lib/auth/bootstrap", () => ({
+  fetchBootstrap: vi.fn(),
 }));
 
 vi.mock("next/navigation", () => ({
@@ -20,9 +20,9 @@ vi.mock("sonner", () => ({
 }));
 
 import { AuthProvider, useAuth } from "@/contexts/AuthContext";
-import { checkAuthStatus } from "@/lib/auth/status";
+import { fetchBootstrap } from "@/lib/auth/bootstrap";
 
-const mockStatus = vi.mocked(checkAuthStatus);
+const mockStatus = vi.mocked(fetchBootstrap);
 
 describe("AuthContext", () => {
   beforeEach(() => {
@@ -32,15 +32,25 @@ describe("AuthContext", () => {
   it("bootstraps auth state and supports manual refresh", async () => {
     mockStatus.mockResolvedValueOnce({
       authenticated: true,
-      user: { login: "octocat", name: "Octocat" },
+      user: { id: "1", login: "octocat", name: "Octocat" },
+      providers: [{ key: "github", name: "GitHub" }],
+      localAuthEnabled: false,
+    });
+    mockStatus.mockResolvedValueOnce({
+      authenticated: false,
+      providers: [{ key: "github", name: "GitHub" }],
+      localAuthEnabled: false,
     });
-    mockStatus.mockResolvedValueOnce({ authenticated: false });
 
     const Consumer = () => {
-      const { user, authenticated, loading, refreshAuth } = useAuth();
+      const { user, authenticated, providers, loading, refreshAuth } =
+        useAuth();
       return (
         <div>
           <span data-testid="user">{user?.login ?? "none"}</span>
+          <span data-testid="providers">
+            {providers.map((provider) => provider.key).join(",")}
+          </span>
           <span data-testid="authenticated">
             {authenticated ? "yes" : "no"}
           </span>
@@ -61,6 +71,7 @@ describe("AuthContext", () => {
       expect(screen.getByTestId("authenticated")).toHaveTextContent("yes")
     );
     expect(screen.getByTestId("user")).toHaveTextContent("octocat");
+    expect(screen.getByTestId("providers")).toHaveTextContent("github");
     expect(screen.getByTestId("loading")).toHaveTextContent("no");
     expect(mockStatus).toHaveBeenCalledTimes(1);
 
@@ -45,6 +45,18 @@ describe("apiClient interceptors", () => {
     expect(responseB.data).toEqual({ call: 2 });
   });
 
+  it("retries with the shared cookie when another tab won the rotation", async () => {
+    mock.onGet("/api/protected/data").replyOnce(401);
+    mock
+      .onPost("/api/auth/refresh")
+      .replyOnce(401, { error: "token_rotated" });
+    mock.onGet("/api/protected/data").replyOnce(200, { message: "ok" });
+
+    const response = await apiClient.get("/api/protected/data");
+
+    expect(response.data).toEqual({ message: "ok" });
+  });
+
   it("dispatches session-expired event on refresh failure", async () => {
     const dispatchSpy = vi.spyOn(window, "dispatchEvent");
 
@@ -12,6 +12,7 @@ vi.mock('@/lib/api-client', () => ({
 
 import { fetchPublicData } from '@/lib/auth/public';
 import { checkAuthStatus } from '@/lib/auth/status';
+import { fetchBootstrap } from '@/lib/auth/bootstrap';
 import { fetchProviders } from '@/lib/auth/providers/fetch-providers';
 import { loginWithProvider } from '@/lib/auth/providers/login-with-provider';
 import { loginWithGitHub } from '@/lib/auth/providers/login-with-github';
@@ -21,6 +22,7 @@ import { signupWithEmail } from '@/lib/auth/local-auth/signup';
 import { fetchProtectedData } from '@/lib/auth/protected/fetch-protected-data';
 import { performAction } from '@/lib/auth/protected/perform-action';
 import { logout } from '@/lib/auth/logout';
+import { logoutEverywhere } from '@/lib/auth/logout-all';
 
 const setMockLocation = (initialPath = '/dashboard') => {
   const originalLocation = window.location;
@@ -78,7 +80,10 @@ describe('auth helpers', () => {
   });
 
   it('fetches protected data and performs actions', async () => {
-    const protectedPayload = { message: 'secret', data: { items: ['a'] } };
+    const protectedPayload = {
+      message: 'secret',
+      data: { items: [{ id: '1', name: 'a' }], nextCursor: '1' },
+    };
     const actionPayload = { success: true };
     getMock.mockResolvedValueOnce({ data: protectedPayload });
     postMock.mockResolvedValueOnce({ data: actionPayload });
@@ -86,11 +91,19 @@ describe('auth helpers', () => {
     const data = await fetchProtectedData();
     const actionResult = await performAction('test_action');
 
-    expect(getMock).toHaveBeenCalledWith('/api/protected/data');
+    expect(getMock).toHaveBeenCalledWith('/api/protected/data', {
+      params: undefined,
+    });
     expect(postMock).toHaveBeenCalledWith('/api/protected/action', {
       action: 'test_action',
     });
     expect(data).toEqual(protectedPayload);
+
+    getMock.mockResolvedValueOnce({ data: protectedPayload });
+    await fetchProtectedData('1');
+    expect(getMock).toHaveBeenLastCalledWith('/api/protected/data', {
+      params: { cursor: '1' },
+    });
     expect(actionResult).toEqual(actionPayload);
   });
 
@@ -111,6 +124,24 @@ describe('auth helpers', () => {
     consoleSpy.mockRestore();
   });
 
+  it('loads the session bootstrap and falls back when API fails', async () => {
+    const bootstrap = {
+      authenticated: false,
+      providers: [{ key: 'github', name: 'GitHub' }],
+      localAuthEnabled: true,
+    };
+    getMock.mockResolvedValueOnce({ data: bootstrap });
+    const successResult = await fetchBootstrap();
+    expect(getMock).toHaveBeenCalledWith('/api/auth/bootstrap');
+    expect(successResult).toEqual(bootstrap);
+
+    const consoleSpy = vi.spyOn(console, 'error').mockImplementation(() => {});
+    getMock.mockRejectedValueOnce(new Error('offline'));
+    const failureResult = await fetchBootstrap();
+    expect(failureResult).toEqual({ authenticated: false, providers: [], localAuthEnabled: false });
+    consoleSpy.mockRestore();
+  });
+
   it('checks auth status and falls back when API fails', async () => {
     const authPayload = { authenticated: true, user: { login: 'octocat' } };
     getMock.mockResolvedValueOnce({ data: authPayload });
@@ -142,6 +173,23 @@ describe('auth helpers', () => {
     errorLocation.restore();
   });
 
+  it('logs out everywhere and redirects even when the call fails', async () => {
+    const location = setMockLocation();
+    postMock.mockResolvedValueOnce({ data: { success: true, revoked: 2 } });
+    await logoutEverywhere();
+    expect(postMock).toHaveBeenCalledWith('/api/auth/logout-all');
+    expect(location.getHref()).toBe('/');
+    location.restore();
+
+    const errorLocation = setMockLocation('/account');
+    const consoleSpy = vi.spyOn(console, 'error').mockImplementation(() => {});
+    postMock.mockRejectedValueOnce(new Error('network'));
+    await logoutEverywhere();
+    expect(errorLocation.getHref()).toBe('/');
+    consoleSpy.mockRestore();
+    errorLocation.restore();
+  });
+
   it('supports local login and signup and redirects to dashboard', async () => {
     const location = setMockLocation();
     postMock.mockResolvedValueOnce({});
@@ -13,6 +13,7 @@ import { Avatar, AvatarFallback, AvatarImage } from "@/components/ui/avatar";
 import { fetchProtectedData } from "@/lib/auth/protected/fetch-protected-data";
 import { performAction } from "@/lib/auth/protected/perform-action";
 import { logout } from "@/lib/auth/logout";
+import { logoutEverywhere } from "@/lib/auth/logout-all";
 import type { ProtectedData } from "@/types/protected-data";
 import { useAuth } from "@/contexts/AuthContext";
 import { toast } from "sonner";
@@ -31,6 +32,7 @@ export default function Dashboard() {
     null
   );
   const [actionLoading, setActionLoading] = useState(false);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [error, setError] = useState<string | null>(null);
 
   useEffect(() => {
@@ -49,6 +51,40 @@ export default function Dashboard() {
     loadProtectedData();
   }, [authenticated, user]);
 
+  /**
+   * Fetches the page after the last one shown and appends its items.
+   * @returns Promise that resolves after the page is merged.
+   * @author Maruf Bepary
+   */
+  const handleLoadMore = async () => {
+    const cursor = protectedData?.data?.nextCursor;
+    if (!cursor) {
+      return;
+    }
+    setLoadingMore(true);
+    try {
+      const next = await fetchProtectedData(cursor);
+      setProtectedData((current) =>
+        current
+          ? {
+              ...next,
+              data: next.data && {
+                ...next.data,
+                items: [
+                  ...(current.data?.items ?? []),
+                  ...(next.data.items ?? []),
+                ],
+              },
+            }
+          : next
+      );
+    } catch {
+      toast.error("Failed to load more protected data");
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   /**
    * Executes a protected action and refreshes displayed data.
    * Shows success/error toast notification based on outcome.
@@ -96,6 +132,16 @@ export default function Dashboard() {
     }
   };
 
+  /**
+   * Ends the user's sessions on every device.
+   * Other open tabs are signed out through the session event stream.
+   * @returns Promise that resolves after redirect.
+   * @author Maruf Bepary
+   */
+  const handleLogoutEverywhere = async () => {
+    await logoutEverywhere();
+  };
+
   if (loading) {
     return (
       <div className="min-h-screen flex items-center justify-center">
@@ -141,9 +187,14 @@ export default function Dashboard() {
                   <p className="text-xs text-gray-500">@{user.login}</p>
                 </div>
               </div>
-              <Button variant="outline" onClick={handleLogout}>
-                Logout
-              </Button>
+              <div className="flex gap-2">
+                <Button variant="ghost" onClick={handleLogoutEverywhere}>
+                  Logout everywhere
+                </Button>
+                <Button variant="outline" onClick={handleLogout}>
+                  Logout
+                </Button>
+              </div>
             </div>
           </div>
         </div>
@@ -224,12 +275,21 @@ export default function Dashboard() {
                           Items
                         </label>
                         <ul className="text-sm text-gray-900 list-disc list-inside">
-                          {protectedData.data.items.map(
-                            (item: string, index: number) => (
-                              <li key={index}>{item}</li>
-                            )
-                          )}
+                          {protectedData.data.items.map((item) => (
+                            <li key={item.id}>{item.name ?? item.id}</li>
+                          ))}
                         </ul>
+                        {protectedData.data.nextCursor && (
+                          <Button
+                            variant="outline"
+                            size="sm"
+                            className="mt-2"
+                            onClick={handleLoadMore}
+                            disabled={loadingMore}
+                          >
+                            {loadingMore ? "Loading..." : "Load more"}
+                          </Button>
+                        )}
                       </div>
                     )}
                     {protectedData.data?.lastUpdated && (
@@ -9,8 +9,6 @@ import { ProtectedActionsCard } from "@/components/ProtectedActionsCard";
 import { useAuth } from "@/contexts/AuthContext";
 import { fetchPublicData } from "@/lib/auth/public";
 import { performAction } from "@/lib/auth/protected/perform-action";
-import { fetchProviders } from "@/lib/auth/providers/fetch-providers";
-import type { OAuthProvider } from "@/types/oauth-provider";
 import type { PublicData } from "@/types/public-data";
 
 /**
@@ -20,10 +18,9 @@ import type { PublicData } from "@/types/public-data";
  * @author Maruf Bepary
  */
 export default function Home() {
-  const { authenticated, loading } = useAuth();
+  const { authenticated, loading, providers } = useAuth();
   const router = useRouter();
   const [publicData, setPublicData] = useState<PublicData | null>(null);
-  const [providers, setProviders] = useState<OAuthProvider[]>([]);
   const [actionLoading, setActionLoading] = useState(false);
 
   useEffect(() => {
@@ -36,12 +33,7 @@ export default function Home() {
   useEffect(() => {
     const loadData = async () => {
       try {
-        const [pubData, providerList] = await Promise.all([
-          fetchPublicData(),
-          fetchProviders(),
-        ]);
-        setPublicData(pubData);
-        setProviders(providerList);
+        setPublicData(await fetchPublicData());
       } catch (error) {
         console.error("Failed to load data:", error);
       }
@@ -1,6 +1,9 @@
 "use client";
 
-import { checkAuthStatus } from "@/lib/auth/status";
+import { refreshSession, SESSION_CHANNEL } from "@/lib/api-client";
+import { fetchBootstrap } from "@/lib/auth/bootstrap";
+import { subscribeToSessionEvents } from "@/lib/auth/session-events";
+import type { OAuthProvider } from "@/types/oauth-provider";
 import type { User } from "@/types/user";
 import { useRouter } from "next/navigation";
 import {
@@ -20,6 +23,7 @@ import { toast } from "sonner";
 interface AuthContextType {
   user: User | null;
   authenticated: boolean;
+  providers: OAuthProvider[];
   loading: boolean;
   refreshAuth: () => Promise<void>;
 }
@@ -32,8 +36,9 @@ interface AuthContextType {
 const AuthContext = createContext<AuthContextType | undefined>(undefined);
 
 /**
- * Wraps the app with auth state from `/api/auth/status`.
- * Checks status on mount and exposes a refresh helper.
+ * Wraps the app with auth state from `/api/auth/bootstrap`.
+ * Loads session and login options on mount and exposes a refresh helper.
+ * While signed in, listens on `/api/auth/events` to refresh ahead of expiry and react to revocations.
  * @param children Nodes to render inside the provider.
  * @returns Provider element that supplies auth context.
  * @author Maruf Bepary
@@ -41,6 +46,7 @@ const AuthContext = createContext<AuthContextType | undefined>(undefined);
 export function AuthProvider({ children }: { children: ReactNode }) {
   const [user, setUser] = useState<User | null>(null);
   const [authenticated, setAuthenticated] = useState(false);
+  const [providers, setProviders] = useState<OAuthProvider[]>([]);
   const [loading, setLoading] = useState(true);
   const router = useRouter();
 
@@ -52,9 +58,10 @@ export function AuthProvider({ children }: { children: ReactNode }) {
    */
   const refreshAuth = async () => {
     try {
-      const status = await checkAuthStatus();
-      setAuthenticated(status.authenticated);
-      setUser(status.user || null);
+      const session = await fetchBootstrap();
+      setAuthenticated(session.authenticated);
+      setUser(session.user || null);
+      setProviders(session.providers);
     } catch (error) {
       console.error("Auth refresh failed:", error);
       setAuthenticated(false);
@@ -68,6 +75,38 @@ export function AuthProvider({ children }: { children: ReactNode }) {
     refreshAuth();
   }, []);
 
+  useEffect(() => {
+    if (!authenticated) {
+      return;
+    }
+    return subscribeToSessionEvents({
+      onExpiring: () => {
+        // Every tab is warned at once; only the one holding the refresh lock rotates the token
+        refreshSession().catch(() => {
+          window.dispatchEvent(new Event("auth:session-expired"));
+        });
+      },
+      onRevoked: () => {
+        refreshAuth();
+      },
+      onLoggedOutEverywhere: () => {
+        window.dispatchEvent(new Event("auth:session-expired"));
+      },
+    });
+  }, [authenticated]);
+
+  useEffect(() => {
+    if (typeof BroadcastChannel === "undefined") {
+      return;
+    }
+    // Another tab refreshed the shared cookies; pick up the new session state
+    const channel = new BroadcastChannel(SESSION_CHANNEL);
+    channel.onmessage = () => {
+      refreshAuth();
+    };
+    return () => channel.close();
+  }, []);
+
   useEffect(() => {
     const handleSessionExpired = () => {
       setAuthenticated(false);
@@ -83,7 +122,7 @@ export function AuthProvider({ children }: { children: ReactNode }) {
   }, [router]);
 
   return (
-    <AuthContext.Provider value={{ user, authenticated, loading, refreshAuth }}>
+    <AuthContext.Provider value={{ user, authenticated, providers, loading, refreshAuth }}>
       {children}
     </AuthContext.Provider>
   );
@@ -40,9 +40,69 @@ export const apiClient = axios.create({
   },
 });
 
+/**
+ * Name of the Web Lock held while one tab refreshes the shared session cookies.
+ */
+const REFRESH_LOCK = "auth-refresh";
+
+/**
+ * Broadcast channel on which the refreshing tab tells the others that new cookies are in place.
+ */
+export const SESSION_CHANNEL = "auth-session";
+
+/**
+ * Refreshes the session once for every open tab.
+ * Cookies are shared by all tabs while refresh tokens are single use, so concurrent refreshes from
+ * several tabs would all but one lose the rotation. The tab that gets the `auth-refresh` lock refreshes
+ * and announces it on {@link SESSION_CHANNEL}; tabs that find the lock taken wait for it and reuse the result.
+ * A `token_rotated` answer means another tab or request won the rotation and is treated as success.
+ * @returns Promise that resolves once the cookies hold a fresh session.
+ * @author Maruf Bepary
+ */
+export async function refreshSession(): Promise<void> {
+  const refresh = async () => {
+    try {
+      await apiClient.post("/api/auth/refresh");
+    } catch (error) {
+      if (
+        axios.isAxiosError(error) &&
+        (error.response?.data as { error?: string } | undefined)?.error ===
+          "token_rotated"
+      ) {
+        return;
+      }
+      throw error;
+    }
+    if (typeof BroadcastChannel !== "undefined") {
+      const channel = new BroadcastChannel(SESSION_CHANNEL);
+      channel.postMessage("refreshed");
+      channel.close();
+    }
+  };
+
+  if (typeof navigator === "undefined" || !navigator.locks) {
+    await refresh();
+    return;
+  }
+  await navigator.locks.request(
+    REFRESH_LOCK,
+    { ifAvailable: true },
+    async (lock) => {
+      if (lock) {
+        await refresh();
+        return;
+      }
+      // Another tab is refreshing; the cookies it receives are ours too
+      await navigator.locks.request(REFRESH_LOCK, () => undefined);
+    }
+  );
+}
+
 /**
  * Response interceptor that retries requests after refresh.
  * Skips refresh loops for refresh and status endpoints.
+ * With sliding renewal enabled on the backend, active sessions receive a fresh cookie
+ * before expiry, so this path is mostly taken by tabs that were idle past expiry.
  * @returns Response or rejected promise for the caller.
  * @author Maruf Bepary
  */
@@ -82,8 +142,8 @@ apiClient.interceptors.response.use(
       isRefreshing = true;
 
       try {
-        // Try to refresh the token
-        await apiClient.post("/api/auth/refresh");
+        // Try to refresh the token, once across all tabs
+        await refreshSession();
 
         // Token refreshed successfully
         isRefreshing = false;
@@ -0,0 +1,19 @@
+import { apiClient } from '../api-client';
+import type { SessionBootstrap } from '@/types/session-bootstrap';
+
+/**
+ * Calls `/api/auth/bootstrap` to load session state and login options together.
+ * The browser revalidates the cached response with its ETag, so an unchanged session costs a 304.
+ * Falls back to an unauthenticated session without providers when the call fails.
+ * @returns Promise that resolves with bootstrap data.
+ * @author Maruf Bepary
+ */
+export async function fetchBootstrap(): Promise<SessionBootstrap> {
+  try {
+    const response = await apiClient.get<SessionBootstrap>('/api/auth/bootstrap');
+    return response.data;
+  } catch (error) {
+    console.error('Session bootstrap failed:', error);
+    return { authenticated: false, providers: [], localAuthEnabled: false };
+  }
+}
@@ -0,0 +1,16 @@
+import { apiClient } from '../api-client';
+
+/**
+ * Ends every session of the user on all devices and routes back to the home page.
+ * Redirects even when the call fails so stale tokens do not linger.
+ * @returns Promise that resolves after navigation.
+ * @author Maruf Bepary
+ */
+export async function logoutEverywhere() {
+  try {
+    await apiClient.post('/api/auth/logout-all');
+  } catch (error) {
+    console.error('Logout everywhere failed:', error);
+  }
+  window.location.href = '/';
+}
@@ -2,12 +2,15 @@ import { apiClient } from '../../api-client';
 import type { ProtectedData } from '@/types/protected-data';
 
 /**
- * Pulls protected demo data for authenticated users.
+ * Pulls one page of protected data for authenticated users.
  * Relies on the jwt cookie set by the backend.
+ * @param cursor `nextCursor` of the previous page; omit for the first page.
  * @returns Promise that resolves with protected payload.
  * @author Maruf Bepary
  */
-export async function fetchProtectedData(): Promise<ProtectedData> {
-  const response = await apiClient.get<ProtectedData>('/api/protected/data');
+export async function fetchProtectedData(cursor?: string): Promise<ProtectedData> {
+  const response = await apiClient.get<ProtectedData>('/api/protected/data', {
+    params: cursor ? { cursor } : undefined,
+  });
   return response.data;
 }
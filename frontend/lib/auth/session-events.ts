@@ -0,0 +1,40 @@
+const API_BASE_URL =
+  process.env.NEXT_PUBLIC_API_URL || 'http://localhost:8080';
+
+/**
+ * Callbacks for the events pushed on `/api/auth/events`.
+ * @author Maruf Bepary
+ */
+export interface SessionEventHandlers {
+  onExpiring: () => void;
+  onRevoked: () => void;
+  onLoggedOutEverywhere: () => void;
+}
+
+/**
+ * Opens the session event stream so the tab learns about expiry and revocations without polling.
+ * The browser reconnects on its own when the backend closes the stream at token expiry.
+ * Does nothing where `EventSource` is unavailable, such as during server rendering.
+ * @param handlers Callbacks for each pushed event.
+ * @returns Function that closes the stream.
+ * @author Maruf Bepary
+ */
+export function subscribeToSessionEvents(
+  handlers: SessionEventHandlers
+): () => void {
+  if (typeof EventSource === 'undefined') {
+    return () => {};
+  }
+  const source = new EventSource(`${API_BASE_URL}/api/auth/events`, {
+    withCredentials: true,
+  });
+  source.addEventListener('expiring', handlers.onExpiring);
+  source.addEventListener('revoked', handlers.onRevoked);
+  source.addEventListener('logged_out_everywhere', () => {
+    source.close();
+    handlers.onLoggedOutEverywhere();
+  });
+  // A newer tab took this stream's slot; reconnecting would only push that one out in turn
+  source.addEventListener('superseded', () => source.close());
+  return () => source.close();
+}
@@ -1,13 +1,21 @@
 import { z } from "zod";
 
+export const ProtectedItemSchema = z.object({
+  id: z.string(),
+  name: z.string().optional(),
+  description: z.string().optional(),
+  createdAt: z.string().optional(),
+});
+
 export const ProtectedDataSchema = z.object({
   message: z.string(),
   user: z.string(),
   data: z
     .object({
-      items: z.array(z.string()).optional(),
+      items: z.array(ProtectedItemSchema).optional(),
       count: z.number().optional(),
       lastUpdated: z.number().optional(),
+      nextCursor: z.string().nullish(),
     })
     .optional()
     .nullable(),
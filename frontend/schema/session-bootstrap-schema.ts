@@ -0,0 +1,12 @@
+import { z } from "zod";
+import { OAuthProviderSchema } from "./oauth-provider-schema";
+import { UserSchema } from "./user-schema";
+
+export const SessionBootstrapSchema = z.object({
+  authenticated: z.boolean(),
+  user: UserSchema.nullish(),
+  providers: z.array(OAuthProviderSchema),
+  localAuthEnabled: z.boolean(),
+  accessTokenExpiresAt: z.string().nullish(),
+  refreshTokenExpiresAt: z.string().nullish(),
+});
@@ -1,15 +1,29 @@
 import { z } from "zod";
-import { ProtectedDataSchema } from "@/schema/protected-data-schema";
+import {
+  ProtectedDataSchema,
+  ProtectedItemSchema,
+} from "@/schema/protected-data-schema";
 
 /**
  * Payload returned when calling the protected API.
  * Only available when the jwt cookie is valid.
  * @property message Status message for the secured request.
  * @property user Authenticated username echoed by the backend.
- * @property data Optional payload with demo content from the server.
- * @property data.items Optional list of protected items.
- * @property data.count Optional count for the payload.
- * @property data.lastUpdated Optional timestamp of the demo data.
+ * @property data Optional page of the user's protected items.
+ * @property data.items Optional list of protected items in this page.
+ * @property data.count Optional count of items in this page.
+ * @property data.lastUpdated Optional timestamp of the read.
+ * @property data.nextCursor Cursor for the next page, absent on the last page.
  * @author Maruf Bepary
  */
 export type ProtectedData = z.infer<typeof ProtectedDataSchema>;
+
+/**
+ * One protected item; fields left out of the requested projection are absent.
+ * @property id Item identifier.
+ * @property name Optional short title.
+ * @property description Optional longer text.
+ * @property createdAt Optional ISO creation timestamp.
+ * @author Maruf Bepary
+ */
+export type ProtectedItem = z.infer<typeof ProtectedItemSchema>;
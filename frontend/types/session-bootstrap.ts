@@ -0,0 +1,15 @@
+import { z } from "zod";
+import { SessionBootstrapSchema } from "@/schema/session-bootstrap-schema";
+
+/**
+ * Result returned by `/api/auth/bootstrap` on page load.
+ * Combines session state, login options and token expiry in one response.
+ * @property authenticated Flag showing session validity.
+ * @property user Optional user payload from the backend.
+ * @property providers Login options, including `local` when enabled.
+ * @property localAuthEnabled True when email and password login is available.
+ * @property accessTokenExpiresAt ISO timestamp when the access token expires.
+ * @property refreshTokenExpiresAt ISO timestamp when the refresh token expires.
+ * @author Maruf Bepary
+ */
+export type SessionBootstrap = z.infer<typeof SessionBootstrapSchema>;